@@ -0,0 +1,65 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson polymorphic deserialization of {@link Criteria} and {@link PageableCriteria} payloads, with the filter {@code "type"}
+ * property first (no buffering) or last (subtype resolution buffers the filter).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    /** Size of the {@code customer_id} IN-list. */
+    @Param({"8", "5000"})
+    public int inSize;
+
+    @Param({"false", "true"})
+    public boolean typeLast;
+
+    private ObjectReader pageableReader;
+    private ObjectReader criteriaReader;
+    private String pageablePayload;
+    private String criteriaPayload;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Payloads.mapper();
+        pageableReader = mapper.readerFor(PageableCriteria.class);
+        criteriaReader = mapper.readerFor(Criteria.class);
+        PageableCriteria pageable = Payloads.largeCriteria(inSize);
+        pageablePayload = Payloads.json(mapper, pageable, typeLast);
+        criteriaPayload = Payloads.json(
+                mapper, new Criteria(pageable.getJoins(), pageable.getFilters(), pageable.getSort()), typeLast);
+    }
+
+    @Benchmark
+    public PageableCriteria pageableCriteria() throws IOException {
+        return pageableReader.readValue(pageablePayload);
+    }
+
+    @Benchmark
+    public Criteria criteria() throws IOException {
+        return criteriaReader.readValue(criteriaPayload);
+    }
+}
@@ -0,0 +1,65 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compilation of criteria into predicates and predicate evaluation over a synthetic {@link Order} dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"8", "5000"})
+    public int inSize;
+
+    private CriteriaCompiler<Order> compiler;
+    private PageableCriteria criteria;
+    private Predicate<Order> predicate;
+    private List<Order> dataset;
+
+    @Setup
+    public void setUp() {
+        compiler = new CriteriaCompiler<>(Order.FIELDS);
+        criteria = Payloads.largeCriteria(inSize);
+        predicate = compiler.compile(criteria);
+        dataset = Payloads.orders(rows);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Predicate<Order> compile() {
+        return compiler.compile(criteria);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        Predicate<Order> p = predicate;
+        int matches = 0;
+        for (Order o : dataset) {
+            if (p.test(o)) matches++;
+        }
+        return matches;
+    }
+}
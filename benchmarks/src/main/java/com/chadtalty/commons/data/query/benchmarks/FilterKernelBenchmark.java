@@ -0,0 +1,156 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.columnar.ColumnarQueryEngine;
+import com.chadtalty.commons.data.query.columnar.ColumnarTable;
+import com.chadtalty.commons.data.query.columnar.ColumnarWriter;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import com.chadtalty.commons.data.query.kernel.FilterKernels;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scalar against Vector API filter kernels: the raw kernels over in-heap {@code long[]}/{@code double[]} columns
+ * in 1024-value chunks, and a {@link ColumnarQueryEngine} count over a mapped file using each kernel set. The
+ * library must be built with {@code -Pvector}, and the forked JVM resolves {@code jdk.incubator.vector}; the
+ * vector width is whatever the CPU prefers (256 bits with AVX2, 512 with AVX-512). To measure AVX2 on an AVX-512
+ * machine, pass {@code -jvmArgsAppend "--add-modules jdk.incubator.vector -XX:UseAVX=2"}; the command line
+ * replaces the annotation's arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FilterKernelBenchmark {
+
+    private static final int CHUNK = 1024;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    private FilterKernels kernel;
+    private long[] createdAt;
+    private double[] amounts;
+    private long[] mask;
+    private long midYear;
+    private Path file;
+    private ColumnarTable table;
+    private ColumnarQueryEngine<Order> engine;
+    private Criteria rangeCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        kernel = kernels.equals("vector") ? FilterKernels.vector() : FilterKernels.scalar();
+        if (kernel == null) throw new IllegalStateException("vector kernels need a -Pvector build of the library");
+        List<Order> orders = Payloads.orders(rows);
+        createdAt = orders.stream().mapToLong(o -> o.createdAt().toEpochMilli()).toArray();
+        amounts = orders.stream().mapToDouble(Order::amount).toArray();
+        mask = new long[CHUNK / 64];
+        midYear = Payloads.EPOCH_START + Payloads.YEAR_MILLIS / 2;
+
+        file = Files.createTempFile("filter-kernels", ".cq");
+        ColumnarWriter.<Order>builder()
+                .longColumn("id", Order::id)
+                .doubleColumn("amount", Order::amount)
+                .instantColumn("created_at", Order::createdAt)
+                .build()
+                .write(file, orders);
+        table = ColumnarTable.open(file);
+        engine = new ColumnarQueryEngine<>(table, row -> null, kernel);
+        rangeCriteria = new Criteria();
+        rangeCriteria.setFilters(List.of(
+                BasicFilter.builder()
+                        .field("amount")
+                        .operator(BasicFilter.Operator.LESS_THAN_OR_EQUAL)
+                        .value("2500")
+                        .build(),
+                DateTimeFilter.builder()
+                        .field("created_at")
+                        .operator(DateTimeFilter.Operator.AFTER)
+                        .value(Instant.ofEpochMilli(midYear))
+                        .build(),
+                BetweenFilter.builder()
+                        .field("created_at")
+                        .startDateTime(Instant.ofEpochMilli(midYear))
+                        .endDateTime(Instant.ofEpochMilli(midYear + Payloads.YEAR_MILLIS / 12))
+                        .build()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        table.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long longGreaterThan() {
+        long selected = 0;
+        for (int from = 0; from < rows; from += CHUNK) {
+            int length = Math.min(CHUNK, rows - from);
+            kernel.compare(createdAt, from, length, Comparison.GT, midYear, mask);
+            selected += popCount(mask, length);
+        }
+        return selected;
+    }
+
+    @Benchmark
+    public long doubleLessThanOrEqual() {
+        long selected = 0;
+        for (int from = 0; from < rows; from += CHUNK) {
+            int length = Math.min(CHUNK, rows - from);
+            kernel.compare(amounts, from, length, Comparison.LE, 2500.0, mask);
+            selected += popCount(mask, length);
+        }
+        return selected;
+    }
+
+    @Benchmark
+    public long between() {
+        long hi = midYear + Payloads.YEAR_MILLIS / 12;
+        long selected = 0;
+        for (int from = 0; from < rows; from += CHUNK) {
+            int length = Math.min(CHUNK, rows - from);
+            kernel.between(createdAt, from, length, midYear, hi, mask);
+            selected += popCount(mask, length);
+        }
+        return selected;
+    }
+
+    @Benchmark
+    public long columnarCount() {
+        return engine.count(rangeCriteria);
+    }
+
+    private static long popCount(long[] mask, int length) {
+        long n = 0;
+        for (int w = 0, words = (length + 63) >>> 6; w < words; w++) {
+            n += Long.bitCount(mask[w]);
+        }
+        return n;
+    }
+}
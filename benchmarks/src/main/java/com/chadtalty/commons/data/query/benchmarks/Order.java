@@ -0,0 +1,20 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.eval.FieldAccessors;
+import java.time.Instant;
+
+/**
+ * Synthetic row type evaluated by the benchmarks.
+ */
+public record Order(long id, long customerId, String status, String region, double amount, Instant createdAt) {
+
+    /** Accessors for every field referenced by {@link Payloads}. */
+    public static final FieldAccessors<Order> FIELDS = FieldAccessors.<Order>builder()
+            .longField("id", Order::id)
+            .longField("customer_id", Order::customerId)
+            .stringField("status", Order::status)
+            .stringField("region", Order::region)
+            .doubleField("amount", Order::amount)
+            .instantField("created_at", Order::createdAt)
+            .build();
+}
@@ -0,0 +1,73 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sorted paging through the bounded top-K heap versus filtering, fully sorting and slicing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"0", "20"})
+    public int page;
+
+    private List<Order> dataset;
+    private PageableCriteria criteria;
+    private Predicate<Order> filter;
+    private Comparator<Order> order;
+
+    @Setup
+    public void setUp() {
+        CriteriaCompiler<Order> compiler = new CriteriaCompiler<>(Order.FIELDS);
+        dataset = Payloads.orders(rows);
+        criteria = Payloads.smallCriteria();
+        criteria.setFilters(criteria.getFilters().subList(0, 2));
+        criteria.setPage(page);
+        criteria.setSize(50);
+        filter = compiler.compile(criteria);
+        order = compiler.comparator(criteria.getSort());
+    }
+
+    @Benchmark
+    public Page<Order> topK() {
+        return QueryExecutor.page(dataset, filter, order, page, criteria.getSize());
+    }
+
+    @Benchmark
+    public List<Order> fullSort() {
+        List<Order> matches = new ArrayList<>();
+        for (Order o : dataset) {
+            if (filter.test(o)) matches.add(o);
+        }
+        matches.sort(order);
+        int from = Math.min(page * criteria.getSize(), matches.size());
+        return matches.subList(from, Math.min(from + criteria.getSize(), matches.size()));
+    }
+}
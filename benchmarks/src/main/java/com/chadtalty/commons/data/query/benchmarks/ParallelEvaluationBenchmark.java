@@ -0,0 +1,77 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.eval.ParallelQueryExecutor;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sorted paging with the fork-join executor at several pool sizes, against the sequential executor. Compare
+ * {@code parallel} at {@code threads = N} with {@code sequential} for the speedup on N cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelEvaluationBenchmark {
+
+    @Param({"4000000"})
+    public int rows;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<Order> dataset;
+    private PageableCriteria criteria;
+    private Predicate<Order> filter;
+    private Comparator<Order> order;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CriteriaCompiler<Order> compiler = new CriteriaCompiler<>(Order.FIELDS);
+        dataset = Payloads.orders(rows);
+        criteria = Payloads.smallCriteria();
+        criteria.setPage(3);
+        criteria.setSize(50);
+        filter = compiler.compile(criteria);
+        order = compiler.comparator(criteria.getSort());
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Page<Order> parallel() {
+        return ParallelQueryExecutor.page(dataset, filter, order, criteria.getPage(), criteria.getSize(), pool, 0);
+    }
+
+    @Benchmark
+    public Page<Order> sequential() {
+        return QueryExecutor.page(dataset, filter, order, criteria.getPage(), criteria.getSize());
+    }
+}
@@ -0,0 +1,127 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible payload and dataset generators. Everything is derived from {@link #SEED}, so runs on different
+ * machines measure identical inputs.
+ */
+public final class Payloads {
+
+    public static final long SEED = 0x5EEDL;
+
+    public static final String[] STATUSES = {"OPEN", "PENDING", "SHIPPED", "CLOSED", "CANCELLED"};
+    public static final String[] REGIONS = {"us-east", "us-west", "eu-central", "eu-west", "ap-south", "ap-east"};
+
+    /** 2025-01-01T00:00:00Z; synthetic timestamps span one year from here. */
+    public static final long EPOCH_START = 1_735_689_600_000L;
+
+    public static final long YEAR_MILLIS = 365L * 24 * 60 * 60 * 1000;
+
+    private Payloads() {}
+
+    /** Mapper configured the way consuming services deserialize payloads. */
+    public static ObjectMapper mapper() {
+        return JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    }
+
+    /** One filter of every kind, an 8-entry IN-list and a sort; the common request shape. */
+    public static PageableCriteria smallCriteria() {
+        return pageable(filters(8), 0, 50);
+    }
+
+    /** Same shape as {@link #smallCriteria()} with a {@code customer_id} IN-list of {@code inSize} ids. */
+    public static PageableCriteria largeCriteria(int inSize) {
+        return pageable(filters(inSize), 0, 50);
+    }
+
+    /**
+     * Serializes {@code criteria}; with {@code typeLast} each filter's {@code "type"} property is moved to the
+     * end of its object, which forces Jackson to buffer the filter before dispatching to the subtype.
+     */
+    public static String json(ObjectMapper mapper, Criteria criteria, boolean typeLast) {
+        try {
+            String json = mapper.writeValueAsString(criteria);
+            if (!typeLast) return json;
+            ObjectNode root = (ObjectNode) mapper.readTree(json);
+            for (JsonNode f : root.withArray("filters")) {
+                ObjectNode node = (ObjectNode) f;
+                JsonNode type = node.remove("type");
+                node.set("type", type);
+            }
+            return mapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("payload generation failed", e);
+        }
+    }
+
+    /** {@code n} synthetic orders with uniformly distributed attributes. */
+    public static List<Order> orders(int n) {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        List<Order> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new Order(
+                    i,
+                    rnd.nextLong(100_000),
+                    STATUSES[rnd.nextInt(STATUSES.length)],
+                    REGIONS[rnd.nextInt(REGIONS.length)],
+                    Math.round(rnd.nextDouble(0, 10_000) * 100) / 100.0,
+                    Instant.ofEpochMilli(EPOCH_START + rnd.nextLong(YEAR_MILLIS))));
+        }
+        return out;
+    }
+
+    private static List<Filter> filters(int inSize) {
+        SplittableRandom rnd = new SplittableRandom(SEED ^ inSize);
+        List<String> ids = new ArrayList<>(inSize);
+        for (int i = 0; i < inSize; i++) {
+            ids.add(Long.toString(rnd.nextLong(100_000)));
+        }
+        List<Filter> filters = new ArrayList<>();
+        filters.add(BasicFilter.builder()
+                .field("amount")
+                .operator(BasicFilter.Operator.GREATER_THAN)
+                .value("250.00")
+                .build());
+        filters.add(ContainsFilter.builder()
+                .field("status")
+                .values(List.of("OPEN", "PENDING"))
+                .build());
+        filters.add(ContainsFilter.builder().field("customer_id").values(ids).build());
+        filters.add(DateTimeFilter.builder()
+                .field("created_at")
+                .operator(DateTimeFilter.Operator.AFTER)
+                .value(Instant.ofEpochMilli(EPOCH_START + YEAR_MILLIS / 4))
+                .build());
+        filters.add(BetweenFilter.builder()
+                .field("created_at")
+                .startDateTime(Instant.ofEpochMilli(EPOCH_START))
+                .endDateTime(Instant.ofEpochMilli(EPOCH_START + YEAR_MILLIS / 2))
+                .build());
+        return filters;
+    }
+
+    private static PageableCriteria pageable(List<Filter> filters, int page, int size) {
+        PageableCriteria c = new PageableCriteria(page, size);
+        c.setFilters(filters);
+        c.setSort(new SortSpec(List.of("region"), List.of("created_at")));
+        return c;
+    }
+}
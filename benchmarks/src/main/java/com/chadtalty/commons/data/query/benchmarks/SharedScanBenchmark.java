@@ -0,0 +1,96 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.BatchQueryExecutor;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A dashboard fan-out: {@code queries} sorted pages drawn from ten distinct filters, run as one shared scan
+ * against one scan per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedScanBenchmark {
+
+    @Param({"500000"})
+    public int rows;
+
+    @Param({"10", "40"})
+    public int queries;
+
+    private List<Order> dataset;
+    private List<PageableCriteria> batch;
+    private QueryExecutor<Order> executor;
+    private BatchQueryExecutor<Order> batchExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CriteriaCompiler<Order> compiler = new CriteriaCompiler<>(Order.FIELDS);
+        executor = new QueryExecutor<>(compiler);
+        batchExecutor = new BatchQueryExecutor<>(compiler);
+        dataset = Payloads.orders(rows);
+        List<List<String>> statuses = List.of(List.of("OPEN"), List.of("OPEN", "PENDING"), List.of("SHIPPED"));
+        DateTimeFilter recent = DateTimeFilter.builder()
+                .field("created_at")
+                .operator(DateTimeFilter.Operator.AFTER)
+                .value(Instant.ofEpochMilli(Payloads.EPOCH_START + Payloads.YEAR_MILLIS / 2))
+                .build();
+        batch = new ArrayList<>(queries);
+        for (int i = 0; i < queries; i++) {
+            PageableCriteria c = new PageableCriteria(0, 20);
+            c.setFilters(List.of(
+                    ContainsFilter.builder()
+                            .field("status")
+                            .values(statuses.get(i % statuses.size()))
+                            .build(),
+                    BasicFilter.builder()
+                            .field("region")
+                            .operator(BasicFilter.Operator.EQUAL)
+                            .value(Payloads.REGIONS[i % Payloads.REGIONS.length])
+                            .build(),
+                    recent));
+            c.setSort(new SortSpec(null, List.of("created_at")));
+            batch.add(c);
+        }
+    }
+
+    @Benchmark
+    public List<Page<Order>> sharedScan() {
+        return batchExecutor.pages(dataset, batch);
+    }
+
+    @Benchmark
+    public List<Page<Order>> scanPerQuery() {
+        List<Page<Order>> out = new ArrayList<>(batch.size());
+        for (PageableCriteria c : batch) {
+            out.add(executor.page(dataset, c));
+        }
+        return out;
+    }
+}
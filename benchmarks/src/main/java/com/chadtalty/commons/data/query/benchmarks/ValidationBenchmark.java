@@ -0,0 +1,69 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.validation.CriteriaValidator;
+import com.chadtalty.commons.data.query.validation.Violation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jakarta Bean Validation (Hibernate Validator) of deserialized {@link PageableCriteria} graphs, against the
+ * hand-specialized {@link CriteriaValidator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"8", "5000"})
+    public int inSize;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private PageableCriteria criteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        criteria = Payloads.largeCriteria(inSize);
+        Set<ConstraintViolation<PageableCriteria>> violations = validator.validate(criteria);
+        if (!violations.isEmpty()) throw new IllegalStateException("generated payload is invalid: " + violations);
+        if (CriteriaValidator.firstViolation(criteria) != null) throw new IllegalStateException("validators disagree");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PageableCriteria>> beanValidation() {
+        return validator.validate(criteria);
+    }
+
+    @Benchmark
+    public Violation specialized() {
+        return CriteriaValidator.firstViolation(criteria);
+    }
+}
@@ -0,0 +1,79 @@
+package com.chadtalty.commons.data.query.benchmarks;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.wire.CriteriaCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding a {@link PageableCriteria} with the binary {@link CriteriaCodec} against Jackson JSON.
+ * Binary encoding writes into a reused buffer, as a transport with pooled buffers would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireCodecBenchmark {
+
+    /** Size of the {@code customer_id} IN-list. */
+    @Param({"8", "5000"})
+    public int inSize;
+
+    private PageableCriteria criteria;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] json;
+    private byte[] binary;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Payloads.mapper();
+        writer = mapper.writerFor(PageableCriteria.class);
+        reader = mapper.readerFor(PageableCriteria.class);
+        criteria = Payloads.largeCriteria(inSize);
+        json = writer.writeValueAsBytes(criteria);
+        binary = CriteriaCodec.encode(criteria);
+        buffer = ByteBuffer.allocate(binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return writer.writeValueAsBytes(criteria);
+    }
+
+    @Benchmark
+    public PageableCriteria jsonDecode() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        buffer.clear();
+        CriteriaCodec.encode(criteria, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Criteria binaryDecode() {
+        return CriteriaCodec.decode(binary);
+    }
+}
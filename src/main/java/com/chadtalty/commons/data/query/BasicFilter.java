@@ -55,6 +55,12 @@ public class BasicFilter extends Filter {
     @NotBlank(message = "basic filter value must not be blank")
     private String value;
 
+    /** {@inheritDoc} */
+    @Override
+    public BasicFilter freeze() {
+        return Snapshots.intern(this, Frozen::new);
+    }
+
     /**
      * Operators supported by {@link BasicFilter}.
      */
@@ -89,4 +95,50 @@ public class BasicFilter extends Filter {
             throw new IllegalArgumentException("Unknown basic operator: " + v);
         }
     }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends BasicFilter implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(BasicFilter source) {
+            super(source.getField(), source.getOperator(), source.getValue());
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public BasicFilter freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setField(String field) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setOperator(Operator operator) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setValue(String value) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
@@ -68,6 +68,26 @@ public class BetweenFilter extends Filter {
     @NotNull(message = "between_filter end_date_time must not be null") @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSX", timezone = "UTC")
     private Instant endDateTime;
 
+    /**
+     * {@link #getStartDateTime()} as epoch milliseconds (sub-millisecond digits floored), without allocating.
+     *
+     * @throws IllegalArgumentException if the start is {@code null} or outside the epoch-millisecond range
+     */
+    @JsonIgnore
+    public long getStartEpochMilli() {
+        return epochMilli(field, startDateTime, "between_filter bounds must not be null");
+    }
+
+    /**
+     * {@link #getEndDateTime()} as epoch milliseconds (sub-millisecond digits floored), without allocating.
+     *
+     * @throws IllegalArgumentException if the end is {@code null} or outside the epoch-millisecond range
+     */
+    @JsonIgnore
+    public long getEndEpochMilli() {
+        return epochMilli(field, endDateTime, "between_filter bounds must not be null");
+    }
+
     /** Validates {@code start <= end}. */
     @AssertTrue(message = "start_date_time must be before or equal to end_date_time")
     @JsonIgnore
@@ -75,6 +95,12 @@ public class BetweenFilter extends Filter {
         return startDateTime == null || endDateTime == null || !startDateTime.isAfter(endDateTime);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public BetweenFilter freeze() {
+        return Snapshots.intern(this, Frozen::new);
+    }
+
     /** Single operator for this filter. */
     public enum Operator {
         BETWEEN("between");
@@ -98,4 +124,50 @@ public class BetweenFilter extends Filter {
             throw new IllegalArgumentException("Unknown between operator: " + v);
         }
     }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends BetweenFilter implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(BetweenFilter source) {
+            super(source.getField(), source.getStartDateTime(), source.getEndDateTime());
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public BetweenFilter freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setField(String field) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setStartDateTime(Instant startDateTime) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setEndDateTime(Instant endDateTime) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
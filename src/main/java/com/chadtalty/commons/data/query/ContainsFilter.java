@@ -1,5 +1,7 @@
 package com.chadtalty.commons.data.query;
 
+import com.chadtalty.commons.data.query.membership.Membership;
+import com.chadtalty.commons.data.query.membership.MembershipCache;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -13,11 +15,14 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import java.util.List;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * A membership filter requiring a field's value to be within a given set.
@@ -57,6 +62,27 @@ public class ContainsFilter extends Filter {
     @NotEmpty(message = "contains filter values must not be empty")
     private List<String> values;
 
+    /** Lazily compiled membership for {@link #values}; not part of the value or the payload. */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final transient MembershipCache membershipCache = new MembershipCache();
+
+    /**
+     * Compiled membership structure for {@link #values}, safe to share across threads. Rebuilt on next access
+     * whenever the values change, whether the list is replaced via {@link #setValues} or edited in place.
+     */
+    public Membership membership() {
+        if (values == null) throw new IllegalStateException("contains filter values must not be null");
+        return membershipCache.get(values, isFrozen());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ContainsFilter freeze() {
+        return Snapshots.intern(this, Frozen::new);
+    }
+
     /** Single operator for this filter. */
     public enum Operator {
         IN("in");
@@ -80,4 +106,45 @@ public class ContainsFilter extends Filter {
             throw new IllegalArgumentException("Unknown contains operator: " + v);
         }
     }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends ContainsFilter implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(ContainsFilter source) {
+            super(source.getField(), Snapshots.list(source.getValues()));
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public ContainsFilter freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setField(String field) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setValues(List<String> values) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
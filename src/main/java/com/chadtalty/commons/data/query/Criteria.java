@@ -1,5 +1,6 @@
 package com.chadtalty.commons.data.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -27,4 +28,71 @@ public class Criteria {
 
     /** Optional sort specification. */
     private @Valid SortSpec sort;
+
+    /**
+     * Returns a deeply immutable snapshot of this criteria, safe to share across threads and cache layers without
+     * copying. Joins, filters and sort are frozen into unmodifiable array-backed lists, setters throw
+     * {@link UnsupportedOperationException}, and the deep hash is computed once. The snapshot equals this criteria;
+     * a snapshot freezes to itself.
+     *
+     * @see Filter#freeze()
+     */
+    public Criteria freeze() {
+        return new Frozen(this);
+    }
+
+    /** Whether this criteria is a snapshot returned by {@link #freeze()}. */
+    @JsonIgnore
+    public boolean isFrozen() {
+        return false;
+    }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends Criteria implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(Criteria source) {
+            super(
+                    Snapshots.list(source.getJoins(), JoinSpec::freeze),
+                    Snapshots.list(source.getFilters(), Filter::freeze),
+                    source.getSort() == null ? null : source.getSort().freeze());
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public Criteria freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setJoins(List<JoinSpec> joins) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setFilters(List<Filter> filters) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setSort(SortSpec sort) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
@@ -57,6 +57,22 @@ public class DateTimeFilter extends Filter {
     @NotNull(message = "date-time filter value must not be null") @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSX", timezone = "UTC")
     private Instant value;
 
+    /**
+     * {@link #getValue()} as epoch milliseconds (sub-millisecond digits floored), without allocating.
+     *
+     * @throws IllegalArgumentException if the value is {@code null} or outside the epoch-millisecond range
+     */
+    @JsonIgnore
+    public long getValueEpochMilli() {
+        return epochMilli(field, value, "date-time filter value must not be null");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DateTimeFilter freeze() {
+        return Snapshots.intern(this, Frozen::new);
+    }
+
     /** Operators supported by {@link DateTimeFilter}. */
     public enum Operator {
         AFTER("after"),
@@ -87,4 +103,50 @@ public class DateTimeFilter extends Filter {
             throw new IllegalArgumentException("Unknown datetime operator: " + v);
         }
     }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends DateTimeFilter implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(DateTimeFilter source) {
+            super(source.getField(), source.getOperator(), source.getValue());
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public DateTimeFilter freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setField(String field) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setOperator(Operator operator) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setValue(Instant value) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
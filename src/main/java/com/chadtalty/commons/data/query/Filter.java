@@ -1,20 +1,25 @@
 package com.chadtalty.commons.data.query;
 
+import com.chadtalty.commons.data.query.json.FilterDeserializer;
+import com.chadtalty.commons.data.query.json.FilterSerializer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonSubTypes;
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.annotation.JsonTypeInfo.As;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotBlank;
+import java.time.Instant;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * Base type for all filter criteria used in query construction.
  *
- * <p>Jackson polymorphism is enabled via a {@code type} discriminator in the JSON payload.
- * Subtypes must declare {@link com.fasterxml.jackson.annotation.JsonTypeName} with the matching name.
+ * <p>Polymorphism uses a {@code type} discriminator in the JSON payload, handled by the streaming
+ * {@link FilterDeserializer} and {@link FilterSerializer} rather than {@code @JsonTypeInfo}, so a late or
+ * missing {@code type} never forces the filter to be buffered. Subtypes declare
+ * {@link com.fasterxml.jackson.annotation.JsonTypeName} with the matching {@link FilterType} value.
  *
  * <p>Example JSON:
  * <pre>
@@ -26,13 +31,8 @@ import lombok.NoArgsConstructor;
  * }
  * </pre>
  */
-@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = As.PROPERTY, property = "type")
-@JsonSubTypes({
-    @JsonSubTypes.Type(value = BasicFilter.class, name = "basic"),
-    @JsonSubTypes.Type(value = BetweenFilter.class, name = "between"),
-    @JsonSubTypes.Type(value = ContainsFilter.class, name = "contains"),
-    @JsonSubTypes.Type(value = DateTimeFilter.class, name = "datetime")
-})
+@JsonSerialize(using = FilterSerializer.class)
+@JsonDeserialize(using = FilterDeserializer.class)
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 @Data
@@ -50,4 +50,33 @@ public abstract class Filter {
      * The name of the field/column this filter applies to.
      */
     public abstract @NotBlank String getField();
+
+    /**
+     * Returns a deeply immutable snapshot of this filter: its setters throw {@link UnsupportedOperationException},
+     * its hash is computed once, and it equals this filter. Equal filters freeze to one pooled instance, so
+     * snapshots are safe to share across threads and cheap to use as map keys. A snapshot freezes to itself.
+     */
+    public abstract Filter freeze();
+
+    /** Whether this filter is a snapshot returned by {@link #freeze()}. */
+    @JsonIgnore
+    public boolean isFrozen() {
+        return false;
+    }
+
+    /**
+     * {@code value} as epoch milliseconds, sub-millisecond digits floored.
+     *
+     * @throws IllegalArgumentException with {@code nullMessage} if {@code value} is {@code null}, or if it lies
+     *     outside the range of epoch milliseconds
+     */
+    static long epochMilli(String field, Instant value, String nullMessage) {
+        if (value == null) throw new IllegalArgumentException(nullMessage);
+        try {
+            return value.toEpochMilli();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "Value for field " + field + " is outside the epoch-millisecond range: " + value, e);
+        }
+    }
 }
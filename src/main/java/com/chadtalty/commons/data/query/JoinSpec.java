@@ -1,5 +1,6 @@
 package com.chadtalty.commons.data.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -26,4 +27,56 @@ public class JoinSpec {
 
     /** Filter to apply within the joined scope. */
     private @Valid Filter filter;
+
+    /** Immutable snapshot with a frozen filter; see {@link Criteria#freeze()}. */
+    public JoinSpec freeze() {
+        return new Frozen(this);
+    }
+
+    /** Whether this join is a snapshot returned by {@link #freeze()}. */
+    @JsonIgnore
+    public boolean isFrozen() {
+        return false;
+    }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends JoinSpec implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(JoinSpec source) {
+            super(source.getJoin(), source.getFilter() == null ? null : source.getFilter().freeze());
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public JoinSpec freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setJoin(String join) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setFilter(Filter filter) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
@@ -1,12 +1,15 @@
 package com.chadtalty.commons.data.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -16,6 +19,10 @@ import lombok.NoArgsConstructor;
  * Criteria with pagination controls for page-based result sets.
  *
  * <p>Page indexes are zero-based; {@code size} is bounded to a reasonable maximum.
+ *
+ * <p>Alternatively, keyset (cursor) pagination: the first request sends no cursor, later requests send the
+ * opaque {@code cursor} returned with the previous page and {@code page} 0. Seeking past the cursor's sort key
+ * makes deep pages as cheap as the first one; see {@link com.chadtalty.commons.data.query.keyset.KeysetPager}.
  */
 @Data
 @AllArgsConstructor
@@ -34,9 +41,94 @@ public class PageableCriteria extends Criteria {
     @Max(500)
     private Integer size;
 
+    /** Opaque keyset cursor from the previous page; {@code null} for offset paging or the first keyset page. */
+    private String cursor;
+
+    /** Offset-paging constructor. */
+    public PageableCriteria(Integer page, Integer size) {
+        this(page, size, null);
+    }
+
+    /** Ensures cursor requests do not also ask for an offset page. */
+    @AssertTrue(message = "page must be 0 when a cursor is given")
+    @JsonIgnore
+    public boolean isCursorPageConsistent() {
+        return cursor == null || page == null || page == 0;
+    }
+
     /** Optional sort override at the pagination level. */
     @Override
     public @Valid SortSpec getSort() {
         return super.getSort();
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public PageableCriteria freeze() {
+        return new Frozen(this);
+    }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends PageableCriteria implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(PageableCriteria source) {
+            super(source.getPage(), source.getSize(), source.getCursor());
+            super.setJoins(Snapshots.list(source.getJoins(), JoinSpec::freeze));
+            super.setFilters(Snapshots.list(source.getFilters(), Filter::freeze));
+            super.setSort(source.getSort() == null ? null : source.getSort().freeze());
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public PageableCriteria freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setPage(Integer page) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setSize(Integer size) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setCursor(String cursor) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setJoins(List<JoinSpec> joins) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setFilters(List<Filter> filters) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setSort(SortSpec sort) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
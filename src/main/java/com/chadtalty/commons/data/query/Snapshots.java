@@ -0,0 +1,93 @@
+package com.chadtalty.commons.data.query;
+
+import com.chadtalty.commons.data.query.cache.SegmentedLruCache;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Shared support for the frozen snapshots returned by {@code freeze()} on the request model.
+ *
+ * <p>Frozen filters are pooled: freezing a filter equal to a pooled one returns the pooled instance, so the
+ * filters that recur across requests (status lists, tenant scopes, open ranges) exist once and share their
+ * compiled state, such as a {@link ContainsFilter}'s membership structure. The pool is a
+ * {@link SegmentedLruCache} of {@value #POOL_SIZE} filters: filters seen once, such as ranges relative to the
+ * current time, only churn its probation area, while filters frozen again are promoted and survive them. Filters
+ * weighing more than {@value #MAX_POOLED_WEIGHT} (one plus their number of values) are never pooled, which bounds
+ * the pool to {@value #POOL_SIZE} times that many values.
+ */
+final class Snapshots {
+
+    /** Maximum number of pooled filters. */
+    static final int POOL_SIZE = 1024;
+
+    /** Maximum weight of one pooled filter; larger value lists rarely recur verbatim. */
+    static final int MAX_POOLED_WEIGHT = 65;
+
+    private static final SegmentedLruCache<Filter, Filter> POOL = new SegmentedLruCache<>(POOL_SIZE);
+
+    private Snapshots() {}
+
+    /** The pooled snapshot equal to {@code filter}, freezing and pooling it with {@code freeze} when absent. */
+    @SuppressWarnings("unchecked")
+    static <F extends Filter> F intern(F filter, Function<F, F> freeze) {
+        // equal filters are of the same subtype, so the pooled instance has filter's static type
+        F pooled = (F) POOL.getIfPresent(filter);
+        if (pooled != null) return pooled;
+        F frozen = freeze.apply(filter);
+        if (weight(frozen) > MAX_POOLED_WEIGHT) return frozen;
+        return (F) POOL.get(frozen, k -> frozen);
+    }
+
+    /** Number of pooled filters. */
+    static long pooled() {
+        return POOL.size();
+    }
+
+    private static int weight(Filter filter) {
+        if (filter instanceof ContainsFilter c && c.getValues() != null) return 1 + c.getValues().size();
+        return 1;
+    }
+
+    /**
+     * Equality of a snapshot whose value equality is {@code equals}: identity first, then the cached hashes when
+     * {@code o} is a snapshot too, and only then the field-by-field comparison.
+     */
+    static boolean equals(Snapshot snapshot, Object o, Predicate<Object> equals) {
+        return o == snapshot || (!(o instanceof Snapshot) || o.hashCode() == snapshot.hashCode()) && equals.test(o);
+    }
+
+    /** An unmodifiable, array-backed copy of {@code source} with each element mapped; {@code null} stays null. */
+    static <E> List<E> list(List<? extends E> source, Function<? super E, ? extends E> freeze) {
+        if (source == null) return null;
+        Object[] out = source.toArray();
+        for (int i = 0; i < out.length; i++) {
+            @SuppressWarnings("unchecked")
+            E e = (E) out[i];
+            out[i] = e == null ? null : freeze.apply(e);
+        }
+        return array(out);
+    }
+
+    /** An unmodifiable, array-backed copy of {@code source}; {@code null} stays null. */
+    static <E> List<E> list(List<? extends E> source) {
+        return source == null ? null : array(source.toArray());
+    }
+
+    /** The exception thrown by every setter of a snapshot. */
+    static UnsupportedOperationException frozen(Object snapshot) {
+        return new UnsupportedOperationException(
+                "Frozen " + snapshot.getClass().getSuperclass().getSimpleName() + " cannot be modified");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> array(Object[] elements) {
+        // unlike List.copyOf, keeps null elements so invalid requests still reach validation
+        return Collections.unmodifiableList((List<E>) Arrays.asList(elements));
+    }
+
+    /** Marks the snapshot classes, whose {@code hashCode} is computed once when they are frozen. */
+    interface Snapshot {}
+}
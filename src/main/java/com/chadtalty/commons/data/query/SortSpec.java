@@ -1,5 +1,6 @@
 package com.chadtalty.commons.data.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Pattern;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,6 +30,9 @@ import lombok.NoArgsConstructor;
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class SortSpec {
 
+    /** Above this many {@code ascending x descending} comparisons the disjoint check hashes instead. */
+    static final int DISJOINT_LINEAR_MAX = 64;
+
     /** Fields to sort ascending (earlier first). */
     private List<
                     @Pattern(regexp = "[A-Za-z0-9_\\.]+", message = "field must be alphanumeric with dots/underscores")
@@ -42,12 +47,82 @@ public class SortSpec {
 
     /** Ensures no field appears in both ascending and descending lists. */
     @AssertTrue(message = "ascending and descending sets must be disjoint")
+    @JsonIgnore
     public boolean isDisjoint() {
-        if (ascending == null || descending == null) return true;
-        Set<String> a = new HashSet<>(ascending);
-        for (String d : descending) {
-            if (a.contains(d)) return false;
+        return disjoint(ascending, descending);
+    }
+
+    /**
+     * Whether no element of {@code ascending} appears in {@code descending} ({@code null} lists are disjoint).
+     * Small lists are compared pairwise; only large ones pay for a hash set.
+     */
+    public static boolean disjoint(List<String> ascending, List<String> descending) {
+        if (ascending == null || descending == null || ascending.isEmpty() || descending.isEmpty()) return true;
+        if ((long) ascending.size() * descending.size() > DISJOINT_LINEAR_MAX) {
+            Set<String> a = new HashSet<>(ascending);
+            for (String d : descending) {
+                if (a.contains(d)) return false;
+            }
+            return true;
+        }
+        for (int i = 0, n = ascending.size(); i < n; i++) {
+            String a = ascending.get(i);
+            for (int j = 0, m = descending.size(); j < m; j++) {
+                if (Objects.equals(a, descending.get(j))) return false;
+            }
         }
         return true;
     }
+
+    /** Immutable snapshot with unmodifiable field lists; see {@link Criteria#freeze()}. */
+    public SortSpec freeze() {
+        return new Frozen(this);
+    }
+
+    /** Whether this sort is a snapshot returned by {@link #freeze()}. */
+    @JsonIgnore
+    public boolean isFrozen() {
+        return false;
+    }
+
+    /** Snapshot returned by {@link #freeze()}. */
+    private static final class Frozen extends SortSpec implements Snapshots.Snapshot {
+
+        private final int hash;
+
+        Frozen(SortSpec source) {
+            super(Snapshots.list(source.getAscending()), Snapshots.list(source.getDescending()));
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public SortSpec freeze() {
+            return this;
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public void setAscending(List<String> ascending) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public void setDescending(List<String> descending) {
+            throw Snapshots.frozen(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return Snapshots.equals(this, o, super::equals);
+        }
+    }
 }
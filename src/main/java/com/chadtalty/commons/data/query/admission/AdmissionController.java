@@ -0,0 +1,349 @@
+package com.chadtalty.commons.data.query.admission;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.admission.AdmissionException.Reason;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Limits concurrent query work with weighted permits: each query holds {@link QueryCost#permits()} of a shared
+ * {@link Builder#capacity(int) capacity} while it runs, and each tenant's queries together hold at most the
+ * tenant's quota.
+ *
+ * <p>A query that cannot start at once waits in a FIFO queue. Waiters are granted in arrival order; one that does
+ * not fit the free capacity blocks everyone behind it, so cheap queries cannot starve an expensive one, while one
+ * held back only by its own tenant's quota is skipped, so a noisy tenant cannot block the others. Admission fails
+ * fast with an {@link AdmissionException} when
+ * <ul>
+ *   <li>the query needs more permits than the per-query cap or its tenant's quota ({@link Reason#TOO_EXPENSIVE});
+ *   </li>
+ *   <li>the queue already holds {@link Builder#maxQueued(int) maxQueued} waiters ({@link Reason#QUEUE_FULL});</li>
+ *   <li>no permits free up within {@link Builder#maxWait(Duration) maxWait} or before the query's deadline
+ *       ({@link Reason#TIMED_OUT});</li>
+ *   <li>the query's {@link QueryContext} is cancelled or its thread interrupted while queued
+ *       ({@link Reason#CANCELLED}).</li>
+ * </ul>
+ *
+ * <p>Example:
+ * <pre>
+ * AdmissionController admission = AdmissionController.builder()
+ *     .capacity(400)
+ *     .tenantQuota("reporting", 100)
+ *     .maxWait(Duration.ofMillis(250))
+ *     .costModel(CostModel.builder().indexed(orders.indexedFields()).build())
+ *     .build();
+ * QueryContext context = QueryContext.withTimeout(Duration.ofSeconds(2));
+ * Page&lt;Order&gt; page = admission.execute(tenant, criteria, context, c -&gt; executor.page(rows, criteria, c));
+ * </pre>
+ *
+ * <p>Thread-safe.
+ */
+public final class AdmissionController {
+
+    private final int capacity;
+    private final int maxQueryPermits;
+    private final int defaultTenantQuota;
+    private final Map<String, Integer> tenantQuotas;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final CostModel costModel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private final Map<String, Integer> held = new HashMap<>();
+    private int available;
+
+    private AdmissionController(Builder b) {
+        this.capacity = b.capacity;
+        this.maxQueryPermits = Math.min(b.maxQueryPermits, b.capacity);
+        this.defaultTenantQuota = Math.min(b.defaultTenantQuota, b.capacity);
+        this.tenantQuotas = Map.copyOf(b.tenantQuotas);
+        this.maxQueued = b.maxQueued;
+        this.maxWaitNanos = b.maxWaitNanos;
+        this.costModel = b.costModel;
+        this.available = b.capacity;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Scores {@code criteria}, admits it for {@code tenant}, runs {@code query} with {@code context} and releases
+     * the permits however the query completes.
+     *
+     * @throws AdmissionException if the query is not admitted
+     * @throws QueryCancelledException if the query observes cancellation or its deadline while running
+     */
+    public <R> R execute(
+            String tenant, Criteria criteria, QueryContext context, Function<? super QueryContext, R> query) {
+        if (query == null) throw new IllegalArgumentException("query must not be null");
+        try (Permit permit = acquire(tenant, costModel.estimate(criteria), context)) {
+            return query.apply(permit.context());
+        }
+    }
+
+    /**
+     * Waits for the permits of {@code cost}, at most {@code maxWait} and never past {@code context}'s deadline.
+     * Close the returned permit to release them.
+     *
+     * @throws AdmissionException if the query is not admitted
+     */
+    public Permit acquire(String tenant, QueryCost cost, QueryContext context) {
+        if (tenant == null) throw new IllegalArgumentException("tenant must not be null");
+        if (cost == null) throw new IllegalArgumentException("cost must not be null");
+        if (context == null) throw new IllegalArgumentException("context must not be null");
+        int permits = cost.permits();
+        if (permits > maxQueryPermits || permits > quota(tenant)) {
+            throw new AdmissionException(Reason.TOO_EXPENSIVE, tenant, permits);
+        }
+        if (context.isCancelled()) throw new AdmissionException(Reason.CANCELLED, tenant, permits);
+
+        Waiter w;
+        lock.lock();
+        try {
+            w = new Waiter(tenant, permits, lock.newCondition());
+            queue.addLast(w);
+            grant();
+            if (w.granted) return new Permit(w, context);
+            if (queue.size() > maxQueued) {
+                queue.remove(w);
+                throw new AdmissionException(Reason.QUEUE_FULL, tenant, permits);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return await(w, context);
+    }
+
+    private Permit await(Waiter w, QueryContext context) {
+        Runnable wake = () -> {
+            lock.lock();
+            try {
+                w.ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        };
+        context.onCancel(wake);
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            while (!w.granted) {
+                Reason failure = null;
+                long left = Math.min(maxWaitNanos - (System.nanoTime() - start), context.remainingNanos());
+                if (context.isCancelled()) failure = Reason.CANCELLED;
+                else if (left <= 0) failure = Reason.TIMED_OUT;
+                else {
+                    try {
+                        w.ready.awaitNanos(left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failure = Reason.CANCELLED;
+                    }
+                }
+                if (failure != null && !w.granted) {
+                    queue.remove(w);
+                    // a capacity-blocked head leaving may let the waiters behind it start
+                    grant();
+                    throw new AdmissionException(failure, w.tenant, w.permits);
+                }
+            }
+            return new Permit(w, context);
+        } finally {
+            lock.unlock();
+            context.removeOnCancel(wake);
+        }
+    }
+
+    /** Grants queued waiters in order until one does not fit the free capacity; caller holds the lock. */
+    private void grant() {
+        for (Iterator<Waiter> it = queue.iterator(); it.hasNext() && available > 0; ) {
+            Waiter w = it.next();
+            if (held.getOrDefault(w.tenant, 0) + w.permits > quota(w.tenant)) continue;
+            if (w.permits > available) break;
+            it.remove();
+            available -= w.permits;
+            held.merge(w.tenant, w.permits, Integer::sum);
+            w.granted = true;
+            w.ready.signal();
+        }
+    }
+
+    private void release(Waiter w) {
+        lock.lock();
+        try {
+            available += w.permits;
+            held.computeIfPresent(w.tenant, (t, n) -> n == w.permits ? null : n - w.permits);
+            grant();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int quota(String tenant) {
+        return tenantQuotas.getOrDefault(tenant, defaultTenantQuota);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Permits not held by running queries. */
+    public int available() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Permits held by {@code tenant}'s running queries. */
+    public int held(String tenant) {
+        lock.lock();
+        try {
+            return held.getOrDefault(tenant, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Queries waiting for admission. */
+    public int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CostModel costModel() {
+        return costModel;
+    }
+
+    /** Permits held by one admitted query; {@link #close()} releases them once. */
+    public final class Permit implements AutoCloseable {
+
+        private final Waiter waiter;
+        private final QueryContext context;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Waiter waiter, QueryContext context) {
+            this.waiter = waiter;
+            this.context = context;
+        }
+
+        public String tenant() {
+            return waiter.tenant;
+        }
+
+        public int permits() {
+            return waiter.permits;
+        }
+
+        /** The context the query was admitted with, to check during evaluation. */
+        public QueryContext context() {
+            return context;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) release(waiter);
+        }
+    }
+
+    private static final class Waiter {
+
+        final String tenant;
+        final int permits;
+        final Condition ready;
+        boolean granted;
+
+        Waiter(String tenant, int permits, Condition ready) {
+            this.tenant = tenant;
+            this.permits = permits;
+            this.ready = ready;
+        }
+    }
+
+    /**
+     * Configures the limits; {@link #capacity(int)} is required. Quotas and the per-query cap default to the
+     * capacity, the queue to 1,024 waiters and the wait to one second.
+     */
+    public static final class Builder {
+
+        private int capacity;
+        private int maxQueryPermits = Integer.MAX_VALUE;
+        private int defaultTenantQuota = Integer.MAX_VALUE;
+        private final Map<String, Integer> tenantQuotas = new HashMap<>();
+        private int maxQueued = 1024;
+        private long maxWaitNanos = TimeUnit.SECONDS.toNanos(1);
+        private CostModel costModel = CostModel.defaults();
+
+        private Builder() {}
+
+        /** Total permits shared by all running queries. */
+        public Builder capacity(int permits) {
+            if (permits < 1) throw new IllegalArgumentException("capacity must be positive");
+            this.capacity = permits;
+            return this;
+        }
+
+        /** Largest cost admitted at all; costlier queries fail fast. */
+        public Builder maxQueryPermits(int permits) {
+            if (permits < 1) throw new IllegalArgumentException("maxQueryPermits must be positive");
+            this.maxQueryPermits = permits;
+            return this;
+        }
+
+        /** Quota of tenants without their own. */
+        public Builder defaultTenantQuota(int permits) {
+            if (permits < 1) throw new IllegalArgumentException("defaultTenantQuota must be positive");
+            this.defaultTenantQuota = permits;
+            return this;
+        }
+
+        public Builder tenantQuota(String tenant, int permits) {
+            if (tenant == null) throw new IllegalArgumentException("tenant must not be null");
+            if (permits < 1) throw new IllegalArgumentException("tenant quota must be positive");
+            tenantQuotas.put(tenant, permits);
+            return this;
+        }
+
+        /** Waiters beyond this fail with {@link Reason#QUEUE_FULL}; {@code 0} disables queueing. */
+        public Builder maxQueued(int waiters) {
+            if (waiters < 0) throw new IllegalArgumentException("maxQueued must not be negative");
+            this.maxQueued = waiters;
+            return this;
+        }
+
+        /** Longest wait for permits; {@link Duration#ZERO} fails fast whenever they are not free at once. */
+        public Builder maxWait(Duration wait) {
+            if (wait == null || wait.isNegative()) throw new IllegalArgumentException("maxWait must not be negative");
+            this.maxWaitNanos = wait.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : wait.toNanos();
+            return this;
+        }
+
+        /** Model used by {@link AdmissionController#execute}; {@link CostModel#defaults()} by default. */
+        public Builder costModel(CostModel model) {
+            if (model == null) throw new IllegalArgumentException("costModel must not be null");
+            this.costModel = model;
+            return this;
+        }
+
+        public AdmissionController build() {
+            if (capacity < 1) throw new IllegalArgumentException("capacity must be set");
+            return new AdmissionController(this);
+        }
+    }
+}
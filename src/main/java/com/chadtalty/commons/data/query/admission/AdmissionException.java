@@ -0,0 +1,44 @@
+package com.chadtalty.commons.data.query.admission;
+
+/**
+ * Thrown by {@link AdmissionController} when a query is not admitted.
+ */
+public class AdmissionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Why admission failed. */
+    public enum Reason {
+        /** The query needs more permits than it could ever hold: the per-query cap or its tenant's quota. */
+        TOO_EXPENSIVE,
+        /** The wait queue was full. */
+        QUEUE_FULL,
+        /** The permits did not free up within the wait bound or before the query's deadline. */
+        TIMED_OUT,
+        /** The query was cancelled, or its thread interrupted, while queued. */
+        CANCELLED
+    }
+
+    private final Reason reason;
+    private final String tenant;
+    private final int permits;
+
+    public AdmissionException(Reason reason, String tenant, int permits) {
+        super("Query of tenant " + tenant + " needing " + permits + " permits not admitted: " + reason);
+        this.reason = reason;
+        this.tenant = tenant;
+        this.permits = permits;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+}
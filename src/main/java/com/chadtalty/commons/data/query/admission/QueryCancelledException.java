@@ -0,0 +1,23 @@
+package com.chadtalty.commons.data.query.admission;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Thrown by {@link QueryContext#check()} when a running query was cancelled or ran past its deadline.
+ */
+public class QueryCancelledException extends CancellationException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean deadlineExceeded;
+
+    public QueryCancelledException(boolean deadlineExceeded) {
+        super(deadlineExceeded ? "query deadline exceeded" : "query cancelled");
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    /** Whether the deadline passed, as opposed to an explicit {@link QueryContext#cancel()}. */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
@@ -0,0 +1,109 @@
+package com.chadtalty.commons.data.query.admission;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Cancellation flag and optional deadline of one query, checked cooperatively while it waits for admission and
+ * while it evaluates rows.
+ *
+ * <p>Evaluation loops call {@link #check()} or filter through {@link #guard(Predicate)}, which checks once every
+ * {@value #CHECK_INTERVAL} rows, so a cancelled or expired query stops within one interval instead of finishing
+ * its scan. Deadlines use {@link System#nanoTime()}. Thread-safe; {@link #cancel()} may be called from any thread.
+ *
+ * <p>The executors that accept a context are {@code QueryExecutor}, {@code ParallelQueryExecutor},
+ * {@code BatchQueryExecutor}, {@code IndexedTable}, {@code JoinEngine} and {@code ColumnarQueryEngine}; their
+ * overloads without one never stop early.
+ */
+public final class QueryContext {
+
+    /** Rows evaluated between two checks of a guarded predicate; a power of two. */
+    public static final int CHECK_INTERVAL = 1024;
+
+    private final long deadline;
+    private final boolean bounded;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    private QueryContext(long deadline, boolean bounded) {
+        this.deadline = deadline;
+        this.bounded = bounded;
+    }
+
+    /** Context without a deadline; only {@link #cancel()} stops the query. */
+    public static QueryContext unbounded() {
+        return new QueryContext(0, false);
+    }
+
+    /** Context whose deadline is {@code timeout} from now. */
+    public static QueryContext withTimeout(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) throw new IllegalArgumentException("timeout must not be negative");
+        // capped so deadline - nanoTime() cannot overflow; Long.MAX_VALUE / 2 nanoseconds is about 146 years
+        long cap = Long.MAX_VALUE / 2;
+        long nanos = timeout.compareTo(Duration.ofNanos(cap)) >= 0 ? cap : timeout.toNanos();
+        return new QueryContext(System.nanoTime() + nanos, true);
+    }
+
+    /** Requests cancellation; queued acquisitions give up at once, evaluation at its next check. */
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        for (Runnable r : listeners) {
+            r.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Whether the deadline has passed. */
+    public boolean isExpired() {
+        return bounded && deadline - System.nanoTime() <= 0;
+    }
+
+    /** Nanoseconds left until the deadline, {@link Long#MAX_VALUE} without one, at least {@code 0}. */
+    public long remainingNanos() {
+        return bounded ? Math.max(0, deadline - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Throws when the query should stop.
+     *
+     * @throws QueryCancelledException if cancelled or past the deadline
+     */
+    public void check() {
+        if (cancelled) throw new QueryCancelledException(false);
+        if (isExpired()) throw new QueryCancelledException(true);
+    }
+
+    /**
+     * Wraps {@code filter} so every {@value #CHECK_INTERVAL}th evaluation first calls {@link #check()}. The
+     * returned predicate counts evaluations without synchronization; threads sharing it may skip or repeat a
+     * check, but every thread keeps checking about once per interval.
+     */
+    public <T> Predicate<T> guard(Predicate<T> filter) {
+        if (filter == null) throw new IllegalArgumentException("filter must not be null");
+        return new Predicate<>() {
+            private int count;
+
+            @Override
+            public boolean test(T row) {
+                // masked rather than reset, so a lost update cannot step over the check for good
+                if ((++count & (CHECK_INTERVAL - 1)) == 0) check();
+                return filter.test(row);
+            }
+        };
+    }
+
+    /** Runs {@code listener} on {@link #cancel()}; used to wake a queued acquisition. */
+    void onCancel(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    void removeOnCancel(Runnable listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,20 @@
+package com.chadtalty.commons.data.query.admission;
+
+/**
+ * Pre-execution cost estimate of one criteria, with the inputs it was scored from.
+ *
+ * @param units weighted score, see {@link CostModel}
+ * @param joins join specs
+ * @param inListValues values across all contains filters, top-level and join
+ * @param unindexedFilters filters on fields without a secondary index
+ * @param sortFields ascending plus descending sort fields
+ * @param pageDepth rows retained to answer the request: {@code (page + 1) * size}, or the model's unpaged depth
+ */
+public record QueryCost(
+        double units, int joins, long inListValues, int unindexedFilters, int sortFields, long pageDepth) {
+
+    /** Permits to hold while the query runs: {@link #units()} rounded up, at least one. */
+    public int permits() {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.ceil(units)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.chadtalty.commons.data.query.cache;
+
+/**
+ * Point-in-time cache counters.
+ *
+ * @param hits lookups answered from the cache
+ * @param misses lookups that had to load
+ * @param evictions entries removed to respect the bound
+ * @param size entries currently held
+ */
+public record CacheStats(long hits, long misses, long evictions, long size) {
+
+    /** Fraction of lookups that hit, or {@code 1.0} before the first lookup. */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,531 @@
+package com.chadtalty.commons.data.query.cache;
+
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.plan.CanonicalQuery;
+import com.chadtalty.commons.data.query.plan.QueryShape;
+import com.chadtalty.commons.data.query.plan.Slot;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, concurrent cache of query results keyed by canonical criteria plus page.
+ *
+ * <p>Keys are built from {@link CanonicalQuery}, so requests that differ only in filter order share an entry,
+ * together with the page, size and cursor of a {@link PageableCriteria}. Temporal bounds can be snapped to
+ * buckets: with a one-minute bucket on {@code created_at}, every "last 24h" request issued within the same minute
+ * rounds its date-time and between bounds down to the minute and shares one entry. Snapping changes the query, so
+ * the loader receives the snapped criteria and every caller of a bucket sees the same result; equality operators
+ * are never snapped. Criteria are {@linkplain Criteria#freeze() frozen} before they become keys, so the loader
+ * receives an immutable snapshot and editing a request afterwards cannot corrupt its entry.
+ *
+ * <p>Entries are evicted least-recently-used first once the entry count or the total weight exceeds its bound, and
+ * expire a fixed time after they were loaded. Each entry is tagged with the fields its filters and sort read (join
+ * filters by their qualified field) and every dotted prefix of them, so {@link #invalidate(Collection)} after a
+ * write drops only entries that could observe it: invalidating {@code status} keeps entries on {@code created_at},
+ * and invalidating {@code customer} drops every entry reading a {@code customer.*} field. Writes that add or remove
+ * rows can change any result and call for {@link #invalidateAll()}. A load that overlaps an invalidation is
+ * returned but not stored.
+ *
+ * <p>Example:
+ * <pre>
+ * ResultCache&lt;Page&lt;Order&gt;&gt; results = ResultCache.&lt;Page&lt;Order&gt;&gt;builder()
+ *     .maximumSize(10_000)
+ *     .maximumWeight(50_000, page -&gt; page.content().size() + 1)
+ *     .expireAfterWrite(Duration.ofMinutes(5))
+ *     .snap("created_at", Duration.ofMinutes(1))
+ *     .build();
+ * Page&lt;Order&gt; page = results.get(criteria, c -&gt; executor.page(orders, c));
+ * results.invalidate(List.of("status"));
+ * </pre>
+ *
+ * @param <V> result type
+ */
+public final class ResultCache<V> {
+
+    private final Segment<V>[] segments;
+    private final int mask;
+    private final ToLongFunction<? super V> weigher;
+    private final long ttlNanos;
+    private final Map<String, Long> buckets;
+    private final long defaultBucket;
+    private final LongSupplier ticker;
+    private final Map<String, Set<Entry<V>>> tagged = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ResultCache(Builder<V> b) {
+        int stripes = (int) Math.min(Runtime.getRuntime().availableProcessors() * 2L, b.maximumSize / 16);
+        int count = Integer.highestOneBit(Math.max(1, stripes));
+        @SuppressWarnings("unchecked")
+        Segment<V>[] segs = (Segment<V>[]) new Segment<?>[count];
+        for (int i = 0; i < count; i++) {
+            segs[i] = new Segment<>(
+                    Math.max(1, b.maximumSize / count + (i < b.maximumSize % count ? 1 : 0)),
+                    Math.max(1, b.maximumWeight / count));
+        }
+        this.segments = segs;
+        this.mask = count - 1;
+        this.weigher = b.weigher;
+        this.ttlNanos = b.ttlNanos;
+        this.buckets = Map.copyOf(b.buckets);
+        this.defaultBucket = b.defaultBucket;
+        this.ticker = b.ticker;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns the cached result for {@code criteria}, or calls {@code loader} with the (possibly snapped) criteria
+     * and caches its result. The loader receives a {@link PageableCriteria} with the same page coordinates and
+     * must not return {@code null}.
+     */
+    public V get(PageableCriteria criteria, Function<? super PageableCriteria, ? extends V> loader) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        return lookup(criteria, c -> loader.apply((PageableCriteria) c));
+    }
+
+    /** As {@link #get(PageableCriteria, Function)} for unpaged criteria, e.g. list or count queries. */
+    public V getUnpaged(Criteria criteria, Function<? super Criteria, ? extends V> loader) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        return lookup(criteria, loader);
+    }
+
+    /** The criteria the loader would receive for {@code criteria}: temporal bounds snapped to their buckets. */
+    public Criteria snap(Criteria criteria) {
+        if (criteria == null || buckets.isEmpty() && defaultBucket == 0) return criteria;
+        List<Filter> filters = snap(null, criteria.getFilters());
+        List<JoinSpec> joins = criteria.getJoins();
+        if (joins != null) {
+            List<JoinSpec> snapped = new ArrayList<>(joins.size());
+            boolean changed = false;
+            for (JoinSpec j : joins) {
+                Filter f = j == null ? null : j.getFilter();
+                Filter s = f == null ? null : snap(j.getJoin(), f);
+                snapped.add(s == f ? j : new JoinSpec(j.getJoin(), s));
+                changed |= s != f;
+            }
+            if (changed) joins = snapped;
+        }
+        if (filters == criteria.getFilters() && joins == criteria.getJoins()) return criteria;
+        Criteria out;
+        if (criteria instanceof PageableCriteria p) {
+            out = new PageableCriteria(p.getPage(), p.getSize(), p.getCursor());
+        } else {
+            out = new Criteria();
+        }
+        out.setJoins(joins);
+        out.setFilters(filters);
+        out.setSort(criteria.getSort());
+        return out;
+    }
+
+    /**
+     * Drops every entry whose filters or sort read one of {@code fields}, or a field below one of them
+     * ({@code customer} covers {@code customer.name}).
+     */
+    public void invalidate(Collection<String> fields) {
+        if (fields == null) throw new IllegalArgumentException("fields must not be null");
+        invalidations.incrementAndGet();
+        for (String field : fields) {
+            Set<Entry<V>> entries = field == null ? null : tagged.remove(field);
+            if (entries == null) continue;
+            for (Entry<V> e : entries) {
+                segmentFor(e.key).remove(e);
+                untag(e);
+            }
+        }
+    }
+
+    /** Removes all entries; counters are kept. */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (Segment<V> s : segments) {
+            s.clear();
+        }
+        tagged.clear();
+    }
+
+    public long size() {
+        long n = 0;
+        for (Segment<V> s : segments) {
+            n += s.size();
+        }
+        return n;
+    }
+
+    /** Total weight of the cached results. */
+    public long weight() {
+        long w = 0;
+        for (Segment<V> s : segments) {
+            w += s.weight();
+        }
+        return w;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private V lookup(Criteria criteria, Function<? super Criteria, ? extends V> loader) {
+        // keys keep the criteria's literals, so they must not see later edits to the caller's lists
+        Criteria snapped = snap(criteria.freeze()).freeze();
+        CanonicalQuery query = CanonicalQuery.of(snapped);
+        Key key = criteria instanceof PageableCriteria p
+                ? new Key(query, p.getPage(), p.getSize(), p.getCursor())
+                : new Key(query, null, null, null);
+        Segment<V> segment = segmentFor(key);
+        long now = ticker.getAsLong();
+        Entry<V> entry = segment.get(key);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.value;
+        }
+        if (entry != null && segment.remove(entry)) untag(entry);
+        misses.increment();
+        long generation = invalidations.get();
+        V loaded = loader.apply(snapped);
+        if (loaded == null) throw new IllegalStateException("cache loader returned null for criteria: " + criteria);
+        long weight = weigher.applyAsLong(loaded);
+        if (weight < 0) throw new IllegalStateException("weigher returned a negative weight: " + weight);
+        if (weight > segment.maxWeight) return loaded;
+
+        // tag before storing, so an invalidation that misses the tags has already bumped the generation
+        Entry<V> created = new Entry<>(key, loaded, weight, tags(query.shape()), now + ttlNanos);
+        for (String tag : created.tags) {
+            tagged.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(created);
+        }
+        List<Entry<V>> dropped = new ArrayList<>();
+        Entry<V> stored = segment.putIfAbsent(created, now, dropped, evictions);
+        for (Entry<V> e : dropped) {
+            untag(e);
+        }
+        if (stored != created) {
+            untag(created);
+            return stored.value;
+        }
+        if (invalidations.get() != generation) {
+            // a write overlapped the load; serve the result without keeping it
+            segment.remove(created);
+            untag(created);
+        }
+        return loaded;
+    }
+
+    private void untag(Entry<V> entry) {
+        for (String tag : entry.tags) {
+            tagged.computeIfPresent(tag, (t, entries) -> {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    private Segment<V> segmentFor(Key key) {
+        int h = key.hash;
+        h ^= h >>> 16;
+        return segments[h & mask];
+    }
+
+    private List<Filter> snap(String join, List<Filter> filters) {
+        if (filters == null) return null;
+        List<Filter> out = null;
+        for (int i = 0; i < filters.size(); i++) {
+            Filter f = filters.get(i);
+            Filter s = f == null ? null : snap(join, f);
+            if (s != f && out == null) out = new ArrayList<>(filters.subList(0, i));
+            if (out != null) out.add(s);
+        }
+        return out == null ? filters : out;
+    }
+
+    private Filter snap(String join, Filter f) {
+        if (f instanceof DateTimeFilter d) {
+            DateTimeFilter.Operator op = d.getOperator();
+            if (op == null || op == DateTimeFilter.Operator.EQUAL || op == DateTimeFilter.Operator.NOT_EQUAL) return f;
+            long bucket = bucket(join, d.getField());
+            Instant value = floor(d.getValue(), bucket);
+            return value == d.getValue()
+                    ? f
+                    : DateTimeFilter.builder()
+                            .field(d.getField())
+                            .operator(op)
+                            .value(value)
+                            .build();
+        }
+        if (f instanceof BetweenFilter b) {
+            long bucket = bucket(join, b.getField());
+            Instant start = floor(b.getStartDateTime(), bucket);
+            Instant end = floor(b.getEndDateTime(), bucket);
+            return start == b.getStartDateTime() && end == b.getEndDateTime()
+                    ? f
+                    : BetweenFilter.builder()
+                            .field(b.getField())
+                            .startDateTime(start)
+                            .endDateTime(end)
+                            .build();
+        }
+        return f;
+    }
+
+    private long bucket(String join, String field) {
+        if (field == null) return 0;
+        Long bucket = buckets.get(CriteriaCompiler.qualify(join, field));
+        return bucket == null ? defaultBucket : bucket;
+    }
+
+    /** {@code value} rounded down to a multiple of {@code bucket} millis; unchanged (same instance) if already. */
+    private static Instant floor(Instant value, long bucket) {
+        if (value == null || bucket == 0) return value;
+        long millis;
+        try {
+            millis = value.toEpochMilli();
+        } catch (ArithmeticException e) {
+            return value;
+        }
+        long floored = Math.floorDiv(millis, bucket) * bucket;
+        if (floored == millis && value.getNano() % 1_000_000 == 0) return value;
+        return Instant.ofEpochMilli(floored);
+    }
+
+    /** Fields read by {@code shape} and every dotted prefix of them. */
+    private static String[] tags(QueryShape shape) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (Slot slot : shape.slots()) {
+            addWithPrefixes(tags, slot.qualifiedField());
+        }
+        for (String field : shape.ascending()) {
+            addWithPrefixes(tags, field);
+        }
+        for (String field : shape.descending()) {
+            addWithPrefixes(tags, field);
+        }
+        return tags.toArray(String[]::new);
+    }
+
+    private static void addWithPrefixes(Set<String> tags, String field) {
+        if (field == null) return;
+        tags.add(field);
+        for (int i = field.indexOf('.'); i > 0; i = field.indexOf('.', i + 1)) {
+            tags.add(field.substring(0, i));
+        }
+    }
+
+    /** Canonical query plus page coordinates; the hash is computed once. */
+    private static final class Key {
+
+        private final QueryShape shape;
+        private final Object[] parameters;
+        private final Integer page;
+        private final Integer size;
+        private final String cursor;
+        private final int hash;
+
+        Key(CanonicalQuery query, Integer page, Integer size, String cursor) {
+            this.shape = query.shape();
+            this.parameters = query.parameters();
+            this.page = page;
+            this.size = size;
+            this.cursor = cursor;
+            this.hash = Objects.hash(shape, Arrays.hashCode(parameters), page, size, cursor);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return hash == k.hash
+                    && shape.equals(k.shape)
+                    && Objects.equals(page, k.page)
+                    && Objects.equals(size, k.size)
+                    && Objects.equals(cursor, k.cursor)
+                    && Arrays.equals(parameters, k.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return shape + " " + Arrays.toString(parameters) + " page=" + page + " size=" + size;
+        }
+    }
+
+    /** Cached result; compared by identity so a replaced entry is never mistaken for its successor. */
+    private static final class Entry<V> {
+
+        final Key key;
+        final V value;
+        final long weight;
+        final String[] tags;
+        final long expiresAt;
+
+        Entry(Key key, V value, long weight, String[] tags, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.tags = tags;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment<V> {
+
+        private final long maxSize;
+        private final long maxWeight;
+        private final LinkedHashMap<Key, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        Segment(long maxSize, long maxWeight) {
+            this.maxSize = maxSize;
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized Entry<V> get(Key key) {
+            return entries.get(key);
+        }
+
+        /**
+         * Stores {@code created} unless a live entry holds its key; the expired predecessor and entries evicted to
+         * respect the bounds are added to {@code dropped}.
+         */
+        synchronized Entry<V> putIfAbsent(Entry<V> created, long now, List<Entry<V>> dropped, LongAdder evictions) {
+            Entry<V> existing = entries.get(created.key);
+            if (existing != null) {
+                if (now - existing.expiresAt < 0) return existing;
+                entries.remove(created.key);
+                weight -= existing.weight;
+                dropped.add(existing);
+            }
+            entries.put(created.key, created);
+            weight += created.weight;
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (entries.size() > maxSize || weight > maxWeight) {
+                Entry<V> eldest = it.next();
+                it.remove();
+                weight -= eldest.weight;
+                dropped.add(eldest);
+                evictions.increment();
+            }
+            return created;
+        }
+
+        /** Removes {@code entry} if it is still the mapping for its key. */
+        synchronized boolean remove(Entry<V> entry) {
+            if (entries.get(entry.key) != entry) return false;
+            entries.remove(entry.key);
+            weight -= entry.weight;
+            return true;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+    }
+
+    /** Configures bounds, expiry and snapping; defaults to 10,000 entries of weight one and no expiry. */
+    public static final class Builder<V> {
+
+        private long maximumSize = 10_000;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToLongFunction<? super V> weigher = v -> 1;
+        private long ttlNanos = Long.MAX_VALUE;
+        private final Map<String, Long> buckets = new HashMap<>();
+        private long defaultBucket;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {}
+
+        public Builder<V> maximumSize(long maximumSize) {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /** Bounds the summed {@code weigher} values; results heavier than a segment's share are not cached. */
+        public Builder<V> maximumWeight(long maximumWeight, ToLongFunction<? super V> weigher) {
+            if (maximumWeight < 1) throw new IllegalArgumentException("maximumWeight must be positive");
+            if (weigher == null) throw new IllegalArgumentException("weigher must not be null");
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /** Expires entries {@code ttl} after they were loaded. */
+        public Builder<V> expireAfterWrite(Duration ttl) {
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive");
+            }
+            this.ttlNanos = ttl.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : ttl.toNanos();
+            return this;
+        }
+
+        /** Snaps temporal bounds on {@code field} (join filters by qualified field) down to {@code bucket}. */
+        public Builder<V> snap(String field, Duration bucket) {
+            if (field == null || field.isBlank()) throw new IllegalArgumentException("field must not be blank");
+            buckets.put(field, bucketMillis(bucket));
+            return this;
+        }
+
+        /** Snaps temporal bounds on fields without their own bucket down to {@code bucket}. */
+        public Builder<V> snapAll(Duration bucket) {
+            this.defaultBucket = bucketMillis(bucket);
+            return this;
+        }
+
+        /** Time source in nanoseconds, {@link System#nanoTime()} by default. */
+        public Builder<V> ticker(LongSupplier ticker) {
+            if (ticker == null) throw new IllegalArgumentException("ticker must not be null");
+            this.ticker = ticker;
+            return this;
+        }
+
+        public ResultCache<V> build() {
+            return new ResultCache<>(this);
+        }
+
+        private static long bucketMillis(Duration bucket) {
+            if (bucket == null || bucket.toMillis() < 1) {
+                throw new IllegalArgumentException("bucket must be at least one millisecond");
+            }
+            return bucket.toMillis();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.chadtalty.commons.data.query.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, concurrent cache with segmented-LRU eviction.
+ *
+ * <p>Keys are spread over lock-striped segments by hash. Each segment keeps a <em>probation</em> area for
+ * entries seen once and a <em>protected</em> area (80% of the segment) for entries hit again; a burst of
+ * one-off keys therefore only churns probation and cannot flush the hot set. Loads run outside the segment
+ * lock, so concurrent misses on the same key may load twice and the first stored value wins.
+ *
+ * @param <K> key type; should carry a cheap, precomputed {@code hashCode}
+ * @param <V> value type
+ */
+public final class SegmentedLruCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** Creates a cache holding at most {@code capacity} entries. */
+    public SegmentedLruCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        int stripes = Math.min(Runtime.getRuntime().availableProcessors() * 2, capacity / 16);
+        int count = Integer.highestOneBit(Math.max(1, stripes));
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] segs = (Segment<K, V>[]) new Segment<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            int share = capacity / count + (i < capacity % count ? 1 : 0);
+            segs[i] = new Segment<>(share);
+        }
+        this.segments = segs;
+        this.mask = count - 1;
+    }
+
+    /** Returns the cached value or {@code null}, promoting the entry on hit. */
+    public V getIfPresent(K key) {
+        V v = segmentFor(key).get(key);
+        if (v != null) hits.increment();
+        else misses.increment();
+        return v;
+    }
+
+    /** Returns the cached value, loading and caching it on a miss. {@code loader} must not return {@code null}. */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V v = segment.get(key);
+        if (v != null) {
+            hits.increment();
+            return v;
+        }
+        misses.increment();
+        V loaded = loader.apply(key);
+        if (loaded == null) throw new IllegalStateException("cache loader returned null for key: " + key);
+        return segment.putIfAbsent(key, loaded, evictions);
+    }
+
+    /** Stores {@code value}, replacing any existing entry. */
+    public void put(K key, V value) {
+        if (value == null) throw new IllegalArgumentException("cache value must not be null");
+        segmentFor(key).put(key, value, evictions);
+    }
+
+    /** Removes the entry for {@code key}, if any. */
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /** Removes all entries; counters are kept. */
+    public void invalidateAll() {
+        for (Segment<K, V> s : segments) {
+            s.clear();
+        }
+    }
+
+    public long size() {
+        long n = 0;
+        for (Segment<K, V> s : segments) {
+            n += s.size();
+        }
+        return n;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & mask];
+    }
+
+    private static final class Segment<K, V> {
+
+        private final int capacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<K, V> protect = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.protectedCapacity = this.capacity * 4 / 5;
+        }
+
+        synchronized V get(K key) {
+            V v = protect.get(key);
+            if (v != null) return v;
+            v = probation.remove(key);
+            if (v == null) return null;
+            if (protectedCapacity == 0) {
+                probation.put(key, v);
+                return v;
+            }
+            protect.put(key, v);
+            if (protect.size() > protectedCapacity) demoteEldest();
+            return v;
+        }
+
+        synchronized V putIfAbsent(K key, V value, LongAdder evictions) {
+            V existing = protect.get(key);
+            if (existing == null) existing = probation.get(key);
+            if (existing != null) return existing;
+            probation.put(key, value);
+            evict(evictions);
+            return value;
+        }
+
+        synchronized void put(K key, V value, LongAdder evictions) {
+            if (protect.containsKey(key)) {
+                protect.put(key, value);
+                return;
+            }
+            probation.put(key, value);
+            evict(evictions);
+        }
+
+        synchronized void remove(K key) {
+            if (protect.remove(key) == null) probation.remove(key);
+        }
+
+        synchronized void clear() {
+            protect.clear();
+            probation.clear();
+        }
+
+        synchronized int size() {
+            return protect.size() + probation.size();
+        }
+
+        private void demoteEldest() {
+            Iterator<Map.Entry<K, V>> it = protect.entrySet().iterator();
+            Map.Entry<K, V> eldest = it.next();
+            it.remove();
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+
+        private void evict(LongAdder evictions) {
+            while (protect.size() + probation.size() > capacity) {
+                Iterator<Map.Entry<K, V>> it = (probation.isEmpty() ? protect : probation).entrySet().iterator();
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
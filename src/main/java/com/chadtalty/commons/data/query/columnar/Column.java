@@ -0,0 +1,58 @@
+package com.chadtalty.commons.data.query.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/** One mapped column: typed views over its region plus, for strings, the decoded dictionary. */
+final class Column {
+
+    final String name;
+    final ColumnType type;
+    final LongBuffer longs;
+    final DoubleBuffer doubles;
+    final IntBuffer codes;
+    final ByteBuffer bytes;
+    final String[] dictionary;
+
+    Column(String name, ColumnType type, ByteBuffer region, String[] dictionary) {
+        this.name = name;
+        this.type = type;
+        this.longs = type == ColumnType.LONG || type == ColumnType.INSTANT ? region.asLongBuffer() : null;
+        this.doubles = type == ColumnType.DOUBLE ? region.asDoubleBuffer() : null;
+        this.codes = type == ColumnType.STRING ? region.asIntBuffer() : null;
+        this.bytes = type == ColumnType.BOOLEAN ? region : null;
+        this.dictionary = dictionary;
+    }
+
+    long getLong(int row) {
+        return longs.get(row);
+    }
+
+    double getDouble(int row) {
+        return doubles.get(row);
+    }
+
+    boolean getBoolean(int row) {
+        return bytes.get(row) != 0;
+    }
+
+    int code(int row) {
+        return codes.get(row);
+    }
+
+    String getString(int row) {
+        int c = codes.get(row);
+        return c < 0 ? null : dictionary[c];
+    }
+
+    /**
+     * Dictionary position of {@code value} as {@link Arrays#binarySearch(Object[], Object)} reports it: the code
+     * when present, otherwise {@code -(first code above value) - 1}.
+     */
+    int search(String value) {
+        return Arrays.binarySearch(dictionary, value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.chadtalty.commons.data.query.columnar;
+
+/**
+ * Physical type of a column in a columnar file; every type is a fixed-width little-endian array of
+ * {@link #width()} bytes per row.
+ */
+public enum ColumnType {
+
+    /** 64-bit integers. */
+    LONG(8),
+
+    /** 64-bit IEEE doubles. */
+    DOUBLE(8),
+
+    /** One byte per row, {@code 0} or {@code 1}. */
+    BOOLEAN(1),
+
+    /** Instants as 64-bit epoch milliseconds. */
+    INSTANT(8),
+
+    /** 32-bit codes into a sorted dictionary, {@code -1} for {@code null}; code order is string order. */
+    STRING(4);
+
+    private final int width;
+
+    ColumnType(int width) {
+        this.width = width;
+    }
+
+    /** Bytes per row. */
+    public int width() {
+        return width;
+    }
+}
@@ -0,0 +1,614 @@
+package com.chadtalty.commons.data.query.columnar;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.admission.QueryCancelledException;
+import com.chadtalty.commons.data.query.admission.QueryContext;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler.Operands;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.kernel.FilterKernels;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates criteria directly over a memory-mapped {@link ColumnarTable}, without deserializing rows.
+ *
+ * <p>Filters compile to predicates over row numbers that read the mapped columns in place:
+ * <ul>
+ *   <li>String equality, ordering and {@link ContainsFilter} compare dictionary codes. The dictionary is sorted,
+ *       so a literal becomes one code (or a code bound) by binary search, and an IN-list becomes a bitmap over
+ *       codes. Literals missing from the dictionary cost nothing per row.</li>
+ *   <li>{@link DateTimeFilter} and {@link BetweenFilter} compare raw epoch-millisecond longs.</li>
+ *   <li>Numeric and boolean filters compare the primitive column values.</li>
+ * </ul>
+ * Rows are scanned in blocks of {@value #BLOCK}. Each filter narrows the block's selection bitmask in criteria
+ * order: numeric, {@link DateTimeFilter} and {@link BetweenFilter} comparisons copy the block's column values into
+ * a chunk and run a {@link FilterKernels} kernel over it (the Vector API kernels when available), while the other
+ * filters test only the rows still selected. Filters reported to installed metrics always take the per-row path.
+ *
+ * <p>Sorting compares column values and dictionary codes the same way. Sorted pages keep a bounded heap of
+ * {@code (page + 1) * size} row numbers; unsorted pages stop scanning once the page is filled. Only the rows of
+ * the requested page are passed to the row mapper.
+ *
+ * <p>Results equal {@link com.chadtalty.commons.data.query.eval.QueryExecutor} over the materialized rows with
+ * accessors of the matching kinds (instant columns behave as epoch-millisecond fields), including tie order,
+ * {@code null} handling and error messages for unknown fields or bad operands. Join filters read the column named
+ * by the qualified path, e.g. {@code customer.tier}.
+ *
+ * <p>Thread-safe.
+ *
+ * @param <T> materialized row type
+ */
+public final class ColumnarQueryEngine<T> {
+
+    /** Rows per scan block; a multiple of 64 so a block's mask is whole words. */
+    static final int BLOCK = 1024;
+
+    private final ColumnarTable table;
+    private final Function<? super ColumnarRow, ? extends T> mapper;
+    private final FilterKernels kernels;
+
+    /** Engine using {@link FilterKernels#best()}. */
+    public ColumnarQueryEngine(ColumnarTable table, Function<? super ColumnarRow, ? extends T> mapper) {
+        this(table, mapper, FilterKernels.best());
+    }
+
+    public ColumnarQueryEngine(
+            ColumnarTable table, Function<? super ColumnarRow, ? extends T> mapper, FilterKernels kernels) {
+        if (table == null) throw new IllegalArgumentException("table must not be null");
+        if (mapper == null) throw new IllegalArgumentException("mapper must not be null");
+        if (kernels == null) throw new IllegalArgumentException("kernels must not be null");
+        this.table = table;
+        this.mapper = mapper;
+        this.kernels = kernels;
+    }
+
+    /** Returns the requested page, materializing only its rows. */
+    public Page<T> page(PageableCriteria criteria) {
+        return page(criteria, null);
+    }
+
+    /**
+     * Returns the requested page, stopping early when {@code context} is cancelled or expires; it is checked
+     * before every block of {@value #BLOCK} rows.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public Page<T> page(PageableCriteria criteria, QueryContext context) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        if (criteria.getSize() == null) throw new IllegalArgumentException("size must not be null");
+        if (criteria.getCursor() != null) {
+            throw new IllegalArgumentException("cursor pagination requires a keyset.KeysetPager");
+        }
+        int page = criteria.getPage() == null ? 0 : criteria.getPage();
+        int size = criteria.getSize();
+        if (page < 0) throw new IllegalArgumentException("page must be greater than or equal to 0");
+        if (size < 1) throw new IllegalArgumentException("size must be greater than or equal to 1");
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            Matcher filter = compile(criteria, context);
+            RowOrder order = order(criteria.getSort());
+            long offset = (long) page * size;
+            return order == null
+                    ? firstMatches(filter, offset, page, size)
+                    : top(filter, order, offset, page, size);
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    /** Number of rows matching {@code criteria}. */
+    public long count(Criteria criteria) {
+        return count(criteria, null);
+    }
+
+    /**
+     * Number of rows matching {@code criteria}, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public long count(Criteria criteria, QueryContext context) {
+        Matcher filter = compile(criteria, context);
+        long[] mask = new long[BLOCK / 64];
+        long matched = 0;
+        for (int from = 0, n = table.rowCount(); from < n; from += BLOCK) {
+            int words = filter.select(from, Math.min(BLOCK, n - from), mask);
+            for (int w = 0; w < words; w++) {
+                matched += Long.bitCount(mask[w]);
+            }
+        }
+        return matched;
+    }
+
+    private Page<T> firstMatches(Matcher filter, long offset, int page, int size) {
+        List<T> content = new ArrayList<>(Math.min(size, 1024));
+        long[] mask = new long[BLOCK / 64];
+        long matched = 0;
+        for (int from = 0, n = table.rowCount(); from < n; from += BLOCK) {
+            int words = filter.select(from, Math.min(BLOCK, n - from), mask);
+            for (int w = 0; w < words; w++) {
+                for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                    if (matched++ < offset) continue;
+                    int row = from + (w << 6) + Long.numberOfTrailingZeros(bits);
+                    content.add(mapper.apply(table.row(row)));
+                    if (content.size() == size) return new Page<>(content, page, size, -1);
+                }
+            }
+        }
+        return new Page<>(content, page, size, matched);
+    }
+
+    private Page<T> top(Matcher filter, RowOrder order, long offset, int page, int size) {
+        RowHeap heap = new RowHeap(order, (int) Math.min(offset + size, Integer.MAX_VALUE - 8));
+        long[] mask = new long[BLOCK / 64];
+        long matched = 0;
+        for (int from = 0, n = table.rowCount(); from < n; from += BLOCK) {
+            int words = filter.select(from, Math.min(BLOCK, n - from), mask);
+            for (int w = 0; w < words; w++) {
+                for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                    matched++;
+                    heap.offer(from + (w << 6) + Long.numberOfTrailingZeros(bits));
+                }
+            }
+        }
+        int[] rows = heap.sorted();
+        List<T> content = new ArrayList<>();
+        for (long i = offset; i < Math.min(rows.length, offset + size); i++) {
+            content.add(mapper.apply(table.row(rows[(int) i])));
+        }
+        return new Page<>(content, page, size, matched);
+    }
+
+    private Matcher compile(Criteria criteria, QueryContext context) {
+        List<BlockFilter> parts = new ArrayList<>();
+        if (criteria != null && criteria.getFilters() != null) {
+            for (Filter f : criteria.getFilters()) {
+                if (f == null) throw new IllegalArgumentException("filter must not be null");
+                parts.add(compile(f, f.getField()));
+            }
+        }
+        if (criteria != null && criteria.getJoins() != null) {
+            for (JoinSpec j : criteria.getJoins()) {
+                if (j == null) throw new IllegalArgumentException("join must not be null");
+                Filter f = j.getFilter();
+                if (f != null) parts.add(compile(f, CriteriaCompiler.qualify(j.getJoin(), f.getField())));
+            }
+        }
+        return new Matcher(parts.toArray(new BlockFilter[0]), context);
+    }
+
+    private BlockFilter compile(Filter filter, String field) {
+        if (filter.getType() == null) throw new IllegalArgumentException("filter type must not be null");
+        if (field == null) throw new IllegalArgumentException("filter field must not be null");
+        Column c = table.column(field);
+        IntPredicate p = switch (filter.getType()) {
+            case BASIC -> {
+                BasicFilter f = (BasicFilter) filter;
+                if (f.getOperator() == null) {
+                    throw new IllegalArgumentException("basic filter operator must not be null");
+                }
+                if (f.getValue() == null) throw new IllegalArgumentException("basic filter value must not be null");
+                yield compare(c, field, Comparison.of(f.getOperator()), f.getValue());
+            }
+            case DATE_TIME -> {
+                DateTimeFilter f = (DateTimeFilter) filter;
+                if (f.getOperator() == null) {
+                    throw new IllegalArgumentException("date-time filter operator must not be null");
+                }
+                if (f.getValue() == null) {
+                    throw new IllegalArgumentException("date-time filter value must not be null");
+                }
+                yield longCompare(temporal(c, field), Comparison.of(f.getOperator()), f.getValueEpochMilli());
+            }
+            case BETWEEN -> {
+                BetweenFilter f = (BetweenFilter) filter;
+                if (f.getStartDateTime() == null || f.getEndDateTime() == null) {
+                    throw new IllegalArgumentException("between_filter bounds must not be null");
+                }
+                Column t = temporal(c, field);
+                long lo = f.getStartEpochMilli();
+                long hi = f.getEndEpochMilli();
+                yield row -> {
+                    long v = t.getLong(row);
+                    return v >= lo && v <= hi;
+                };
+            }
+            case CONTAINS -> {
+                ContainsFilter f = (ContainsFilter) filter;
+                if (f.getValues() == null || f.getValues().isEmpty()) {
+                    throw new IllegalArgumentException("contains filter values must not be empty");
+                }
+                yield contains(c, field, f.getValues());
+            }
+        };
+        Predicate<Integer> boxed = p::test;
+        Predicate<Integer> instrumented = Instrumentation.instrument(boxed, field, filter);
+        if (instrumented != boxed) return rows(instrumented::test);
+        BlockFilter kernel = kernel(filter, c, field);
+        return kernel != null ? kernel : rows(p);
+    }
+
+    /** Kernel form of an already validated filter, or {@code null} when it has none. */
+    private BlockFilter kernel(Filter filter, Column c, String field) {
+        return switch (filter.getType()) {
+            case BASIC -> {
+                BasicFilter f = (BasicFilter) filter;
+                Comparison op = Comparison.of(f.getOperator());
+                yield switch (c.type) {
+                    case LONG -> longs(c, op, Operands.parseLong(field, f.getValue()));
+                    case INSTANT -> longs(c, op, Operands.parseEpochMilli(field, f.getValue()));
+                    case DOUBLE -> doubles(c, op, Operands.parseDouble(field, f.getValue()));
+                    default -> null;
+                };
+            }
+            case DATE_TIME -> {
+                DateTimeFilter f = (DateTimeFilter) filter;
+                yield longs(c, Comparison.of(f.getOperator()), f.getValueEpochMilli());
+            }
+            case BETWEEN -> {
+                BetweenFilter f = (BetweenFilter) filter;
+                long lo = f.getStartEpochMilli();
+                long hi = f.getEndEpochMilli();
+                yield (from, length, mask, chunk) -> {
+                    c.longs.get(from, chunk.longs, 0, length);
+                    kernels.between(chunk.longs, 0, length, lo, hi, chunk.bits);
+                    chunk.and(mask, length);
+                };
+            }
+            case CONTAINS -> null;
+        };
+    }
+
+    private BlockFilter longs(Column c, Comparison op, long x) {
+        return (from, length, mask, chunk) -> {
+            c.longs.get(from, chunk.longs, 0, length);
+            kernels.compare(chunk.longs, 0, length, op, x, chunk.bits);
+            chunk.and(mask, length);
+        };
+    }
+
+    private BlockFilter doubles(Column c, Comparison op, double x) {
+        return (from, length, mask, chunk) -> {
+            c.doubles.get(from, chunk.doubles, 0, length);
+            kernels.compare(chunk.doubles, 0, length, op, x, chunk.bits);
+            chunk.and(mask, length);
+        };
+    }
+
+    /** Tests {@code p} on the still-selected rows only, as a short-circuiting conjunction would. */
+    private static BlockFilter rows(IntPredicate p) {
+        return (from, length, mask, chunk) -> {
+            for (int w = 0, words = (length + 63) >>> 6; w < words; w++) {
+                long bits = mask[w];
+                for (long rest = bits; rest != 0; rest &= rest - 1) {
+                    int bit = Long.numberOfTrailingZeros(rest);
+                    if (!p.test(from + (w << 6) + bit)) bits &= ~(1L << bit);
+                }
+                mask[w] = bits;
+            }
+        };
+    }
+
+    private static Column temporal(Column c, String field) {
+        if (c.type != ColumnType.INSTANT) throw new IllegalArgumentException("Field is not temporal: " + field);
+        return c;
+    }
+
+    private static IntPredicate compare(Column c, String field, Comparison op, String value) {
+        switch (c.type) {
+            case LONG:
+                return longCompare(c, op, Operands.parseLong(field, value));
+            case INSTANT:
+                return longCompare(c, op, Operands.parseEpochMilli(field, value));
+            case DOUBLE: {
+                double x = Operands.parseDouble(field, value);
+                return switch (op) {
+                    case EQ -> row -> c.getDouble(row) == x;
+                    case NE -> row -> c.getDouble(row) != x;
+                    case GT -> row -> c.getDouble(row) > x;
+                    case GE -> row -> c.getDouble(row) >= x;
+                    case LT -> row -> c.getDouble(row) < x;
+                    case LE -> row -> c.getDouble(row) <= x;
+                };
+            }
+            case BOOLEAN: {
+                if (op.isOrdering()) {
+                    throw new IllegalArgumentException("Ordering operator not supported on field: " + field);
+                }
+                boolean x = Operands.parseBoolean(field, value);
+                return op == Comparison.EQ ? row -> c.getBoolean(row) == x : row -> c.getBoolean(row) != x;
+            }
+            default:
+                return stringCompare(c, op, value);
+        }
+    }
+
+    private static IntPredicate longCompare(Column c, Comparison op, long x) {
+        return switch (op) {
+            case EQ -> row -> c.getLong(row) == x;
+            case NE -> row -> c.getLong(row) != x;
+            case GT -> row -> c.getLong(row) > x;
+            case GE -> row -> c.getLong(row) >= x;
+            case LT -> row -> c.getLong(row) < x;
+            case LE -> row -> c.getLong(row) <= x;
+        };
+    }
+
+    /** Code-space comparison: codes follow string order, and {@code null} (code {@code -1}) matches nothing. */
+    private static IntPredicate stringCompare(Column c, Comparison op, String x) {
+        int at = c.search(x);
+        if (at >= 0) {
+            return switch (op) {
+                case EQ -> row -> c.code(row) == at;
+                case NE -> row -> {
+                    int code = c.code(row);
+                    return code >= 0 && code != at;
+                };
+                case GT -> row -> c.code(row) > at;
+                case GE -> row -> c.code(row) >= at;
+                case LT -> row -> {
+                    int code = c.code(row);
+                    return code >= 0 && code < at;
+                };
+                case LE -> row -> {
+                    int code = c.code(row);
+                    return code >= 0 && code <= at;
+                };
+            };
+        }
+        // absent literal: codes from `above` on sort after it, lower codes before it
+        int above = -at - 1;
+        return switch (op) {
+            case EQ -> row -> false;
+            case NE -> row -> c.code(row) >= 0;
+            case GT, GE -> row -> c.code(row) >= above;
+            case LT, LE -> row -> {
+                int code = c.code(row);
+                return code >= 0 && code < above;
+            };
+        };
+    }
+
+    private static IntPredicate contains(Column c, String field, List<String> values) {
+        switch (c.type) {
+            case STRING: {
+                boolean[] accepted = new boolean[c.dictionary.length];
+                for (String v : values) {
+                    int at = v == null ? -1 : c.search(v);
+                    if (at >= 0) accepted[at] = true;
+                }
+                return row -> {
+                    int code = c.code(row);
+                    return code >= 0 && accepted[code];
+                };
+            }
+            case LONG: {
+                long[] set = values.stream()
+                        .mapToLong(v -> Operands.parseLong(field, v))
+                        .sorted()
+                        .distinct()
+                        .toArray();
+                return row -> Arrays.binarySearch(set, c.getLong(row)) >= 0;
+            }
+            case INSTANT: {
+                long[] set = values.stream()
+                        .mapToLong(v -> Operands.parseEpochMilli(field, v))
+                        .sorted()
+                        .distinct()
+                        .toArray();
+                return row -> Arrays.binarySearch(set, c.getLong(row)) >= 0;
+            }
+            case DOUBLE: {
+                double[] set = values.stream()
+                        .mapToDouble(v -> Operands.parseDouble(field, v))
+                        .sorted()
+                        .distinct()
+                        .toArray();
+                return row -> Arrays.binarySearch(set, c.getDouble(row)) >= 0;
+            }
+            default: {
+                boolean acceptTrue = false;
+                boolean acceptFalse = false;
+                for (String v : values) {
+                    if (Operands.parseBoolean(field, v)) acceptTrue = true;
+                    else acceptFalse = true;
+                }
+                boolean t = acceptTrue;
+                boolean f = acceptFalse;
+                return row -> c.getBoolean(row) ? t : f;
+            }
+        }
+    }
+
+    /** Ascending fields first, then descending, {@code null} strings last; {@code null} when nothing is sorted. */
+    private RowOrder order(SortSpec sort) {
+        if (sort == null) return null;
+        List<RowOrder> keys = new ArrayList<>();
+        if (sort.getAscending() != null) {
+            for (String f : sort.getAscending()) {
+                keys.add(key(table.column(f), 1));
+            }
+        }
+        if (sort.getDescending() != null) {
+            for (String f : sort.getDescending()) {
+                keys.add(key(table.column(f), -1));
+            }
+        }
+        if (keys.isEmpty()) return null;
+        if (keys.size() == 1) return keys.get(0);
+        RowOrder[] all = keys.toArray(new RowOrder[0]);
+        return (a, b) -> {
+            for (RowOrder k : all) {
+                int c = k.compare(a, b);
+                if (c != 0) return c;
+            }
+            return 0;
+        };
+    }
+
+    private static RowOrder key(Column c, int sign) {
+        return switch (c.type) {
+            case LONG, INSTANT -> (a, b) -> sign * Long.compare(c.getLong(a), c.getLong(b));
+            case DOUBLE -> (a, b) -> sign * Double.compare(c.getDouble(a), c.getDouble(b));
+            case BOOLEAN -> (a, b) -> sign * Boolean.compare(c.getBoolean(a), c.getBoolean(b));
+            case STRING -> (a, b) -> {
+                int x = c.code(a);
+                int y = c.code(b);
+                if (x < 0) return y < 0 ? 0 : 1;
+                if (y < 0) return -1;
+                return sign * Integer.compare(x, y);
+            };
+        };
+    }
+
+    /** One compiled filter, clearing the mask bits of rows in {@code [from, from + length)} it rejects. */
+    @FunctionalInterface
+    private interface BlockFilter {
+        void narrow(int from, int length, long[] mask, Chunk chunk);
+    }
+
+    /** Per-scan scratch space for kernel filters. */
+    private static final class Chunk {
+
+        final long[] longs = new long[BLOCK];
+        final double[] doubles = new double[BLOCK];
+        final long[] bits = new long[BLOCK / 64];
+
+        /** ANDs the kernel output in {@link #bits} into {@code mask}. */
+        void and(long[] mask, int length) {
+            for (int w = 0, words = (length + 63) >>> 6; w < words; w++) {
+                mask[w] &= bits[w];
+            }
+        }
+    }
+
+    /** Conjunction of block filters with its own scratch space; one per scan, not thread-safe. */
+    private static final class Matcher {
+
+        private final BlockFilter[] filters;
+        private final Chunk chunk;
+        private final QueryContext context;
+
+        Matcher(BlockFilter[] filters, QueryContext context) {
+            this.filters = filters;
+            this.chunk = filters.length == 0 ? null : new Chunk();
+            this.context = context;
+        }
+
+        /**
+         * Writes the selection of rows {@code [from, from + length)} into {@code mask}; returns the number of mask
+         * words covering the block.
+         */
+        int select(int from, int length, long[] mask) {
+            if (context != null) context.check();
+            int words = (length + 63) >>> 6;
+            Arrays.fill(mask, 0, words, -1L);
+            if ((length & 63) != 0) mask[words - 1] = (1L << length) - 1;
+            for (BlockFilter f : filters) {
+                f.narrow(from, length, mask, chunk);
+                if (empty(mask, words)) break;
+            }
+            return words;
+        }
+
+        private static boolean empty(long[] mask, int words) {
+            for (int w = 0; w < words; w++) {
+                if (mask[w] != 0) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Comparator over row numbers. */
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Max-heap of the {@code k} best row numbers under an order, ties broken by row number (scan order), so the
+     * retained rows equal the first {@code k} of a stable sort.
+     */
+    private static final class RowHeap {
+
+        private final RowOrder order;
+        private final int k;
+        private int[] heap;
+        private int size;
+
+        RowHeap(RowOrder order, int k) {
+            this.order = order;
+            this.k = k;
+            this.heap = new int[Math.min(k, 64)];
+        }
+
+        void offer(int row) {
+            if (size < k) {
+                if (size == heap.length) heap = Arrays.copyOf(heap, (int) Math.min((long) size * 2, k));
+                heap[size] = row;
+                up(size++);
+            } else if (k > 0 && worse(heap[0], row)) {
+                heap[0] = row;
+                down(0);
+            }
+        }
+
+        /** Retained rows, best first. */
+        int[] sorted() {
+            int[] out = new int[size];
+            int n = size;
+            for (int i = n - 1; i >= 0; i--) {
+                out[i] = heap[0];
+                heap[0] = heap[--size];
+                down(0);
+            }
+            return out;
+        }
+
+        /** Whether {@code a} sorts after {@code b}. */
+        private boolean worse(int a, int b) {
+            int c = order.compare(a, b);
+            return c != 0 ? c > 0 : a > b;
+        }
+
+        private void up(int i) {
+            int row = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(row, heap[parent])) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = row;
+        }
+
+        private void down(int i) {
+            int row = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && worse(heap[right], heap[child])) child = right;
+                if (!worse(heap[child], row)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = row;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.chadtalty.commons.data.query.columnar;
+
+import java.time.Instant;
+
+/**
+ * Read access to one row of a {@link ColumnarTable}, handed to the row mapper of a {@link ColumnarQueryEngine}
+ * for each row it materializes. Getters fail with {@link IllegalArgumentException} on unknown columns or a type
+ * other than the column's.
+ */
+public final class ColumnarRow {
+
+    private final ColumnarTable table;
+    private final int index;
+
+    ColumnarRow(ColumnarTable table, int index) {
+        this.table = table;
+        this.index = index;
+    }
+
+    /** Zero-based row number in the file. */
+    public int index() {
+        return index;
+    }
+
+    public long getLong(String column) {
+        return table.column(column, ColumnType.LONG).getLong(index);
+    }
+
+    public double getDouble(String column) {
+        return table.column(column, ColumnType.DOUBLE).getDouble(index);
+    }
+
+    public boolean getBoolean(String column) {
+        return table.column(column, ColumnType.BOOLEAN).getBoolean(index);
+    }
+
+    /** Epoch milliseconds of an instant column. */
+    public long getEpochMilli(String column) {
+        return table.column(column, ColumnType.INSTANT).getLong(index);
+    }
+
+    public Instant getInstant(String column) {
+        return Instant.ofEpochMilli(getEpochMilli(column));
+    }
+
+    /** Dictionary value of a string column, or {@code null}. */
+    public String getString(String column) {
+        return table.column(column, ColumnType.STRING).getString(index);
+    }
+}
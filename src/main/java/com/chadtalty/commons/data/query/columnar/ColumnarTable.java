@@ -0,0 +1,171 @@
+package com.chadtalty.commons.data.query.columnar;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A columnar file written by {@link ColumnarWriter}, opened with each column memory-mapped read-only.
+ *
+ * <p>Layout, all little-endian:
+ * <pre>
+ * header     magic "CQCF", version, row count, column count (4 x int32)
+ * columns    per column: type (int8), name length (int32), UTF-8 name,
+ *            data offset, dictionary offset, dictionary length (3 x int64; dictionary fields 0 for non-strings)
+ * data       per column, 8-byte aligned: row count x {@link ColumnType#width()} bytes
+ * dictionary per string column: entry count (int32), then per entry its UTF-8 length (int32) and bytes,
+ *            in ascending {@link String#compareTo} order
+ * </pre>
+ *
+ * <p>Column data stays off-heap in the page cache; only dictionaries are decoded onto the heap. Each column's data
+ * region is limited to 2 GiB. Reads are safe from any number of threads.
+ */
+public final class ColumnarTable implements AutoCloseable {
+
+    static final int MAGIC = 0x46435143; // "CQCF" little-endian
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    private ColumnarTable(FileChannel channel, int rowCount, Map<String, Column> columns) {
+        this.channel = channel;
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /** Opens and maps {@code path}; fails with {@link IllegalArgumentException} if it is not a columnar file. */
+    public static ColumnarTable open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return read(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static ColumnarTable read(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = read(channel, 0, 16);
+        if (header.getInt() != MAGIC) throw malformed("bad magic");
+        int version = header.getInt();
+        if (version != VERSION) throw malformed("unsupported version " + version);
+        int rows = header.getInt();
+        int count = header.getInt();
+        if (rows < 0 || count < 0) throw malformed("negative count");
+        Map<String, Column> columns = new LinkedHashMap<>();
+        long pos = 16;
+        for (int i = 0; i < count; i++) {
+            ByteBuffer head = read(channel, pos, 5);
+            int ordinal = head.get();
+            int nameLength = head.getInt();
+            if (ordinal < 0 || ordinal >= ColumnType.values().length) throw malformed("unknown column type");
+            if (nameLength < 0 || nameLength > size - pos - 5 - 24) throw malformed("bad column name length");
+            String name = StandardCharsets.UTF_8.decode(read(channel, pos + 5, nameLength)).toString();
+            ByteBuffer offsets = read(channel, pos + 5 + nameLength, 24);
+            pos += 5 + nameLength + 24;
+            ColumnType type = ColumnType.values()[ordinal];
+            long data = offsets.getLong();
+            long dictionary = offsets.getLong();
+            long dictionaryLength = offsets.getLong();
+            long length = (long) rows * type.width();
+            if (length > Integer.MAX_VALUE) throw malformed("column " + name + " exceeds 2 GiB");
+            if (data < 0 || data > size - length) throw malformed("column " + name + " out of bounds");
+            ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, data, length).order(ByteOrder.LITTLE_ENDIAN);
+            String[] values = null;
+            if (type == ColumnType.STRING) {
+                if (dictionary < 0
+                        || dictionaryLength < 4
+                        || dictionaryLength > Integer.MAX_VALUE
+                        || dictionary > size - dictionaryLength) {
+                    throw malformed("dictionary of " + name + " out of bounds");
+                }
+                values = dictionary(read(channel, dictionary, (int) dictionaryLength), name);
+            }
+            if (columns.put(name, new Column(name, type, region, values)) != null) {
+                throw malformed("duplicate column " + name);
+            }
+        }
+        return new ColumnarTable(channel, rows, Collections.unmodifiableMap(columns));
+    }
+
+    private static String[] dictionary(ByteBuffer in, String column) {
+        int n = in.getInt();
+        if (n < 0 || n > in.remaining() / 4) throw malformed("bad dictionary size in " + column);
+        String[] values = new String[n];
+        for (int i = 0; i < n; i++) {
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) throw malformed("bad dictionary entry in " + column);
+            ByteBuffer bytes = in.slice(in.position(), length);
+            in.position(in.position() + length);
+            values[i] = StandardCharsets.UTF_8.decode(bytes).toString();
+            if (i > 0 && values[i - 1].compareTo(values[i]) >= 0) {
+                throw malformed("dictionary of " + column + " is not sorted");
+            }
+        }
+        return values;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) throw new EOFException("truncated columnar file");
+        }
+        return buf.flip();
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed columnar file: " + reason);
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /** Column names, in file order. */
+    public Set<String> columnNames() {
+        return columns.keySet();
+    }
+
+    /** Type of {@code column}, or {@code null} if the file has no such column. */
+    public ColumnType type(String column) {
+        Column c = columns.get(column);
+        return c == null ? null : c.type;
+    }
+
+    /** Reader for row {@code index}. */
+    public ColumnarRow row(int index) {
+        if (index < 0 || index >= rowCount) throw new IndexOutOfBoundsException("row " + index + " of " + rowCount);
+        return new ColumnarRow(this, index);
+    }
+
+    /** Closes the file; mapped regions stay readable until they are garbage collected. */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** The column named {@code name}; unknown names fail like unknown fields in criteria. */
+    Column column(String name) {
+        Column c = columns.get(name);
+        if (c == null) throw new IllegalArgumentException("Unknown field: " + name);
+        return c;
+    }
+
+    Column column(String name, ColumnType type) {
+        Column c = column(name);
+        if (c.type != type) throw new IllegalArgumentException("Column " + name + " is " + c.type + ", not " + type);
+        return c;
+    }
+}
@@ -0,0 +1,284 @@
+package com.chadtalty.commons.data.query.columnar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes rows as a columnar file readable by {@link ColumnarTable}.
+ *
+ * <p>{@link #write} iterates the rows twice: once to collect and sort each string column's dictionary, once to
+ * write every column through its own bounded buffer. Memory use is therefore the dictionaries plus
+ * {@value #BUFFER} bytes per column, independent of the row count.
+ *
+ * <p>Example:
+ * <pre>
+ * ColumnarWriter&lt;Order&gt; writer = ColumnarWriter.&lt;Order&gt;builder()
+ *     .longColumn("id", Order::id)
+ *     .stringColumn("status", Order::status)
+ *     .instantColumn("created_at", Order::createdAt)
+ *     .build();
+ * writer.write(path, orders);
+ * </pre>
+ *
+ * @param <T> row type
+ */
+public final class ColumnarWriter<T> {
+
+    /** Write buffer per column. */
+    static final int BUFFER = 1 << 16;
+
+    private final Map<String, Spec<T>> columns;
+
+    private ColumnarWriter(Map<String, Spec<T>> columns) {
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(columns));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Writes {@code rows} to {@code path}, replacing any existing file; returns the number of rows written.
+     *
+     * <p>The file is written next to {@code path} under a temporary name and moved into place atomically, so
+     * readers see either the old file or the complete new one, and a failed write leaves the old file intact.
+     */
+    public int write(Path path, Iterable<? extends T> rows) throws IOException {
+        if (path == null) throw new IllegalArgumentException("path must not be null");
+        if (rows == null) throw new IllegalArgumentException("rows must not be null");
+        List<Spec<T>> specs = new ArrayList<>(columns.values());
+        List<Map<String, Integer>> codes = new ArrayList<>(specs.size());
+        List<String[]> dictionaries = new ArrayList<>(specs.size());
+        long counted = 0;
+        List<TreeSet<String>> distinct = new ArrayList<>();
+        for (int i = 0; i < specs.size(); i++) {
+            distinct.add(specs.get(i).type == ColumnType.STRING ? new TreeSet<>() : null);
+        }
+        for (T row : rows) {
+            counted++;
+            for (int i = 0; i < specs.size(); i++) {
+                if (distinct.get(i) == null) continue;
+                String v = specs.get(i).string.apply(row);
+                if (v != null) distinct.get(i).add(v);
+            }
+        }
+        int width = specs.stream().mapToInt(s -> s.type.width()).max().orElse(1);
+        if (counted * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many rows for 2 GiB columns: " + counted);
+        }
+        int rowCount = (int) counted;
+        for (TreeSet<String> values : distinct) {
+            String[] dictionary = values == null ? null : values.toArray(new String[0]);
+            Map<String, Integer> byValue = null;
+            if (dictionary != null) {
+                byValue = new HashMap<>(dictionary.length * 2);
+                for (int c = 0; c < dictionary.length; c++) {
+                    byValue.put(dictionary[c], c);
+                }
+            }
+            dictionaries.add(dictionary);
+            codes.add(byValue);
+        }
+
+        byte[][] names = new byte[specs.size()][];
+        long headerSize = 16;
+        for (int i = 0; i < specs.size(); i++) {
+            names[i] = specs.get(i).name.getBytes(StandardCharsets.UTF_8);
+            headerSize += 5 + names[i].length + 24;
+        }
+        long[] dataOffsets = new long[specs.size()];
+        long pos = align(headerSize);
+        for (int i = 0; i < specs.size(); i++) {
+            dataOffsets[i] = pos;
+            pos = align(pos + (long) rowCount * specs.get(i).type.width());
+        }
+        byte[][] dictionaryBytes = new byte[specs.size()][];
+        long[] dictionaryOffsets = new long[specs.size()];
+        for (int i = 0; i < specs.size(); i++) {
+            if (dictionaries.get(i) == null) continue;
+            dictionaryBytes[i] = encode(dictionaries.get(i));
+            dictionaryOffsets[i] = pos;
+            pos += dictionaryBytes[i].length;
+        }
+
+        // a sibling of the target, so the move stays on one file system; created with the default permissions
+        Path temp = path.resolveSibling("." + path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer header = buffer((int) headerSize);
+                header.putInt(ColumnarTable.MAGIC)
+                        .putInt(ColumnarTable.VERSION)
+                        .putInt(rowCount)
+                        .putInt(specs.size());
+                for (int i = 0; i < specs.size(); i++) {
+                    header.put((byte) specs.get(i).type.ordinal()).putInt(names[i].length).put(names[i]);
+                    header.putLong(dataOffsets[i])
+                            .putLong(dictionaryOffsets[i])
+                            .putLong(dictionaryBytes[i] == null ? 0 : dictionaryBytes[i].length);
+                }
+                writeFully(out, header.flip(), 0);
+
+                ByteBuffer[] buffers = new ByteBuffer[specs.size()];
+                long[] positions = dataOffsets.clone();
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i] = buffer(BUFFER);
+                }
+                int written = 0;
+                for (T row : rows) {
+                    if (written++ == rowCount) throw new IllegalStateException("rows changed between passes");
+                    for (int i = 0; i < specs.size(); i++) {
+                        ByteBuffer buf = buffers[i];
+                        if (buf.remaining() < 8) positions[i] = flush(out, buf, positions[i]);
+                        specs.get(i).put(row, buf, codes.get(i));
+                    }
+                }
+                if (written != rowCount) throw new IllegalStateException("rows changed between passes");
+                for (int i = 0; i < buffers.length; i++) {
+                    flush(out, buffers[i], positions[i]);
+                    if (dictionaryBytes[i] != null) {
+                        writeFully(out, ByteBuffer.wrap(dictionaryBytes[i]), dictionaryOffsets[i]);
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+        } finally {
+            if (!moved) Files.deleteIfExists(temp);
+        }
+        return rowCount;
+    }
+
+    private static byte[] encode(String[] dictionary) {
+        byte[][] entries = new byte[dictionary.length][];
+        int size = 4;
+        for (int i = 0; i < dictionary.length; i++) {
+            entries[i] = dictionary[i].getBytes(StandardCharsets.UTF_8);
+            size = Math.addExact(size, 4 + entries[i].length);
+        }
+        ByteBuffer buf = buffer(size).putInt(dictionary.length);
+        for (byte[] e : entries) {
+            buf.putInt(e.length).put(e);
+        }
+        return buf.array();
+    }
+
+    private static long flush(FileChannel out, ByteBuffer buf, long position) throws IOException {
+        buf.flip();
+        int n = buf.remaining();
+        writeFully(out, buf, position);
+        buf.clear();
+        return position + n;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            position += out.write(buf, position);
+        }
+    }
+
+    private static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long align(long pos) {
+        return (pos + 7) & ~7L;
+    }
+
+    /** Collects columns by name; later registrations replace earlier ones. */
+    public static final class Builder<T> {
+
+        private final Map<String, Spec<T>> columns = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        public Builder<T> longColumn(String name, ToLongFunction<? super T> getter) {
+            if (getter == null) throw new IllegalArgumentException("getter must not be null for column: " + name);
+            return column(name, ColumnType.LONG, (row, buf, codes) -> buf.putLong(getter.applyAsLong(row)), null);
+        }
+
+        public Builder<T> doubleColumn(String name, ToDoubleFunction<? super T> getter) {
+            if (getter == null) throw new IllegalArgumentException("getter must not be null for column: " + name);
+            return column(
+                    name, ColumnType.DOUBLE, (row, buf, codes) -> buf.putDouble(getter.applyAsDouble(row)), null);
+        }
+
+        public Builder<T> booleanColumn(String name, Predicate<? super T> getter) {
+            if (getter == null) throw new IllegalArgumentException("getter must not be null for column: " + name);
+            return column(
+                    name, ColumnType.BOOLEAN, (row, buf, codes) -> buf.put((byte) (getter.test(row) ? 1 : 0)), null);
+        }
+
+        public Builder<T> epochMillisColumn(String name, ToLongFunction<? super T> getter) {
+            if (getter == null) throw new IllegalArgumentException("getter must not be null for column: " + name);
+            return column(name, ColumnType.INSTANT, (row, buf, codes) -> buf.putLong(getter.applyAsLong(row)), null);
+        }
+
+        /** Instant column stored as epoch milliseconds; sub-millisecond digits are floored, nulls rejected. */
+        public Builder<T> instantColumn(String name, Function<? super T, Instant> getter) {
+            if (getter == null) throw new IllegalArgumentException("getter must not be null for column: " + name);
+            return column(name, ColumnType.INSTANT, (row, buf, codes) -> {
+                Instant v = getter.apply(row);
+                if (v == null) throw new IllegalArgumentException("null instant in column: " + name);
+                buf.putLong(v.toEpochMilli());
+            }, null);
+        }
+
+        /** Dictionary-encoded string column; {@code null} values are kept. */
+        public Builder<T> stringColumn(String name, Function<? super T, String> getter) {
+            if (getter == null) throw new IllegalArgumentException("getter must not be null for column: " + name);
+            return column(name, ColumnType.STRING, (row, buf, codes) -> {
+                String v = getter.apply(row);
+                Integer code = v == null ? Integer.valueOf(-1) : codes.get(v);
+                if (code == null) throw new IllegalStateException("rows changed between passes");
+                buf.putInt(code);
+            }, getter);
+        }
+
+        public ColumnarWriter<T> build() {
+            if (columns.isEmpty()) throw new IllegalArgumentException("at least one column is required");
+            return new ColumnarWriter<>(columns);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Builder<T> column(
+                String name, ColumnType type, Encoder<T> encoder, Function<? super T, String> string) {
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("column name must not be blank");
+            columns.put(name, new Spec<>(name, type, encoder, (Function<T, String>) string));
+            return this;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Encoder<T> {
+        void put(T row, ByteBuffer buf, Map<String, Integer> codes);
+    }
+
+    private record Spec<T>(String name, ColumnType type, Encoder<T> encoder, Function<T, String> string) {
+
+        void put(T row, ByteBuffer buf, Map<String, Integer> codes) {
+            encoder.put(row, buf, codes);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.chadtalty.commons.data.query.continuous;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Criteria} kept up to date over a stream of {@link RowEvent}s instead of being re-run.
+ *
+ * <p>The result is the first {@code limit} matching rows under the criteria's sort (ties, and unsorted queries,
+ * in the order rows first matched), or every matching row when no limit is given. Matching rows are held in two
+ * ordered sets, the result window and the rest, so each event costs O(log n) comparisons plus one filter
+ * evaluation: a row entering the window pushes the last window row out, and a row leaving it promotes the first
+ * of the rest. Nothing is rescanned.
+ *
+ * <p>Each event yields at most a few {@link ResultChange}s, coalesced so that an update of a row that stays in
+ * the window is one {@link ResultChange.Kind#UPDATED}. Changes are published through a
+ * {@link SubmissionPublisher}: each subscriber has a bounded buffer and, once a buffer is full, {@link #apply}
+ * blocks until that subscriber catches up, so a slow consumer throttles the change stream rather than losing
+ * changes. As a {@link Flow.Processor} the query requests upstream events one at a time, which propagates that
+ * backpressure to the event source. Changes are published after the result state is updated and outside its
+ * lock, so {@link #snapshot()}, {@link #matchCount()} and {@link #close()} never wait for a slow subscriber; an
+ * {@code apply} that is waiting when the query is closed finishes publishing, and subscribers complete after it.
+ *
+ * <p>Subscribers see changes made after they subscribe. To start from the current state, subscribe, then take
+ * a {@link #snapshot()} and skip changes whose {@link ResultChange#version()} is not above the snapshot's.
+ *
+ * <p>Example:
+ * <pre>
+ * ContinuousQuery&lt;Long, Order&gt; open = new ContinuousQuery&lt;&gt;(compiler, criteria, 20);
+ * open.subscribe(dashboard);
+ * orderEvents.subscribe(open);
+ * </pre>
+ *
+ * <p>Thread-safe; events are applied one at a time in arrival order.
+ *
+ * @param <K> row key type
+ * @param <T> row type
+ */
+public final class ContinuousQuery<K, T>
+        implements Flow.Processor<RowEvent<K, T>, ResultChange<K, T>>, AutoCloseable {
+
+    private final Predicate<T> filter;
+    private final int limit;
+    private final Map<K, Entry<K, T>> matching = new HashMap<>();
+    private final TreeSet<Entry<K, T>> window;
+    private final TreeSet<Entry<K, T>> rest;
+    private final SubmissionPublisher<ResultChange<K, T>> publisher;
+    /** Held across update and publish, so changes reach subscribers in version order. */
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile Flow.Subscription upstream;
+    private volatile boolean closed;
+    private long version;
+    private long sequence;
+
+    /** Maintains every matching row, publishing on the common pool with the default buffer size. */
+    public ContinuousQuery(CriteriaCompiler<T> compiler, Criteria criteria) {
+        this(compiler, criteria, Integer.MAX_VALUE);
+    }
+
+    /** Maintains the first {@code limit} matching rows, publishing on the common pool with the default buffer. */
+    public ContinuousQuery(CriteriaCompiler<T> compiler, Criteria criteria, int limit) {
+        this(compiler, criteria, limit, ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    public ContinuousQuery(
+            CriteriaCompiler<T> compiler, Criteria criteria, int limit, Executor executor, int bufferCapacity) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        if (limit < 1) throw new IllegalArgumentException("limit must be greater than or equal to 1");
+        if (executor == null) throw new IllegalArgumentException("executor must not be null");
+        if (bufferCapacity < 1) throw new IllegalArgumentException("bufferCapacity must be positive");
+        this.filter = compiler.compile(criteria);
+        this.limit = limit;
+        Comparator<T> order = criteria == null ? null : compiler.comparator(criteria.getSort());
+        Comparator<Entry<K, T>> entries = order == null
+                ? Comparator.comparingLong(e -> e.sequence)
+                : (a, b) -> {
+                    int c = order.compare(a.row, b.row);
+                    return c != 0 ? c : Long.compare(a.sequence, b.sequence);
+                };
+        this.window = new TreeSet<>(entries);
+        this.rest = new TreeSet<>(entries);
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    /**
+     * Applies one event and publishes the resulting changes. Inserts of a known key act as updates; updates of an
+     * unknown key act as inserts; deletes of an unknown key are ignored.
+     *
+     * @throws IllegalStateException if the query is closed
+     */
+    public void apply(RowEvent<K, T> event) {
+        if (event == null) throw new IllegalArgumentException("event must not be null");
+        publishLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Continuous query is closed");
+            for (ResultChange<K, T> change : update(event)) {
+                publisher.submit(change);
+            }
+        } finally {
+            publishLock.unlock();
+            completeIfIdle();
+        }
+    }
+
+    /** Applies {@code event} to the result state and returns the changes to publish. */
+    private synchronized List<ResultChange<K, T>> update(RowEvent<K, T> event) {
+        Entry<K, T> old = matching.get(event.key());
+        boolean matches = event.kind() != RowEvent.Kind.DELETE && filter.test(event.row());
+        version++;
+        if (old == null && !matches) return List.of();
+
+        List<ResultChange<K, T>> changes = new ArrayList<>(4);
+        if (old != null) remove(old, changes);
+        if (matches) {
+            // an updated row keeps its tie-break position
+            Entry<K, T> e = new Entry<>(event.key(), event.row(), old == null ? sequence++ : old.sequence);
+            matching.put(e.key, e);
+            add(e, changes);
+        }
+        return coalesce(changes);
+    }
+
+    /** The current result, in result order, and the version it reflects. */
+    public synchronized Snapshot<T> snapshot() {
+        List<T> rows = new ArrayList<>(window.size());
+        for (Entry<K, T> e : window) {
+            rows.add(e.row);
+        }
+        return new Snapshot<>(version, rows);
+    }
+
+    /** Number of matching rows, including those outside the top {@code limit}. */
+    public synchronized int matchCount() {
+        return matching.size();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ResultChange<K, T>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        subscription.request(1);
+    }
+
+    /** Applies {@code event}; if that fails, cancels upstream and fails subscribers with the exception. */
+    @Override
+    public void onNext(RowEvent<K, T> event) {
+        try {
+            apply(event);
+        } catch (RuntimeException e) {
+            upstream.cancel();
+            publisher.closeExceptionally(e);
+            return;
+        }
+        upstream.request(1);
+    }
+
+    /** Propagates the upstream failure to subscribers. */
+    @Override
+    public void onError(Throwable throwable) {
+        publisher.closeExceptionally(throwable);
+    }
+
+    /** Completes subscribers once the change stream ends. */
+    @Override
+    public void onComplete() {
+        publisher.close();
+    }
+
+    /**
+     * Cancels the upstream subscription, if any, and completes subscribers, once any {@link #apply} in progress has
+     * published its changes. Does not wait for that.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Flow.Subscription s = upstream;
+        if (s != null) s.cancel();
+        completeIfIdle();
+    }
+
+    /**
+     * Closes the publisher after {@link #close()} unless an {@code apply} holds the publish lock, in which case that
+     * apply does it on its way out. {@link SubmissionPublisher#close()} would otherwise block behind its submit.
+     */
+    private void completeIfIdle() {
+        if (!closed || !publishLock.tryLock()) return;
+        try {
+            publisher.close();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void add(Entry<K, T> e, List<ResultChange<K, T>> changes) {
+        if (window.size() < limit) {
+            window.add(e);
+            changes.add(change(ResultChange.Kind.ADDED, e));
+        } else if (window.comparator().compare(e, window.last()) < 0) {
+            window.add(e);
+            Entry<K, T> demoted = window.pollLast();
+            rest.add(demoted);
+            changes.add(change(ResultChange.Kind.ADDED, e));
+            changes.add(change(ResultChange.Kind.REMOVED, demoted));
+        } else {
+            rest.add(e);
+        }
+    }
+
+    private void remove(Entry<K, T> e, List<ResultChange<K, T>> changes) {
+        matching.remove(e.key);
+        if (window.remove(e)) {
+            changes.add(change(ResultChange.Kind.REMOVED, e));
+            Entry<K, T> promoted = rest.pollFirst();
+            if (promoted != null) {
+                window.add(promoted);
+                changes.add(change(ResultChange.Kind.ADDED, promoted));
+            }
+        } else {
+            rest.remove(e);
+        }
+    }
+
+    private ResultChange<K, T> change(ResultChange.Kind kind, Entry<K, T> e) {
+        return new ResultChange<>(kind, e.key, e.row, version);
+    }
+
+    /** Folds removed-then-added into updated and drops added-then-removed, per key, keeping first-seen order. */
+    private static <K, T> List<ResultChange<K, T>> coalesce(List<ResultChange<K, T>> changes) {
+        if (changes.size() < 2) return changes;
+        List<ResultChange<K, T>> out = new ArrayList<>(changes.size());
+        for (ResultChange<K, T> c : changes) {
+            int prior = -1;
+            for (int i = 0; i < out.size(); i++) {
+                if (out.get(i).key().equals(c.key())) prior = i;
+            }
+            if (prior < 0) {
+                out.add(c);
+            } else if (out.get(prior).kind() == ResultChange.Kind.REMOVED) {
+                out.set(prior, new ResultChange<>(ResultChange.Kind.UPDATED, c.key(), c.row(), c.version()));
+            } else if (out.get(prior).kind() == ResultChange.Kind.ADDED) {
+                out.remove(prior);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Result state at one version.
+     *
+     * @param version number of events applied so far
+     * @param rows result rows in result order
+     * @param <T> row type
+     */
+    public record Snapshot<T>(long version, List<T> rows) {
+
+        public Snapshot {
+            rows = List.copyOf(rows);
+        }
+    }
+
+    private static final class Entry<K, T> {
+
+        final K key;
+        final T row;
+        final long sequence;
+
+        Entry(K key, T row, long sequence) {
+            this.key = key;
+            this.row = row;
+            this.sequence = sequence;
+        }
+    }
+}
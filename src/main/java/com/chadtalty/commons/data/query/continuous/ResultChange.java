@@ -0,0 +1,24 @@
+package com.chadtalty.commons.data.query.continuous;
+
+/**
+ * One change to the result of a {@link ContinuousQuery}.
+ *
+ * @param kind how the result changed
+ * @param key identity of the affected row
+ * @param row row state now in the result, or the last state it had for {@link Kind#REMOVED}
+ * @param version version of the result after the event that caused this change; compare with
+ *     {@link ContinuousQuery.Snapshot#version()} to skip changes a snapshot already contains
+ * @param <K> row key type
+ * @param <T> row type
+ */
+public record ResultChange<K, T>(Kind kind, K key, T row, long version) {
+
+    public enum Kind {
+        /** The row entered the result. */
+        ADDED,
+        /** The row stayed in the result but its state (and possibly its position) changed. */
+        UPDATED,
+        /** The row left the result, because it was deleted, stopped matching or was pushed out of the top K. */
+        REMOVED
+    }
+}
@@ -0,0 +1,37 @@
+package com.chadtalty.commons.data.query.continuous;
+
+/**
+ * One entry of a change stream fed to a {@link ContinuousQuery}.
+ *
+ * @param kind what happened to the row
+ * @param key identity of the row; stable across updates
+ * @param row row state after the change; may be {@code null} for deletes
+ * @param <K> row key type
+ * @param <T> row type
+ */
+public record RowEvent<K, T>(Kind kind, K key, T row) {
+
+    public RowEvent {
+        if (kind == null) throw new IllegalArgumentException("kind must not be null");
+        if (key == null) throw new IllegalArgumentException("key must not be null");
+        if (row == null && kind != Kind.DELETE) throw new IllegalArgumentException("row must not be null for " + kind);
+    }
+
+    public static <K, T> RowEvent<K, T> insert(K key, T row) {
+        return new RowEvent<>(Kind.INSERT, key, row);
+    }
+
+    public static <K, T> RowEvent<K, T> update(K key, T row) {
+        return new RowEvent<>(Kind.UPDATE, key, row);
+    }
+
+    public static <K, T> RowEvent<K, T> delete(K key) {
+        return new RowEvent<>(Kind.DELETE, key, null);
+    }
+
+    public enum Kind {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+}
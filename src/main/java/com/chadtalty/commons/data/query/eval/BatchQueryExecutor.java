@@ -0,0 +1,248 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.admission.QueryCancelledException;
+import com.chadtalty.commons.data.query.admission.QueryContext;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates a batch of criteria against the same rows in one shared scan.
+ *
+ * <p>Filters are deduplicated across the batch by join path, field, type and value, so a filter that appears
+ * in twenty queries is compiled once and evaluated at most once per row. Rows are read in blocks of
+ * {@value #BLOCK}, and each query narrows its block bitset filter by filter, in criteria order: a filter is
+ * evaluated only on the rows that passed the query's earlier filters, as in the compiled conjunction, and
+ * results already computed for another query are reused. The surviving rows go straight to that query's page.
+ * The source is iterated once, and per-row evaluations grow with the number of distinct filters rather than
+ * the number of queries.
+ *
+ * <p>Each page equals {@link QueryExecutor#page(Iterable, PageableCriteria)} for the same criteria, including
+ * tie order and the {@code -1} total of an unsorted page that filled early. Once every unsorted query has its
+ * page and no sorted query remains, the scan stops; finished queries no longer evaluate filters. The
+ * {@link QueryContext} overload checks before the scan and before every block.
+ *
+ * <p>Example:
+ * <pre>
+ * List&lt;Page&lt;Order&gt;&gt; pages = new BatchQueryExecutor&lt;&gt;(compiler).pages(orders, dashboardCriteria);
+ * </pre>
+ *
+ * @param <T> row type
+ */
+public final class BatchQueryExecutor<T> {
+
+    /** Rows per block; a multiple of 64. */
+    static final int BLOCK = 1024;
+
+    private final CriteriaCompiler<T> compiler;
+
+    public BatchQueryExecutor(CriteriaCompiler<T> compiler) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        this.compiler = compiler;
+    }
+
+    /** Returns the requested page of each criteria, in batch order. */
+    public List<Page<T>> pages(Iterable<? extends T> rows, List<? extends PageableCriteria> batch) {
+        return pages(rows, batch, null);
+    }
+
+    /**
+     * Returns the requested page of each criteria, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public List<Page<T>> pages(
+            Iterable<? extends T> rows, List<? extends PageableCriteria> batch, QueryContext context) {
+        if (batch == null) throw new IllegalArgumentException("batch must not be null");
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            Map<Key, Integer> ids = new HashMap<>();
+            List<Predicate<T>> distinct = new ArrayList<>();
+            List<Sink<T>> sinks = new ArrayList<>(batch.size());
+            for (PageableCriteria criteria : batch) {
+                sinks.add(sink(criteria, ids, distinct));
+            }
+            scan(rows, distinct, sinks, context);
+            List<Page<T>> out = new ArrayList<>(sinks.size());
+            for (Sink<T> s : sinks) {
+                out.add(s.page());
+            }
+            return out;
+        } finally {
+            if (span != null) span.end(union(batch));
+        }
+    }
+
+    private Sink<T> sink(PageableCriteria criteria, Map<Key, Integer> ids, List<Predicate<T>> distinct) {
+        if (criteria == null) throw new IllegalArgumentException("batch must not contain null");
+        if (criteria.getSize() == null) throw new IllegalArgumentException("size must not be null");
+        if (criteria.getCursor() != null) {
+            throw new IllegalArgumentException("cursor pagination requires a keyset.KeysetPager");
+        }
+        int page = criteria.getPage() == null ? 0 : criteria.getPage();
+        int size = criteria.getSize();
+        if (page < 0) throw new IllegalArgumentException("page must be greater than or equal to 0");
+        if (size < 1) throw new IllegalArgumentException("size must be greater than or equal to 1");
+
+        Set<Integer> filters = new LinkedHashSet<>();
+        if (criteria.getFilters() != null) {
+            for (Filter f : criteria.getFilters()) {
+                if (f == null) throw new IllegalArgumentException("filter must not be null");
+                filters.add(id(null, f, ids, distinct));
+            }
+        }
+        if (criteria.getJoins() != null) {
+            for (JoinSpec j : criteria.getJoins()) {
+                if (j == null) throw new IllegalArgumentException("join must not be null");
+                if (j.getFilter() != null) filters.add(id(j.getJoin(), j.getFilter(), ids, distinct));
+            }
+        }
+        int[] ref = filters.stream().mapToInt(Integer::intValue).toArray();
+        return new Sink<>(ref, compiler.comparator(criteria.getSort()), page, size);
+    }
+
+    private int id(String join, Filter f, Map<Key, Integer> ids, List<Predicate<T>> distinct) {
+        // filter equality excludes the inherited field and type, so both are part of the key
+        Key key = new Key(join, f.getField(), f.getType(), f);
+        Integer id = ids.get(key);
+        if (id != null) return id;
+        distinct.add(join == null ? compiler.compile(f) : compiler.compileJoined(join, f));
+        ids.put(key, distinct.size() - 1);
+        return distinct.size() - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void scan(
+            Iterable<? extends T> rows, List<Predicate<T>> distinct, List<Sink<T>> sinks, QueryContext context) {
+        int words = BLOCK >>> 6;
+        long[][] passed = new long[distinct.size()][words];
+        long[][] evaluated = new long[distinct.size()][words];
+        long[] match = new long[words];
+        int active = sinks.size();
+        Object[] block = new Object[BLOCK];
+        Iterator<? extends T> it = rows.iterator();
+        while (active > 0 && it.hasNext()) {
+            if (context != null) context.check();
+            int n = 0;
+            while (n < BLOCK && it.hasNext()) {
+                block[n++] = it.next();
+            }
+            int used = (n + 63) >>> 6;
+            for (long[] e : evaluated) {
+                Arrays.fill(e, 0, used, 0L);
+            }
+            for (Sink<T> s : sinks) {
+                if (s.done) continue;
+                Arrays.fill(match, 0, used, -1L);
+                if ((n & 63) != 0) match[used - 1] = (1L << (n & 63)) - 1;
+                for (int f : s.filters) {
+                    if (!narrow(distinct.get(f), block, used, match, passed[f], evaluated[f])) break;
+                }
+                matches:
+                for (int w = 0; w < used; w++) {
+                    for (long word = match[w]; word != 0; word &= word - 1) {
+                        if (s.accept((T) block[(w << 6) + Long.numberOfTrailingZeros(word)])) {
+                            active--;
+                            break matches;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the bits of {@code match} whose rows fail {@code filter}, first evaluating it on the rows in
+     * {@code match} that no other query has evaluated it on in this block. Returns whether any bit is left.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> boolean narrow(
+            Predicate<T> filter, Object[] block, int used, long[] match, long[] passed, long[] evaluated) {
+        long any = 0;
+        for (int w = 0; w < used; w++) {
+            long todo = match[w] & ~evaluated[w];
+            if (todo != 0) {
+                long word = passed[w] & evaluated[w];
+                for (long t = todo; t != 0; t &= t - 1) {
+                    int bit = Long.numberOfTrailingZeros(t);
+                    if (filter.test((T) block[(w << 6) + bit])) word |= 1L << bit;
+                }
+                passed[w] = word;
+                evaluated[w] |= todo;
+            }
+            match[w] &= passed[w];
+            any |= match[w];
+        }
+        return any != 0;
+    }
+
+    /** All filters and joins of the batch, to tag the execute event. */
+    private static Criteria union(List<? extends PageableCriteria> batch) {
+        List<JoinSpec> joins = new ArrayList<>();
+        List<Filter> filters = new ArrayList<>();
+        for (PageableCriteria c : batch) {
+            if (c == null) continue;
+            if (c.getJoins() != null) joins.addAll(c.getJoins());
+            if (c.getFilters() != null) filters.addAll(c.getFilters());
+        }
+        return new Criteria(joins, filters, null);
+    }
+
+    private record Key(String join, String field, FilterType type, Filter filter) {}
+
+    /** One query's page under construction; mirrors {@link QueryExecutor}'s sorted and unsorted paths. */
+    private static final class Sink<T> {
+
+        final int[] filters;
+        final int page;
+        final int size;
+        final long offset;
+        final TopK<T> top;
+        final List<T> content;
+        long matched;
+        boolean done;
+
+        Sink(int[] filters, Comparator<T> order, int page, int size) {
+            this.filters = filters;
+            this.page = page;
+            this.size = size;
+            this.offset = (long) page * size;
+            this.top = order == null ? null : new TopK<>(order, QueryExecutor.heapSize(offset + size));
+            this.content = order == null ? new ArrayList<>(Math.min(size, 1024)) : null;
+        }
+
+        /** Takes one matching row; returns {@code true} once an unsorted page is full and needs no more rows. */
+        boolean accept(T row) {
+            if (top != null) {
+                matched++;
+                top.offer(row);
+                return false;
+            }
+            if (matched++ >= offset) {
+                content.add(row);
+                done = content.size() == size;
+            }
+            return done;
+        }
+
+        Page<T> page() {
+            if (top == null) return new Page<>(content, page, size, done ? -1 : matched);
+            List<T> rows = offset >= top.size() ? List.of() : top.drainRange((int) offset, (int) (offset + size));
+            return new Page<>(rows, page, size, matched);
+        }
+    }
+}
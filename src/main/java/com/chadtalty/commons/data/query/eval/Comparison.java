@@ -0,0 +1,58 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+
+/**
+ * Normalized comparison shared by {@link BasicFilter.Operator} and {@link DateTimeFilter.Operator}, so
+ * compiled kernels only dispatch on one operator set.
+ */
+public enum Comparison {
+    EQ,
+    NE,
+    GT,
+    GE,
+    LT,
+    LE;
+
+    /** Maps a basic filter operator. */
+    public static Comparison of(BasicFilter.Operator op) {
+        return switch (op) {
+            case EQUAL -> EQ;
+            case NOT_EQUAL -> NE;
+            case GREATER_THAN -> GT;
+            case GREATER_THAN_OR_EQUAL -> GE;
+            case LESS_THAN -> LT;
+            case LESS_THAN_OR_EQUAL -> LE;
+        };
+    }
+
+    /** Maps a date-time filter operator ({@code after} is {@code >}, {@code before} is {@code <}). */
+    public static Comparison of(DateTimeFilter.Operator op) {
+        return switch (op) {
+            case EQUAL -> EQ;
+            case NOT_EQUAL -> NE;
+            case AFTER -> GT;
+            case AFTER_OR_EQUAL -> GE;
+            case BEFORE -> LT;
+            case BEFORE_OR_EQUAL -> LE;
+        };
+    }
+
+    /** Whether this comparison orders values (anything but equality/inequality). */
+    public boolean isOrdering() {
+        return this != EQ && this != NE;
+    }
+
+    /** Applies this comparison to the result of {@code compare(value, operand)}. */
+    public boolean test(int cmp) {
+        return switch (this) {
+            case EQ -> cmp == 0;
+            case NE -> cmp != 0;
+            case GT -> cmp > 0;
+            case GE -> cmp >= 0;
+            case LT -> cmp < 0;
+            case LE -> cmp <= 0;
+        };
+    }
+}
@@ -0,0 +1,431 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.membership.Membership;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compiles {@link Criteria} and {@link Filter}s into reusable, thread-safe {@link Predicate}s.
+ *
+ * <p>All field resolution, operand parsing (integers, doubles, instants to epoch millis, enum constants)
+ * and operator dispatch happen once here; the returned predicates capture primitives and do not allocate
+ * per row. Filters and join filters are combined with AND.
+ *
+ * <p>Semantics:
+ * <ul>
+ *   <li>Join filters apply to the field qualified by the join path, e.g. join {@code customer.address} with a
+ *       filter on {@code postal_code} reads {@code customer.address.postal_code}.</li>
+ *   <li>A {@code null} value read by an object accessor matches no filter, including {@code not_equal}.</li>
+ *   <li>{@link BetweenFilter} bounds are inclusive.</li>
+ * </ul>
+ *
+ * @param <T> row type
+ */
+public final class CriteriaCompiler<T> {
+
+    private final FieldResolver<T> resolver;
+
+    public CriteriaCompiler(FieldResolver<T> resolver) {
+        if (resolver == null) throw new IllegalArgumentException("resolver must not be null");
+        this.resolver = resolver;
+    }
+
+    /** Compiles all filters and join filters of {@code criteria} into one conjunction. */
+    public Predicate<T> compile(Criteria criteria) {
+        if (criteria == null) return Predicates.alwaysTrue();
+        Instrumentation.Span span = Instrumentation.begin(Stage.PLAN);
+        try {
+            return conjunction(criteria);
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    private Predicate<T> conjunction(Criteria criteria) {
+        List<Predicate<T>> parts = new ArrayList<>();
+        if (criteria.getFilters() != null) {
+            for (Filter f : criteria.getFilters()) {
+                parts.add(compile(f));
+            }
+        }
+        if (criteria.getJoins() != null) {
+            for (JoinSpec j : criteria.getJoins()) {
+                if (j == null) throw new IllegalArgumentException("join must not be null");
+                if (j.getFilter() != null) parts.add(compileJoined(j.getJoin(), j.getFilter()));
+            }
+        }
+        return Predicates.and(parts);
+    }
+
+    /** Compiles a join filter against the joined field {@code join.field}. */
+    Predicate<T> compileJoined(String join, Filter f) {
+        FieldRef<T> ref = resolver instanceof FieldRegistry<T> registry ? registry.find(join, f.getField()) : null;
+        return ref != null
+                ? binder(f.getType(), ref.name(), ref.accessor()).bind(f)
+                : compile(f, qualify(join, f.getField()));
+    }
+
+    /** Compiles a single filter against its own field. */
+    public Predicate<T> compile(Filter filter) {
+        if (filter == null) throw new IllegalArgumentException("filter must not be null");
+        return compile(filter, filter.getField());
+    }
+
+    /** Compiles a single filter against {@code field}, which may differ from the filter's own (joins). */
+    public Predicate<T> compile(Filter filter, String field) {
+        return binder(filter.getType(), field).bind(filter);
+    }
+
+    /**
+     * Resolves {@code field} and selects the kernel family for {@code type} once; the returned binder turns
+     * concrete filters of that type into predicates without repeating either step.
+     */
+    public FilterBinder<T> binder(FilterType type, String field) {
+        return binder(type, field, resolve(field));
+    }
+
+    private FilterBinder<T> binder(FilterType type, String field, FieldAccessor<T> accessor) {
+        if (type == null) throw new IllegalArgumentException("filter type must not be null");
+        FilterBinder<T> kernels = switch (type) {
+            case BASIC -> filter -> {
+                BasicFilter f = (BasicFilter) filter;
+                if (f.getOperator() == null) {
+                    throw new IllegalArgumentException("basic filter operator must not be null");
+                }
+                if (f.getValue() == null) throw new IllegalArgumentException("basic filter value must not be null");
+                return compare(accessor, field, Comparison.of(f.getOperator()), f.getValue());
+            };
+            case DATE_TIME -> filter -> {
+                DateTimeFilter f = (DateTimeFilter) filter;
+                if (f.getOperator() == null) {
+                    throw new IllegalArgumentException("date-time filter operator must not be null");
+                }
+                if (f.getValue() == null) {
+                    throw new IllegalArgumentException("date-time filter value must not be null");
+                }
+                return compareInstant(accessor, field, Comparison.of(f.getOperator()), f);
+            };
+            case BETWEEN -> filter -> {
+                BetweenFilter f = (BetweenFilter) filter;
+                if (f.getStartDateTime() == null || f.getEndDateTime() == null) {
+                    throw new IllegalArgumentException("between_filter bounds must not be null");
+                }
+                return between(accessor, field, f);
+            };
+            case CONTAINS -> filter -> {
+                ContainsFilter f = (ContainsFilter) filter;
+                if (f.getValues() == null || f.getValues().isEmpty()) {
+                    throw new IllegalArgumentException("contains filter values must not be empty");
+                }
+                return contains(accessor, field, f);
+            };
+        };
+        return filter -> Instrumentation.instrument(kernels.bind(filter), field, filter);
+    }
+
+    /**
+     * Compiles {@code sort} into one composite comparator: ascending fields first, then descending fields, each in
+     * list order, {@code null} values last. Returns {@code null} when no sort fields are given.
+     */
+    public Comparator<T> comparator(SortSpec sort) {
+        return SortComparators.of(sort, this);
+    }
+
+    /** Resolves a field, failing fast on unknown names. */
+    public FieldAccessor<T> resolve(String field) {
+        if (field == null) throw new IllegalArgumentException("filter field must not be null");
+        FieldAccessor<T> accessor = resolver.resolve(field);
+        if (accessor == null) throw new IllegalArgumentException("Unknown field: " + field);
+        return accessor;
+    }
+
+    /** Joins a join path and a field name with a dot. */
+    public static String qualify(String join, String field) {
+        return join == null || join.isEmpty() ? field : join + "." + field;
+    }
+
+    private Predicate<T> compare(FieldAccessor<T> accessor, String field, Comparison op, String value) {
+        if (accessor instanceof FieldAccessor.LongField<T> a) {
+            return longCompare(a.getter(), op, Operands.parseLong(field, value));
+        }
+        if (accessor instanceof FieldAccessor.DoubleField<T> a) {
+            return doubleCompare(a.getter(), op, Operands.parseDouble(field, value));
+        }
+        if (accessor instanceof FieldAccessor.EpochMillisField<T> a) {
+            return longCompare(a.getter(), op, Operands.parseEpochMilli(field, value));
+        }
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            return instantCompare(a.getter(), op, Operands.parseInstant(field, value));
+        }
+        if (accessor instanceof FieldAccessor.StringField<T> a) {
+            return stringCompare(a.getter(), op, value);
+        }
+        if (accessor instanceof FieldAccessor.BooleanField<T> a) {
+            if (op.isOrdering()) throw new IllegalArgumentException("Ordering operator not supported on field: " + field);
+            boolean x = Operands.parseBoolean(field, value);
+            Predicate<? super T> g = a.getter();
+            return op == Comparison.EQ ? r -> g.test(r) == x : r -> g.test(r) != x;
+        }
+        FieldAccessor.EnumField<T, ?> a = (FieldAccessor.EnumField<T, ?>) accessor;
+        return enumCompare(a, op, value);
+    }
+
+    private Predicate<T> compareInstant(FieldAccessor<T> accessor, String field, Comparison op, DateTimeFilter f) {
+        if (accessor instanceof FieldAccessor.EpochMillisField<T> a) {
+            return longCompare(a.getter(), op, f.getValueEpochMilli());
+        }
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            return instantCompare(a.getter(), op, f.getValue());
+        }
+        throw new IllegalArgumentException("Field is not temporal: " + field);
+    }
+
+    private Predicate<T> between(FieldAccessor<T> accessor, String field, BetweenFilter f) {
+        if (accessor instanceof FieldAccessor.EpochMillisField<T> a) {
+            ToLongFunction<? super T> g = a.getter();
+            long lo = f.getStartEpochMilli();
+            long hi = f.getEndEpochMilli();
+            return r -> {
+                long v = g.applyAsLong(r);
+                return v >= lo && v <= hi;
+            };
+        }
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            Function<? super T, Instant> g = a.getter();
+            Instant start = f.getStartDateTime();
+            Instant end = f.getEndDateTime();
+            return r -> {
+                Instant v = g.apply(r);
+                return v != null && v.compareTo(start) >= 0 && v.compareTo(end) <= 0;
+            };
+        }
+        throw new IllegalArgumentException("Field is not temporal: " + field);
+    }
+
+    private Predicate<T> contains(FieldAccessor<T> accessor, String field, ContainsFilter filter) {
+        List<String> values = filter.getValues();
+        if (accessor instanceof FieldAccessor.LongField<T> a) {
+            ToLongFunction<? super T> g = a.getter();
+            Membership set = filter.membership();
+            if (set.isIntegral()) return r -> set.containsLong(g.applyAsLong(r));
+            // non-canonical spellings such as "007" or "+7": parse and search directly
+            long[] parsed = sortedDistinct(values.stream()
+                    .mapToLong(v -> Operands.parseLong(field, v))
+                    .toArray());
+            return r -> Arrays.binarySearch(parsed, g.applyAsLong(r)) >= 0;
+        }
+        if (accessor instanceof FieldAccessor.DoubleField<T> a) {
+            ToDoubleFunction<? super T> g = a.getter();
+            double[] set = values.stream()
+                    .mapToDouble(v -> Operands.parseDouble(field, v))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            return r -> Arrays.binarySearch(set, g.applyAsDouble(r)) >= 0;
+        }
+        if (accessor instanceof FieldAccessor.EpochMillisField<T> a) {
+            ToLongFunction<? super T> g = a.getter();
+            long[] set = sortedDistinct(epochMillis(field, values));
+            return r -> Arrays.binarySearch(set, g.applyAsLong(r)) >= 0;
+        }
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            Function<? super T, Instant> g = a.getter();
+            long[] set = sortedDistinct(epochMillis(field, values));
+            Instant min = Instant.ofEpochMilli(set[0]);
+            Instant max = Instant.ofEpochMilli(set[set.length - 1]);
+            return r -> {
+                Instant v = g.apply(r);
+                // the bounds check also keeps toEpochMilli from overflowing on extreme row values
+                return v != null
+                        && v.getNano() % 1_000_000 == 0
+                        && v.compareTo(min) >= 0
+                        && v.compareTo(max) <= 0
+                        && Arrays.binarySearch(set, v.toEpochMilli()) >= 0;
+            };
+        }
+        if (accessor instanceof FieldAccessor.StringField<T> a) {
+            Function<? super T, String> g = a.getter();
+            Membership set = filter.membership();
+            return r -> {
+                String v = g.apply(r);
+                return v != null && set.contains(v);
+            };
+        }
+        if (accessor instanceof FieldAccessor.BooleanField<T> a) {
+            Predicate<? super T> g = a.getter();
+            boolean acceptTrue = false;
+            boolean acceptFalse = false;
+            for (String v : values) {
+                if (Operands.parseBoolean(field, v)) acceptTrue = true;
+                else acceptFalse = true;
+            }
+            boolean t = acceptTrue;
+            boolean f = acceptFalse;
+            return r -> g.test(r) ? t : f;
+        }
+        return enumContains((FieldAccessor.EnumField<T, ?>) accessor, values);
+    }
+
+    private static <T> Predicate<T> longCompare(ToLongFunction<? super T> g, Comparison op, long x) {
+        return switch (op) {
+            case EQ -> r -> g.applyAsLong(r) == x;
+            case NE -> r -> g.applyAsLong(r) != x;
+            case GT -> r -> g.applyAsLong(r) > x;
+            case GE -> r -> g.applyAsLong(r) >= x;
+            case LT -> r -> g.applyAsLong(r) < x;
+            case LE -> r -> g.applyAsLong(r) <= x;
+        };
+    }
+
+    private static <T> Predicate<T> doubleCompare(ToDoubleFunction<? super T> g, Comparison op, double x) {
+        return switch (op) {
+            case EQ -> r -> g.applyAsDouble(r) == x;
+            case NE -> r -> g.applyAsDouble(r) != x;
+            case GT -> r -> g.applyAsDouble(r) > x;
+            case GE -> r -> g.applyAsDouble(r) >= x;
+            case LT -> r -> g.applyAsDouble(r) < x;
+            case LE -> r -> g.applyAsDouble(r) <= x;
+        };
+    }
+
+    private static <T> Predicate<T> instantCompare(Function<? super T, Instant> g, Comparison op, Instant x) {
+        return r -> {
+            Instant v = g.apply(r);
+            return v != null && op.test(v.compareTo(x));
+        };
+    }
+
+    private static <T> Predicate<T> stringCompare(Function<? super T, String> g, Comparison op, String x) {
+        return switch (op) {
+            case EQ -> r -> x.equals(g.apply(r));
+            case NE -> r -> {
+                String v = g.apply(r);
+                return v != null && !x.equals(v);
+            };
+            default -> r -> {
+                String v = g.apply(r);
+                return v != null && op.test(v.compareTo(x));
+            };
+        };
+    }
+
+    private static <T, E extends Enum<E>> Predicate<T> enumCompare(
+            FieldAccessor.EnumField<T, E> a, Comparison op, String value) {
+        Function<? super T, E> g = a.getter();
+        E x = a.parse(value);
+        return switch (op) {
+            case EQ -> r -> g.apply(r) == x;
+            case NE -> r -> {
+                E v = g.apply(r);
+                return v != null && v != x;
+            };
+            default -> {
+                int ordinal = x.ordinal();
+                yield r -> {
+                    E v = g.apply(r);
+                    return v != null && op.test(Integer.compare(v.ordinal(), ordinal));
+                };
+            }
+        };
+    }
+
+    private static <T, E extends Enum<E>> Predicate<T> enumContains(
+            FieldAccessor.EnumField<T, E> a, List<String> values) {
+        Function<? super T, E> g = a.getter();
+        EnumSet<E> set = EnumSet.noneOf(a.type());
+        for (String v : values) {
+            set.add(a.parse(v));
+        }
+        return r -> {
+            E v = g.apply(r);
+            return v != null && set.contains(v);
+        };
+    }
+
+    private static long[] epochMillis(String field, List<String> values) {
+        long[] out = new long[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Operands.parseEpochMilli(field, values.get(i));
+        }
+        return out;
+    }
+
+    private static long[] sortedDistinct(long[] values) {
+        return Arrays.stream(values).sorted().distinct().toArray();
+    }
+
+    /** String operand parsing with field-qualified error messages. */
+    public static final class Operands {
+
+        private Operands() {}
+
+        public static long parseLong(String field, String v) {
+            try {
+                return Long.parseLong(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Value for field " + field + " is not an integer: " + v, e);
+            }
+        }
+
+        public static double parseDouble(String field, String v) {
+            try {
+                return Double.parseDouble(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Value for field " + field + " is not a number: " + v, e);
+            }
+        }
+
+        public static Instant parseInstant(String field, String v) {
+            try {
+                return Instant.parse(v.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Value for field " + field + " is not an ISO-8601 instant: " + v, e);
+            }
+        }
+
+        /** An ISO-8601 instant as epoch milliseconds, sub-millisecond digits floored. */
+        public static long parseEpochMilli(String field, String v) {
+            return epochMilli(field, parseInstant(field, v));
+        }
+
+        /**
+         * {@code value} as epoch milliseconds, failing like {@link DateTimeFilter#getValueEpochMilli()} when it lies
+         * outside their range.
+         */
+        public static long epochMilli(String field, Instant value) {
+            try {
+                return value.toEpochMilli();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(
+                        "Value for field " + field + " is outside the epoch-millisecond range: " + value, e);
+            }
+        }
+
+        public static boolean parseBoolean(String field, String v) {
+            String norm = v.trim().toLowerCase();
+            if ("true".equals(norm)) return true;
+            if ("false".equals(norm)) return false;
+            throw new IllegalArgumentException("Value for field " + field + " is not a boolean: " + v);
+        }
+    }
+}
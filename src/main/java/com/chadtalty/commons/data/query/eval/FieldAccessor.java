@@ -0,0 +1,127 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Typed read access to a single field of a row type {@code T}.
+ *
+ * <p>The accessor kind tells {@link CriteriaCompiler} how to parse filter operands, so that all string
+ * conversion happens once at compile time and row evaluation works on primitives where possible.
+ *
+ * <p>Primitive accessors ({@link LongField}, {@link DoubleField}, {@link EpochMillisField},
+ * {@link BooleanField}) never see {@code null}; object accessors treat a {@code null} field value as
+ * matching no filter.
+ *
+ * @param <T> row type
+ */
+public sealed interface FieldAccessor<T>
+        permits FieldAccessor.LongField,
+                FieldAccessor.DoubleField,
+                FieldAccessor.EpochMillisField,
+                FieldAccessor.InstantField,
+                FieldAccessor.StringField,
+                FieldAccessor.BooleanField,
+                FieldAccessor.EnumField {
+
+    /** Integral numeric field read as a primitive {@code long}. */
+    static <T> FieldAccessor<T> ofLong(ToLongFunction<? super T> getter) {
+        return new LongField<>(getter);
+    }
+
+    /** Floating-point numeric field read as a primitive {@code double}. */
+    static <T> FieldAccessor<T> ofDouble(ToDoubleFunction<? super T> getter) {
+        return new DoubleField<>(getter);
+    }
+
+    /** Temporal field stored as epoch milliseconds. */
+    static <T> FieldAccessor<T> ofEpochMillis(ToLongFunction<? super T> getter) {
+        return new EpochMillisField<>(getter);
+    }
+
+    /** Temporal field stored as a (nullable) {@link Instant}. */
+    static <T> FieldAccessor<T> ofInstant(Function<? super T, Instant> getter) {
+        return new InstantField<>(getter);
+    }
+
+    /** Textual field; ordering operators compare lexicographically. */
+    static <T> FieldAccessor<T> ofString(Function<? super T, String> getter) {
+        return new StringField<>(getter);
+    }
+
+    /** Boolean field; only equality operators are supported. */
+    static <T> FieldAccessor<T> ofBoolean(Predicate<? super T> getter) {
+        return new BooleanField<>(getter);
+    }
+
+    /** Enum field; operands are matched against constant names, ordering follows declaration order. */
+    static <T, E extends Enum<E>> FieldAccessor<T> ofEnum(Class<E> type, Function<? super T, E> getter) {
+        return new EnumField<>(type, getter);
+    }
+
+    /** Integral numeric field. */
+    record LongField<T>(ToLongFunction<? super T> getter) implements FieldAccessor<T> {
+        public LongField {
+            Objects.requireNonNull(getter, "getter");
+        }
+    }
+
+    /** Floating-point numeric field. */
+    record DoubleField<T>(ToDoubleFunction<? super T> getter) implements FieldAccessor<T> {
+        public DoubleField {
+            Objects.requireNonNull(getter, "getter");
+        }
+    }
+
+    /** Temporal field as epoch milliseconds. */
+    record EpochMillisField<T>(ToLongFunction<? super T> getter) implements FieldAccessor<T> {
+        public EpochMillisField {
+            Objects.requireNonNull(getter, "getter");
+        }
+    }
+
+    /** Temporal field as {@link Instant}. */
+    record InstantField<T>(Function<? super T, Instant> getter) implements FieldAccessor<T> {
+        public InstantField {
+            Objects.requireNonNull(getter, "getter");
+        }
+    }
+
+    /** Textual field. */
+    record StringField<T>(Function<? super T, String> getter) implements FieldAccessor<T> {
+        public StringField {
+            Objects.requireNonNull(getter, "getter");
+        }
+    }
+
+    /** Boolean field. */
+    record BooleanField<T>(Predicate<? super T> getter) implements FieldAccessor<T> {
+        public BooleanField {
+            Objects.requireNonNull(getter, "getter");
+        }
+    }
+
+    /** Enum field. */
+    record EnumField<T, E extends Enum<E>>(Class<E> type, Function<? super T, E> getter) implements FieldAccessor<T> {
+        public EnumField {
+            Objects.requireNonNull(type, "type");
+            Objects.requireNonNull(getter, "getter");
+        }
+
+        /** Resolves an operand to a constant by exact, then case-insensitive, name. */
+        public E parse(String v) {
+            String norm = v.trim();
+            for (E e : type.getEnumConstants()) {
+                if (e.name().equals(norm)) return e;
+            }
+            for (E e : type.getEnumConstants()) {
+                if (e.name().equalsIgnoreCase(norm)) return e;
+            }
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " constant: " + v);
+        }
+    }
+}
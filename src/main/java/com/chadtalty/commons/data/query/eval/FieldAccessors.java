@@ -0,0 +1,95 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable, map-backed {@link FieldResolver} registered field by field.
+ *
+ * <p>Example:
+ * <pre>
+ * FieldAccessors&lt;Order&gt; fields = FieldAccessors.&lt;Order&gt;builder()
+ *     .longField("amount", Order::getAmount)
+ *     .stringField("status", Order::getStatus)
+ *     .instantField("created_at", Order::getCreatedAt)
+ *     .build();
+ * </pre>
+ *
+ * @param <T> row type
+ */
+public final class FieldAccessors<T> implements FieldResolver<T> {
+
+    private final Map<String, FieldAccessor<T>> accessors;
+
+    private FieldAccessors(Map<String, FieldAccessor<T>> accessors) {
+        this.accessors = Collections.unmodifiableMap(new LinkedHashMap<>(accessors));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public FieldAccessor<T> resolve(String field) {
+        return accessors.get(field);
+    }
+
+    /** Registered field names, in registration order. */
+    public Set<String> fieldNames() {
+        return accessors.keySet();
+    }
+
+    /** Collects accessors by field name; later registrations replace earlier ones. */
+    public static final class Builder<T> {
+
+        private final Map<String, FieldAccessor<T>> accessors = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        public Builder<T> field(String name, FieldAccessor<T> accessor) {
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("field name must not be blank");
+            if (accessor == null) throw new IllegalArgumentException("accessor must not be null for field: " + name);
+            accessors.put(name, accessor);
+            return this;
+        }
+
+        public Builder<T> longField(String name, ToLongFunction<? super T> getter) {
+            return field(name, FieldAccessor.ofLong(getter));
+        }
+
+        public Builder<T> doubleField(String name, ToDoubleFunction<? super T> getter) {
+            return field(name, FieldAccessor.ofDouble(getter));
+        }
+
+        public Builder<T> epochMillisField(String name, ToLongFunction<? super T> getter) {
+            return field(name, FieldAccessor.ofEpochMillis(getter));
+        }
+
+        public Builder<T> instantField(String name, Function<? super T, Instant> getter) {
+            return field(name, FieldAccessor.ofInstant(getter));
+        }
+
+        public Builder<T> stringField(String name, Function<? super T, String> getter) {
+            return field(name, FieldAccessor.ofString(getter));
+        }
+
+        public Builder<T> booleanField(String name, Predicate<? super T> getter) {
+            return field(name, FieldAccessor.ofBoolean(getter));
+        }
+
+        public <E extends Enum<E>> Builder<T> enumField(String name, Class<E> type, Function<? super T, E> getter) {
+            return field(name, FieldAccessor.ofEnum(type, getter));
+        }
+
+        public FieldAccessors<T> build() {
+            return new FieldAccessors<>(accessors);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.util.List;
+
+/**
+ * A field name resolved once by a {@link FieldRegistry}: the interned name, a dense ordinal, the dotted path
+ * already split into segments, and the bound accessor.
+ *
+ * <p>There is exactly one instance per registered name, so refs compare by identity and the ordinal can index
+ * per-field arrays (statistics, plan slots) directly.
+ *
+ * @param <T> row type
+ */
+public final class FieldRef<T> {
+
+    private final String name;
+    private final int ordinal;
+    private final List<String> segments;
+    private final FieldAccessor<T> accessor;
+
+    FieldRef(String name, int ordinal, FieldAccessor<T> accessor) {
+        this.name = name;
+        this.ordinal = ordinal;
+        this.segments = List.of(name.split("\\.", -1));
+        this.accessor = accessor;
+    }
+
+    /** Full dotted name, e.g. {@code customer.address.postal_code}. */
+    public String name() {
+        return name;
+    }
+
+    /** Position in registration order, {@code 0 <= ordinal < registry.size()}. */
+    public int ordinal() {
+        return ordinal;
+    }
+
+    /** Path segments, e.g. {@code [customer, address, postal_code]}. */
+    public List<String> segments() {
+        return segments;
+    }
+
+    public FieldAccessor<T> accessor() {
+        return accessor;
+    }
+
+    @Override
+    public String toString() {
+        return name + "#" + ordinal;
+    }
+}
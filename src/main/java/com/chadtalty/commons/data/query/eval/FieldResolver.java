@@ -0,0 +1,20 @@
+package com.chadtalty.commons.data.query.eval;
+
+/**
+ * Resolves the field names used in {@code Filter}, {@code JoinSpec} and {@code SortSpec} payloads to typed
+ * {@link FieldAccessor}s.
+ *
+ * <p>Resolution happens once per compilation, never per row. Join filters are resolved with their field
+ * qualified by the join path (e.g. {@code customer.address.postal_code}); a {@link FieldRegistry} resolves
+ * them without building the qualified name.
+ *
+ * @param <T> row type
+ */
+@FunctionalInterface
+public interface FieldResolver<T> {
+
+    /**
+     * Returns the accessor for {@code field}, or {@code null} if the field is unknown.
+     */
+    FieldAccessor<T> resolve(String field);
+}
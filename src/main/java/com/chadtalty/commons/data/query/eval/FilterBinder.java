@@ -0,0 +1,17 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.Filter;
+import java.util.function.Predicate;
+
+/**
+ * A filter kernel with its field already resolved and its filter type already dispatched; binding supplies the
+ * operator and literals of one concrete filter. Obtained from {@link CriteriaCompiler#binder}.
+ *
+ * @param <T> row type
+ */
+@FunctionalInterface
+public interface FilterBinder<T> {
+
+    /** Compiles {@code filter}, which must be of the type this binder was created for. */
+    Predicate<T> bind(Filter filter);
+}
@@ -0,0 +1,148 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Binds dotted field paths to getter chains through {@link LambdaMetafactory}, so each step is an ordinary
+ * functional-interface call the JIT can inline instead of a reflective invocation.
+ */
+final class Getters {
+
+    private Getters() {}
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> FieldAccessor<T> bind(Class<T> type, MethodHandles.Lookup lookup, String path, boolean epochMillis) {
+        if (path == null || path.isBlank()) throw new IllegalArgumentException("field name must not be blank");
+        String[] segments = path.split("\\.", -1);
+        Function<Object, Object>[] steps = new Function[segments.length - 1];
+        Class<?> owner = type;
+        for (int i = 0; i < steps.length; i++) {
+            Method m = getter(owner, segments[i], path);
+            if (m.getReturnType().isPrimitive()) {
+                throw new IllegalArgumentException("Path " + path + " continues past primitive " + segments[i]);
+            }
+            steps[i] = (Function<Object, Object>) lambda(lookup, m, Function.class, "apply", Object.class);
+            owner = m.getReturnType();
+        }
+        Method leaf = getter(owner, segments[segments.length - 1], path);
+        Class<?> r = leaf.getReturnType();
+        boolean integral = r == long.class || r == int.class || r == short.class || r == byte.class;
+        if (epochMillis && !integral) {
+            throw new IllegalArgumentException("Epoch-millisecond field must be integral: " + path);
+        }
+        if (integral) {
+            ToLongFunction<Object> g =
+                    (ToLongFunction<Object>) lambda(lookup, leaf, ToLongFunction.class, "applyAsLong", long.class);
+            ToLongFunction<Object> getter =
+                    steps.length == 0 ? g : row -> g.applyAsLong(walkRequired(steps, row, path));
+            return epochMillis ? new FieldAccessor.EpochMillisField<>(getter) : new FieldAccessor.LongField<>(getter);
+        }
+        if (r == double.class || r == float.class) {
+            ToDoubleFunction<Object> g = (ToDoubleFunction<Object>)
+                    lambda(lookup, leaf, ToDoubleFunction.class, "applyAsDouble", double.class);
+            return new FieldAccessor.DoubleField<>(
+                    steps.length == 0 ? g : row -> g.applyAsDouble(walkRequired(steps, row, path)));
+        }
+        if (r == boolean.class) {
+            Predicate<Object> g = (Predicate<Object>) lambda(lookup, leaf, Predicate.class, "test", boolean.class);
+            return new FieldAccessor.BooleanField<>(
+                    steps.length == 0 ? g : row -> g.test(walkRequired(steps, row, path)));
+        }
+        if (r.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported type " + r.getName() + " of field: " + path);
+        }
+        Function<Object, Object> g =
+                (Function<Object, Object>) lambda(lookup, leaf, Function.class, "apply", Object.class);
+        Function<Object, Object> getter = steps.length == 0 ? g : row -> {
+            Object o = walk(steps, row);
+            return o == null ? null : g.apply(o);
+        };
+        if (r == String.class) return new FieldAccessor.StringField<>((Function) getter);
+        if (r == Instant.class) return new FieldAccessor.InstantField<>((Function) getter);
+        if (r.isEnum()) return new FieldAccessor.EnumField<>((Class) r, (Function) getter);
+        throw new IllegalArgumentException("Unsupported type " + r.getName() + " of field: " + path);
+    }
+
+    /** Applies the intermediate steps; {@code null} as soon as one yields {@code null}. */
+    private static Object walk(Function<Object, Object>[] steps, Object row) {
+        Object o = row;
+        for (Function<Object, Object> step : steps) {
+            o = step.apply(o);
+            if (o == null) return null;
+        }
+        return o;
+    }
+
+    private static Object walkRequired(Function<Object, Object>[] steps, Object row, String path) {
+        Object o = walk(steps, row);
+        if (o == null) throw new NullPointerException("null intermediate on primitive field path: " + path);
+        return o;
+    }
+
+    /** Public no-arg getter for a snake_case segment: record accessor, {@code getX} or {@code isX}. */
+    private static Method getter(Class<?> owner, String segment, String path) {
+        if (segment.isEmpty()) throw new IllegalArgumentException("Empty segment in field path: " + path);
+        String camel = camelCase(segment);
+        String capitalized = Character.toUpperCase(camel.charAt(0)) + camel.substring(1);
+        String[] names = {camel, "get" + capitalized, "is" + capitalized};
+        for (int i = 0; i < names.length; i++) {
+            try {
+                Method m = owner.getMethod(names[i]);
+                if (!Modifier.isStatic(m.getModifiers()) && m.getReturnType() != void.class) {
+                    // the is-prefix convention covers boolean getters only; a field named isbn keeps its accessor
+                    if (i < 2 || m.getReturnType() == boolean.class) return m;
+                }
+            } catch (NoSuchMethodException e) {
+                // try the next naming convention
+            }
+        }
+        throw new IllegalArgumentException(
+                "No getter for " + segment + " on " + owner.getName() + " (field " + path + ")");
+    }
+
+    private static String camelCase(String segment) {
+        StringBuilder sb = new StringBuilder(segment.length());
+        boolean upper = false;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '_') {
+                upper = sb.length() > 0;
+            } else {
+                sb.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Spins a {@code samType} instance whose single method {@code samName} calls {@code getter}. */
+    private static Object lambda(
+            MethodHandles.Lookup lookup, Method getter, Class<?> samType, String samName, Class<?> samReturn) {
+        try {
+            MethodHandle target = lookup.unreflect(getter);
+            Class<?> r = getter.getReturnType();
+            Class<?> instantiatedReturn = samReturn.isPrimitive() ? samReturn : r;
+            return LambdaMetafactory.metafactory(
+                            lookup,
+                            samName,
+                            MethodType.methodType(samType),
+                            MethodType.methodType(samReturn, Object.class),
+                            target,
+                            MethodType.methodType(instantiatedReturn, getter.getDeclaringClass()))
+                    .getTarget()
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot bind getter " + getter, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.util.List;
+
+/**
+ * One page of evaluated results.
+ *
+ * @param content rows on the page, in sort order
+ * @param page zero-based page index
+ * @param size requested page size
+ * @param totalElements number of matching rows, or {@code -1} when the scan stopped early and did not count them
+ * @param <T> row type
+ */
+public record Page<T>(List<T> content, int page, int size, long totalElements) {
+
+    public Page {
+        content = List.copyOf(content);
+    }
+
+    /** Whether {@link #totalElements()} is known. */
+    public boolean isCounted() {
+        return totalElements >= 0;
+    }
+}
@@ -0,0 +1,371 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.admission.QueryCancelledException;
+import com.chadtalty.commons.data.query.admission.QueryContext;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Fork-join counterpart of {@link QueryExecutor} for large in-memory collections.
+ *
+ * <p>The source's {@code SUBSIZED} spliterator is split recursively into leaves of roughly
+ * {@code n / (8 * parallelism)} rows, each evaluated on the configured {@link ForkJoinPool}. Sorted pages keep a
+ * {@link TopK} of {@code (page + 1) * size} rows per leaf, tagged with global row indexes, and merge them pairwise;
+ * unsorted pages keep each leaf's first matches; lists merge sorted runs. Results therefore equal
+ * {@link QueryExecutor}'s, including tie order, except that unsorted pages always report
+ * {@link Page#totalElements()}. Sources smaller than the threshold are evaluated sequentially.
+ *
+ * <p>Compiled filters and comparators must be safe for concurrent use, which those built by
+ * {@link CriteriaCompiler} are. The {@link QueryContext} overloads check before every subtask and every
+ * {@value QueryContext#CHECK_INTERVAL} rows of each leaf, so a cancelled scan fails and its pending subtasks stop.
+ *
+ * @param <T> row type
+ */
+public final class ParallelQueryExecutor<T> {
+
+    /** Default source size below which evaluation stays on the calling thread. */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    /** Smallest leaf worth a task. */
+    static final int MIN_LEAF = 1 << 12;
+
+    private final CriteriaCompiler<T> compiler;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /** Uses the common pool and {@link #DEFAULT_THRESHOLD}. */
+    public ParallelQueryExecutor(CriteriaCompiler<T> compiler) {
+        this(compiler, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelQueryExecutor(CriteriaCompiler<T> compiler, ForkJoinPool pool, int threshold) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        if (pool == null) throw new IllegalArgumentException("pool must not be null");
+        if (threshold < 0) throw new IllegalArgumentException("threshold must not be negative");
+        this.compiler = compiler;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /** Returns the requested page of matching rows. */
+    public Page<T> page(Collection<? extends T> rows, PageableCriteria criteria) {
+        return page(rows, criteria, null);
+    }
+
+    /**
+     * Returns the requested page of matching rows, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public Page<T> page(Collection<? extends T> rows, PageableCriteria criteria, QueryContext context) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        if (criteria.getSize() == null) throw new IllegalArgumentException("size must not be null");
+        if (criteria.getCursor() != null) {
+            throw new IllegalArgumentException("cursor pagination requires a keyset.KeysetPager");
+        }
+        int page = criteria.getPage() == null ? 0 : criteria.getPage();
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            return page(
+                    rows,
+                    compiler.compile(criteria),
+                    compiler.comparator(criteria.getSort()),
+                    page,
+                    criteria.getSize(),
+                    pool,
+                    threshold,
+                    context);
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    /** Returns every matching row, sorted when the criteria carry a sort. */
+    public List<T> list(Collection<? extends T> rows, Criteria criteria) {
+        return list(rows, criteria, null);
+    }
+
+    /**
+     * Returns every matching row, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public List<T> list(Collection<? extends T> rows, Criteria criteria, QueryContext context) {
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            return evaluate(rows, criteria, context);
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    private List<T> evaluate(Collection<? extends T> rows, Criteria criteria, QueryContext context) {
+        Predicate<T> filter = compiler.compile(criteria);
+        Comparator<T> order = criteria == null ? null : compiler.comparator(criteria.getSort());
+        if (rows.size() < threshold || pool.getParallelism() == 1) {
+            Predicate<? super T> guarded = guard(filter, context);
+            List<T> out = new ArrayList<>();
+            for (T row : rows) {
+                if (guarded.test(row)) out.add(row);
+            }
+            if (order != null) out.sort(order);
+            return out;
+        }
+        return ParallelQueryExecutor.<T>run(rows, new ListJob<>(filter, order), pool, context).rows;
+    }
+
+    /**
+     * Pages {@code rows} with an already compiled filter and order ({@code null} order keeps encounter order).
+     */
+    public static <T> Page<T> page(
+            Collection<? extends T> rows,
+            Predicate<? super T> filter,
+            Comparator<? super T> order,
+            int page,
+            int size,
+            ForkJoinPool pool,
+            int threshold) {
+        return page(rows, filter, order, page, size, pool, threshold, null);
+    }
+
+    private static <T> Page<T> page(
+            Collection<? extends T> rows,
+            Predicate<? super T> filter,
+            Comparator<? super T> order,
+            int page,
+            int size,
+            ForkJoinPool pool,
+            int threshold,
+            QueryContext context) {
+        if (rows.size() < threshold || pool.getParallelism() == 1) {
+            return QueryExecutor.page(rows, guard(filter, context), order, page, size);
+        }
+        if (page < 0) throw new IllegalArgumentException("page must be greater than or equal to 0");
+        if (size < 1) throw new IllegalArgumentException("size must be greater than or equal to 1");
+        long offset = (long) page * size;
+        int k = QueryExecutor.heapSize(offset + size);
+        if (order == null) {
+            Partial<T> p = run(rows, new FirstJob<>(filter, k), pool, context);
+            List<T> content = offset >= p.rows.size() ? List.of() : p.rows.subList((int) offset, p.rows.size());
+            return new Page<>(content, page, size, p.matched);
+        }
+        Partial<T> p = run(rows, new TopKJob<>(filter, order, k), pool, context);
+        List<T> content = offset >= p.top.size() ? List.of() : p.top.drainRange((int) offset, (int) (offset + size));
+        return new Page<>(content, page, size, p.matched);
+    }
+
+    private static <T> Predicate<? super T> guard(Predicate<? super T> filter, QueryContext context) {
+        if (context == null) return filter;
+        context.check();
+        return context.guard(filter);
+    }
+
+    private static <T> Partial<T> run(
+            Collection<? extends T> rows, Job<T> job, ForkJoinPool pool, QueryContext context) {
+        if (context != null) context.check();
+        Spliterator<? extends T> split = rows.spliterator();
+        if (!split.hasCharacteristics(Spliterator.SUBSIZED)) {
+            // row indexes must survive splitting to keep ties in encounter order
+            split = ParallelQueryExecutor.<T>asSpliterator(rows.toArray());
+        }
+        long leaf = Math.max(MIN_LEAF, split.estimateSize() / (8L * pool.getParallelism()));
+        return pool.invoke(new Scan<>(split, 0, leaf, job, context));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Spliterator<T> asSpliterator(Object[] rows) {
+        return Arrays.spliterator((T[]) rows);
+    }
+
+    /** Per-leaf work and the pairwise, order-preserving merge of two adjacent leaves. */
+    private interface Job<T> {
+        Partial<T> leaf(Spliterator<? extends T> split, long base);
+
+        Partial<T> merge(Partial<T> left, Partial<T> right);
+    }
+
+    /** Result of one subtree: match count plus the retained rows. */
+    private static final class Partial<T> {
+        long matched;
+        TopK<T> top;
+        List<T> rows;
+    }
+
+    /** One subtree of the scan; never serialized, although {@link RecursiveTask} is {@code Serializable}. */
+    @SuppressWarnings("serial")
+    private static final class Scan<T> extends RecursiveTask<Partial<T>> {
+
+        private final Spliterator<? extends T> split;
+        private final long base;
+        private final long leaf;
+        private final Job<T> job;
+        private final QueryContext context;
+
+        Scan(Spliterator<? extends T> split, long base, long leaf, Job<T> job, QueryContext context) {
+            this.split = split;
+            this.base = base;
+            this.leaf = leaf;
+            this.job = job;
+            this.context = context;
+        }
+
+        @Override
+        protected Partial<T> compute() {
+            if (context != null) context.check();
+            if (split.estimateSize() > leaf) {
+                Spliterator<? extends T> prefix = split.trySplit();
+                if (prefix != null) {
+                    Scan<T> left = new Scan<>(prefix, base, leaf, job, context);
+                    Scan<T> right = new Scan<>(split, base + prefix.getExactSizeIfKnown(), leaf, job, context);
+                    right.fork();
+                    Partial<T> l = left.compute();
+                    return job.merge(l, right.join());
+                }
+            }
+            return job.leaf(context == null ? split : new Checked<>(split, context), base);
+        }
+    }
+
+    /** A leaf's rows, checking the context every {@value QueryContext#CHECK_INTERVAL} rows on the leaf's thread. */
+    private static final class Checked<T> implements Spliterator<T> {
+
+        private final Spliterator<? extends T> split;
+        private final QueryContext context;
+        private int count;
+
+        Checked(Spliterator<? extends T> split, QueryContext context) {
+            this.split = split;
+            this.context = context;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (++count == QueryContext.CHECK_INTERVAL) {
+                count = 0;
+                context.check();
+            }
+            return split.tryAdvance(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return split.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return split.characteristics();
+        }
+    }
+
+    /** Sorted pages: bounded selection per leaf, merged by re-offering with the original row indexes. */
+    private record TopKJob<T>(Predicate<? super T> filter, Comparator<? super T> order, int k) implements Job<T> {
+
+        @Override
+        public Partial<T> leaf(Spliterator<? extends T> split, long base) {
+            Partial<T> p = new Partial<>();
+            p.top = new TopK<>(order, k);
+            split.forEachRemaining(new Consumer<T>() {
+                long index = base;
+
+                @Override
+                public void accept(T row) {
+                    long i = index++;
+                    if (filter.test(row)) {
+                        p.matched++;
+                        p.top.offer(row, i);
+                    }
+                }
+            });
+            return p;
+        }
+
+        @Override
+        public Partial<T> merge(Partial<T> left, Partial<T> right) {
+            Partial<T> into = left.top.size() >= right.top.size() ? left : right;
+            into.top.addAll(into == left ? right.top : left.top);
+            into.matched = left.matched + right.matched;
+            return into;
+        }
+    }
+
+    /** Unsorted pages: the first {@code k} matches in encounter order. */
+    private record FirstJob<T>(Predicate<? super T> filter, int k) implements Job<T> {
+
+        @Override
+        public Partial<T> leaf(Spliterator<? extends T> split, long base) {
+            Partial<T> p = new Partial<>();
+            p.rows = new ArrayList<>(Math.min(k, 1024));
+            split.forEachRemaining(row -> {
+                if (filter.test(row)) {
+                    if (p.rows.size() < k) p.rows.add(row);
+                    p.matched++;
+                }
+            });
+            return p;
+        }
+
+        @Override
+        public Partial<T> merge(Partial<T> left, Partial<T> right) {
+            for (int i = 0, n = right.rows.size(); i < n && left.rows.size() < k; i++) {
+                left.rows.add(right.rows.get(i));
+            }
+            left.matched += right.matched;
+            return left;
+        }
+    }
+
+    /** Full lists: matches per leaf, sorted runs merged stably (left wins ties). */
+    private record ListJob<T>(Predicate<? super T> filter, Comparator<? super T> order) implements Job<T> {
+
+        @Override
+        public Partial<T> leaf(Spliterator<? extends T> split, long base) {
+            Partial<T> p = new Partial<>();
+            p.rows = new ArrayList<>();
+            split.forEachRemaining(row -> {
+                if (filter.test(row)) p.rows.add(row);
+            });
+            if (order != null) p.rows.sort(order);
+            p.matched = p.rows.size();
+            return p;
+        }
+
+        @Override
+        public Partial<T> merge(Partial<T> left, Partial<T> right) {
+            if (order == null) {
+                left.rows.addAll(right.rows);
+            } else {
+                List<T> a = left.rows;
+                List<T> b = right.rows;
+                List<T> out = new ArrayList<>(a.size() + b.size());
+                int i = 0;
+                int j = 0;
+                while (i < a.size() && j < b.size()) {
+                    out.add(order.compare(b.get(j), a.get(i)) < 0 ? b.get(j++) : a.get(i++));
+                }
+                out.addAll(a.subList(i, a.size()));
+                out.addAll(b.subList(j, b.size()));
+                left.rows = out;
+            }
+            left.matched += right.matched;
+            return left;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Allocation-free predicate combinators for compiled criteria.
+ */
+public final class Predicates {
+
+    private static final Predicate<Object> ALWAYS_TRUE = r -> true;
+    private static final Predicate<Object> ALWAYS_FALSE = r -> false;
+
+    private Predicates() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> Predicate<T> alwaysTrue() {
+        return (Predicate<T>) ALWAYS_TRUE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Predicate<T> alwaysFalse() {
+        return (Predicate<T>) ALWAYS_FALSE;
+    }
+
+    /**
+     * Conjunction evaluated left to right with short-circuit; specialized for small arities to avoid the
+     * nested lambdas produced by {@link Predicate#and}.
+     */
+    public static <T> Predicate<T> and(List<? extends Predicate<? super T>> parts) {
+        switch (parts.size()) {
+            case 0:
+                return alwaysTrue();
+            case 1: {
+                // a predicate of a supertype accepts every T, so narrowing the view is safe
+                @SuppressWarnings("unchecked")
+                Predicate<T> only = (Predicate<T>) parts.get(0);
+                return only;
+            }
+            case 2: {
+                Predicate<? super T> a = parts.get(0);
+                Predicate<? super T> b = parts.get(1);
+                return r -> a.test(r) && b.test(r);
+            }
+            case 3: {
+                Predicate<? super T> a = parts.get(0);
+                Predicate<? super T> b = parts.get(1);
+                Predicate<? super T> c = parts.get(2);
+                return r -> a.test(r) && b.test(r) && c.test(r);
+            }
+            default: {
+                @SuppressWarnings("unchecked")
+                Predicate<? super T>[] all = (Predicate<? super T>[]) parts.toArray(new Predicate<?>[0]);
+                return r -> {
+                    for (Predicate<? super T> p : all) {
+                        if (!p.test(r)) return false;
+                    }
+                    return true;
+                };
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.admission.QueryCancelledException;
+import com.chadtalty.commons.data.query.admission.QueryContext;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates criteria over in-memory rows.
+ *
+ * <p>Sorted pages use a bounded {@link TopK} heap of {@code (page + 1) * size} rows instead of sorting every
+ * match, so page {@code p} over {@code n} rows costs O(n log k) time and O(k) memory. Unsorted pages keep
+ * encounter order and stop scanning once the page is filled. Results equal a stable sort followed by
+ * {@code skip(page * size).limit(size)}.
+ *
+ * <p>The {@link QueryContext} overloads check for cancellation and the deadline before the scan and every
+ * {@value QueryContext#CHECK_INTERVAL} rows during it.
+ *
+ * @param <T> row type
+ */
+public final class QueryExecutor<T> {
+
+    private final CriteriaCompiler<T> compiler;
+
+    public QueryExecutor(CriteriaCompiler<T> compiler) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        this.compiler = compiler;
+    }
+
+    /** Returns the requested page of matching rows. */
+    public Page<T> page(Iterable<? extends T> rows, PageableCriteria criteria) {
+        return page(rows, criteria, null);
+    }
+
+    /**
+     * Returns the requested page of matching rows, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public Page<T> page(Iterable<? extends T> rows, PageableCriteria criteria, QueryContext context) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        if (criteria.getSize() == null) throw new IllegalArgumentException("size must not be null");
+        if (criteria.getCursor() != null) {
+            throw new IllegalArgumentException("cursor pagination requires a keyset.KeysetPager");
+        }
+        int page = criteria.getPage() == null ? 0 : criteria.getPage();
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            Predicate<T> filter = guard(compiler.compile(criteria), context);
+            return page(rows, filter, compiler.comparator(criteria.getSort()), page, criteria.getSize());
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    /** Returns every matching row, sorted when the criteria carry a sort. */
+    public List<T> list(Iterable<? extends T> rows, Criteria criteria) {
+        return list(rows, criteria, null);
+    }
+
+    /**
+     * Returns every matching row, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public List<T> list(Iterable<? extends T> rows, Criteria criteria, QueryContext context) {
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            Predicate<T> filter = guard(compiler.compile(criteria), context);
+            Comparator<T> order = criteria == null ? null : compiler.comparator(criteria.getSort());
+            List<T> out = new ArrayList<>();
+            for (T row : rows) {
+                if (filter.test(row)) out.add(row);
+            }
+            if (order != null) out.sort(order);
+            return out;
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    /**
+     * Pages {@code rows} with an already compiled filter and order ({@code null} order keeps encounter order).
+     */
+    public static <T> Page<T> page(
+            Iterable<? extends T> rows, Predicate<? super T> filter, Comparator<? super T> order, int page, int size) {
+        if (page < 0) throw new IllegalArgumentException("page must be greater than or equal to 0");
+        if (size < 1) throw new IllegalArgumentException("size must be greater than or equal to 1");
+        long offset = (long) page * size;
+        if (order == null) return firstMatches(rows, filter, offset, page, size);
+
+        TopK<T> top = new TopK<>(order, heapSize(offset + size));
+        long matched = 0;
+        for (T row : rows) {
+            if (filter.test(row)) {
+                matched++;
+                top.offer(row);
+            }
+        }
+        List<T> content = offset >= top.size() ? List.of() : top.drainRange((int) offset, (int) (offset + size));
+        return new Page<>(content, page, size, matched);
+    }
+
+    /** {@code filter} checking {@code context} every interval, after a first check; {@code null} means none. */
+    static <T> Predicate<T> guard(Predicate<T> filter, QueryContext context) {
+        if (context == null) return filter;
+        context.check();
+        return context.guard(filter);
+    }
+
+    /** Bound of the selection heap; requests beyond an array's reach keep everything. */
+    static int heapSize(long k) {
+        return (int) Math.min(k, Integer.MAX_VALUE - 8);
+    }
+
+    private static <T> Page<T> firstMatches(
+            Iterable<? extends T> rows, Predicate<? super T> filter, long offset, int page, int size) {
+        List<T> content = new ArrayList<>(Math.min(size, 1024));
+        long matched = 0;
+        for (T row : rows) {
+            if (!filter.test(row)) continue;
+            if (matched++ >= offset) {
+                content.add(row);
+                if (content.size() == size) return new Page<>(content, page, size, -1);
+            }
+        }
+        return new Page<>(content, page, size, matched);
+    }
+}
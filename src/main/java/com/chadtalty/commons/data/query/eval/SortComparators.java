@@ -0,0 +1,111 @@
+package com.chadtalty.commons.data.query.eval;
+
+import com.chadtalty.commons.data.query.SortSpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds composite row comparators from {@link SortSpec}s with accessors resolved up front.
+ *
+ * <p>{@code SortSpec} keeps ascending and descending fields in separate lists, so precedence is fixed:
+ * ascending fields first, then descending fields, each in list order. {@code null} values sort last in both
+ * directions.
+ */
+public final class SortComparators {
+
+    private SortComparators() {}
+
+    /** Returns the composite comparator, or {@code null} when {@code sort} names no fields. */
+    public static <T> Comparator<T> of(SortSpec sort, CriteriaCompiler<T> compiler) {
+        if (sort == null) return null;
+        List<Comparator<T>> keys = new ArrayList<>();
+        if (sort.getAscending() != null) {
+            for (String f : sort.getAscending()) {
+                keys.add(key(compiler.resolve(f), false));
+            }
+        }
+        if (sort.getDescending() != null) {
+            for (String f : sort.getDescending()) {
+                keys.add(key(compiler.resolve(f), true));
+            }
+        }
+        return composite(keys);
+    }
+
+    /** Chains single-key comparators; {@code null} when {@code keys} is empty. */
+    public static <T> Comparator<T> composite(List<Comparator<T>> keys) {
+        switch (keys.size()) {
+            case 0:
+                return null;
+            case 1:
+                return keys.get(0);
+            case 2: {
+                Comparator<T> a = keys.get(0);
+                Comparator<T> b = keys.get(1);
+                return (x, y) -> {
+                    int c = a.compare(x, y);
+                    return c != 0 ? c : b.compare(x, y);
+                };
+            }
+            default: {
+                @SuppressWarnings("unchecked")
+                Comparator<T>[] all = (Comparator<T>[]) keys.toArray(new Comparator<?>[0]);
+                return (x, y) -> {
+                    for (Comparator<T> k : all) {
+                        int c = k.compare(x, y);
+                        if (c != 0) return c;
+                    }
+                    return 0;
+                };
+            }
+        }
+    }
+
+    /** Single-key comparator; {@code descending} flips value order but keeps nulls last. */
+    public static <T> Comparator<T> key(FieldAccessor<T> accessor, boolean descending) {
+        int sign = descending ? -1 : 1;
+        if (accessor instanceof FieldAccessor.LongField<T> a) {
+            ToLongFunction<? super T> g = a.getter();
+            return (x, y) -> sign * Long.compare(g.applyAsLong(x), g.applyAsLong(y));
+        }
+        if (accessor instanceof FieldAccessor.EpochMillisField<T> a) {
+            ToLongFunction<? super T> g = a.getter();
+            return (x, y) -> sign * Long.compare(g.applyAsLong(x), g.applyAsLong(y));
+        }
+        if (accessor instanceof FieldAccessor.DoubleField<T> a) {
+            ToDoubleFunction<? super T> g = a.getter();
+            return (x, y) -> sign * Double.compare(g.applyAsDouble(x), g.applyAsDouble(y));
+        }
+        if (accessor instanceof FieldAccessor.BooleanField<T> a) {
+            Predicate<? super T> g = a.getter();
+            return (x, y) -> sign * Boolean.compare(g.test(x), g.test(y));
+        }
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            return nullsLast(a.getter(), Instant::compareTo, sign);
+        }
+        if (accessor instanceof FieldAccessor.StringField<T> a) {
+            return nullsLast(a.getter(), String::compareTo, sign);
+        }
+        return enumKey((FieldAccessor.EnumField<T, ?>) accessor, sign);
+    }
+
+    private static <T, E extends Enum<E>> Comparator<T> enumKey(FieldAccessor.EnumField<T, E> a, int sign) {
+        return nullsLast(a.getter(), Comparator.naturalOrder(), sign);
+    }
+
+    private static <T, V> Comparator<T> nullsLast(Function<? super T, V> g, Comparator<? super V> order, int sign) {
+        return (x, y) -> {
+            V a = g.apply(x);
+            V b = g.apply(y);
+            if (a == null) return b == null ? 0 : 1;
+            if (b == null) return -1;
+            return sign * order.compare(a, b);
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.chadtalty.commons.data.query.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded selection of the {@code k} smallest elements under a comparator, in O(n log k) time and O(k) memory.
+ *
+ * <p>A max-heap keeps the worst retained element at the root. Ties are broken by arrival order, so the result
+ * equals the first {@code k} elements of a stable full sort. Arrays grow on demand, so a large {@code k} over a
+ * small input does not preallocate. Not thread-safe; merge per-thread instances with {@link #addAll(TopK)}.
+ *
+ * @param <T> element type
+ */
+public final class TopK<T> {
+
+    private final Comparator<? super T> order;
+    private final int k;
+    private Object[] heap;
+    private long[] seq;
+    private int size;
+    private long arrivals;
+
+    public TopK(Comparator<? super T> order, int k) {
+        if (order == null) throw new IllegalArgumentException("order must not be null");
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        this.order = order;
+        this.k = k;
+        int initial = Math.min(k, 64);
+        this.heap = new Object[initial];
+        this.seq = new long[initial];
+    }
+
+    /** Offers an element; returns whether it is currently retained. */
+    public boolean offer(T e) {
+        return offer(e, arrivals++);
+    }
+
+    /**
+     * Offers an element with an explicit arrival sequence (e.g. a row index), used as the final tiebreaker.
+     */
+    public boolean offer(T e, long sequence) {
+        if (k == 0) return false;
+        if (size < k) {
+            if (size == heap.length) grow();
+            heap[size] = e;
+            seq[size] = sequence;
+            siftUp(size++);
+            return true;
+        }
+        if (compare(e, sequence, 0) >= 0) return false;
+        heap[0] = e;
+        seq[0] = sequence;
+        siftDown(0);
+        return true;
+    }
+
+    /** Merges another selection over the same order, keeping its arrival sequences. */
+    @SuppressWarnings("unchecked")
+    public void addAll(TopK<? extends T> other) {
+        for (int i = 0; i < other.size; i++) {
+            offer((T) other.heap[i], other.seq[i]);
+        }
+        arrivals = Math.max(arrivals, other.arrivals);
+    }
+
+    /** Worst retained element, or {@code null} when empty; with {@link #isFull()} it bounds future admissions. */
+    @SuppressWarnings("unchecked")
+    public T peekWorst() {
+        return size == 0 ? null : (T) heap[0];
+    }
+
+    public boolean isFull() {
+        return size == k;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Removes and returns all retained elements in ascending order. */
+    public List<T> drainSorted() {
+        return drainRange(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes all retained elements and returns those at ascending positions {@code [from, to)} (clamped). Sorts
+     * in place by heapsort, so no index arrays or boxing are needed; the selection is empty afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> drainRange(int from, int to) {
+        int n = size;
+        while (size > 1) {
+            swap(0, --size);
+            siftDown(0);
+        }
+        size = 0;
+        int lo = Math.max(0, Math.min(from, n));
+        int hi = Math.max(lo, Math.min(to, n));
+        List<T> out = new ArrayList<>(hi - lo);
+        for (int i = lo; i < hi; i++) {
+            out.add((T) heap[i]);
+        }
+        Arrays.fill(heap, 0, n, null);
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(T e, long s, int i) {
+        int c = order.compare(e, (T) heap[i]);
+        return c != 0 ? c : Long.compare(s, seq[i]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compareAt(int i, int j) {
+        return compare((T) heap[i], seq[i], j);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compareAt(i, parent) <= 0) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int right = left + 1;
+            int largest = right < size && compareAt(right, left) > 0 ? right : left;
+            if (compareAt(largest, i) <= 0) return;
+            swap(i, largest);
+            i = largest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Object e = heap[i];
+        heap[i] = heap[j];
+        heap[j] = e;
+        long s = seq[i];
+        seq[i] = seq[j];
+        seq[j] = s;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(k, Math.max(16L, (long) heap.length << 1));
+        heap = Arrays.copyOf(heap, capacity);
+        seq = Arrays.copyOf(seq, capacity);
+    }
+}
@@ -0,0 +1,137 @@
+package com.chadtalty.commons.data.query.index;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler.Operands;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One {@link RowBitmap} per distinct value of a low-cardinality integral, string, boolean or enum field.
+ *
+ * <p>Equality and contains filters OR the bitmaps of their values; {@code not_equal} subtracts the value's bitmap
+ * and the {@code null} rows from the live rows. Answers are exact. Ordering operators are left to the compiled
+ * filter.
+ *
+ * @param <T> row type
+ */
+final class BitmapIndex<T> implements SecondaryIndex<T> {
+
+    private final String field;
+    private final FieldAccessor<T> accessor;
+    private final Map<Object, RowBitmap> values = new HashMap<>();
+    private final RowBitmap nulls = new RowBitmap();
+
+    BitmapIndex(String field, FieldAccessor<T> accessor) {
+        if (!(accessor instanceof FieldAccessor.LongField<T>
+                || accessor instanceof FieldAccessor.StringField<T>
+                || accessor instanceof FieldAccessor.BooleanField<T>
+                || accessor instanceof FieldAccessor.EnumField<T, ?>)) {
+            throw new IllegalArgumentException("Bitmap index requires an integral, string, boolean or enum field: "
+                    + field);
+        }
+        this.field = field;
+        this.accessor = accessor;
+    }
+
+    @Override
+    public void insert(T row, int id) {
+        Object v = value(row);
+        if (v == null) nulls.add(id);
+        else values.computeIfAbsent(v, k -> new RowBitmap()).add(id);
+    }
+
+    @Override
+    public void delete(T row, int id) {
+        Object v = value(row);
+        if (v == null) {
+            nulls.remove(id);
+            return;
+        }
+        RowBitmap rows = values.get(v);
+        if (rows != null && rows.remove(id) && rows.isEmpty()) values.remove(v);
+    }
+
+    /** Number of distinct non-null values. */
+    int distinct() {
+        return values.size();
+    }
+
+    @Override
+    public Probe probe(Filter filter, RowBitmap live) {
+        try {
+            if (filter instanceof ContainsFilter c) {
+                if (c.getValues() == null || c.getValues().isEmpty()) return null;
+                Set<Object> keys = new LinkedHashSet<>();
+                for (String v : c.getValues()) {
+                    if (v == null) return null;
+                    keys.add(parse(v));
+                }
+                int estimate = 0;
+                for (Object k : keys) {
+                    estimate += cardinality(k);
+                }
+                return new Probe(estimate, true, () -> {
+                    RowBitmap out = new RowBitmap();
+                    for (Object k : keys) {
+                        RowBitmap rows = values.get(k);
+                        if (rows != null) out = RowBitmap.or(out, rows);
+                    }
+                    return out;
+                });
+            }
+            if (filter instanceof BasicFilter b) {
+                if (b.getOperator() == null || b.getValue() == null) return null;
+                Comparison op = Comparison.of(b.getOperator());
+                if (op.isOrdering()) return null;
+                Object k = parse(b.getValue());
+                if (op == Comparison.EQ) {
+                    return new Probe(cardinality(k), true, () -> {
+                        RowBitmap rows = values.get(k);
+                        return rows == null ? new RowBitmap() : rows.copy();
+                    });
+                }
+                return new Probe(live.cardinality() - cardinality(k) - nulls.cardinality(), true, () -> {
+                    RowBitmap rows = values.get(k);
+                    RowBitmap out = RowBitmap.andNot(live, nulls);
+                    return rows == null ? out : RowBitmap.andNot(out, rows);
+                });
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private int cardinality(Object k) {
+        RowBitmap rows = values.get(k);
+        return rows == null ? 0 : rows.cardinality();
+    }
+
+    /** Indexed value of {@code row}: boxed long, string, boolean or enum constant. */
+    private Object value(T row) {
+        return switch (accessor) {
+            case FieldAccessor.LongField<T> a -> a.getter().applyAsLong(row);
+            case FieldAccessor.StringField<T> a -> a.getter().apply(row);
+            case FieldAccessor.BooleanField<T> a -> a.getter().test(row);
+            case FieldAccessor.EnumField<T, ?> a -> a.getter().apply(row);
+            default -> throw new IllegalStateException("Unsupported accessor for field: " + field);
+        };
+    }
+
+    /** Operand in the same form as {@link #value}, parsed as the compiler does. */
+    private Object parse(String v) {
+        return switch (accessor) {
+            case FieldAccessor.LongField<T> a -> Operands.parseLong(field, v);
+            case FieldAccessor.StringField<T> a -> v;
+            case FieldAccessor.BooleanField<T> a -> Operands.parseBoolean(field, v);
+            case FieldAccessor.EnumField<T, ?> a -> a.parse(v);
+            default -> throw new IllegalStateException("Unsupported accessor for field: " + field);
+        };
+    }
+}
@@ -0,0 +1,378 @@
+package com.chadtalty.commons.data.query.index;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.admission.QueryCancelledException;
+import com.chadtalty.commons.data.query.admission.QueryContext;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * In-memory rows with secondary indexes that answer filters before any row is touched.
+ *
+ * <p>Each row gets an integer id (freed ids are reused). Sorted indexes keep row ids ordered by an epoch-millisecond
+ * key and answer date-time, between and comparison filters by binary search; bitmap indexes keep one
+ * {@link RowBitmap} per value of a low-cardinality field and answer equality, {@code not_equal} and contains
+ * filters. A query probes the indexes for its top-level filters, intersects the answers smallest first and
+ * evaluates the remaining filters (plus join filters and inexact index answers) only on the surviving rows. An
+ * answer more than {@value #RECHECK_RATIO} times larger than the running candidate set is not materialized; its
+ * filter is rechecked instead. Results equal {@link QueryExecutor}'s over {@link #iterator()}, which yields rows in
+ * id order.
+ *
+ * <p>Indexes are updated on every {@link #insert}, {@link #insertAll}, {@link #update} and {@link #delete};
+ * indexed fields must not change while a row is in the table. Writes update the indexes before the row store, and
+ * a write whose field accessor throws is undone in the indexes it already reached, so it leaves the table
+ * unchanged. Not thread-safe; concurrent queries are safe in the absence of writers.
+ *
+ * <p>The {@link QueryContext} overloads check before probing the indexes and every
+ * {@value QueryContext#CHECK_INTERVAL} candidate rows after.
+ *
+ * <p>Example:
+ * <pre>
+ * IndexedTable&lt;Order&gt; orders = IndexedTable.builder(compiler)
+ *     .sortedIndex("created_at")
+ *     .bitmapIndex("status")
+ *     .build();
+ * int id = orders.insert(order);
+ * Page&lt;Order&gt; page = orders.page(criteria);
+ * </pre>
+ *
+ * @param <T> row type
+ */
+public final class IndexedTable<T> implements Iterable<T> {
+
+    /** Largest ratio of an index answer to the current candidates that is still intersected. */
+    static final int RECHECK_RATIO = 8;
+
+    private final CriteriaCompiler<T> compiler;
+    private final Map<String, SecondaryIndex<T>> indexes;
+    private final RowBitmap live = new RowBitmap();
+    private Object[] rows = new Object[16];
+    private int[] free = new int[4];
+    private int freeCount;
+    private int next;
+
+    private IndexedTable(CriteriaCompiler<T> compiler, Map<String, SecondaryIndex<T>> indexes) {
+        this.compiler = compiler;
+        this.indexes = indexes;
+    }
+
+    public static <T> Builder<T> builder(CriteriaCompiler<T> compiler) {
+        return new Builder<>(compiler);
+    }
+
+    /** Adds {@code row} and returns its id. */
+    public int insert(T row) {
+        if (row == null) throw new IllegalArgumentException("row must not be null");
+        int id = freeCount > 0 ? free[freeCount - 1] : next;
+        int done = 0;
+        try {
+            for (SecondaryIndex<T> index : indexes.values()) {
+                index.insert(row, id);
+                done++;
+            }
+        } catch (RuntimeException e) {
+            unindex(List.of(row), new int[] {id}, done);
+            throw e;
+        }
+        if (freeCount > 0) freeCount--;
+        else next++;
+        store(id, row);
+        return id;
+    }
+
+    /**
+     * Adds {@code rows} in iteration order and returns their ids. Sorted indexes are loaded with one sort and merge
+     * instead of one shifting insert per row.
+     */
+    public int[] insertAll(Collection<? extends T> added) {
+        List<T> batch = new ArrayList<>(added);
+        for (T row : batch) {
+            if (row == null) throw new IllegalArgumentException("row must not be null");
+        }
+        int[] ids = new int[batch.size()];
+        int reused = Math.min(freeCount, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i < reused ? free[freeCount - 1 - i] : next + i - reused;
+        }
+        int done = 0;
+        try {
+            for (SecondaryIndex<T> index : indexes.values()) {
+                index.insertAll(batch, ids);
+                done++;
+            }
+        } catch (RuntimeException e) {
+            unindex(batch, ids, done);
+            throw e;
+        }
+        freeCount -= reused;
+        next += ids.length - reused;
+        for (int i = 0; i < ids.length; i++) {
+            store(ids[i], batch.get(i));
+        }
+        return ids;
+    }
+
+    /** Replaces the row with id {@code id}, keeping the id. */
+    public void update(int id, T row) {
+        if (row == null) throw new IllegalArgumentException("row must not be null");
+        T old = get(id);
+        if (old == null) throw new IllegalArgumentException("No row with id: " + id);
+        int done = 0;
+        boolean deleted = false;
+        try {
+            for (SecondaryIndex<T> index : indexes.values()) {
+                index.delete(old, id);
+                deleted = true;
+                index.insert(row, id);
+                deleted = false;
+                done++;
+            }
+        } catch (RuntimeException e) {
+            Iterator<SecondaryIndex<T>> it = indexes.values().iterator();
+            for (int k = 0; k < done; k++) {
+                SecondaryIndex<T> index = it.next();
+                index.delete(row, id);
+                index.insert(old, id);
+            }
+            if (deleted) it.next().insert(old, id);
+            throw e;
+        }
+        rows[id] = row;
+    }
+
+    /** Removes the row with id {@code id}; returns whether it was present. */
+    public boolean delete(int id) {
+        T old = get(id);
+        if (old == null) return false;
+        for (SecondaryIndex<T> index : indexes.values()) {
+            index.delete(old, id);
+        }
+        rows[id] = null;
+        live.remove(id);
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = id;
+        return true;
+    }
+
+    private void store(int id, T row) {
+        if (id >= rows.length) rows = Arrays.copyOf(rows, Math.max(rows.length * 2, id + 1));
+        rows[id] = row;
+        live.add(id);
+    }
+
+    /** Removes {@code batch} from the first {@code count} indexes, undoing an insert that failed in a later one. */
+    private void unindex(List<? extends T> batch, int[] ids, int count) {
+        Iterator<SecondaryIndex<T>> it = indexes.values().iterator();
+        for (int k = 0; k < count; k++) {
+            SecondaryIndex<T> index = it.next();
+            for (int i = 0; i < ids.length; i++) {
+                index.delete(batch.get(i), ids[i]);
+            }
+        }
+    }
+
+    /** Row with id {@code id}, or {@code null}. */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        return id >= 0 && id < next ? (T) rows[id] : null;
+    }
+
+    public int size() {
+        return next - freeCount;
+    }
+
+    /** Fields with a secondary index, in registration order. */
+    public Set<String> indexedFields() {
+        return Collections.unmodifiableSet(indexes.keySet());
+    }
+
+    /** Rows in id order. */
+    @Override
+    public Iterator<T> iterator() {
+        return rows(live);
+    }
+
+    /** Returns the requested page of matching rows. */
+    public Page<T> page(PageableCriteria criteria) {
+        return page(criteria, null);
+    }
+
+    /**
+     * Returns the requested page of matching rows, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public Page<T> page(PageableCriteria criteria, QueryContext context) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        if (criteria.getSize() == null) throw new IllegalArgumentException("size must not be null");
+        if (criteria.getCursor() != null) {
+            throw new IllegalArgumentException("cursor pagination requires a keyset.KeysetPager");
+        }
+        int page = criteria.getPage() == null ? 0 : criteria.getPage();
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            if (context != null) context.check();
+            Plan<T> plan = plan(criteria);
+            return QueryExecutor.page(
+                    () -> rows(plan.candidates),
+                    guard(plan.residual, context),
+                    compiler.comparator(criteria.getSort()),
+                    page,
+                    criteria.getSize());
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    /** Returns every matching row, sorted when the criteria carry a sort. */
+    public List<T> list(Criteria criteria) {
+        return list(criteria, null);
+    }
+
+    /**
+     * Returns every matching row, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public List<T> list(Criteria criteria, QueryContext context) {
+        Instrumentation.Span span = Instrumentation.begin(Stage.EXECUTE);
+        try {
+            if (context != null) context.check();
+            Plan<T> plan = plan(criteria);
+            Predicate<T> residual = guard(plan.residual, context);
+            List<T> out = new ArrayList<>();
+            for (Iterator<T> it = rows(plan.candidates); it.hasNext(); ) {
+                T row = it.next();
+                if (residual.test(row)) out.add(row);
+            }
+            Comparator<T> order = criteria == null ? null : compiler.comparator(criteria.getSort());
+            if (order != null) out.sort(order);
+            return out;
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    /** Ids of the matching rows, ascending. */
+    public RowBitmap select(Criteria criteria) {
+        Plan<T> plan = plan(criteria);
+        RowBitmap out = new RowBitmap();
+        plan.candidates.forEach(id -> {
+            if (plan.residual.test(get(id))) out.add(id);
+        });
+        return out;
+    }
+
+    private static <T> Predicate<T> guard(Predicate<T> residual, QueryContext context) {
+        return context == null ? residual : context.guard(residual);
+    }
+
+    /** Candidate rows from the indexes and the predicate left to evaluate on them. */
+    Plan<T> plan(Criteria criteria) {
+        if (criteria == null || criteria.getFilters() == null || criteria.getFilters().isEmpty()) {
+            return new Plan<>(live, compiler.compile(criteria));
+        }
+        List<Filter> filters = criteria.getFilters();
+        List<SecondaryIndex.Probe> probes = new ArrayList<>();
+        List<Filter> probed = new ArrayList<>();
+        for (Filter f : filters) {
+            SecondaryIndex<T> index = f == null || f.getField() == null ? null : indexes.get(f.getField());
+            SecondaryIndex.Probe probe = index == null ? null : index.probe(f, live);
+            if (probe != null) {
+                probes.add(probe);
+                probed.add(f);
+            }
+        }
+        if (probes.isEmpty()) return new Plan<>(live, compiler.compile(criteria));
+
+        Integer[] order = new Integer[probes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> probes.get(i).estimate()));
+        RowBitmap candidates = null;
+        boolean[] answered = new boolean[probes.size()];
+        for (int i : order) {
+            SecondaryIndex.Probe p = probes.get(i);
+            if (candidates != null && (long) p.estimate() > (long) RECHECK_RATIO * candidates.cardinality()) break;
+            candidates = candidates == null ? p.rows().get() : RowBitmap.and(candidates, p.rows().get());
+            answered[i] = p.exact();
+            if (candidates.isEmpty()) break;
+        }
+
+        List<Filter> residual = new ArrayList<>(filters.size());
+        int p = 0;
+        for (Filter f : filters) {
+            if (p < probed.size() && probed.get(p) == f) {
+                if (!answered[p++]) residual.add(f);
+            } else {
+                residual.add(f);
+            }
+        }
+        return new Plan<>(candidates, compiler.compile(new Criteria(criteria.getJoins(), residual, null)));
+    }
+
+    private Iterator<T> rows(RowBitmap ids) {
+        PrimitiveIterator.OfInt it = ids.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!it.hasNext()) throw new NoSuchElementException();
+                return get(it.nextInt());
+            }
+        };
+    }
+
+    record Plan<T>(RowBitmap candidates, Predicate<T> residual) {}
+
+    /** Declares the indexed fields. */
+    public static final class Builder<T> {
+
+        private final CriteriaCompiler<T> compiler;
+        private final Map<String, SecondaryIndex<T>> indexes = new LinkedHashMap<>();
+
+        private Builder(CriteriaCompiler<T> compiler) {
+            if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+            this.compiler = compiler;
+        }
+
+        /** Sorted index on an epoch-millisecond, instant or integral field, for range filters. */
+        public Builder<T> sortedIndex(String field) {
+            indexes.put(field, new SortedIndex<>(field, compiler.resolve(field)));
+            return this;
+        }
+
+        /** Bitmap index on a low-cardinality integral, string, boolean or enum field, for equality filters. */
+        public Builder<T> bitmapIndex(String field) {
+            indexes.put(field, new BitmapIndex<>(field, compiler.resolve(field)));
+            return this;
+        }
+
+        public IndexedTable<T> build() {
+            return new IndexedTable<>(compiler, new LinkedHashMap<>(indexes));
+        }
+    }
+}
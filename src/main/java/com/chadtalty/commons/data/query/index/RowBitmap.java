@@ -0,0 +1,468 @@
+package com.chadtalty.commons.data.query.index;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative row ids in the style of Roaring bitmaps.
+ *
+ * <p>Ids are partitioned by their high 16 bits; each partition is a sorted {@code char[]} while it holds at most
+ * 4096 ids and a 1024-word bitmap beyond that, so both sparse and dense sets stay compact and intersections and
+ * unions run container by container. Not thread-safe.
+ */
+public final class RowBitmap {
+
+    /** Largest array container; beyond it a bitmap (8 KiB) is smaller. */
+    static final int ARRAY_MAX = 4096;
+
+    private char[] keys;
+    private Container[] containers;
+    private int count;
+
+    public RowBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+
+    private RowBitmap(char[] keys, Container[] containers, int count) {
+        this.keys = keys;
+        this.containers = containers;
+        this.count = count;
+    }
+
+    /** Bitmap of the given ids. */
+    public static RowBitmap of(int... ids) {
+        RowBitmap b = new RowBitmap();
+        for (int id : ids) {
+            b.add(id);
+        }
+        return b;
+    }
+
+    /** Bitmap of the first {@code n} ids, which must be ascending, distinct and non-negative; built in one pass. */
+    static RowBitmap ofSorted(int[] ids, int n) {
+        RowBitmap b = new RowBitmap();
+        for (int start = 0; start < n; ) {
+            char hi = (char) (ids[start] >>> 16);
+            int end = start + 1;
+            while (end < n && ids[end] >>> 16 == hi) end++;
+            Container c;
+            if (end - start > ARRAY_MAX) {
+                long[] bits = new long[1024];
+                for (int i = start; i < end; i++) {
+                    bits[(ids[i] & 0xFFFF) >>> 6] |= 1L << ids[i];
+                }
+                c = new Container(null, end - start, bits);
+            } else {
+                char[] low = new char[end - start];
+                for (int i = start; i < end; i++) {
+                    low[i - start] = (char) ids[i];
+                }
+                c = new Container(low, low.length, null);
+            }
+            b.append(hi, c);
+            start = end;
+        }
+        return b;
+    }
+
+    /** Adds {@code id}; returns whether it was absent. */
+    public boolean add(int id) {
+        if (id < 0) throw new IllegalArgumentException("row id must not be negative: " + id);
+        char hi = (char) (id >>> 16);
+        int i = find(hi);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, hi, new Container());
+        }
+        return containers[i].add((char) id);
+    }
+
+    /** Removes {@code id}; returns whether it was present. */
+    public boolean remove(int id) {
+        if (id < 0) return false;
+        int i = find((char) (id >>> 16));
+        if (i < 0) return false;
+        boolean removed = containers[i].remove((char) id);
+        if (containers[i].cardinality() == 0) removeContainer(i);
+        return removed;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) return false;
+        int i = find((char) (id >>> 16));
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    public int cardinality() {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            n += containers[i].cardinality();
+        }
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public RowBitmap copy() {
+        Container[] c = new Container[Math.max(4, count)];
+        for (int i = 0; i < count; i++) {
+            c[i] = containers[i].copy();
+        }
+        return new RowBitmap(Arrays.copyOf(keys, c.length), c, count);
+    }
+
+    /** Ids in both bitmaps. */
+    public static RowBitmap and(RowBitmap a, RowBitmap b) {
+        RowBitmap out = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.count && j < b.count) {
+            int c = Character.compare(a.keys[i], b.keys[j]);
+            if (c < 0) {
+                i++;
+            } else if (c > 0) {
+                j++;
+            } else {
+                Container r = a.containers[i].and(b.containers[j]);
+                if (r.cardinality() > 0) out.append(a.keys[i], r);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    /** Ids in either bitmap. */
+    public static RowBitmap or(RowBitmap a, RowBitmap b) {
+        RowBitmap out = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.count || j < b.count) {
+            int c = i == a.count ? 1 : j == b.count ? -1 : Character.compare(a.keys[i], b.keys[j]);
+            if (c < 0) {
+                out.append(a.keys[i], a.containers[i++].copy());
+            } else if (c > 0) {
+                out.append(b.keys[j], b.containers[j++].copy());
+            } else {
+                out.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        return out;
+    }
+
+    /** Ids in {@code a} but not in {@code b}. */
+    public static RowBitmap andNot(RowBitmap a, RowBitmap b) {
+        RowBitmap out = new RowBitmap();
+        int j = 0;
+        for (int i = 0; i < a.count; i++) {
+            while (j < b.count && b.keys[j] < a.keys[i]) j++;
+            Container r = j < b.count && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (r.cardinality() > 0) out.append(a.keys[i], r);
+        }
+        return out;
+    }
+
+    /** Visits ids in ascending order. */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < count; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /** Ids in ascending order. */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int container;
+            /** Array index, or bit position for bitmap containers, of the next candidate in the container. */
+            private int pos;
+
+            @Override
+            public boolean hasNext() {
+                while (container < count) {
+                    Container c = containers[container];
+                    if (c.bits == null) {
+                        if (pos < c.size) return true;
+                    } else if (pos <= 0xFFFF && (pos = c.nextFrom(pos)) >= 0) {
+                        return true;
+                    }
+                    container++;
+                    pos = 0;
+                }
+                return false;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Container c = containers[container];
+                int low = c.bits == null ? c.array[pos] : pos;
+                pos++;
+                return (keys[container] << 16) | low;
+            }
+        };
+    }
+
+    public int[] toArray() {
+        int[] out = new int[cardinality()];
+        int[] n = {0};
+        forEach(id -> out[n[0]++] = id);
+        return out;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RowBitmap other && Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int find(char hi) {
+        return Arrays.binarySearch(keys, 0, count, hi);
+    }
+
+    private void insertContainer(int i, char hi, Container c) {
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            containers = Arrays.copyOf(containers, count * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, count - i);
+        System.arraycopy(containers, i, containers, i + 1, count - i);
+        keys[i] = hi;
+        containers[i] = c;
+        count++;
+    }
+
+    private void removeContainer(int i) {
+        System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, count - i - 1);
+        containers[--count] = null;
+    }
+
+    private void append(char hi, Container c) {
+        insertContainer(count, hi, c);
+    }
+
+    /** 65536 low bits of one partition: a sorted array while small, a bitmap when dense. */
+    private static final class Container {
+
+        private char[] array;
+        private int size;
+        private long[] bits;
+
+        Container() {
+            this.array = new char[4];
+        }
+
+        private Container(char[] array, int size, long[] bits) {
+            this.array = array;
+            this.size = size;
+            this.bits = bits;
+        }
+
+        static Container ofBits(long[] bits) {
+            int n = 0;
+            for (long w : bits) {
+                n += Long.bitCount(w);
+            }
+            Container c = new Container(null, n, bits);
+            if (n <= ARRAY_MAX) c.toArrayForm();
+            return c;
+        }
+
+        int cardinality() {
+            return size;
+        }
+
+        boolean contains(char v) {
+            if (bits != null) return (bits[v >>> 6] & (1L << v)) != 0;
+            return Arrays.binarySearch(array, 0, size, v) >= 0;
+        }
+
+        boolean add(char v) {
+            if (bits != null) {
+                long before = bits[v >>> 6];
+                bits[v >>> 6] = before | (1L << v);
+                if (before == bits[v >>> 6]) return false;
+                size++;
+                return true;
+            }
+            int i = Arrays.binarySearch(array, 0, size, v);
+            if (i >= 0) return false;
+            if (size == ARRAY_MAX) {
+                toBitmapForm();
+                return add(v);
+            }
+            i = -i - 1;
+            if (size == array.length) array = Arrays.copyOf(array, Math.min(ARRAY_MAX, size * 2));
+            System.arraycopy(array, i, array, i + 1, size - i);
+            array[i] = v;
+            size++;
+            return true;
+        }
+
+        boolean remove(char v) {
+            if (bits != null) {
+                long before = bits[v >>> 6];
+                bits[v >>> 6] = before & ~(1L << v);
+                if (before == bits[v >>> 6]) return false;
+                if (--size <= ARRAY_MAX) toArrayForm();
+                return true;
+            }
+            int i = Arrays.binarySearch(array, 0, size, v);
+            if (i < 0) return false;
+            System.arraycopy(array, i + 1, array, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        Container and(Container o) {
+            if (bits != null && o.bits != null) {
+                long[] r = new long[1024];
+                for (int w = 0; w < 1024; w++) {
+                    r[w] = bits[w] & o.bits[w];
+                }
+                return ofBits(r);
+            }
+            if (bits != null) return o.and(this);
+            char[] r = new char[size];
+            int n = 0;
+            if (o.bits != null) {
+                for (int i = 0; i < size; i++) {
+                    if (o.contains(array[i])) r[n++] = array[i];
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < size && j < o.size) {
+                    if (array[i] < o.array[j]) i++;
+                    else if (array[i] > o.array[j]) j++;
+                    else {
+                        r[n++] = array[i++];
+                        j++;
+                    }
+                }
+            }
+            return new Container(r, n, null);
+        }
+
+        Container or(Container o) {
+            if (bits == null && o.bits == null && size + o.size <= ARRAY_MAX) {
+                char[] r = new char[size + o.size];
+                int i = 0;
+                int j = 0;
+                int n = 0;
+                while (i < size || j < o.size) {
+                    if (j == o.size || (i < size && array[i] < o.array[j])) r[n++] = array[i++];
+                    else if (i == size || o.array[j] < array[i]) r[n++] = o.array[j++];
+                    else {
+                        r[n++] = array[i++];
+                        j++;
+                    }
+                }
+                return new Container(r, n, null);
+            }
+            long[] r = toBits();
+            if (o.bits != null) {
+                for (int w = 0; w < 1024; w++) {
+                    r[w] |= o.bits[w];
+                }
+            } else {
+                for (int i = 0; i < o.size; i++) {
+                    r[o.array[i] >>> 6] |= 1L << o.array[i];
+                }
+            }
+            return ofBits(r);
+        }
+
+        Container andNot(Container o) {
+            if (bits != null) {
+                long[] r = bits.clone();
+                if (o.bits != null) {
+                    for (int w = 0; w < 1024; w++) {
+                        r[w] &= ~o.bits[w];
+                    }
+                } else {
+                    for (int i = 0; i < o.size; i++) {
+                        r[o.array[i] >>> 6] &= ~(1L << o.array[i]);
+                    }
+                }
+                return ofBits(r);
+            }
+            char[] r = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!o.contains(array[i])) r[n++] = array[i];
+            }
+            return new Container(r, n, null);
+        }
+
+        Container copy() {
+            return new Container(array == null ? null : array.clone(), size, bits == null ? null : bits.clone());
+        }
+
+        void forEach(int base, IntConsumer action) {
+            if (bits == null) {
+                for (int i = 0; i < size; i++) {
+                    action.accept(base | array[i]);
+                }
+                return;
+            }
+            for (int w = 0; w < 1024; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        /** Smallest member {@code >= from} of a bitmap container, or {@code -1}. */
+        int nextFrom(int from) {
+            int w = from >>> 6;
+            if (w >= 1024) return -1;
+            long word = bits[w] & (-1L << from);
+            while (true) {
+                if (word != 0) return (w << 6) | Long.numberOfTrailingZeros(word);
+                if (++w == 1024) return -1;
+                word = bits[w];
+            }
+        }
+
+        private long[] toBits() {
+            if (bits != null) return bits.clone();
+            long[] r = new long[1024];
+            for (int i = 0; i < size; i++) {
+                r[array[i] >>> 6] |= 1L << array[i];
+            }
+            return r;
+        }
+
+        private void toBitmapForm() {
+            bits = toBits();
+            array = null;
+        }
+
+        private void toArrayForm() {
+            char[] r = new char[Math.max(4, size)];
+            int[] n = {0};
+            forEach(0, v -> r[n[0]++] = (char) v);
+            array = r;
+            bits = null;
+        }
+    }
+}
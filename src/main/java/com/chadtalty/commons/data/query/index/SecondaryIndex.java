@@ -0,0 +1,40 @@
+package com.chadtalty.commons.data.query.index;
+
+import com.chadtalty.commons.data.query.Filter;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Index over one field of an {@link IndexedTable}, maintained row by row.
+ *
+ * @param <T> row type
+ */
+interface SecondaryIndex<T> {
+
+    void insert(T row, int id);
+
+    /** Indexes {@code rows[i]} under {@code ids[i]}. */
+    default void insertAll(List<? extends T> rows, int[] ids) {
+        for (int i = 0; i < ids.length; i++) {
+            insert(rows.get(i), ids[i]);
+        }
+    }
+
+    void delete(T row, int id);
+
+    /**
+     * Rows that may satisfy {@code filter}, or {@code null} when this index cannot answer it. Operands are parsed
+     * as {@link com.chadtalty.commons.data.query.eval.CriteriaCompiler} would; unparseable ones yield {@code null}
+     * so that compilation reports them.
+     */
+    Probe probe(Filter filter, RowBitmap live);
+
+    /**
+     * Index answer for one filter.
+     *
+     * @param estimate upper bound on the number of rows, known without materializing them
+     * @param exact whether the rows are exactly the matches, so the filter need not be rechecked
+     * @param rows materializes the candidate rows
+     */
+    record Probe(int estimate, boolean exact, Supplier<RowBitmap> rows) {}
+}
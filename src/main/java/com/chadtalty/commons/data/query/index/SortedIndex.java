@@ -0,0 +1,150 @@
+package com.chadtalty.commons.data.query.index;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler.Operands;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Range index over an epoch-millisecond, {@link Instant} or integral field.
+ *
+ * <p>Epoch-millisecond and integral keys are the field values themselves, so ranges are answered exactly.
+ * {@link Instant} rows are keyed by their epoch millisecond (floor), which makes every range a superset that is
+ * rechecked on the candidates; {@code null} instants are not indexed, as they match no filter.
+ *
+ * @param <T> row type
+ */
+final class SortedIndex<T> implements SecondaryIndex<T> {
+
+    private final String field;
+    private final FieldAccessor<T> accessor;
+    private final boolean exact;
+    private final SortedLongIndex index = new SortedLongIndex();
+
+    SortedIndex(String field, FieldAccessor<T> accessor) {
+        if (!(accessor instanceof FieldAccessor.EpochMillisField<T>
+                || accessor instanceof FieldAccessor.InstantField<T>
+                || accessor instanceof FieldAccessor.LongField<T>)) {
+            throw new IllegalArgumentException("Sorted index requires a temporal or integral field: " + field);
+        }
+        this.field = field;
+        this.accessor = accessor;
+        this.exact = !(accessor instanceof FieldAccessor.InstantField<T>);
+    }
+
+    @Override
+    public void insert(T row, int id) {
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            Instant v = a.getter().apply(row);
+            if (v != null) index.insert(floorMillis(v), id);
+        } else {
+            index.insert(longValue(row), id);
+        }
+    }
+
+    @Override
+    public void insertAll(List<? extends T> rows, int[] ids) {
+        long[] keys = new long[ids.length];
+        int[] indexed = new int[ids.length];
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            T row = rows.get(i);
+            if (accessor instanceof FieldAccessor.InstantField<T> a) {
+                Instant v = a.getter().apply(row);
+                if (v == null) continue;
+                keys[n] = floorMillis(v);
+            } else {
+                keys[n] = longValue(row);
+            }
+            indexed[n++] = ids[i];
+        }
+        index.insertAll(keys, indexed, n);
+    }
+
+    @Override
+    public void delete(T row, int id) {
+        if (accessor instanceof FieldAccessor.InstantField<T> a) {
+            Instant v = a.getter().apply(row);
+            if (v != null) index.delete(floorMillis(v), id);
+        } else {
+            index.delete(longValue(row), id);
+        }
+    }
+
+    @Override
+    public Probe probe(Filter filter, RowBitmap live) {
+        try {
+            if (filter instanceof BetweenFilter b) {
+                if (b.getStartDateTime() == null || b.getEndDateTime() == null || !isTemporal()) return null;
+                return range(key(b.getStartDateTime()), key(b.getEndDateTime()));
+            }
+            if (filter instanceof DateTimeFilter d) {
+                if (d.getOperator() == null || d.getValue() == null || !isTemporal()) return null;
+                return compare(Comparison.of(d.getOperator()), key(d.getValue()));
+            }
+            if (filter instanceof BasicFilter b) {
+                if (b.getOperator() == null || b.getValue() == null) return null;
+                long x = accessor instanceof FieldAccessor.LongField<T>
+                        ? Operands.parseLong(field, b.getValue())
+                        : key(Operands.parseInstant(field, b.getValue()));
+                return compare(Comparison.of(b.getOperator()), x);
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private Probe compare(Comparison op, long x) {
+        if (!exact) {
+            // instants within millisecond x may fall on either side of the operand
+            return switch (op) {
+                case EQ -> range(x, x);
+                case GT, GE -> range(x, Long.MAX_VALUE);
+                case LT, LE -> range(Long.MIN_VALUE, x);
+                case NE -> null;
+            };
+        }
+        return switch (op) {
+            case EQ -> range(x, x);
+            case GT -> x == Long.MAX_VALUE ? range(1, 0) : range(x + 1, Long.MAX_VALUE);
+            case GE -> range(x, Long.MAX_VALUE);
+            case LT -> x == Long.MIN_VALUE ? range(1, 0) : range(Long.MIN_VALUE, x - 1);
+            case LE -> range(Long.MIN_VALUE, x);
+            case NE -> null;
+        };
+    }
+
+    private Probe range(long lo, long hi) {
+        return new Probe(index.count(lo, hi), exact, () -> index.range(lo, hi));
+    }
+
+    private long longValue(T row) {
+        return accessor instanceof FieldAccessor.EpochMillisField<T> a
+                ? a.getter().applyAsLong(row)
+                : ((FieldAccessor.LongField<T>) accessor).getter().applyAsLong(row);
+    }
+
+    private boolean isTemporal() {
+        return !(accessor instanceof FieldAccessor.LongField<T>);
+    }
+
+    /** Operand key, exactly as the compiler converts it for epoch-millisecond fields. */
+    private long key(Instant v) {
+        return exact ? v.toEpochMilli() : floorMillis(v);
+    }
+
+    /** Epoch millisecond containing {@code v}, saturated for instants beyond the {@code long} range. */
+    static long floorMillis(Instant v) {
+        try {
+            return v.toEpochMilli();
+        } catch (ArithmeticException e) {
+            return v.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+}
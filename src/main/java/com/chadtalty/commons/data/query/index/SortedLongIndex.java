@@ -0,0 +1,128 @@
+package com.chadtalty.commons.data.query.index;
+
+import java.util.Arrays;
+
+/**
+ * Row ids sorted by a {@code long} key (epoch milliseconds), as parallel {@code long[]} / {@code int[]} arrays.
+ *
+ * <p>Entries are ordered by key, then row id, so every (key, row) pair has one position: inserts and deletes
+ * binary-search it and shift the tail. Range lookups binary-search both ends. Not thread-safe.
+ */
+final class SortedLongIndex {
+
+    private long[] keys = new long[16];
+    private int[] rows = new int[16];
+    private int size;
+
+    void insert(long key, int row) {
+        int i = position(key, row);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(rows, i, rows, i + 1, size - i);
+        keys[i] = key;
+        rows[i] = row;
+        size++;
+    }
+
+    /** Adds {@code n} pairs at once: sorts them, then merges with the existing entries in one pass. */
+    void insertAll(long[] newKeys, int[] newRows, int n) {
+        sort(newKeys, newRows, n);
+        long[] k = new long[Math.max(16, size + n)];
+        int[] r = new int[k.length];
+        int i = 0;
+        int j = 0;
+        int o = 0;
+        while (i < size || j < n) {
+            boolean left = j == n
+                    || (i < size && (keys[i] < newKeys[j] || (keys[i] == newKeys[j] && rows[i] < newRows[j])));
+            if (left) {
+                k[o] = keys[i];
+                r[o++] = rows[i++];
+            } else {
+                k[o] = newKeys[j];
+                r[o++] = newRows[j++];
+            }
+        }
+        keys = k;
+        rows = r;
+        size = o;
+    }
+
+    boolean delete(long key, int row) {
+        int i = position(key, row);
+        if (i == size || keys[i] != key || rows[i] != row) return false;
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Rows whose key lies in {@code [lo, hi]}. */
+    RowBitmap range(long lo, long hi) {
+        if (lo > hi) return new RowBitmap();
+        int from = position(lo, Integer.MIN_VALUE);
+        int[] ids = Arrays.copyOfRange(rows, from, Math.max(from, position(hi, Integer.MAX_VALUE)));
+        Arrays.sort(ids);
+        return RowBitmap.ofSorted(ids, ids.length);
+    }
+
+    /** Number of rows whose key lies in {@code [lo, hi]}, without materializing them. */
+    int count(long lo, long hi) {
+        if (lo > hi) return 0;
+        return Math.max(0, position(hi, Integer.MAX_VALUE) - position(lo, Integer.MIN_VALUE));
+    }
+
+    /** Bottom-up merge sort of parallel arrays by (key, row). */
+    private static void sort(long[] keys, int[] rows, int n) {
+        long[] k2 = new long[n];
+        int[] r2 = new int[n];
+        long[] ks = keys;
+        int[] rs = rows;
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo;
+                int j = mid;
+                for (int o = lo; o < hi; o++) {
+                    if (j == hi || (i < mid && (ks[i] < ks[j] || (ks[i] == ks[j] && rs[i] <= rs[j])))) {
+                        k2[o] = ks[i];
+                        r2[o] = rs[i++];
+                    } else {
+                        k2[o] = ks[j];
+                        r2[o] = rs[j++];
+                    }
+                }
+            }
+            long[] kt = ks;
+            ks = k2;
+            k2 = kt;
+            int[] rt = rs;
+            rs = r2;
+            r2 = rt;
+        }
+        if (ks != keys) {
+            System.arraycopy(ks, 0, keys, 0, n);
+            System.arraycopy(rs, 0, rows, 0, n);
+        }
+    }
+
+    /** First position whose (key, row) is not less than the given pair. */
+    private int position(long key, int row) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key || (keys[mid] == key && rows[mid] < row)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,52 @@
+package com.chadtalty.commons.data.query.join;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * {@link JoinLoader} over a fixed collection, standing in for a database in tests. It records every requested key
+ * set, so callers can assert that a batch issued exactly one load per join path.
+ *
+ * @param <K> join key type
+ * @param <C> joined row type
+ */
+public final class InMemoryJoinLoader<K, C> implements JoinLoader<K, C> {
+
+    private final Map<K, List<C>> byKey = new HashMap<>();
+    private final List<Set<K>> requests = new CopyOnWriteArrayList<>();
+
+    public InMemoryJoinLoader(Collection<? extends C> rows, Function<? super C, ? extends K> key) {
+        if (rows == null) throw new IllegalArgumentException("rows must not be null");
+        if (key == null) throw new IllegalArgumentException("key must not be null");
+        for (C row : rows) {
+            K k = key.apply(row);
+            if (k != null) byKey.computeIfAbsent(k, x -> new ArrayList<>(1)).add(row);
+        }
+    }
+
+    @Override
+    public List<C> load(Set<K> keys) {
+        requests.add(Set.copyOf(keys));
+        List<C> out = new ArrayList<>();
+        for (K k : keys) {
+            List<C> rows = byKey.get(k);
+            if (rows != null) out.addAll(rows);
+        }
+        return out;
+    }
+
+    /** Key sets of all loads so far, in call order. */
+    public List<Set<K>> requests() {
+        return List.copyOf(requests);
+    }
+
+    public int loadCount() {
+        return requests.size();
+    }
+}
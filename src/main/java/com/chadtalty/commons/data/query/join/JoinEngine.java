@@ -0,0 +1,254 @@
+package com.chadtalty.commons.data.query.join;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.admission.QueryCancelledException;
+import com.chadtalty.commons.data.query.admission.QueryContext;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Executes the {@link JoinSpec}s of a {@link Criteria} over a batch of parent rows with one {@link JoinLoader}
+ * call per join path instead of one lookup per row.
+ *
+ * <p>Each join path is registered with the parent's key for it, a loader, the joined row's key and a compiler for
+ * the joined row type; join filter fields are relative to the joined row (a filter on {@code postal_code} under
+ * join {@code customer.address} reads the address's {@code postal_code}). For a batch, the engine:
+ * <ol>
+ *   <li>applies the criteria's own filters to the parents, so only survivors contribute keys;</li>
+ *   <li>per join path, collects the survivors' distinct non-null keys and loads them in one call;</li>
+ *   <li>builds a hash table of the loaded rows keyed by join key, inserting only rows that pass every filter of
+ *       that path, so the filter runs once per joined row rather than once per parent;</li>
+ *   <li>probes the tables with each parent's keys.</li>
+ * </ol>
+ * A parent is kept when, for every path carrying a filter, at least one joined row with its key passed. Paths
+ * whose join specs carry no filter are loaded but do not restrict the parents. Several specs on the same path
+ * apply to the same joined row. Independent paths are loaded and built concurrently on virtual threads. The
+ * {@link QueryContext} overload checks before and after the loads and every
+ * {@value QueryContext#CHECK_INTERVAL} parents while filtering and probing; it does not interrupt a running load.
+ *
+ * <p>Example:
+ * <pre>
+ * JoinEngine&lt;Order&gt; engine = JoinEngine.builder(orderCompiler)
+ *     .path("customer", Order::customerId, customerLoader, Customer::id, customerCompiler)
+ *     .build();
+ * JoinResult&lt;Order&gt; result = engine.execute(orders, criteria);
+ * </pre>
+ *
+ * <p>Thread-safe if the compilers and loaders are.
+ *
+ * @param <P> parent row type
+ */
+public final class JoinEngine<P> {
+
+    private final CriteriaCompiler<P> compiler;
+    private final Map<String, Path<P, ?, ?>> paths;
+
+    private JoinEngine(CriteriaCompiler<P> compiler, Map<String, Path<P, ?, ?>> paths) {
+        this.compiler = compiler;
+        this.paths = paths;
+    }
+
+    public static <P> Builder<P> builder(CriteriaCompiler<P> compiler) {
+        return new Builder<>(compiler);
+    }
+
+    /**
+     * Filters {@code parents} by the criteria's filters and join specs; surviving rows keep their input order.
+     * The criteria's sort is ignored.
+     */
+    public JoinResult<P> execute(Collection<? extends P> parents, Criteria criteria) {
+        return execute(parents, criteria, null);
+    }
+
+    /**
+     * Like {@link #execute(Collection, Criteria)}, stopping early when {@code context} is cancelled or expires.
+     *
+     * @throws QueryCancelledException if it does
+     */
+    public JoinResult<P> execute(Collection<? extends P> parents, Criteria criteria, QueryContext context) {
+        if (parents == null) throw new IllegalArgumentException("parents must not be null");
+        Predicate<P> filter = guard(
+                compiler.compile(criteria == null ? null : new Criteria(null, criteria.getFilters(), null)), context);
+        List<Bound<P>> bound = bind(criteria == null ? null : criteria.getJoins());
+        if (context != null) context.check();
+
+        List<P> survivors = new ArrayList<>(parents.size());
+        for (P row : parents) {
+            if (filter.test(row)) survivors.add(row);
+        }
+        Map<String, Table<P>> tables = build(bound, survivors);
+        if (context != null) context.check();
+
+        List<Table<P>> restricting = new ArrayList<>(tables.size());
+        for (Bound<P> b : bound) {
+            if (b.restricting()) restricting.add(tables.get(b.path().name()));
+        }
+        if (restricting.isEmpty()) return new JoinResult<>(survivors, tables);
+        Predicate<P> joined = guard(row -> {
+            for (Table<P> table : restricting) {
+                if (table.probe(row).isEmpty()) return false;
+            }
+            return true;
+        }, context);
+        List<P> out = new ArrayList<>(survivors.size());
+        for (P row : survivors) {
+            if (joined.test(row)) out.add(row);
+        }
+        return new JoinResult<>(out, tables);
+    }
+
+    private static <P> Predicate<P> guard(Predicate<P> filter, QueryContext context) {
+        return context == null ? filter : context.guard(filter);
+    }
+
+    /** Groups the specs by path and compiles each path's filters against the joined row type, before any load. */
+    private List<Bound<P>> bind(List<JoinSpec> joins) {
+        if (joins == null || joins.isEmpty()) return List.of();
+        Map<String, List<Filter>> byPath = new LinkedHashMap<>();
+        for (JoinSpec j : joins) {
+            if (j == null) throw new IllegalArgumentException("join must not be null");
+            if (!paths.containsKey(j.getJoin())) {
+                throw new IllegalArgumentException("Unknown join path: " + j.getJoin());
+            }
+            List<Filter> filters = byPath.computeIfAbsent(j.getJoin(), k -> new ArrayList<>());
+            if (j.getFilter() != null) filters.add(j.getFilter());
+        }
+        List<Bound<P>> out = new ArrayList<>(byPath.size());
+        byPath.forEach((name, filters) -> out.add(paths.get(name).bind(filters)));
+        return out;
+    }
+
+    private static <P> Map<String, Table<P>> build(List<Bound<P>> bound, List<P> parents) {
+        Map<String, Table<P>> tables = new LinkedHashMap<>();
+        if (bound.size() <= 1) {
+            for (Bound<P> b : bound) {
+                tables.put(b.path().name(), b.build(parents));
+            }
+            return tables;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Table<P>>> futures = new ArrayList<>(bound.size());
+            for (Bound<P> b : bound) {
+                futures.add(executor.submit(() -> b.build(parents)));
+            }
+            for (int i = 0; i < bound.size(); i++) {
+                tables.put(bound.get(i).path().name(), await(futures.get(i), bound.get(i).path().name()));
+            }
+        }
+        return tables;
+    }
+
+    private static <V> V await(Future<V> future, String path) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading join path: " + path, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException("Failed to load join path: " + path, e.getCause());
+        }
+    }
+
+    /** A registered join path. */
+    private record Path<P, K, C>(
+            String name,
+            Function<? super P, ? extends K> parentKey,
+            JoinLoader<K, C> loader,
+            Function<? super C, ? extends K> childKey,
+            CriteriaCompiler<C> compiler) {
+
+        Bound<P> bind(List<Filter> filters) {
+            Predicate<C> filter = compiler.compile(new Criteria(null, filters, null));
+            return new Bound<>(this, !filters.isEmpty(), parents -> table(parents, filter));
+        }
+
+        Table<P> table(List<P> parents, Predicate<C> filter) {
+            Set<K> keys = new LinkedHashSet<>();
+            for (P row : parents) {
+                K k = parentKey.apply(row);
+                if (k != null) keys.add(k);
+            }
+            Map<Object, List<Object>> rows = new HashMap<>();
+            if (!keys.isEmpty()) {
+                Collection<? extends C> loaded = loader.load(keys);
+                if (loaded == null) throw new IllegalStateException("Loader returned null for join path: " + name);
+                for (C child : loaded) {
+                    if (!filter.test(child)) continue;
+                    K k = childKey.apply(child);
+                    if (k != null && keys.contains(k)) rows.computeIfAbsent(k, x -> new ArrayList<>(1)).add(child);
+                }
+            }
+            return new Table<>(parentKey, rows);
+        }
+    }
+
+    /** A path with its compiled filters for one execution. */
+    private record Bound<P>(Path<P, ?, ?> path, boolean restricting, Function<List<P>, Table<P>> builder) {
+
+        Table<P> build(List<P> parents) {
+            return builder.apply(parents);
+        }
+    }
+
+    /** Joined rows that passed the path's filters, keyed by join key. */
+    record Table<P>(Function<? super P, ?> parentKey, Map<Object, List<Object>> rows) {
+
+        List<Object> probe(P parent) {
+            Object k = parentKey.apply(parent);
+            List<Object> matched = k == null ? null : rows.get(k);
+            return matched == null ? List.of() : matched;
+        }
+    }
+
+    /** Declares the join paths. */
+    public static final class Builder<P> {
+
+        private final CriteriaCompiler<P> compiler;
+        private final Map<String, Path<P, ?, ?>> paths = new LinkedHashMap<>();
+
+        private Builder(CriteriaCompiler<P> compiler) {
+            if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+            this.compiler = compiler;
+        }
+
+        /**
+         * Registers join path {@code join}: parents join rows from {@code loader} whose {@code childKey} equals their
+         * {@code parentKey}; the path's filters are compiled by {@code childCompiler}.
+         */
+        public <K, C> Builder<P> path(
+                String join,
+                Function<? super P, ? extends K> parentKey,
+                JoinLoader<K, C> loader,
+                Function<? super C, ? extends K> childKey,
+                CriteriaCompiler<C> childCompiler) {
+            if (join == null || join.isBlank()) throw new IllegalArgumentException("join must not be blank");
+            if (parentKey == null) throw new IllegalArgumentException("parentKey must not be null");
+            if (loader == null) throw new IllegalArgumentException("loader must not be null");
+            if (childKey == null) throw new IllegalArgumentException("childKey must not be null");
+            if (childCompiler == null) throw new IllegalArgumentException("childCompiler must not be null");
+            paths.put(join, new Path<>(join, parentKey, loader, childKey, childCompiler));
+            return this;
+        }
+
+        public JoinEngine<P> build() {
+            return new JoinEngine<>(compiler, new LinkedHashMap<>(paths));
+        }
+    }
+}
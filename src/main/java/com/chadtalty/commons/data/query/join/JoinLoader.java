@@ -0,0 +1,21 @@
+package com.chadtalty.commons.data.query.join;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Batched source of the rows on the far side of a join path, e.g. a repository issuing one {@code IN} query.
+ *
+ * <p>{@link JoinEngine} calls {@link #load} once per join path and batch with every distinct non-null key of the
+ * batch, so implementations should answer with a single round trip. Implementations must be safe to call from a
+ * thread other than the caller's.
+ *
+ * @param <K> join key type
+ * @param <C> joined row type
+ */
+@FunctionalInterface
+public interface JoinLoader<K, C> {
+
+    /** Returns every row whose key is in {@code keys}; rows with other keys are ignored. */
+    Collection<? extends C> load(Set<K> keys);
+}
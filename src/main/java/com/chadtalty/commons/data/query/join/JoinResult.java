@@ -0,0 +1,38 @@
+package com.chadtalty.commons.data.query.join;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Output of {@link JoinEngine#execute}: the surviving parent rows plus, per join path, the joined rows that passed
+ * that path's filters, so callers can read them without another lookup.
+ *
+ * @param <P> parent row type
+ */
+public final class JoinResult<P> {
+
+    private final List<P> rows;
+    private final Map<String, JoinEngine.Table<P>> tables;
+
+    JoinResult(List<P> rows, Map<String, JoinEngine.Table<P>> tables) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.tables = tables;
+    }
+
+    /** Parent rows that passed all filters, in input order. */
+    public List<P> rows() {
+        return rows;
+    }
+
+    /**
+     * Rows joined to {@code parent} through {@code join} that passed the path's filters, in load order; empty when
+     * none matched. {@code join} must be a path named by the executed criteria.
+     */
+    @SuppressWarnings("unchecked")
+    public <C> List<C> joined(String join, P parent) {
+        JoinEngine.Table<P> table = tables.get(join);
+        if (table == null) throw new IllegalArgumentException("Join path not in this result: " + join);
+        return (List<C>) (List<?>) table.probe(parent);
+    }
+}
@@ -0,0 +1,67 @@
+package com.chadtalty.commons.data.query.json;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free intern table for filter field names read straight from the parser's character buffer.
+ *
+ * <p>Field names come from a small, schema-bound vocabulary, so after warm-up every {@code "field"} value
+ * resolves to a shared {@link String} without allocating. Only names the validator could accept are interned:
+ * names longer than {@value #MAX_LENGTH} characters or with characters outside {@code [A-Za-z0-9_.]} are
+ * returned as fresh strings. A name that finds no free or matching slot within a few probes replaces the entry
+ * in its home slot, so names sent once, such as a client probing with random fields, cannot crowd out the
+ * working set. The table never holds more than its capacity.
+ */
+final class FieldNameInterner {
+
+    static final FieldNameInterner INSTANCE = new FieldNameInterner(4096);
+
+    private static final int MAX_LENGTH = 128;
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+
+    FieldNameInterner(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two");
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    String intern(char[] buf, int off, int len) {
+        if (len > MAX_LENGTH) return new String(buf, off, len);
+        int h = 0;
+        for (int i = 0; i < len; i++) {
+            char c = buf[off + i];
+            if (!isFieldChar(c)) return new String(buf, off, len);
+            h = 31 * h + c;
+        }
+        int home = (h ^ (h >>> 16)) & mask;
+        int idx = home;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            String s = table.get(idx);
+            if (s == null) {
+                String created = new String(buf, off, len);
+                if (table.compareAndSet(idx, null, created)) return created;
+                s = table.get(idx);
+            }
+            if (s.hashCode() == h && matches(s, buf, off, len)) return s;
+            idx = (idx + 1) & mask;
+        }
+        String created = new String(buf, off, len);
+        table.set(home, created);
+        return created;
+    }
+
+    private static boolean isFieldChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.';
+    }
+
+    private static boolean matches(String s, char[] buf, int off, int len) {
+        if (s.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != buf[off + i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,330 @@
+package com.chadtalty.commons.data.query.json;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Single-pass deserializer for the {@link Filter} hierarchy.
+ *
+ * <p>Unlike {@code @JsonTypeInfo(include = PROPERTY)}, it never buffers a filter into a {@code TokenBuffer}
+ * when {@code "type"} is not the first property: scalar properties are captured as they stream by and the
+ * subtype is chosen at the end of the object, from {@code "type"} wherever it appears or, when absent, from
+ * the property signature ({@code values} means contains, {@code start_date_time}/{@code end_date_time} mean
+ * between, a temporal operator means datetime, any other basic operator means basic).
+ *
+ * <p>{@code field} values are interned from the parser buffer and {@code ContainsFilter.values} is read into
+ * an exactly sized array-backed list. When bound to a concrete subtype (e.g. reading {@code BasicFilter}
+ * directly) the type may be omitted and a conflicting type is rejected.
+ */
+public final class FilterDeserializer extends StdDeserializer<Filter> implements ContextualDeserializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int TYPE = 1;
+    private static final int FIELD = 1 << 1;
+    private static final int OPERATOR = 1 << 2;
+    private static final int VALUE = 1 << 3;
+    private static final int VALUES = 1 << 4;
+    private static final int START = 1 << 5;
+    private static final int END = 1 << 6;
+
+    private static final int BASIC_PROPS = TYPE | FIELD | OPERATOR | VALUE;
+    private static final int BETWEEN_PROPS = TYPE | FIELD | OPERATOR | START | END;
+    private static final int CONTAINS_PROPS = TYPE | FIELD | OPERATOR | VALUES;
+
+    private static final List<Object> PROPERTY_NAMES =
+            List.of("type", "field", "operator", "value", "values", "start_date_time", "end_date_time");
+
+    /** Subtype the deserializer is bound to, or {@code null} for {@link Filter} itself. */
+    private final FilterType expected;
+
+    public FilterDeserializer() {
+        this(null);
+    }
+
+    private FilterDeserializer(FilterType expected) {
+        super(Filter.class);
+        this.expected = expected;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        JavaType type = ctxt.getContextualType();
+        if (type == null && property != null) type = property.getType();
+        FilterType bound = type == null ? null : typeOf(type.getRawClass());
+        return bound == expected ? this : new FilterDeserializer(bound);
+    }
+
+    @Override
+    public Object deserializeWithType(JsonParser p, DeserializationContext ctxt, TypeDeserializer typeDeserializer)
+            throws IOException {
+        return deserialize(p, ctxt);
+    }
+
+    @Override
+    public Filter deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Instrumentation.Span span = Instrumentation.begin(Stage.DESERIALIZE);
+        Filter filter = null;
+        try {
+            filter = read(p, ctxt);
+            return filter;
+        } finally {
+            if (span != null) span.end(filter);
+        }
+    }
+
+    private Filter read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.START_OBJECT) {
+            t = p.nextToken();
+        } else if (t != JsonToken.FIELD_NAME && t != JsonToken.END_OBJECT) {
+            return (Filter) ctxt.handleUnexpectedToken(Filter.class, p);
+        }
+
+        int seen = 0;
+        String type = null;
+        String field = null;
+        String operator = null;
+        String value = null;
+        JsonToken valueToken = null;
+        List<String> values = null;
+        String start = null;
+        JsonToken startToken = null;
+        String end = null;
+        JsonToken endToken = null;
+
+        for (; t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+            String name = p.currentName();
+            JsonToken v = p.nextToken();
+            switch (name) {
+                case "type" -> {
+                    seen |= TYPE;
+                    type = scalar(p, ctxt, v, name);
+                }
+                case "field" -> {
+                    seen |= FIELD;
+                    field = v == JsonToken.VALUE_STRING
+                            ? FieldNameInterner.INSTANCE.intern(
+                                    p.getTextCharacters(), p.getTextOffset(), p.getTextLength())
+                            : scalar(p, ctxt, v, name);
+                }
+                case "operator" -> {
+                    seen |= OPERATOR;
+                    operator = scalar(p, ctxt, v, name);
+                }
+                case "value" -> {
+                    seen |= VALUE;
+                    value = scalar(p, ctxt, v, name);
+                    valueToken = v;
+                }
+                case "values" -> {
+                    seen |= VALUES;
+                    values = values(p, ctxt, v);
+                }
+                case "start_date_time" -> {
+                    seen |= START;
+                    start = scalar(p, ctxt, v, name);
+                    startToken = v;
+                }
+                case "end_date_time" -> {
+                    seen |= END;
+                    end = scalar(p, ctxt, v, name);
+                    endToken = v;
+                }
+                default -> {
+                    if (ctxt.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+                        throw UnrecognizedPropertyException.from(p, Filter.class, name, PROPERTY_NAMES);
+                    }
+                    p.skipChildren();
+                }
+            }
+        }
+
+        FilterType resolved = resolve(p, ctxt, type, seen, operator);
+        checkProperties(p, ctxt, resolved, seen);
+        return switch (resolved) {
+            case BASIC -> new BasicFilter(
+                    field, operator(ctxt, operator, BasicFilter.Operator.class, BasicFilter.Operator::from), value);
+            case DATE_TIME -> new DateTimeFilter(
+                    field,
+                    operator(ctxt, operator, DateTimeFilter.Operator.class, DateTimeFilter.Operator::from),
+                    instant(ctxt, value, valueToken));
+            case BETWEEN -> {
+                operator(ctxt, operator, BetweenFilter.Operator.class, BetweenFilter.Operator::from);
+                yield BetweenFilter.builder()
+                        .field(field)
+                        .startDateTime(instant(ctxt, start, startToken))
+                        .endDateTime(instant(ctxt, end, endToken))
+                        .build();
+            }
+            case CONTAINS -> {
+                operator(ctxt, operator, ContainsFilter.Operator.class, ContainsFilter.Operator::from);
+                yield ContainsFilter.builder().field(field).values(values).build();
+            }
+        };
+    }
+
+    private FilterType resolve(JsonParser p, DeserializationContext ctxt, String type, int seen, String operator)
+            throws IOException {
+        FilterType resolved;
+        if (type != null) {
+            try {
+                resolved = FilterType.from(type);
+            } catch (IllegalArgumentException e) {
+                throw InvalidTypeIdException.from(
+                        p, "Could not resolve type id '" + type + "' as a subtype of Filter", typeFor(ctxt), type);
+            }
+        } else if (expected != null) {
+            resolved = expected;
+        } else {
+            resolved = infer(seen, operator);
+            if (resolved == null) {
+                throw InvalidTypeIdException.from(
+                        p, "Missing type id when trying to resolve subtype of Filter: missing type id property 'type'",
+                        typeFor(ctxt), null);
+            }
+        }
+        if (expected != null && resolved != expected) {
+            throw InvalidTypeIdException.from(
+                    p, "Type id '" + resolved.getValue() + "' is not a subtype of " + expected.getValue() + " filter",
+                    typeFor(ctxt), type);
+        }
+        return resolved;
+    }
+
+    /** Chooses a subtype from the properties present when no {@code "type"} was sent. */
+    private static FilterType infer(int seen, String operator) {
+        if ((seen & VALUES) != 0) return FilterType.CONTAINS;
+        if ((seen & (START | END)) != 0) return FilterType.BETWEEN;
+        if (operator == null) return null;
+        String norm = operator.trim().toLowerCase();
+        if (ContainsFilter.Operator.IN.getValue().equals(norm)) return FilterType.CONTAINS;
+        if (BetweenFilter.Operator.BETWEEN.getValue().equals(norm)) return FilterType.BETWEEN;
+        for (BasicFilter.Operator o : BasicFilter.Operator.values()) {
+            if (o.getValue().equals(norm)) return FilterType.BASIC;
+        }
+        for (DateTimeFilter.Operator o : DateTimeFilter.Operator.values()) {
+            if (o.getValue().equals(norm)) return FilterType.DATE_TIME;
+        }
+        return null;
+    }
+
+    private static void checkProperties(JsonParser p, DeserializationContext ctxt, FilterType type, int seen)
+            throws IOException {
+        int allowed =
+                switch (type) {
+                    case BASIC, DATE_TIME -> BASIC_PROPS;
+                    case BETWEEN -> BETWEEN_PROPS;
+                    case CONTAINS -> CONTAINS_PROPS;
+                };
+        int extra = seen & ~allowed;
+        if (extra != 0 && ctxt.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+            String name = (String) PROPERTY_NAMES.get(Integer.numberOfTrailingZeros(extra));
+            throw UnrecognizedPropertyException.from(p, filterClass(type), name, PROPERTY_NAMES);
+        }
+    }
+
+    private static String scalar(JsonParser p, DeserializationContext ctxt, JsonToken t, String name)
+            throws IOException {
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t.isScalarValue()) return p.getText();
+        return ctxt.reportInputMismatch(String.class, "Filter property '%s' must be a scalar, not %s", name, t);
+    }
+
+    private static List<String> values(JsonParser p, DeserializationContext ctxt, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t != JsonToken.START_ARRAY) {
+            if (t.isScalarValue() && ctxt.isEnabled(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)) {
+                return Arrays.asList(p.getText());
+            }
+            return ctxt.reportInputMismatch(List.class, "Filter property 'values' must be an array, not %s", t);
+        }
+        String[] buf = new String[16];
+        int n = 0;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (n == buf.length) buf = Arrays.copyOf(buf, n << 1);
+            buf[n++] = scalar(p, ctxt, t, "values");
+        }
+        return Arrays.asList(n == buf.length ? buf : Arrays.copyOf(buf, n));
+    }
+
+    private static <E> E operator(DeserializationContext ctxt, String text, Class<E> type, Function<String, E> from)
+            throws IOException {
+        if (text == null) return null;
+        try {
+            return from.apply(text);
+        } catch (IllegalArgumentException e) {
+            throw ctxt.weirdStringException(text, type, e.getMessage());
+        }
+    }
+
+    /** Parses the wire format; numeric timestamps follow {@code jackson-datatype-jsr310} conventions. */
+    private static Instant instant(DeserializationContext ctxt, String text, JsonToken token) throws IOException {
+        if (text == null) return null;
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                long v = Long.parseLong(text);
+                return ctxt.isEnabled(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                        ? Instant.ofEpochSecond(v)
+                        : Instant.ofEpochMilli(v);
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                BigDecimal seconds = new BigDecimal(text);
+                long whole = seconds.longValue();
+                int nanos = seconds.subtract(BigDecimal.valueOf(whole))
+                        .movePointRight(9)
+                        .intValue();
+                return Instant.ofEpochSecond(whole, nanos);
+            }
+            return InstantFormat.parse(text.trim());
+        } catch (DateTimeException | ArithmeticException | NumberFormatException e) {
+            throw ctxt.weirdStringException(text, Instant.class, e.getMessage());
+        }
+    }
+
+    private static JavaType typeFor(DeserializationContext ctxt) {
+        return ctxt.constructType(Filter.class);
+    }
+
+    private static FilterType typeOf(Class<?> raw) {
+        if (BasicFilter.class.isAssignableFrom(raw)) return FilterType.BASIC;
+        if (BetweenFilter.class.isAssignableFrom(raw)) return FilterType.BETWEEN;
+        if (ContainsFilter.class.isAssignableFrom(raw)) return FilterType.CONTAINS;
+        if (DateTimeFilter.class.isAssignableFrom(raw)) return FilterType.DATE_TIME;
+        return null;
+    }
+
+    private static Class<? extends Filter> filterClass(FilterType type) {
+        return switch (type) {
+            case BASIC -> BasicFilter.class;
+            case BETWEEN -> BetweenFilter.class;
+            case CONTAINS -> ContainsFilter.class;
+            case DATE_TIME -> DateTimeFilter.class;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.chadtalty.commons.data.query.json;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Direct serializer for the {@link Filter} hierarchy, producing the same payload as the annotated beans:
+ * {@code "type"} first, then the subtype's properties in declared order, snake_case, empty values omitted and
+ * instants in {@code yyyy-MM-dd'T'HH:mm:ss.SSSX} UTC.
+ */
+public final class FilterSerializer extends StdSerializer<Filter> {
+
+    private static final long serialVersionUID = 1L;
+
+    public FilterSerializer() {
+        super(Filter.class);
+    }
+
+    @Override
+    public void serializeWithType(Filter value, JsonGenerator gen, SerializerProvider provider, TypeSerializer ts)
+            throws IOException {
+        serialize(value, gen, provider);
+    }
+
+    @Override
+    public void serialize(Filter filter, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(filter);
+        gen.writeStringField("type", filter.getType().getValue());
+        writeString(gen, "field", filter.getField());
+        if (filter instanceof BasicFilter f) {
+            if (f.getOperator() != null) gen.writeStringField("operator", f.getOperator().getValue());
+            writeString(gen, "value", f.getValue());
+        } else if (filter instanceof DateTimeFilter f) {
+            if (f.getOperator() != null) gen.writeStringField("operator", f.getOperator().getValue());
+            writeInstant(gen, "value", f.getValue());
+        } else if (filter instanceof BetweenFilter f) {
+            gen.writeStringField("operator", f.getOperator().getValue());
+            writeInstant(gen, "start_date_time", f.getStartDateTime());
+            writeInstant(gen, "end_date_time", f.getEndDateTime());
+        } else if (filter instanceof ContainsFilter f) {
+            gen.writeStringField("operator", f.getOperator().getValue());
+            List<String> values = f.getValues();
+            if (values != null && !values.isEmpty()) {
+                gen.writeFieldName("values");
+                gen.writeStartArray(values, values.size());
+                for (String v : values) {
+                    gen.writeString(v);
+                }
+                gen.writeEndArray();
+            }
+        } else {
+            provider.reportMappingProblem("Unsupported filter type: %s", filter.getClass().getName());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, String name, String value) throws IOException {
+        if (value != null && !value.isEmpty()) gen.writeStringField(name, value);
+    }
+
+    private static void writeInstant(JsonGenerator gen, String name, Instant value) throws IOException {
+        if (value == null) return;
+        char[] buf = new char[InstantFormat.LENGTH];
+        if (InstantFormat.write(value, buf)) {
+            gen.writeFieldName(name);
+            gen.writeString(buf, 0, buf.length);
+        } else {
+            gen.writeStringField(name, InstantFormat.format(value));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.chadtalty.commons.data.query.json;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The wire format of filter instants: {@code yyyy-MM-dd'T'HH:mm:ss.SSSX} in UTC, e.g.
+ * {@code 2025-01-01T00:00:00.000Z}.
+ *
+ * <p>The canonical shape (a four-digit year, valid calendar fields and a {@code Z} offset) is parsed and written
+ * by hand, straight between characters and epoch milliseconds with no intermediate temporal objects. Anything
+ * else, such as numeric offsets, five-digit years or a day-of-month past the end of its month (which the pattern's
+ * smart resolver clamps), is delegated to the equivalent {@link DateTimeFormatter}, so accepted inputs, results
+ * and error messages are unchanged.
+ */
+final class InstantFormat {
+
+    static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSX";
+
+    /** Length of the canonical form. */
+    static final int LENGTH = 24;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneOffset.UTC);
+
+    /** {@code 0001-01-01T00:00:00.000Z}, the first instant with a four-digit year of era. */
+    private static final long MIN_FAST = -62_135_596_800_000L;
+
+    /** {@code 9999-12-31T23:59:59.999Z}. */
+    private static final long MAX_FAST = 253_402_300_799_999L;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final long NOT_CANONICAL = Long.MIN_VALUE;
+
+    private InstantFormat() {}
+
+    static Instant parse(String text) {
+        long millis = parseCanonical(text);
+        return millis != NOT_CANONICAL ? Instant.ofEpochMilli(millis) : Instant.from(FORMATTER.parse(text));
+    }
+
+    static String format(Instant instant) {
+        char[] buf = new char[LENGTH];
+        return write(instant, buf) ? new String(buf) : FORMATTER.format(instant);
+    }
+
+    static String format(long epochMillis) {
+        char[] buf = new char[LENGTH];
+        return write(epochMillis, buf) ? new String(buf) : FORMATTER.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    /** As {@link #write(long, char[])} for an instant; sub-millisecond digits are truncated like the pattern's. */
+    static boolean write(Instant instant, char[] buf) {
+        long seconds = instant.getEpochSecond();
+        // bounds toEpochMilli, whose floor equals the pattern's truncated fraction
+        return seconds >= MIN_FAST / 1000 && seconds <= MAX_FAST / 1000 && write(instant.toEpochMilli(), buf);
+    }
+
+    /**
+     * Writes the canonical form of {@code epochMillis} into {@code buf[0, LENGTH)}; returns {@code false}, leaving
+     * {@code buf} untouched, when the year is outside {@code 0001..9999} and the formatter is needed.
+     */
+    static boolean write(long epochMillis, char[] buf) {
+        if (epochMillis < MIN_FAST || epochMillis > MAX_FAST) return false;
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int ms = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // civil-from-days over 400-year eras; March-based years put the leap day last
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        int doe = (int) (z - era * 146_097);
+        int yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+        int millis = ms % 1000;
+        int secs = ms / 1000;
+        digits4(buf, 0, year);
+        buf[4] = '-';
+        digits2(buf, 5, month);
+        buf[7] = '-';
+        digits2(buf, 8, day);
+        buf[10] = 'T';
+        digits2(buf, 11, secs / 3600);
+        buf[13] = ':';
+        digits2(buf, 14, secs / 60 % 60);
+        buf[16] = ':';
+        digits2(buf, 17, secs % 60);
+        buf[19] = '.';
+        buf[20] = (char) ('0' + millis / 100);
+        digits2(buf, 21, millis % 100);
+        buf[23] = 'Z';
+        return true;
+    }
+
+    /** Epoch milliseconds of a canonical {@code text}, or {@link #NOT_CANONICAL} when the formatter must decide. */
+    private static long parseCanonical(String text) {
+        if (text.length() != LENGTH
+                || text.charAt(4) != '-'
+                || text.charAt(7) != '-'
+                || text.charAt(10) != 'T'
+                || text.charAt(13) != ':'
+                || text.charAt(16) != ':'
+                || text.charAt(19) != '.'
+                || text.charAt(23) != 'Z') {
+            return NOT_CANONICAL;
+        }
+        int year = number(text, 0, 4);
+        int month = number(text, 5, 2);
+        int day = number(text, 8, 2);
+        int hour = number(text, 11, 2);
+        int minute = number(text, 14, 2);
+        int second = number(text, 17, 2);
+        int millis = number(text, 20, 3);
+        if ((year | month | day | hour | minute | second | millis) < 0
+                || year < 1
+                || month < 1
+                || month > 12
+                || day < 1
+                || day > lengthOfMonth(year, month)
+                || hour > 23
+                || minute > 59
+                || second > 59) {
+            return NOT_CANONICAL;
+        }
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                + hour * 3_600_000L
+                + minute * 60_000L
+                + second * 1000L
+                + millis;
+    }
+
+    /** Value of {@code count} ASCII digits at {@code from}, or {@code -1} if any is not a digit. */
+    private static int number(String s, int from, int count) {
+        int v = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            v = v * 10 + d;
+        }
+        return v;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097L + doe - 719_468;
+    }
+
+    private static void digits4(char[] buf, int at, int v) {
+        digits2(buf, at, v / 100);
+        digits2(buf, at + 2, v % 100);
+    }
+
+    private static void digits2(char[] buf, int at, int v) {
+        buf[at] = (char) ('0' + v / 10);
+        buf[at + 1] = (char) ('0' + v % 10);
+    }
+}
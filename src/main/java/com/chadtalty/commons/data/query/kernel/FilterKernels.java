@@ -0,0 +1,54 @@
+package com.chadtalty.commons.data.query.kernel;
+
+import com.chadtalty.commons.data.query.eval.Comparison;
+
+/**
+ * Batch evaluation of comparison filters over chunks of a primitive column, producing selection bitmasks.
+ *
+ * <p>Every method tests {@code length} values starting at {@code values[from]} and overwrites the first
+ * {@code (length + 63) / 64} words of {@code mask}: bit {@code i % 64} of word {@code i / 64} is set exactly when
+ * value {@code from + i} passes, and bits at or beyond {@code length} are cleared. Results equal Java's scalar
+ * operators, so {@code NaN} passes only {@link Comparison#NE} and {@code -0.0 == 0.0}.
+ *
+ * <p>Two implementations exist:
+ * <ul>
+ *   <li>{@link #scalar()}: plain loops, always available.</li>
+ *   <li>{@link #vector()}: the JDK Vector API ({@code jdk.incubator.vector}), one vector compare per
+ *       {@code 64 / lanes} words of mask. Present only when the library was built with the {@code vector}
+ *       Maven profile and the JVM was started with {@code --add-modules jdk.incubator.vector}.</li>
+ * </ul>
+ * {@link #best()} returns the vector kernels when present, unless the system property {@value #PROPERTY} is
+ * {@code scalar}. Implementations are stateless and thread-safe.
+ */
+public interface FilterKernels {
+
+    /** System property that forces {@code scalar} kernels in {@link #best()}. */
+    String PROPERTY = "commons.query.kernels";
+
+    /** Short implementation name, e.g. {@code scalar} or {@code vector-512}. */
+    String name();
+
+    /** Selects {@code values[from + i] op x}. */
+    void compare(long[] values, int from, int length, Comparison op, long x, long[] mask);
+
+    /** Selects {@code values[from + i] op x}, with Java's {@code double} operator semantics. */
+    void compare(double[] values, int from, int length, Comparison op, double x, long[] mask);
+
+    /** Selects {@code lo <= values[from + i] && values[from + i] <= hi}. */
+    void between(long[] values, int from, int length, long lo, long hi, long[] mask);
+
+    /** The portable scalar kernels. */
+    static FilterKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    /** The Vector API kernels, or {@code null} when they were not built or the module is not in the boot layer. */
+    static FilterKernels vector() {
+        return Kernels.VECTOR;
+    }
+
+    /** Vector kernels when available and not disabled by {@value #PROPERTY}, otherwise scalar. */
+    static FilterKernels best() {
+        return Kernels.BEST;
+    }
+}
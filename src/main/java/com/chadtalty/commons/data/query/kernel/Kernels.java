@@ -0,0 +1,40 @@
+package com.chadtalty.commons.data.query.kernel;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Resolves the kernel implementations once per class loader. {@code VectorKernels} is compiled only by the
+ * {@code vector} Maven profile and is loaded reflectively when its module is resolved, so this class links on JVMs
+ * started without {@code jdk.incubator.vector} and in builds without the class.
+ */
+final class Kernels {
+
+    static final FilterKernels VECTOR = loadVector();
+
+    static final FilterKernels BEST =
+            VECTOR == null || "scalar".equalsIgnoreCase(System.getProperty(FilterKernels.PROPERTY))
+                    ? ScalarKernels.INSTANCE
+                    : VECTOR;
+
+    private Kernels() {}
+
+    private static FilterKernels loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (FilterKernels) Class.forName(Kernels.class.getPackageName() + ".VectorKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /** Checks the chunk bounds and zeroes the mask words covering {@code length} values. */
+    static void prepare(int size, int from, int length, long[] mask) {
+        Objects.checkFromIndexSize(from, length, size);
+        int words = (length + 63) >>> 6;
+        if (words > mask.length) throw new IllegalArgumentException("mask too small for " + length + " values");
+        Arrays.fill(mask, 0, words, 0L);
+    }
+}
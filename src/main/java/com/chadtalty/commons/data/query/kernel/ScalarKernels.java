@@ -0,0 +1,75 @@
+package com.chadtalty.commons.data.query.kernel;
+
+import com.chadtalty.commons.data.query.eval.Comparison;
+
+/** Portable kernels: one branch-free loop per operator, setting mask bits with shifts instead of branches. */
+final class ScalarKernels implements FilterKernels {
+
+    static final ScalarKernels INSTANCE = new ScalarKernels();
+
+    private ScalarKernels() {}
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void compare(long[] values, int from, int length, Comparison op, long x, long[] mask) {
+        Kernels.prepare(values.length, from, length, mask);
+        switch (op) {
+            case EQ -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] == x ? 1L : 0L) << i;
+            }
+            case NE -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] != x ? 1L : 0L) << i;
+            }
+            case GT -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] > x ? 1L : 0L) << i;
+            }
+            case GE -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] >= x ? 1L : 0L) << i;
+            }
+            case LT -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] < x ? 1L : 0L) << i;
+            }
+            case LE -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] <= x ? 1L : 0L) << i;
+            }
+        }
+    }
+
+    @Override
+    public void compare(double[] values, int from, int length, Comparison op, double x, long[] mask) {
+        Kernels.prepare(values.length, from, length, mask);
+        switch (op) {
+            case EQ -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] == x ? 1L : 0L) << i;
+            }
+            case NE -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] != x ? 1L : 0L) << i;
+            }
+            case GT -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] > x ? 1L : 0L) << i;
+            }
+            case GE -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] >= x ? 1L : 0L) << i;
+            }
+            case LT -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] < x ? 1L : 0L) << i;
+            }
+            case LE -> {
+                for (int i = 0; i < length; i++) mask[i >>> 6] |= (values[from + i] <= x ? 1L : 0L) << i;
+            }
+        }
+    }
+
+    @Override
+    public void between(long[] values, int from, int length, long lo, long hi, long[] mask) {
+        Kernels.prepare(values.length, from, length, mask);
+        for (int i = 0; i < length; i++) {
+            long v = values[from + i];
+            mask[i >>> 6] |= ((v >= lo ? 1L : 0L) & (v <= hi ? 1L : 0L)) << i;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.chadtalty.commons.data.query.keyset;
+
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Compact cursor encoding: URL-safe base64 (no padding) of a version byte, a 4-byte fingerprint of the key
+ * list and one value per key. Integers are zigzag varints, doubles raw IEEE bits, instants seconds plus nanos,
+ * strings and enum names length-prefixed UTF-8; nullable kinds carry a one-byte presence flag.
+ *
+ * <p>A two-key {@code long} cursor is typically 10-14 characters. Encoding never fails; decoding rejects input
+ * longer than {@value #MAX_LENGTH} characters before touching it, which bounds the work an untrusted cursor can
+ * cause while leaving room for string keys up to about 48 KiB of UTF-8.
+ */
+final class CursorCodec {
+
+    /** Longest cursor accepted by {@link #decode}. */
+    static final int MAX_LENGTH = 65_536;
+
+    private static final byte VERSION = 1;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {}
+
+    static <T> String encode(List<SortKey<T>> keys, T row) {
+        Out out = new Out();
+        out.put(VERSION);
+        out.putInt(fingerprint(keys));
+        for (SortKey<T> k : keys) {
+            FieldAccessor<T> a = k.accessor();
+            if (a instanceof FieldAccessor.LongField<T> f) {
+                out.putVarLong(zigzag(f.getter().applyAsLong(row)));
+            } else if (a instanceof FieldAccessor.EpochMillisField<T> f) {
+                out.putVarLong(zigzag(f.getter().applyAsLong(row)));
+            } else if (a instanceof FieldAccessor.DoubleField<T> f) {
+                out.putLong(Double.doubleToRawLongBits(f.getter().applyAsDouble(row)));
+            } else if (a instanceof FieldAccessor.BooleanField<T> f) {
+                out.put((byte) (f.getter().test(row) ? 1 : 0));
+            } else if (a instanceof FieldAccessor.InstantField<T> f) {
+                Instant v = f.getter().apply(row);
+                out.put((byte) (v == null ? 0 : 1));
+                if (v != null) {
+                    out.putVarLong(zigzag(v.getEpochSecond()));
+                    out.putVarLong(v.getNano());
+                }
+            } else if (a instanceof FieldAccessor.StringField<T> f) {
+                putNullableString(out, f.getter().apply(row));
+            } else {
+                Enum<?> v = ((FieldAccessor.EnumField<T, ?>) a).getter().apply(row);
+                putNullableString(out, v == null ? null : v.name());
+            }
+        }
+        return ENCODER.encodeToString(out.bytes());
+    }
+
+    /** Decodes one value per key; {@link SortKey#accessor()} kinds determine the Java types. */
+    static <T> Object[] decode(List<SortKey<T>> keys, String cursor) {
+        if (cursor == null) throw new IllegalArgumentException("cursor must not be null");
+        if (cursor.length() > MAX_LENGTH) throw new IllegalArgumentException("Invalid cursor: too long");
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: not base64url", e);
+        }
+        In in = new In(bytes);
+        if (in.get() != VERSION) throw new IllegalArgumentException("Invalid cursor: unsupported version");
+        if (in.getInt() != fingerprint(keys)) {
+            throw new IllegalArgumentException("Invalid cursor: issued for a different sort");
+        }
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            FieldAccessor<T> a = keys.get(i).accessor();
+            if (a instanceof FieldAccessor.LongField<T> || a instanceof FieldAccessor.EpochMillisField<T>) {
+                values[i] = unzigzag(in.getVarLong());
+            } else if (a instanceof FieldAccessor.DoubleField<T>) {
+                values[i] = Double.longBitsToDouble(in.getLong());
+            } else if (a instanceof FieldAccessor.BooleanField<T>) {
+                values[i] = in.get() != 0;
+            } else if (a instanceof FieldAccessor.InstantField<T>) {
+                values[i] = in.get() == 0 ? null : instant(unzigzag(in.getVarLong()), in.getVarLong());
+            } else if (a instanceof FieldAccessor.StringField<T>) {
+                values[i] = getNullableString(in);
+            } else {
+                values[i] = enumValue((FieldAccessor.EnumField<T, ?>) a, getNullableString(in));
+            }
+        }
+        if (in.remaining() != 0) throw new IllegalArgumentException("Invalid cursor: trailing bytes");
+        return values;
+    }
+
+    /** Hash of key names, directions and kinds; rejects cursors replayed against another sort. */
+    static <T> int fingerprint(List<SortKey<T>> keys) {
+        int h = 1;
+        for (SortKey<T> k : keys) {
+            h = 31 * h + k.field().hashCode();
+            h = 31 * h + (k.descending() ? 1 : 0);
+            h = 31 * h + k.accessor().getClass().getSimpleName().hashCode();
+        }
+        return h;
+    }
+
+    private static Instant instant(long seconds, long nanos) {
+        try {
+            if (nanos < 0 || nanos >= 1_000_000_000L) throw new DateTimeException("nanos out of range: " + nanos);
+            return Instant.ofEpochSecond(seconds, nanos);
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid cursor: instant out of range", e);
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(FieldAccessor.EnumField<?, E> a, String name) {
+        return name == null ? null : Enum.valueOf(a.type(), name);
+    }
+
+    private static void putNullableString(Out out, String v) {
+        out.put((byte) (v == null ? 0 : 1));
+        if (v == null) return;
+        byte[] b = v.getBytes(StandardCharsets.UTF_8);
+        out.putVarLong(b.length);
+        out.put(b);
+    }
+
+    private static String getNullableString(In in) {
+        if (in.get() == 0) return null;
+        return new String(in.get(in.getVarLong()), StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static final class Out {
+
+        private byte[] buf = new byte[32];
+        private int pos;
+
+        void put(byte b) {
+            ensure(1);
+            buf[pos++] = b;
+        }
+
+        void put(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+
+        void putInt(int v) {
+            for (int s = 24; s >= 0; s -= 8) {
+                put((byte) (v >>> s));
+            }
+        }
+
+        void putLong(long v) {
+            for (int s = 56; s >= 0; s -= 8) {
+                put((byte) (v >>> s));
+            }
+        }
+
+        void putVarLong(long v) {
+            while ((v & ~0x7FL) != 0) {
+                put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            put((byte) v);
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + n));
+        }
+    }
+
+    private static final class In {
+
+        private final byte[] buf;
+        private int pos;
+
+        In(byte[] buf) {
+            this.buf = buf;
+        }
+
+        byte get() {
+            if (pos >= buf.length) throw new IllegalArgumentException("Invalid cursor: truncated");
+            return buf[pos++];
+        }
+
+        byte[] get(long n) {
+            if (n < 0 || n > remaining()) throw new IllegalArgumentException("Invalid cursor: truncated");
+            byte[] out = Arrays.copyOfRange(buf, pos, pos + (int) n);
+            pos += (int) n;
+            return out;
+        }
+
+        int getInt() {
+            int v = 0;
+            for (int i = 0; i < 4; i++) {
+                v = (v << 8) | (get() & 0xFF);
+            }
+            return v;
+        }
+
+        long getLong() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                v = (v << 8) | (get() & 0xFF);
+            }
+            return v;
+        }
+
+        long getVarLong() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = get();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("Invalid cursor: malformed varint");
+        }
+
+        int remaining() {
+            return buf.length - pos;
+        }
+    }
+}
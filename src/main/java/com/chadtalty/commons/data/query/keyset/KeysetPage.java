@@ -0,0 +1,22 @@
+package com.chadtalty.commons.data.query.keyset;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result.
+ *
+ * @param content rows on the page, in sort order
+ * @param size requested page size
+ * @param nextCursor cursor for the following page, or {@code null} when this is the last page
+ * @param <T> row type
+ */
+public record KeysetPage<T>(List<T> content, int size, String nextCursor) {
+
+    public KeysetPage {
+        content = List.copyOf(content);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
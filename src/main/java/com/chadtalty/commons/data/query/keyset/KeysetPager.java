@@ -0,0 +1,188 @@
+package com.chadtalty.commons.data.query.keyset;
+
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.SortComparators;
+import com.chadtalty.commons.data.query.eval.TopK;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset (cursor) pagination over the order of a {@link SortSpec} plus a unique tiebreaker field.
+ *
+ * <p>The key list is the ascending fields, then the descending fields, then the tiebreaker (ascending, unless the
+ * sort already names it). A cursor encodes the last row's key values; the next page is the first {@code size}
+ * rows strictly after it in that order, i.e. {@code (a, b, id) > (x, y, z)} with each component compared in its
+ * own direction and {@code null}s last. Page depth therefore does not change the cost of a page.
+ *
+ * <p>Cursors are opaque; malformed, foreign or oversized cursors (over 65,536 characters, which only string keys
+ * longer than about 48 KiB can produce) fail with {@link IllegalArgumentException}.
+ *
+ * <p>Example:
+ * <pre>
+ * KeysetPager&lt;Order&gt; pager = new KeysetPager&lt;&gt;(new CriteriaCompiler&lt;&gt;(fields), "id");
+ * KeysetPage&lt;Order&gt; first = pager.page(rows, criteria);
+ * criteria.setCursor(first.nextCursor());
+ * KeysetPage&lt;Order&gt; second = pager.page(rows, criteria);
+ * </pre>
+ *
+ * @param <T> row type
+ */
+public final class KeysetPager<T> {
+
+    private final CriteriaCompiler<T> compiler;
+    private final String tiebreaker;
+
+    /** {@code tiebreaker} must be unique per row (typically the primary key). */
+    public KeysetPager(CriteriaCompiler<T> compiler, String tiebreaker) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        if (tiebreaker == null || tiebreaker.isBlank()) throw new IllegalArgumentException("tiebreaker must not be blank");
+        this.compiler = compiler;
+        this.tiebreaker = tiebreaker;
+        compiler.resolve(tiebreaker);
+    }
+
+    /** Returns the page after {@code criteria.cursor} (or the first page) and the cursor for the next one. */
+    public KeysetPage<T> page(Iterable<? extends T> rows, PageableCriteria criteria) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        if (criteria.getSize() == null || criteria.getSize() < 1) {
+            throw new IllegalArgumentException("size must be greater than or equal to 1");
+        }
+        if (!criteria.isCursorPageConsistent()) throw new IllegalArgumentException("page must be 0 when a cursor is given");
+        int size = criteria.getSize();
+        List<SortKey<T>> keys = keys(criteria.getSort());
+        Predicate<T> filter = compiler.compile(criteria);
+        if (criteria.getCursor() != null) {
+            Predicate<T> after = seek(keys, CursorCodec.decode(keys, criteria.getCursor()));
+            Predicate<T> matches = filter;
+            filter = r -> after.test(r) && matches.test(r);
+        }
+
+        TopK<T> top = new TopK<>(order(keys), size + 1);
+        for (T row : rows) {
+            if (filter.test(row)) top.offer(row);
+        }
+        List<T> content = top.drainSorted();
+        if (content.size() <= size) return new KeysetPage<>(content, size, null);
+        content = content.subList(0, size);
+        return new KeysetPage<>(content, size, CursorCodec.encode(keys, content.get(size - 1)));
+    }
+
+    /** Resolved key list for {@code sort}, tiebreaker last. */
+    public List<SortKey<T>> keys(SortSpec sort) {
+        List<SortKey<T>> keys = new ArrayList<>();
+        boolean hasTiebreaker = false;
+        if (sort != null && sort.getAscending() != null) {
+            for (String f : sort.getAscending()) {
+                keys.add(new SortKey<>(f, false, compiler.resolve(f)));
+                hasTiebreaker |= f.equals(tiebreaker);
+            }
+        }
+        if (sort != null && sort.getDescending() != null) {
+            for (String f : sort.getDescending()) {
+                keys.add(new SortKey<>(f, true, compiler.resolve(f)));
+                hasTiebreaker |= f.equals(tiebreaker);
+            }
+        }
+        if (!hasTiebreaker) keys.add(new SortKey<>(tiebreaker, false, compiler.resolve(tiebreaker)));
+        return keys;
+    }
+
+    /** Total order over {@code keys}. */
+    public Comparator<T> order(List<SortKey<T>> keys) {
+        List<Comparator<T>> parts = new ArrayList<>(keys.size());
+        for (SortKey<T> k : keys) {
+            parts.add(k.comparator());
+        }
+        return SortComparators.composite(parts);
+    }
+
+    /** Encodes the cursor pointing just past {@code row}. */
+    public String cursorFor(SortSpec sort, T row) {
+        return CursorCodec.encode(keys(sort), row);
+    }
+
+    /** Decodes a cursor into one value per {@link #keys(SortSpec) key}; fails if it was issued for another sort. */
+    public Object[] decode(SortSpec sort, String cursor) {
+        return CursorCodec.decode(keys(sort), cursor);
+    }
+
+    /** Predicate accepting rows strictly after the cursor in the order of {@code sort}. */
+    public Predicate<T> seek(SortSpec sort, String cursor) {
+        List<SortKey<T>> keys = keys(sort);
+        return seek(keys, CursorCodec.decode(keys, cursor));
+    }
+
+    /** Lexicographic "row after cursor" test with every cursor value captured as a primitive where possible. */
+    static <T> Predicate<T> seek(List<SortKey<T>> keys, Object[] values) {
+        @SuppressWarnings("unchecked")
+        Comparator<T>[] parts = (Comparator<T>[]) new Comparator<?>[keys.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = vsCursor(keys.get(i), values[i]);
+        }
+        return row -> {
+            for (Comparator<T> c : parts) {
+                int cmp = c.compare(row, null);
+                if (cmp != 0) return cmp > 0;
+            }
+            return false;
+        };
+    }
+
+    /** Compares a row's key value against a fixed cursor value; the second argument is ignored. */
+    private static <T> Comparator<T> vsCursor(SortKey<T> key, Object value) {
+        int sign = key.descending() ? -1 : 1;
+        FieldAccessor<T> a = key.accessor();
+        if (a instanceof FieldAccessor.LongField<T> f) {
+            ToLongFunction<? super T> g = f.getter();
+            long x = (Long) value;
+            return (r, ignored) -> sign * Long.compare(g.applyAsLong(r), x);
+        }
+        if (a instanceof FieldAccessor.EpochMillisField<T> f) {
+            ToLongFunction<? super T> g = f.getter();
+            long x = (Long) value;
+            return (r, ignored) -> sign * Long.compare(g.applyAsLong(r), x);
+        }
+        if (a instanceof FieldAccessor.DoubleField<T> f) {
+            ToDoubleFunction<? super T> g = f.getter();
+            double x = (Double) value;
+            return (r, ignored) -> sign * Double.compare(g.applyAsDouble(r), x);
+        }
+        if (a instanceof FieldAccessor.BooleanField<T> f) {
+            Predicate<? super T> g = f.getter();
+            boolean x = (Boolean) value;
+            return (r, ignored) -> sign * Boolean.compare(g.test(r), x);
+        }
+        if (a instanceof FieldAccessor.InstantField<T> f) {
+            return nullsLast(f.getter(), (Instant) value, Instant::compareTo, sign);
+        }
+        if (a instanceof FieldAccessor.StringField<T> f) {
+            return nullsLast(f.getter(), (String) value, String::compareTo, sign);
+        }
+        return enumVsCursor((FieldAccessor.EnumField<T, ?>) a, value, sign);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, E extends Enum<E>> Comparator<T> enumVsCursor(
+            FieldAccessor.EnumField<T, E> a, Object value, int sign) {
+        return nullsLast(a.getter(), (E) value, Comparator.naturalOrder(), sign);
+    }
+
+    private static <T, V> Comparator<T> nullsLast(
+            Function<? super T, V> g, V x, Comparator<? super V> order, int sign) {
+        return (r, ignored) -> {
+            V v = g.apply(r);
+            if (v == null) return x == null ? 0 : 1;
+            if (x == null) return -1;
+            return sign * order.compare(v, x);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.chadtalty.commons.data.query.keyset;
+
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.SortComparators;
+import java.util.Comparator;
+
+/**
+ * One resolved key of a keyset ordering.
+ *
+ * @param field sort field as named in the {@link com.chadtalty.commons.data.query.SortSpec}
+ * @param descending whether the key sorts descending
+ * @param accessor resolved accessor
+ * @param <T> row type
+ */
+public record SortKey<T>(String field, boolean descending, FieldAccessor<T> accessor) {
+
+    /** Row comparator for this key alone ({@code null} values last). */
+    public Comparator<T> comparator() {
+        return SortComparators.key(accessor, descending);
+    }
+}
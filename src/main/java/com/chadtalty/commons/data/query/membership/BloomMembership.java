@@ -0,0 +1,88 @@
+package com.chadtalty.commons.data.query.membership;
+
+import java.util.Collection;
+
+/**
+ * Bloom prefilter in front of a large membership: about ten bits per value and seven probes, for roughly a
+ * 1% false-positive rate. A negative answer is final; a positive one is confirmed against the delegate.
+ */
+final class BloomMembership implements Membership {
+
+    private static final int PROBES = 7;
+
+    private final Membership delegate;
+    private final long[] bits;
+    private final long mask;
+
+    private BloomMembership(Membership delegate, long[] bits) {
+        this.delegate = delegate;
+        this.bits = bits;
+        this.mask = (long) bits.length * 64 - 1;
+    }
+
+    static BloomMembership wrap(Membership delegate, Collection<String> distinct) {
+        long bitCount = Long.highestOneBit(Math.max(64L, (long) distinct.size() * 10 - 1)) << 1;
+        BloomMembership bloom = new BloomMembership(delegate, new long[(int) (bitCount >>> 6)]);
+        boolean integral = delegate.isIntegral();
+        for (String v : distinct) {
+            bloom.add(integral ? hash(Long.parseLong(v)) : hash(v));
+        }
+        return bloom;
+    }
+
+    @Override
+    public boolean contains(String value) {
+        if (value == null) return false;
+        if (delegate.isIntegral()) {
+            return SortedLongMembership.isCanonicalLong(value) && containsLong(Long.parseLong(value));
+        }
+        return mightContain(hash(value)) && delegate.contains(value);
+    }
+
+    @Override
+    public boolean containsLong(long value) {
+        if (!delegate.isIntegral()) return delegate.containsLong(value);
+        return mightContain(hash(value)) && delegate.containsLong(value);
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return delegate.isIntegral();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    private void add(long h) {
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            long bit = (h + i * h2) & mask;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long h) {
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            long bit = (h + i * h2) & mask;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static long hash(String v) {
+        return hash((long) v.hashCode() * 0x9E3779B97F4A7C15L + v.length());
+    }
+
+    /** 64-bit finalizer (murmur3 fmix64). */
+    private static long hash(long v) {
+        v ^= v >>> 33;
+        v *= 0xFF51AFD7ED558CCDL;
+        v ^= v >>> 33;
+        v *= 0xC4CEB93FE1A85B53L;
+        v ^= v >>> 33;
+        return v;
+    }
+}
@@ -0,0 +1,63 @@
+package com.chadtalty.commons.data.query.membership;
+
+/**
+ * Open-addressing (linear probing) string set at load factor &le; 0.5.
+ *
+ * <p>Cached {@link String#hashCode()} values are stored alongside the keys so most probes are rejected
+ * without calling {@link String#equals(Object)}.
+ */
+final class HashMembership implements Membership {
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int mask;
+    private final int size;
+
+    HashMembership(String[] distinct) {
+        int capacity = Integer.highestOneBit(Math.max(4, distinct.length) * 2 - 1) << 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = distinct.length;
+        for (String v : distinct) {
+            int h = v.hashCode();
+            int i = mix(h) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = v;
+            hashes[i] = h;
+        }
+    }
+
+    @Override
+    public boolean contains(String value) {
+        if (value == null) return false;
+        int h = value.hashCode();
+        int i = mix(h) & mask;
+        String k;
+        while ((k = keys[i]) != null) {
+            if (hashes[i] == h && k.equals(value)) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Spreads high bits so power-of-two masking sees the whole hash. */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,32 @@
+package com.chadtalty.commons.data.query.membership;
+
+/**
+ * Linear scan over a handful of strings; cheaper than hashing for tiny IN-lists.
+ */
+final class LinearMembership implements Membership {
+
+    private final String[] values;
+
+    LinearMembership(String[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public boolean contains(String value) {
+        if (value == null) return false;
+        for (String v : values) {
+            if (v.equals(value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
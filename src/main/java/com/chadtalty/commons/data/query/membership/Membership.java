@@ -0,0 +1,72 @@
+package com.chadtalty.commons.data.query.membership;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable, thread-safe set-membership structure compiled from the values of a
+ * {@link com.chadtalty.commons.data.query.ContainsFilter}.
+ *
+ * <p>{@link #of(Collection)} picks the representation by size and type:
+ * <ul>
+ *   <li>all values canonical integers: sorted {@code long[]} with binary search ({@link SortedLongMembership});</li>
+ *   <li>up to {@value #LINEAR_MAX} values: linear scan ({@link LinearMembership});</li>
+ *   <li>otherwise: open-addressing hash table ({@link HashMembership}).</li>
+ * </ul>
+ * From {@value #BLOOM_MIN} distinct values a {@link BloomMembership} prefilter rejects most misses from a
+ * compact bit array before touching the larger table.
+ */
+public interface Membership {
+
+    /** Largest set searched linearly. */
+    int LINEAR_MAX = 8;
+
+    /** Smallest set wrapped in a Bloom prefilter by {@link #of(Collection)}. */
+    int BLOOM_MIN = 1 << 16;
+
+    /** Whether {@code value} is a member. */
+    boolean contains(String value);
+
+    /**
+     * Whether the integer {@code value} is a member. Allocation-free when {@link #isIntegral()}; otherwise
+     * falls back to {@link #contains(String)} on its decimal form.
+     */
+    default boolean containsLong(long value) {
+        return contains(Long.toString(value));
+    }
+
+    /** Whether every member is a canonical decimal {@code long} (no sign prefix, no leading zeros). */
+    boolean isIntegral();
+
+    /** Number of distinct members. */
+    int size();
+
+    /** Builds a membership with the default Bloom threshold. */
+    static Membership of(Collection<String> values) {
+        return of(values, BLOOM_MIN);
+    }
+
+    /**
+     * Builds a membership, adding a Bloom prefilter from {@code bloomMin} distinct values
+     * ({@code bloomMin <= 0} disables it).
+     */
+    static Membership of(Collection<String> values, int bloomMin) {
+        if (values == null) throw new IllegalArgumentException("membership values must not be null");
+        Set<String> distinct = new LinkedHashSet<>(values.size() * 2);
+        boolean integral = true;
+        for (String v : values) {
+            if (v == null) throw new IllegalArgumentException("membership values must not contain null");
+            if (distinct.add(v) && integral) integral = SortedLongMembership.isCanonicalLong(v);
+        }
+        Membership m;
+        if (integral && !distinct.isEmpty()) {
+            m = SortedLongMembership.of(distinct);
+        } else if (distinct.size() <= LINEAR_MAX) {
+            m = new LinearMembership(distinct.toArray(new String[0]));
+        } else {
+            m = new HashMembership(distinct.toArray(new String[0]));
+        }
+        return bloomMin > 0 && distinct.size() >= bloomMin ? BloomMembership.wrap(m, distinct) : m;
+    }
+}
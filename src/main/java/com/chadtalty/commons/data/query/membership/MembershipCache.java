@@ -0,0 +1,49 @@
+package com.chadtalty.commons.data.query.membership;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the {@link Membership} built for a value list, rebuilding whenever the list's contents differ from the
+ * ones it was built from, whether the list was replaced or edited in place. Built at most once per contents
+ * under a lock; reads are lock-free afterwards.
+ *
+ * <p>Each read compares the list against a private copy taken at build time, which costs one pass over the
+ * values; {@link #get(List, boolean)} skips it for lists that cannot change.
+ */
+public final class MembershipCache {
+
+    private volatile Entry entry;
+
+    /** Returns the membership for {@code values}, building it when their contents changed since the last call. */
+    public Membership get(List<String> values) {
+        return get(values, false);
+    }
+
+    /**
+     * Returns the membership for {@code values}. When {@code unmodifiable}, the caller guarantees the list never
+     * changes, so the same instance is trusted without comparing its elements.
+     */
+    public Membership get(List<String> values, boolean unmodifiable) {
+        Entry e = entry;
+        if (e != null && e.matches(values, unmodifiable)) return e.membership;
+        synchronized (this) {
+            e = entry;
+            if (e == null || !e.matches(values, unmodifiable)) {
+                // build from the copy, so a concurrent edit cannot split the membership from its key
+                List<String> copy = new ArrayList<>(values);
+                e = new Entry(values, copy, Membership.of(copy));
+                entry = e;
+            }
+            return e.membership;
+        }
+    }
+
+    private record Entry(List<String> source, List<String> copy, Membership membership) {
+
+        boolean matches(List<String> values, boolean unmodifiable) {
+            if (source == values && unmodifiable) return true;
+            return copy.size() == values.size() && copy.equals(values);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.chadtalty.commons.data.query.membership;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Sorted, distinct {@code long[]} searched linearly when tiny and by binary search otherwise.
+ */
+final class SortedLongMembership implements Membership {
+
+    private final long[] values;
+
+    private SortedLongMembership(long[] values) {
+        this.values = values;
+    }
+
+    /** Builds from distinct canonical integer strings. */
+    static SortedLongMembership of(Collection<String> distinct) {
+        long[] out = new long[distinct.size()];
+        int i = 0;
+        for (String v : distinct) {
+            out[i++] = Long.parseLong(v);
+        }
+        Arrays.sort(out);
+        return new SortedLongMembership(out);
+    }
+
+    @Override
+    public boolean contains(String value) {
+        return value != null && isCanonicalLong(value) && containsLong(Long.parseLong(value));
+    }
+
+    @Override
+    public boolean containsLong(long value) {
+        long[] v = values;
+        if (v.length <= LINEAR_MAX) {
+            for (long x : v) {
+                if (x == value) return true;
+            }
+            return false;
+        }
+        return Arrays.binarySearch(v, value) >= 0;
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Whether {@code s} is the canonical decimal form of a {@code long}, i.e. {@code Long.toString(Long.parseLong(s))
+     * .equals(s)}. Only canonical strings are treated as integers so string equality semantics are preserved.
+     */
+    static boolean isCanonicalLong(String s) {
+        int n = s.length();
+        if (n == 0 || n > 20) return false;
+        int i = s.charAt(0) == '-' ? 1 : 0;
+        if (i == n) return false;
+        if (s.charAt(i) == '0') return n == 1;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        if (n >= 19) {
+            try {
+                Long.parseLong(s);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
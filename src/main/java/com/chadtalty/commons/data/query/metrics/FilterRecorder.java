@@ -0,0 +1,23 @@
+package com.chadtalty.commons.data.query.metrics;
+
+/**
+ * Receives the evaluations of one compiled filter. Obtained once per compiled filter from
+ * {@link QueryMetrics#filter}, then called on the evaluation path, so implementations should only bump counters.
+ */
+public interface FilterRecorder {
+
+    /** Recorder that ignores everything. */
+    FilterRecorder NOOP = new FilterRecorder() {
+        @Override
+        public void evaluated(boolean passed) {}
+
+        @Override
+        public void latency(long nanos) {}
+    };
+
+    /** One row was tested; {@code passed} is the filter's answer. */
+    void evaluated(boolean passed);
+
+    /** Duration of one sampled evaluation. */
+    void latency(long nanos);
+}
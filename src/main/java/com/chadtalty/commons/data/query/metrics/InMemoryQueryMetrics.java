@@ -0,0 +1,123 @@
+package com.chadtalty.commons.data.query.metrics;
+
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.optimize.SelectivityEstimator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link QueryMetrics} that aggregates in memory: a latency histogram per {@link Stage}, evaluation counts and
+ * sampled latency per {@link FilterType}, and observed selectivity per field and operator.
+ *
+ * <p>Observed selectivity can drive {@link com.chadtalty.commons.data.query.optimize.CriteriaOptimizer} through
+ * {@link #selectivityEstimator}, so filter order follows the data rather than fixed heuristics.
+ *
+ * <p>Example:
+ * <pre>
+ * InMemoryQueryMetrics metrics = new InMemoryQueryMetrics();
+ * Instrumentation.install(metrics);
+ * ...
+ * metrics.selectivity("status", "equal").ratio();
+ * </pre>
+ */
+public final class InMemoryQueryMetrics implements QueryMetrics {
+
+    private final Map<Stage, LatencyHistogram> stages = new EnumMap<>(Stage.class);
+    private final Map<FilterType, TypeCounters> types = new EnumMap<>(FilterType.class);
+    private final Map<FieldOperator, Counters> fields = new ConcurrentHashMap<>();
+
+    public InMemoryQueryMetrics() {
+        for (Stage s : Stage.values()) {
+            stages.put(s, new LatencyHistogram());
+        }
+        for (FilterType t : FilterType.values()) {
+            types.put(t, new TypeCounters());
+        }
+    }
+
+    @Override
+    public void stage(Stage stage, long nanos) {
+        stages.get(stage).record(nanos);
+    }
+
+    @Override
+    public FilterRecorder filter(FilterType type, String field, String operator) {
+        TypeCounters byType = type == null ? null : types.get(type);
+        Counters byField = fields.computeIfAbsent(new FieldOperator(field, operator), k -> new Counters());
+        return new FilterRecorder() {
+            @Override
+            public void evaluated(boolean passed) {
+                byField.evaluated.increment();
+                if (passed) byField.passed.increment();
+                if (byType != null) byType.evaluated.increment();
+            }
+
+            @Override
+            public void latency(long nanos) {
+                if (byType != null) byType.latency.record(nanos);
+            }
+        };
+    }
+
+    /** Durations of {@code stage}. */
+    public LatencyHistogram stageLatency(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /** Rows tested by filters of {@code type}. */
+    public long evaluations(FilterType type) {
+        return types.get(type).evaluated.sum();
+    }
+
+    /** Sampled per-row latency of filters of {@code type}. */
+    public LatencyHistogram filterLatency(FilterType type) {
+        return types.get(type).latency;
+    }
+
+    /** Observed pass rate of filters on {@code field} (qualified for joins) with {@code operator}. */
+    public Selectivity selectivity(String field, String operator) {
+        Counters c = fields.get(new FieldOperator(field, operator));
+        return c == null ? new Selectivity(0, 0) : new Selectivity(c.evaluated.sum(), c.passed.sum());
+    }
+
+    /**
+     * Estimator answering with the observed pass rate once a field and operator have been evaluated at least
+     * {@code minEvaluations} times, and with {@code fallback} before that.
+     */
+    public SelectivityEstimator selectivityEstimator(SelectivityEstimator fallback, long minEvaluations) {
+        if (fallback == null) throw new IllegalArgumentException("fallback must not be null");
+        if (minEvaluations < 1) throw new IllegalArgumentException("minEvaluations must be positive");
+        return (filter, accessor) -> {
+            Selectivity s = selectivity(filter.getField(), Instrumentation.operator(filter));
+            return s.evaluated() >= minEvaluations ? s.ratio() : fallback.selectivity(filter, accessor);
+        };
+    }
+
+    /**
+     * Pass counts of one field and operator.
+     *
+     * @param evaluated rows tested
+     * @param passed rows accepted
+     */
+    public record Selectivity(long evaluated, long passed) {
+
+        /** Fraction of tested rows accepted, or {@code 1.0} before the first evaluation. */
+        public double ratio() {
+            return evaluated == 0 ? 1.0 : (double) passed / evaluated;
+        }
+    }
+
+    private record FieldOperator(String field, String operator) {}
+
+    private static final class Counters {
+        final LongAdder evaluated = new LongAdder();
+        final LongAdder passed = new LongAdder();
+    }
+
+    private static final class TypeCounters {
+        final LongAdder evaluated = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
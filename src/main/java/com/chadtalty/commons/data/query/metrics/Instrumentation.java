@@ -0,0 +1,198 @@
+package com.chadtalty.commons.data.query.metrics;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Entry point of the library's instrumentation: the installed {@link QueryMetrics} plus the JFR events of each
+ * {@link Stage}.
+ *
+ * <p>Call sites guard every measurement: {@link #begin} returns {@code null} unless metrics are installed or the
+ * stage's JFR event is enabled in a running recording, and {@link #instrument} returns the predicate unchanged
+ * unless metrics are installed. With the default {@link QueryMetrics#NOOP} and no recording, the cost is one
+ * volatile read and one JFR enablement check per stage, and none per row.
+ *
+ * <p>Instrumented predicates time one evaluation in {@value #SAMPLE_INTERVAL} and report every result, which
+ * gives per-filter-type latency and per-field selectivity.
+ */
+public final class Instrumentation {
+
+    /** One evaluation in this many is timed. */
+    public static final int SAMPLE_INTERVAL = 64;
+
+    /** One never-committed event per stage, used only to ask JFR whether the stage is being recorded. */
+    private static final StageEvent[] PROBES = probes();
+
+    private static volatile QueryMetrics metrics = QueryMetrics.NOOP;
+
+    private Instrumentation() {}
+
+    /** Installs {@code metrics} for the whole process; {@link QueryMetrics#NOOP} disables metrics again. */
+    public static void install(QueryMetrics metrics) {
+        if (metrics == null) throw new IllegalArgumentException("metrics must not be null");
+        Instrumentation.metrics = metrics;
+    }
+
+    public static QueryMetrics metrics() {
+        return metrics;
+    }
+
+    /** Starts timing {@code stage}; {@code null} when neither metrics nor the stage's JFR event are enabled. */
+    public static Span begin(Stage stage) {
+        QueryMetrics m = metrics;
+        boolean jfr = PROBES[stage.ordinal()].isEnabled();
+        if (!jfr && !m.enabled()) return null;
+        StageEvent event = null;
+        if (jfr) {
+            event = StageEvent.of(stage);
+            event.begin();
+        }
+        return new Span(stage, m, event, System.nanoTime());
+    }
+
+    /**
+     * Wraps a compiled filter so its evaluations reach the installed metrics; returns {@code predicate} itself when
+     * metrics are disabled.
+     */
+    public static <T> Predicate<T> instrument(Predicate<T> predicate, String field, Filter filter) {
+        QueryMetrics m = metrics;
+        if (!m.enabled()) return predicate;
+        FilterRecorder recorder = m.filter(filter.getType(), field, operator(filter));
+        if (recorder == null || recorder == FilterRecorder.NOOP) return predicate;
+        return new Instrumented<>(predicate, recorder);
+    }
+
+    private static StageEvent[] probes() {
+        Stage[] stages = Stage.values();
+        StageEvent[] out = new StageEvent[stages.length];
+        for (Stage s : stages) {
+            out[s.ordinal()] = StageEvent.of(s);
+        }
+        return out;
+    }
+
+    /** Operator token as sent on the wire, or {@code null}. */
+    static String operator(Filter f) {
+        if (f instanceof BasicFilter b) return b.getOperator() == null ? null : b.getOperator().getValue();
+        if (f instanceof DateTimeFilter d) return d.getOperator() == null ? null : d.getOperator().getValue();
+        if (f instanceof BetweenFilter b) return b.getOperator() == null ? null : b.getOperator().getValue();
+        if (f instanceof ContainsFilter c) return c.getOperator() == null ? null : c.getOperator().getValue();
+        return null;
+    }
+
+    /** A running stage measurement; end it once, in a {@code finally} block so failed stages are reported too. */
+    public static final class Span {
+
+        private final Stage stage;
+        private final QueryMetrics metrics;
+        private final StageEvent event;
+        private final long start;
+
+        private Span(Stage stage, QueryMetrics metrics, StageEvent event, long start) {
+            this.stage = stage;
+            this.metrics = metrics;
+            this.event = event;
+            this.start = start;
+        }
+
+        /** Ends the stage, tagging the JFR event with the types and fields of {@code criteria}. */
+        public void end(Criteria criteria) {
+            long nanos = System.nanoTime() - start;
+            if (metrics.enabled()) metrics.stage(stage, nanos);
+            if (event == null) return;
+            event.end();
+            if (event.shouldCommit()) {
+                Set<String> types = new LinkedHashSet<>();
+                Set<String> fields = new LinkedHashSet<>();
+                if (criteria != null) {
+                    tag(criteria, types, fields);
+                }
+                event.filterTypes = String.join(",", types);
+                event.fields = String.join(",", fields);
+                event.commit();
+            }
+        }
+
+        /** Ends the stage, tagging the JFR event with the type and field of {@code filter}. */
+        public void end(Filter filter) {
+            long nanos = System.nanoTime() - start;
+            if (metrics.enabled()) metrics.stage(stage, nanos);
+            if (event == null) return;
+            event.end();
+            if (event.shouldCommit()) {
+                FilterType type = filter == null ? null : filter.getType();
+                event.filterTypes = type == null ? "" : type.name();
+                event.fields = filter == null || filter.getField() == null ? "" : filter.getField();
+                event.commit();
+            }
+        }
+
+        private static void tag(Criteria criteria, Set<String> types, Set<String> fields) {
+            if (criteria.getFilters() != null) {
+                for (Filter f : criteria.getFilters()) {
+                    if (f == null) continue;
+                    if (f.getType() != null) types.add(f.getType().name());
+                    if (f.getField() != null) fields.add(f.getField());
+                }
+            }
+            if (criteria.getJoins() != null) {
+                for (JoinSpec j : criteria.getJoins()) {
+                    Filter f = j == null ? null : j.getFilter();
+                    if (f == null) continue;
+                    if (f.getType() != null) types.add(f.getType().name());
+                    if (f.getField() != null) fields.add(CriteriaCompiler.qualify(j.getJoin(), f.getField()));
+                }
+            }
+            if (criteria.getSort() != null) {
+                addAll(fields, criteria.getSort().getAscending());
+                addAll(fields, criteria.getSort().getDescending());
+            }
+        }
+
+        private static void addAll(Set<String> fields, List<String> names) {
+            if (names == null) return;
+            for (String name : names) {
+                if (name != null) fields.add(name);
+            }
+        }
+    }
+
+    /** Counts every evaluation and times one in {@link #SAMPLE_INTERVAL}. */
+    private static final class Instrumented<T> implements Predicate<T> {
+
+        private final Predicate<T> delegate;
+        private final FilterRecorder recorder;
+        // racy on purpose: it only spreads the samples
+        private int calls;
+
+        Instrumented(Predicate<T> delegate, FilterRecorder recorder) {
+            this.delegate = delegate;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean test(T row) {
+            if ((++calls & (SAMPLE_INTERVAL - 1)) != 0) {
+                boolean passed = delegate.test(row);
+                recorder.evaluated(passed);
+                return passed;
+            }
+            long start = System.nanoTime();
+            boolean passed = delegate.test(row);
+            recorder.latency(System.nanoTime() - start);
+            recorder.evaluated(passed);
+            return passed;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.chadtalty.commons.data.query.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of durations in power-of-two nanosecond buckets: bucket {@code i} holds values in
+ * {@code [2^(i-1), 2^i)}, so quantiles are exact to within a factor of two at constant memory.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /** Records one duration; negative values count as zero. */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[BUCKETS - Long.numberOfLeadingZeros(v)].increment();
+        sum.add(v);
+    }
+
+    public long count() {
+        long n = 0;
+        for (LongAdder c : counts) {
+            n += c.sum();
+        }
+        return n;
+    }
+
+    /** Mean duration in nanoseconds, or {@code 0} when empty. */
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Upper bound in nanoseconds of the bucket holding quantile {@code q} ({@code 0.5} for the median), or
+     * {@code 0} when empty.
+     */
+    public long quantile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("quantile must be within [0, 1]");
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            n += snapshot[i];
+        }
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        for (int i = 0; i < BUCKETS; i++) {
+            rank -= snapshot[i];
+            if (rank <= 0) return i == 0 ? 0 : i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + count() + ", mean=" + mean() + ", p50=" + quantile(0.5) + ", p99="
+                + quantile(0.99) + "]";
+    }
+}
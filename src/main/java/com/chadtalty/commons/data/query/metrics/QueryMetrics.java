@@ -0,0 +1,36 @@
+package com.chadtalty.commons.data.query.metrics;
+
+import com.chadtalty.commons.data.query.FilterType;
+
+/**
+ * Metrics SPI fed by the library's instrumentation; install an implementation with {@link Instrumentation#install}.
+ *
+ * <p>The default, {@link #NOOP}, reports itself disabled, in which case nothing is timed, counted or wrapped:
+ * compiled predicates are the uninstrumented ones. Implementations must be thread-safe.
+ */
+public interface QueryMetrics {
+
+    /** Disabled metrics; the default. */
+    QueryMetrics NOOP = new QueryMetrics() {
+        @Override
+        public boolean enabled() {
+            return false;
+        }
+    };
+
+    /** Whether the library should instrument at all; checked on every call site before any work. */
+    default boolean enabled() {
+        return true;
+    }
+
+    /** One pass through {@code stage} took {@code nanos}. */
+    default void stage(Stage stage, long nanos) {}
+
+    /**
+     * Recorder for a filter of {@code type} on {@code field} (qualified for joins) with {@code operator} as sent on
+     * the wire; called once when the filter is compiled.
+     */
+    default FilterRecorder filter(FilterType type, String field, String operator) {
+        return FilterRecorder.NOOP;
+    }
+}
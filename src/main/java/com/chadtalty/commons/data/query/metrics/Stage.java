@@ -0,0 +1,13 @@
+package com.chadtalty.commons.data.query.metrics;
+
+/** Phases of handling a criteria request, each timed by {@link QueryMetrics#stage} and a JFR event. */
+public enum Stage {
+    /** Reading one filter from JSON. */
+    DESERIALIZE,
+    /** Checking a criteria graph against its constraints. */
+    VALIDATE,
+    /** Compiling criteria into predicates and comparators. */
+    PLAN,
+    /** Evaluating criteria over rows, including planning. */
+    EXECUTE
+}
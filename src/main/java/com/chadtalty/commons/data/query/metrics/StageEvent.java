@@ -0,0 +1,48 @@
+package com.chadtalty.commons.data.query.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR events for the {@link Stage}s, tagged with the filter types and fields involved. */
+abstract class StageEvent extends Event {
+
+    @Label("Filter Types")
+    @Description("Distinct filter types, comma separated")
+    String filterTypes;
+
+    @Label("Fields")
+    @Description("Distinct filter and sort fields, join fields qualified, comma separated")
+    String fields;
+
+    static StageEvent of(Stage stage) {
+        return switch (stage) {
+            case DESERIALIZE -> new Deserialize();
+            case VALIDATE -> new Validate();
+            case PLAN -> new Plan();
+            case EXECUTE -> new Execute();
+        };
+    }
+
+    @Name("com.chadtalty.query.Deserialize")
+    @Label("Filter Deserialization")
+    @Category({"Query", "Criteria"})
+    static final class Deserialize extends StageEvent {}
+
+    @Name("com.chadtalty.query.Validate")
+    @Label("Criteria Validation")
+    @Category({"Query", "Criteria"})
+    static final class Validate extends StageEvent {}
+
+    @Name("com.chadtalty.query.Plan")
+    @Label("Criteria Planning")
+    @Category({"Query", "Criteria"})
+    static final class Plan extends StageEvent {}
+
+    @Name("com.chadtalty.query.Execute")
+    @Label("Criteria Execution")
+    @Category({"Query", "Criteria"})
+    static final class Execute extends StageEvent {}
+}
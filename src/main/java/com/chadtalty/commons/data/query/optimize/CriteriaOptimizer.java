@@ -0,0 +1,153 @@
+package com.chadtalty.commons.data.query.optimize;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logical rewrite of {@link Criteria#getFilters()} ahead of compilation.
+ *
+ * <p>Filters on the same field are ANDed into one domain per field, interpreted with the field's
+ * {@link FieldAccessor} kind exactly as {@link CriteriaCompiler} would evaluate them:
+ * <ul>
+ *   <li>bounds from basic, date-time and between filters merge into a single interval (exclusive bounds on
+ *       integral and epoch-millisecond fields become inclusive);</li>
+ *   <li>equality and contains filters intersect into one allowed-value list, pruned by the interval and by
+ *       {@code not_equal} values;</li>
+ *   <li>an empty interval or allowed list proves the criteria unsatisfiable.</li>
+ * </ul>
+ * The surviving filters are then ordered by rank {@code cost / (1 - selectivity)}, so cheap and selective checks
+ * run first in the short-circuiting conjunction the compiler builds. Single-filter fields are kept as the same
+ * instance. Join filters, filters without a field and fields whose filters are incomplete are left verbatim.
+ *
+ * <p>Example:
+ * <pre>
+ * OptimizedCriteria o = new CriteriaOptimizer&lt;&gt;(compiler).optimize(criteria);
+ * if (o.isUnsatisfiable()) return List.of();
+ * Predicate&lt;Order&gt; p = compiler.compile(o.criteria());
+ * </pre>
+ *
+ * @param <T> row type
+ */
+public final class CriteriaOptimizer<T> {
+
+    private final CriteriaCompiler<T> compiler;
+    private final SelectivityEstimator estimator;
+
+    public CriteriaOptimizer(CriteriaCompiler<T> compiler) {
+        this(compiler, SelectivityEstimator.heuristic());
+    }
+
+    public CriteriaOptimizer(CriteriaCompiler<T> compiler, SelectivityEstimator estimator) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        if (estimator == null) throw new IllegalArgumentException("estimator must not be null");
+        this.compiler = compiler;
+        this.estimator = estimator;
+    }
+
+    /**
+     * Rewrites {@code criteria}; the input is not modified.
+     *
+     * @throws IllegalArgumentException for unknown fields and unparseable operands, as compilation would
+     */
+    public OptimizedCriteria optimize(Criteria criteria) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        List<Filter> filters = criteria.getFilters();
+        if (filters == null || filters.isEmpty()) return new OptimizedCriteria(criteria, null);
+
+        Map<String, List<Filter>> byField = new LinkedHashMap<>();
+        List<Filter> unnamed = new ArrayList<>();
+        for (Filter f : filters) {
+            if (f == null) throw new IllegalArgumentException("filters must not contain null");
+            if (f.getField() == null) unnamed.add(f);
+            else byField.computeIfAbsent(f.getField(), k -> new ArrayList<>(2)).add(f);
+        }
+
+        List<Ranked> ranked = new ArrayList<>(filters.size());
+        for (Map.Entry<String, List<Filter>> e : byField.entrySet()) {
+            FieldAccessor<T> accessor = compiler.resolve(e.getKey());
+            List<Filter> group = e.getValue();
+            List<Filter> rewritten = rewrite(e.getKey(), accessor, group);
+            if (rewritten == null) return new OptimizedCriteria(criteria, e.getKey());
+            for (Filter f : group.size() == 1 && rewritten.size() == 1 ? group : rewritten) {
+                ranked.add(new Ranked(f, rank(f, accessor)));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(Ranked::rank));
+        List<Filter> out = new ArrayList<>(ranked.size() + unnamed.size());
+        for (Ranked r : ranked) {
+            out.add(r.filter);
+        }
+        out.addAll(unnamed);
+        return new OptimizedCriteria(copy(criteria, out), null);
+    }
+
+    /** Merged filters for one field, the group itself when it cannot be interpreted, {@code null} if empty. */
+    private static <T> List<Filter> rewrite(String field, FieldAccessor<T> accessor, List<Filter> group) {
+        FieldDomain<?> domain = new FieldDomain<>(field, ValueKind.of(accessor));
+        try {
+            for (Filter f : group) {
+                domain.add(f);
+            }
+        } catch (ValueKind.Verbatim e) {
+            return group;
+        }
+        return domain.rewrite();
+    }
+
+    private double rank(Filter f, FieldAccessor<T> accessor) {
+        double selectivity = Math.max(0.0, Math.min(1.0, estimator.selectivity(f, accessor)));
+        return selectivity >= 1.0 ? Double.POSITIVE_INFINITY : cost(f, accessor) / (1.0 - selectivity);
+    }
+
+    /** Relative per-row cost of evaluating {@code f}; a primitive comparison costs 1. */
+    static double cost(Filter f, FieldAccessor<?> accessor) {
+        double read = switch (accessor) {
+            case FieldAccessor.LongField<?> a -> 1.0;
+            case FieldAccessor.DoubleField<?> a -> 1.0;
+            case FieldAccessor.EpochMillisField<?> a -> 1.0;
+            case FieldAccessor.BooleanField<?> a -> 1.0;
+            case FieldAccessor.EnumField<?, ?> a -> 1.5;
+            case FieldAccessor.InstantField<?> a -> 2.0;
+            case FieldAccessor.StringField<?> a -> 3.0;
+        };
+        if (f instanceof ContainsFilter c) {
+            int n = c.getValues() == null ? 1 : Math.max(1, c.getValues().size());
+            boolean hashed = accessor instanceof FieldAccessor.LongField<?>
+                    || accessor instanceof FieldAccessor.StringField<?>
+                    || accessor instanceof FieldAccessor.EnumField<?, ?>
+                    || accessor instanceof FieldAccessor.BooleanField<?>;
+            return read + (hashed ? 0.5 : 0.5 * (32 - Integer.numberOfLeadingZeros(n)));
+        }
+        if (f instanceof BetweenFilter) return read * 1.5;
+        if (f instanceof BasicFilter b && accessor instanceof FieldAccessor.StringField<?>) {
+            return b.getOperator() == BasicFilter.Operator.EQUAL || b.getOperator() == BasicFilter.Operator.NOT_EQUAL
+                    ? read
+                    : read + 1.0;
+        }
+        return read;
+    }
+
+    private static Criteria copy(Criteria in, List<Filter> filters) {
+        if (in instanceof PageableCriteria p) {
+            PageableCriteria out = new PageableCriteria(p.getPage(), p.getSize(), p.getCursor());
+            out.setJoins(p.getJoins());
+            out.setFilters(filters);
+            out.setSort(p.getSort());
+            return out;
+        }
+        return new Criteria(in.getJoins(), filters, in.getSort());
+    }
+
+    private record Ranked(Filter filter, double rank) {}
+}
@@ -0,0 +1,164 @@
+package com.chadtalty.commons.data.query.optimize;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conjunction of every top-level filter on one field, folded into an interval, an optional allowed-value set and
+ * a set of excluded values.
+ *
+ * @param <V> normalized value type
+ */
+final class FieldDomain<V> {
+
+    private final String field;
+    private final ValueKind<V> kind;
+    private final Comparator<? super V> order;
+
+    private V lo;
+    private boolean loInclusive;
+    private V hi;
+    private boolean hiInclusive;
+    /** Values an equality or contains filter admits; {@code null} while unconstrained. */
+    private List<V> allowed;
+
+    private final Set<V> excluded = new LinkedHashSet<>();
+
+    FieldDomain(String field, ValueKind<V> kind) {
+        this.field = field;
+        this.kind = kind;
+        this.order = kind.order();
+    }
+
+    /** Adds one filter; throws {@link ValueKind.Verbatim} for filters the compiler would reject as incomplete. */
+    void add(Filter f) {
+        if (f instanceof BasicFilter b) {
+            if (b.getOperator() == null || b.getValue() == null) throw ValueKind.Verbatim.INSTANCE;
+            Comparison op = Comparison.of(b.getOperator());
+            if (kind.isBoolean() && op.isOrdering()) {
+                throw new IllegalArgumentException("Ordering operator not supported on field: " + field);
+            }
+            apply(op, kind.parse(field, b.getValue()));
+        } else if (f instanceof DateTimeFilter d) {
+            if (d.getOperator() == null || d.getValue() == null) throw ValueKind.Verbatim.INSTANCE;
+            apply(Comparison.of(d.getOperator()), kind.instant(field, d.getValue()));
+        } else if (f instanceof BetweenFilter b) {
+            if (b.getStartDateTime() == null || b.getEndDateTime() == null) throw ValueKind.Verbatim.INSTANCE;
+            lower(kind.instant(field, b.getStartDateTime()), true);
+            upper(kind.instant(field, b.getEndDateTime()), true);
+        } else if (f instanceof ContainsFilter c) {
+            if (c.getValues() == null || c.getValues().isEmpty()) throw ValueKind.Verbatim.INSTANCE;
+            Set<V> values = new LinkedHashSet<>();
+            for (String v : c.getValues()) {
+                if (v == null) throw ValueKind.Verbatim.INSTANCE;
+                values.add(kind.member(field, v));
+            }
+            intersect(values);
+        } else {
+            throw ValueKind.Verbatim.INSTANCE;
+        }
+    }
+
+    /**
+     * Minimal equivalent filters, or {@code null} when no value satisfies them all. May be empty when the
+     * conjunction holds for every row (a boolean field admitting both values).
+     */
+    List<Filter> rewrite() {
+        if (kind.isDiscrete()) {
+            if (lo != null && !loInclusive) {
+                lo = kind.next(lo);
+                if (lo == null) return null;
+                loInclusive = true;
+            }
+            if (hi != null && !hiInclusive) {
+                hi = kind.previous(hi);
+                if (hi == null) return null;
+                hiInclusive = true;
+            }
+        }
+        if (kind.isBoolean() && allowed == null) {
+            allowed = new ArrayList<>(List.of(kind.parse(field, "false"), kind.parse(field, "true")));
+        }
+        if (allowed != null) {
+            allowed.removeIf(v -> !inRange(v) || excluded.contains(v));
+            if (allowed.isEmpty()) return null;
+            if (kind.isBoolean() && allowed.size() == 2) return List.of();
+            if (allowed.size() == 1) return List.of(kind.compare(field, Comparison.EQ, allowed.get(0)));
+            return List.of(kind.in(field, allowed));
+        }
+        if (lo != null && hi != null) {
+            int c = order.compare(lo, hi);
+            if (c > 0 || (c == 0 && !(loInclusive && hiInclusive))) return null;
+            if (c == 0) {
+                return excluded.contains(lo) ? null : List.of(kind.compare(field, Comparison.EQ, lo));
+            }
+        }
+        List<Filter> out = new ArrayList<>(2 + excluded.size());
+        if (lo != null && hi != null && loInclusive && hiInclusive && kind instanceof ValueKind.Temporal<V> temporal) {
+            out.add(temporal.between(field, lo, hi));
+        } else {
+            if (lo != null) out.add(kind.compare(field, loInclusive ? Comparison.GE : Comparison.GT, lo));
+            if (hi != null) out.add(kind.compare(field, hiInclusive ? Comparison.LE : Comparison.LT, hi));
+        }
+        for (V v : excluded) {
+            if (inRange(v)) out.add(kind.compare(field, Comparison.NE, v));
+        }
+        return out;
+    }
+
+    private void apply(Comparison op, V v) {
+        switch (op) {
+            case EQ -> intersect(Set.of(v));
+            case NE -> excluded.add(v);
+            case GT -> lower(v, false);
+            case GE -> lower(v, true);
+            case LT -> upper(v, false);
+            case LE -> upper(v, true);
+        }
+    }
+
+    private void lower(V v, boolean inclusive) {
+        int c = lo == null ? 1 : order.compare(v, lo);
+        if (c > 0 || (c == 0 && !inclusive)) {
+            lo = v;
+            loInclusive = inclusive;
+        }
+    }
+
+    private void upper(V v, boolean inclusive) {
+        int c = hi == null ? -1 : order.compare(v, hi);
+        if (c < 0 || (c == 0 && !inclusive)) {
+            hi = v;
+            hiInclusive = inclusive;
+        }
+    }
+
+    private void intersect(Set<V> values) {
+        if (allowed == null) {
+            allowed = new ArrayList<>(values);
+        } else {
+            allowed.retainAll(values);
+        }
+    }
+
+    private boolean inRange(V v) {
+        if (lo != null) {
+            int c = order.compare(v, lo);
+            if (c < 0 || (c == 0 && !loInclusive)) return false;
+        }
+        if (hi != null) {
+            int c = order.compare(v, hi);
+            if (c > 0 || (c == 0 && !hiInclusive)) return false;
+        }
+        return true;
+    }
+}
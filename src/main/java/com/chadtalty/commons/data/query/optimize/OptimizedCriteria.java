@@ -0,0 +1,17 @@
+package com.chadtalty.commons.data.query.optimize;
+
+import com.chadtalty.commons.data.query.Criteria;
+
+/**
+ * Result of {@link CriteriaOptimizer#optimize}.
+ *
+ * @param criteria equivalent criteria with merged and reordered filters; the input itself when unsatisfiable
+ * @param contradiction field whose filters admit no value, or {@code null}
+ */
+public record OptimizedCriteria(Criteria criteria, String contradiction) {
+
+    /** Whether the criteria provably match nothing, so execution can be skipped. */
+    public boolean isUnsatisfiable() {
+        return contradiction != null;
+    }
+}
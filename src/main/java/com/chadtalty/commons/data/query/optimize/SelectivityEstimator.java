@@ -0,0 +1,51 @@
+package com.chadtalty.commons.data.query.optimize;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+
+/**
+ * Estimates the fraction of rows a filter accepts, used by {@link CriteriaOptimizer} to run selective filters
+ * first.
+ */
+@FunctionalInterface
+public interface SelectivityEstimator {
+
+    /** Fraction of rows in {@code [0, 1]} expected to pass {@code filter} on a field read through {@code accessor}. */
+    double selectivity(Filter filter, FieldAccessor<?> accessor);
+
+    /**
+     * Statistics-free defaults: equality {@code 1/100} (or one over the cardinality of boolean and enum fields),
+     * one-sided ranges {@code 1/3}, two-sided ranges {@code 1/4}, contains {@code n} times equality, and the
+     * complement for {@code not_equal}.
+     */
+    static SelectivityEstimator heuristic() {
+        return SelectivityEstimator::heuristic;
+    }
+
+    private static double heuristic(Filter filter, FieldAccessor<?> accessor) {
+        double eq = accessor instanceof FieldAccessor.BooleanField<?>
+                ? 0.5
+                : accessor instanceof FieldAccessor.EnumField<?, ?> e ? 1.0 / e.type().getEnumConstants().length : 0.01;
+        if (filter instanceof BasicFilter b && b.getOperator() != null) {
+            return switch (b.getOperator()) {
+                case EQUAL -> eq;
+                case NOT_EQUAL -> 1 - eq;
+                default -> 1.0 / 3;
+            };
+        }
+        if (filter instanceof DateTimeFilter d && d.getOperator() != null) {
+            return switch (d.getOperator()) {
+                case EQUAL -> eq;
+                case NOT_EQUAL -> 1 - eq;
+                default -> 1.0 / 3;
+            };
+        }
+        if (filter instanceof BetweenFilter) return 0.25;
+        if (filter instanceof ContainsFilter c && c.getValues() != null) return Math.min(1.0, c.getValues().size() * eq);
+        return 0.5;
+    }
+}
@@ -0,0 +1,356 @@
+package com.chadtalty.commons.data.query.optimize;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler.Operands;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Value domain of one accessor kind: how operands parse (exactly as {@link
+ * com.chadtalty.commons.data.query.eval.CriteriaCompiler} parses them), how values order, and how merged
+ * constraints are written back as filters.
+ *
+ * @param <V> normalized value type
+ */
+abstract class ValueKind<V> {
+
+    /** Thrown for groups the optimizer cannot reason about; they are kept verbatim. */
+    static final class Verbatim extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        static final Verbatim INSTANCE = new Verbatim();
+
+        private Verbatim() {
+            super(null, null, false, false);
+        }
+    }
+
+    abstract Comparator<? super V> order();
+
+    /** Operand of a basic or contains filter. */
+    abstract V parse(String field, String text);
+
+    /** Operand of a date-time or between filter; non-temporal kinds reject it like the compiler does. */
+    V instant(String field, Instant value) {
+        throw new IllegalArgumentException("Field is not temporal: " + field);
+    }
+
+    /** Operand of a contains filter; differs from {@link #parse} only where the compiler's set test does. */
+    V member(String field, String text) {
+        return parse(field, text);
+    }
+
+    /** Smallest value greater than {@code v}, {@code null} when there is none or the domain is dense. */
+    V next(V v) {
+        return null;
+    }
+
+    /** Largest value less than {@code v}, {@code null} when there is none or the domain is dense. */
+    V previous(V v) {
+        return null;
+    }
+
+    boolean isDiscrete() {
+        return false;
+    }
+
+    /** Whether every row has a value and the domain is exactly {@code {false, true}}. */
+    boolean isBoolean() {
+        return false;
+    }
+
+    /** Operand text of a basic or contains filter that parses back to {@code v}. */
+    abstract String format(V v);
+
+    Filter compare(String field, Comparison op, V v) {
+        return new BasicFilter(field, basic(op), format(v));
+    }
+
+    Filter in(String field, List<V> values) {
+        List<String> out = new ArrayList<>(values.size());
+        for (V v : values) {
+            out.add(format(v));
+        }
+        return new ContainsFilter(field, out);
+    }
+
+    private static BasicFilter.Operator basic(Comparison op) {
+        return switch (op) {
+            case EQ -> BasicFilter.Operator.EQUAL;
+            case NE -> BasicFilter.Operator.NOT_EQUAL;
+            case GT -> BasicFilter.Operator.GREATER_THAN;
+            case GE -> BasicFilter.Operator.GREATER_THAN_OR_EQUAL;
+            case LT -> BasicFilter.Operator.LESS_THAN;
+            case LE -> BasicFilter.Operator.LESS_THAN_OR_EQUAL;
+        };
+    }
+
+    private static DateTimeFilter.Operator dateTime(Comparison op) {
+        return switch (op) {
+            case EQ -> DateTimeFilter.Operator.EQUAL;
+            case NE -> DateTimeFilter.Operator.NOT_EQUAL;
+            case GT -> DateTimeFilter.Operator.AFTER;
+            case GE -> DateTimeFilter.Operator.AFTER_OR_EQUAL;
+            case LT -> DateTimeFilter.Operator.BEFORE;
+            case LE -> DateTimeFilter.Operator.BEFORE_OR_EQUAL;
+        };
+    }
+
+    /** Kinds accepting date-time and between filters, which merged comparisons are written back as. */
+    abstract static class Temporal<V> extends ValueKind<V> {
+
+        @Override
+        abstract V instant(String field, Instant value);
+
+        abstract Instant toInstant(V v);
+
+        @Override
+        final String format(V v) {
+            return toInstant(v).toString();
+        }
+
+        @Override
+        final Filter compare(String field, Comparison op, V v) {
+            return new DateTimeFilter(field, dateTime(op), toInstant(v));
+        }
+
+        final Filter between(String field, V lo, V hi) {
+            return new BetweenFilter(field, toInstant(lo), toInstant(hi));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> ValueKind<?> of(FieldAccessor<T> accessor) {
+        if (accessor instanceof FieldAccessor.LongField<T>) return LONG;
+        if (accessor instanceof FieldAccessor.DoubleField<T>) return DOUBLE;
+        if (accessor instanceof FieldAccessor.EpochMillisField<T>) return EPOCH_MILLIS;
+        if (accessor instanceof FieldAccessor.InstantField<T>) return INSTANT;
+        if (accessor instanceof FieldAccessor.StringField<T>) return STRING;
+        if (accessor instanceof FieldAccessor.BooleanField<T>) return BOOLEAN;
+        return new EnumKind((FieldAccessor.EnumField) accessor);
+    }
+
+    static final ValueKind<Long> LONG = new ValueKind<>() {
+        @Override
+        Comparator<Long> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        Long parse(String field, String text) {
+            return Operands.parseLong(field, text);
+        }
+
+        @Override
+        Long next(Long v) {
+            return v == Long.MAX_VALUE ? null : v + 1;
+        }
+
+        @Override
+        Long previous(Long v) {
+            return v == Long.MIN_VALUE ? null : v - 1;
+        }
+
+        @Override
+        boolean isDiscrete() {
+            return true;
+        }
+
+        @Override
+        String format(Long v) {
+            return Long.toString(v);
+        }
+    };
+
+    /**
+     * Primitive {@code double} comparisons: {@code -0.0} is folded into {@code 0.0}; NaN operands and zeros in
+     * contains lists (whose binary search tells the zeros apart) are left verbatim.
+     */
+    static final ValueKind<Double> DOUBLE = new ValueKind<>() {
+        @Override
+        Comparator<Double> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        Double parse(String field, String text) {
+            double d = Operands.parseDouble(field, text);
+            if (Double.isNaN(d)) throw Verbatim.INSTANCE;
+            return d + 0.0;
+        }
+
+        @Override
+        Double member(String field, String text) {
+            double d = parse(field, text);
+            if (d == 0.0) throw Verbatim.INSTANCE;
+            return d;
+        }
+
+        @Override
+        String format(Double v) {
+            return Double.toString(v);
+        }
+    };
+
+    /** Epoch milliseconds; instants truncate to the millisecond exactly as the compiler's kernels do. */
+    static final Temporal<Long> EPOCH_MILLIS = new Temporal<>() {
+        @Override
+        Comparator<Long> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        Long parse(String field, String text) {
+            return Operands.parseEpochMilli(field, text);
+        }
+
+        @Override
+        Long instant(String field, Instant value) {
+            return Operands.epochMilli(field, value);
+        }
+
+        @Override
+        Long next(Long v) {
+            return v == Long.MAX_VALUE ? null : v + 1;
+        }
+
+        @Override
+        Long previous(Long v) {
+            return v == Long.MIN_VALUE ? null : v - 1;
+        }
+
+        @Override
+        boolean isDiscrete() {
+            return true;
+        }
+
+        @Override
+        Instant toInstant(Long v) {
+            return Instant.ofEpochMilli(v);
+        }
+    };
+
+    /**
+     * Nanosecond instants, treated as dense so rewritten bounds never need sub-millisecond precision on the wire;
+     * contains lists match at millisecond precision, like the compiler's set test.
+     */
+    static final Temporal<Instant> INSTANT = new Temporal<>() {
+        @Override
+        Comparator<Instant> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        Instant parse(String field, String text) {
+            return Operands.parseInstant(field, text);
+        }
+
+        @Override
+        Instant instant(String field, Instant value) {
+            return value;
+        }
+
+        @Override
+        Instant member(String field, String text) {
+            return Instant.ofEpochMilli(Operands.parseEpochMilli(field, text));
+        }
+
+        @Override
+        Instant toInstant(Instant v) {
+            return v;
+        }
+    };
+
+    static final ValueKind<String> STRING = new ValueKind<>() {
+        @Override
+        Comparator<String> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        String parse(String field, String text) {
+            return text;
+        }
+
+        @Override
+        String format(String v) {
+            return v;
+        }
+    };
+
+    static final ValueKind<Boolean> BOOLEAN = new ValueKind<>() {
+        @Override
+        Comparator<Boolean> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        Boolean parse(String field, String text) {
+            return Operands.parseBoolean(field, text);
+        }
+
+        @Override
+        boolean isBoolean() {
+            return true;
+        }
+
+        @Override
+        String format(Boolean v) {
+            return v.toString();
+        }
+    };
+
+    /** Declaration-order enum constants, resolved with {@link FieldAccessor.EnumField#parse}. */
+    static final class EnumKind<E extends Enum<E>> extends ValueKind<E> {
+
+        private final FieldAccessor.EnumField<?, E> accessor;
+        private final E[] constants;
+
+        EnumKind(FieldAccessor.EnumField<?, E> accessor) {
+            this.accessor = accessor;
+            this.constants = accessor.type().getEnumConstants();
+        }
+
+        @Override
+        Comparator<E> order() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        E parse(String field, String text) {
+            return accessor.parse(text);
+        }
+
+        @Override
+        E next(E v) {
+            return v.ordinal() + 1 < constants.length ? constants[v.ordinal() + 1] : null;
+        }
+
+        @Override
+        E previous(E v) {
+            return v.ordinal() > 0 ? constants[v.ordinal() - 1] : null;
+        }
+
+        @Override
+        boolean isDiscrete() {
+            return true;
+        }
+
+        @Override
+        String format(E v) {
+            return v.name();
+        }
+
+        int cardinality() {
+            return constants.length;
+        }
+    }
+}
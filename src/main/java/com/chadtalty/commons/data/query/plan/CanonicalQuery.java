@@ -0,0 +1,118 @@
+package com.chadtalty.commons.data.query.plan;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link Criteria} split into its {@link QueryShape} and the concrete filters occupying each slot.
+ *
+ * <p>Canonicalization sorts filters by join path, field, type and operator (AND is commutative), so
+ * reordered but otherwise identical requests share a shape. Literals are exposed positionally by
+ * {@link #parameters()}.
+ */
+public final class CanonicalQuery {
+
+    private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, String>comparing(e -> e.slot.join(), NULLS_FIRST)
+            .thenComparing(e -> e.slot.field(), NULLS_FIRST)
+            .thenComparing(e -> e.slot.type())
+            .thenComparing(e -> e.slot.operator(), NULLS_FIRST);
+
+    private final QueryShape shape;
+    private final Filter[] filters;
+
+    private CanonicalQuery(QueryShape shape, Filter[] filters) {
+        this.shape = shape;
+        this.filters = filters;
+    }
+
+    /** Canonicalizes the filters, join filters and sort of {@code criteria}. */
+    public static CanonicalQuery of(Criteria criteria) {
+        List<Entry> entries = new ArrayList<>();
+        if (criteria != null && criteria.getFilters() != null) {
+            for (Filter f : criteria.getFilters()) {
+                entries.add(entry(null, f));
+            }
+        }
+        if (criteria != null && criteria.getJoins() != null) {
+            for (JoinSpec j : criteria.getJoins()) {
+                if (j == null) throw new IllegalArgumentException("join must not be null");
+                if (j.getFilter() != null) entries.add(entry(j.getJoin(), j.getFilter()));
+            }
+        }
+        entries.sort(ORDER);
+        List<Slot> slots = new ArrayList<>(entries.size());
+        Filter[] filters = new Filter[entries.size()];
+        for (int i = 0; i < filters.length; i++) {
+            slots.add(entries.get(i).slot);
+            filters[i] = entries.get(i).filter;
+        }
+        List<String> ascending = List.of();
+        List<String> descending = List.of();
+        if (criteria != null && criteria.getSort() != null) {
+            if (criteria.getSort().getAscending() != null) ascending = criteria.getSort().getAscending();
+            if (criteria.getSort().getDescending() != null) descending = criteria.getSort().getDescending();
+        }
+        return new CanonicalQuery(new QueryShape(slots, ascending, descending), filters);
+    }
+
+    public QueryShape shape() {
+        return shape;
+    }
+
+    /** Filters in slot order. */
+    public List<Filter> filters() {
+        return Arrays.asList(filters.clone());
+    }
+
+    /** Filter occupying slot {@code index}. */
+    public Filter filter(int index) {
+        return filters[index];
+    }
+
+    /**
+     * Literal vector in slot order: a basic value string, a date-time instant, a between's start and end
+     * instants (two entries), or a contains filter's value list.
+     */
+    public Object[] parameters() {
+        List<Object> out = new ArrayList<>(filters.length + 2);
+        for (Filter f : filters) {
+            if (f instanceof BasicFilter b) {
+                out.add(b.getValue());
+            } else if (f instanceof DateTimeFilter d) {
+                out.add(d.getValue());
+            } else if (f instanceof BetweenFilter b) {
+                out.add(b.getStartDateTime());
+                out.add(b.getEndDateTime());
+            } else if (f instanceof ContainsFilter c) {
+                out.add(c.getValues());
+            }
+        }
+        return out.toArray();
+    }
+
+    private static Entry entry(String join, Filter f) {
+        if (f == null) throw new IllegalArgumentException("filters must not contain null");
+        return new Entry(new Slot(join, f.getField(), f.getType(), operator(f)), f);
+    }
+
+    private static String operator(Filter f) {
+        if (f instanceof BasicFilter b) return b.getOperator() == null ? null : b.getOperator().getValue();
+        if (f instanceof DateTimeFilter d) return d.getOperator() == null ? null : d.getOperator().getValue();
+        if (f instanceof BetweenFilter b) return b.getOperator().getValue();
+        if (f instanceof ContainsFilter c) return c.getOperator().getValue();
+        throw new IllegalArgumentException("Unsupported filter type: " + f.getType());
+    }
+
+    private record Entry(Slot slot, Filter filter) {}
+}
@@ -0,0 +1,59 @@
+package com.chadtalty.commons.data.query.plan;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.cache.CacheStats;
+import com.chadtalty.commons.data.query.cache.SegmentedLruCache;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, concurrent cache of {@link QueryPlan}s keyed by {@link QueryShape}.
+ *
+ * <p>Example:
+ * <pre>
+ * PlanCache&lt;Order&gt; plans = new PlanCache&lt;&gt;(new CriteriaCompiler&lt;&gt;(fields), 1024);
+ * Predicate&lt;Order&gt; p = plans.compile(criteria);
+ * </pre>
+ *
+ * <p>Plans hold no instrumentation: filters are wrapped for the installed {@link Instrumentation} metrics when a
+ * plan binds, so plans cached before {@link Instrumentation#install} report like any other.
+ *
+ * @param <T> row type
+ */
+public final class PlanCache<T> {
+
+    private final CriteriaCompiler<T> compiler;
+    private final SegmentedLruCache<QueryShape, QueryPlan<T>> plans;
+
+    public PlanCache(CriteriaCompiler<T> compiler, int capacity) {
+        if (compiler == null) throw new IllegalArgumentException("compiler must not be null");
+        this.compiler = compiler;
+        this.plans = new SegmentedLruCache<>(capacity);
+    }
+
+    /** Returns the cached plan for {@code shape}, compiling it on first use. */
+    public QueryPlan<T> plan(QueryShape shape) {
+        return plans.get(shape, s -> new QueryPlan<>(s, compiler));
+    }
+
+    /** Canonicalizes {@code criteria}, looks up its plan and binds its literals. */
+    public Predicate<T> compile(Criteria criteria) {
+        Instrumentation.Span span = Instrumentation.begin(Stage.PLAN);
+        try {
+            CanonicalQuery query = CanonicalQuery.of(criteria);
+            return plan(query.shape()).bind(query);
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    public CacheStats stats() {
+        return plans.stats();
+    }
+
+    public void invalidateAll() {
+        plans.invalidateAll();
+    }
+}
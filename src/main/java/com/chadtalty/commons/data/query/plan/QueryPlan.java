@@ -0,0 +1,56 @@
+package com.chadtalty.commons.data.query.plan;
+
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FilterBinder;
+import com.chadtalty.commons.data.query.eval.Predicates;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A compiled {@link QueryShape}: fields resolved and kernels selected per slot, sort comparator built. Binding a
+ * {@link CanonicalQuery} of the same shape only parses its literals.
+ *
+ * <p>Immutable and thread-safe.
+ *
+ * @param <T> row type
+ */
+public final class QueryPlan<T> {
+
+    private final QueryShape shape;
+    private final List<FilterBinder<T>> binders;
+    private final Comparator<T> comparator;
+
+    /** Compiles {@code shape}; fails fast on unknown fields. */
+    public QueryPlan(QueryShape shape, CriteriaCompiler<T> compiler) {
+        List<FilterBinder<T>> out = new ArrayList<>(shape.slots().size());
+        for (Slot s : shape.slots()) {
+            out.add(compiler.binder(s.type(), s.qualifiedField()));
+        }
+        this.shape = shape;
+        this.binders = List.copyOf(out);
+        SortSpec sort = new SortSpec(shape.ascending(), shape.descending());
+        this.comparator = compiler.comparator(sort);
+    }
+
+    public QueryShape shape() {
+        return shape;
+    }
+
+    /** Composite comparator for the shape's sort fields, or {@code null} when unsorted. */
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    /** Binds the literals of {@code query}, which must have this plan's shape. */
+    public Predicate<T> bind(CanonicalQuery query) {
+        if (!shape.equals(query.shape())) throw new IllegalArgumentException("query shape does not match plan");
+        List<Predicate<T>> parts = new ArrayList<>(binders.size());
+        for (int i = 0; i < binders.size(); i++) {
+            parts.add(binders.get(i).bind(query.filter(i)));
+        }
+        return Predicates.and(parts);
+    }
+}
@@ -0,0 +1,93 @@
+package com.chadtalty.commons.data.query.plan;
+
+import java.util.List;
+
+/**
+ * Literal-free structure of a {@link com.chadtalty.commons.data.query.Criteria}: its filter {@link Slot}s in
+ * canonical order plus its sort fields.
+ *
+ * <p>Two criteria that differ only in literal values (or in filter order) share a shape. Equality compares a
+ * compact canonical key whose hash is computed once, so shapes are cheap cache keys regardless of IN-list sizes.
+ */
+public final class QueryShape {
+
+    private final List<Slot> slots;
+    private final List<String> ascending;
+    private final List<String> descending;
+    private final String key;
+    private final int hash;
+
+    QueryShape(List<Slot> slots, List<String> ascending, List<String> descending) {
+        this.slots = List.copyOf(slots);
+        this.ascending = List.copyOf(ascending);
+        this.descending = List.copyOf(descending);
+        this.key = key(this.slots, this.ascending, this.descending);
+        this.hash = key.hashCode();
+    }
+
+    /** Filter positions in canonical order; parameters of a {@link CanonicalQuery} follow this order. */
+    public List<Slot> slots() {
+        return slots;
+    }
+
+    /** Ascending sort fields, in request order. */
+    public List<String> ascending() {
+        return ascending;
+    }
+
+    /** Descending sort fields, in request order. */
+    public List<String> descending() {
+        return descending;
+    }
+
+    /** Canonical key; equal shapes have equal keys. */
+    public String key() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QueryShape other)) return false;
+        return hash == other.hash && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /** Length-prefixed encoding, so arbitrary join paths cannot make two shapes collide. */
+    private static String key(List<Slot> slots, List<String> ascending, List<String> descending) {
+        StringBuilder sb = new StringBuilder(32 * (slots.size() + 1));
+        for (Slot s : slots) {
+            sb.append('f');
+            append(sb, s.join());
+            append(sb, s.field());
+            sb.append(s.type().ordinal()).append(':');
+            append(sb, s.operator());
+        }
+        for (String a : ascending) {
+            sb.append('a');
+            append(sb, a);
+        }
+        for (String d : descending) {
+            sb.append('d');
+            append(sb, d);
+        }
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("-1:");
+            return;
+        }
+        sb.append(s.length()).append(':').append(s);
+    }
+}
@@ -0,0 +1,20 @@
+package com.chadtalty.commons.data.query.plan;
+
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+
+/**
+ * One literal-free filter position of a {@link QueryShape}.
+ *
+ * @param join join path for join filters, {@code null} for top-level filters
+ * @param field filter field, relative to {@code join}
+ * @param type filter kind
+ * @param operator operator token as sent on the wire (e.g. {@code greater_than})
+ */
+public record Slot(String join, String field, FilterType type, String operator) {
+
+    /** Field qualified by the join path, as resolved by {@link CriteriaCompiler}. */
+    public String qualifiedField() {
+        return CriteriaCompiler.qualify(join, field);
+    }
+}
@@ -0,0 +1,15 @@
+package com.chadtalty.commons.data.query.sql;
+
+/**
+ * How {@link com.chadtalty.commons.data.query.ContainsFilter} value lists are rendered.
+ */
+public enum InListMode {
+    /**
+     * {@code col IN (?, ?, ...)} with the placeholder count rounded up to a power of two; the extra slots repeat the
+     * last value, which leaves the result unchanged. A list of {@code n} values yields one of
+     * {@code ceil(log2(n)) + 1} statement texts.
+     */
+    BUCKETED,
+    /** {@code col = ANY (?)} with a single {@link SqlArray} bind; one statement text for every list size. */
+    ARRAY
+}
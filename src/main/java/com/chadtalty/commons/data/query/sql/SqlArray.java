@@ -0,0 +1,28 @@
+package com.chadtalty.commons.data.query.sql;
+
+import java.util.Arrays;
+
+/**
+ * Array bind value produced by {@link InListMode#ARRAY}; {@link SqlStatement#bind} turns it into a
+ * {@link java.sql.Array} on the statement's connection.
+ *
+ * @param typeName element type name for {@link java.sql.Connection#createArrayOf}
+ * @param elements converted element values
+ */
+public record SqlArray(String typeName, Object[] elements) {
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SqlArray other && typeName.equals(other.typeName) && Arrays.equals(elements, other.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * typeName.hashCode() + Arrays.hashCode(elements);
+    }
+
+    @Override
+    public String toString() {
+        return typeName + Arrays.toString(elements);
+    }
+}
@@ -0,0 +1,16 @@
+package com.chadtalty.commons.data.query.sql;
+
+/**
+ * SQL syntax differences {@link SqlRenderer} accounts for. Both dialects render {@code LIMIT ? OFFSET ?}.
+ */
+public enum SqlDialect {
+    /**
+     * {@code ORDER BY col ASC NULLS LAST} and {@code = ANY (?)} arrays: PostgreSQL, H2, HSQLDB, SQLite 3.30+.
+     */
+    STANDARD,
+    /**
+     * No {@code NULLS LAST}: each sort field is preceded by a {@code CASE WHEN col IS NULL THEN 1 ELSE 0 END} key,
+     * and {@link InListMode#ARRAY} is unsupported. MySQL, MariaDB.
+     */
+    MYSQL
+}
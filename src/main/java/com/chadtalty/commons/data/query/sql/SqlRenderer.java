@@ -0,0 +1,354 @@
+package com.chadtalty.commons.data.query.sql;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.cache.CacheStats;
+import com.chadtalty.commons.data.query.cache.SegmentedLruCache;
+import com.chadtalty.commons.data.query.eval.Comparison;
+import com.chadtalty.commons.data.query.plan.CanonicalQuery;
+import com.chadtalty.commons.data.query.plan.QueryShape;
+import com.chadtalty.commons.data.query.plan.Slot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders {@link Criteria} as parameterized SQL against an allow-listed {@link SqlSchema}.
+ *
+ * <p>The statement text depends only on the criteria's {@link QueryShape}, the IN-list bucket sizes (see
+ * {@link InListMode}) and whether it is paged, so the number of distinct texts a workload produces stays small and
+ * the database's statement cache stays warm. Rendered texts are memoized per that key in a bounded cache;
+ * rendering a known shape only converts literals into binds.
+ *
+ * <p>Filters are ANDed in canonical slot order, join filters add their join clause once per path, sort fields
+ * render ascending fields first with {@code null}s last (how depends on the {@link SqlDialect}), and
+ * {@link PageableCriteria} adds {@code LIMIT ? OFFSET ?}. Sorted and paged statements end with the schema's
+ * {@link SqlSchema#primaryKey() primary key} unless a sort field already is it; without one registered, the caller
+ * must sort on a unique field for ties and pages to be stable. Cursor pagination is not rendered. Operators are
+ * checked against column types as {@link com.chadtalty.commons.data.query.eval.CriteriaCompiler} checks them
+ * against accessors, so both reject the same criteria.
+ *
+ * <p>Example:
+ * <pre>
+ * SqlRenderer sql = new SqlRenderer(schema, SqlDialect.STANDARD, InListMode.BUCKETED, 1024);
+ * SqlStatement st = sql.render(criteria);
+ * try (PreparedStatement ps = connection.prepareStatement(st.sql())) {
+ *     st.bind(ps);
+ *     ...
+ * }
+ * </pre>
+ */
+public final class SqlRenderer {
+
+    private final SqlSchema schema;
+    private final SqlDialect dialect;
+    private final InListMode inListMode;
+    private final SegmentedLruCache<TemplateKey, Template> templates;
+
+    /** Renderer for {@link SqlDialect#STANDARD}. */
+    public SqlRenderer(SqlSchema schema, InListMode inListMode, int capacity) {
+        this(schema, SqlDialect.STANDARD, inListMode, capacity);
+    }
+
+    public SqlRenderer(SqlSchema schema, SqlDialect dialect, InListMode inListMode, int capacity) {
+        if (schema == null) throw new IllegalArgumentException("schema must not be null");
+        if (dialect == null) throw new IllegalArgumentException("dialect must not be null");
+        if (inListMode == null) throw new IllegalArgumentException("inListMode must not be null");
+        if (dialect == SqlDialect.MYSQL && inListMode == InListMode.ARRAY) {
+            throw new IllegalArgumentException("ARRAY in-lists are not supported by dialect " + dialect);
+        }
+        this.schema = schema;
+        this.dialect = dialect;
+        this.inListMode = inListMode;
+        this.templates = new SegmentedLruCache<>(capacity);
+    }
+
+    /** {@code SELECT} statement; paged when {@code criteria} is a {@link PageableCriteria}. */
+    public SqlStatement render(Criteria criteria) {
+        PageableCriteria paging = criteria instanceof PageableCriteria p ? p : null;
+        if (paging != null) {
+            if (paging.getSize() == null) throw new IllegalArgumentException("size must not be null");
+            if (paging.getCursor() != null) throw new IllegalArgumentException("cursor pagination is not rendered");
+        }
+        CanonicalQuery query = CanonicalQuery.of(criteria);
+        Template template = template(Kind.SELECT, query, paging != null);
+        List<Object> binds = template.bind(query);
+        if (paging != null) {
+            int page = paging.getPage() == null ? 0 : paging.getPage();
+            if (page < 0) throw new IllegalArgumentException("page must be greater than or equal to 0");
+            binds.add(paging.getSize());
+            binds.add((long) page * paging.getSize());
+        }
+        return new SqlStatement(template.sql, binds);
+    }
+
+    /** {@code SELECT COUNT(*)} over the same joins and filters, ignoring sort and paging. */
+    public SqlStatement count(Criteria criteria) {
+        CanonicalQuery query = CanonicalQuery.of(criteria);
+        Template template = template(Kind.COUNT, query, false);
+        return new SqlStatement(template.sql, template.bind(query));
+    }
+
+    /** Statement-text cache counters; {@code size} is the number of distinct texts rendered and retained. */
+    public CacheStats stats() {
+        return templates.stats();
+    }
+
+    /** Smallest power of two {@code >= n}. */
+    static int bucket(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private Template template(Kind kind, CanonicalQuery query, boolean paged) {
+        List<Slot> slots = query.shape().slots();
+        int[] buckets = new int[0];
+        if (inListMode == InListMode.BUCKETED) {
+            int contains = 0;
+            for (Slot s : slots) {
+                if (s.type() == FilterType.CONTAINS) contains++;
+            }
+            buckets = new int[contains];
+            for (int i = 0, b = 0; i < slots.size(); i++) {
+                if (slots.get(i).type() != FilterType.CONTAINS) continue;
+                List<String> values = ((ContainsFilter) query.filter(i)).getValues();
+                if (values == null || values.isEmpty()) {
+                    throw new IllegalArgumentException("contains filter values must not be empty");
+                }
+                buckets[b++] = bucket(values.size());
+            }
+        }
+        return templates.get(new TemplateKey(kind, query.shape(), buckets, paged), this::compile);
+    }
+
+    private Template compile(TemplateKey key) {
+        List<Slot> slots = key.shape.slots();
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("SELECT ").append(key.kind == Kind.COUNT ? "COUNT(*)" : schema.select());
+        sb.append(" FROM ").append(schema.from());
+
+        Set<String> paths = new LinkedHashSet<>();
+        for (Slot s : slots) {
+            if (s.join() != null) paths.add(s.join());
+        }
+        for (String path : paths) {
+            sb.append(' ').append(schema.join(path));
+        }
+
+        SqlType[] types = new SqlType[slots.size()];
+        for (int i = 0, b = 0; i < slots.size(); i++) {
+            Slot s = slots.get(i);
+            SqlSchema.Column column = schema.column(s.qualifiedField());
+            types[i] = column.type();
+            sb.append(i == 0 ? " WHERE " : " AND ").append(column.expression());
+            switch (s.type()) {
+                case BASIC -> {
+                    Comparison op = basic(s.operator());
+                    if (op.isOrdering() && column.type() == SqlType.BOOLEAN) {
+                        String field = s.qualifiedField();
+                        throw new IllegalArgumentException("Ordering operator not supported on field: " + field);
+                    }
+                    sb.append(' ').append(symbol(op)).append(" ?");
+                }
+                case DATE_TIME -> {
+                    temporal(s, column);
+                    sb.append(' ').append(symbol(dateTime(s.operator()))).append(" ?");
+                }
+                case BETWEEN -> {
+                    temporal(s, column);
+                    sb.append(" BETWEEN ? AND ?");
+                }
+                case CONTAINS -> {
+                    if (inListMode == InListMode.ARRAY) {
+                        sb.append(" = ANY (?)");
+                    } else {
+                        sb.append(" IN (?");
+                        for (int k = 1, n = key.buckets[b++]; k < n; k++) {
+                            sb.append(", ?");
+                        }
+                        sb.append(')');
+                    }
+                }
+            }
+        }
+
+        if (key.kind == Kind.SELECT) {
+            String sep = " ORDER BY ";
+            boolean unique = false;
+            for (String f : key.shape.ascending()) {
+                String expression = schema.column(f).expression();
+                orderBy(sb.append(sep), expression, "ASC");
+                unique |= expression.equals(schema.primaryKey());
+                sep = ", ";
+            }
+            for (String f : key.shape.descending()) {
+                String expression = schema.column(f).expression();
+                orderBy(sb.append(sep), expression, "DESC");
+                unique |= expression.equals(schema.primaryKey());
+                sep = ", ";
+            }
+            boolean sorted = !key.shape.ascending().isEmpty() || !key.shape.descending().isEmpty();
+            if (!unique && schema.primaryKey() != null && (sorted || key.paged)) {
+                // the key is never null, so it needs no null ordering
+                sb.append(sep).append(schema.primaryKey()).append(" ASC");
+            }
+        }
+        if (key.paged) sb.append(" LIMIT ? OFFSET ?");
+        return new Template(sb.toString(), slots, types, key.buckets, inListMode);
+    }
+
+    /** One sort key ordering {@code null}s last. */
+    private void orderBy(StringBuilder sb, String expression, String direction) {
+        if (dialect == SqlDialect.STANDARD) {
+            sb.append(expression).append(' ').append(direction).append(" NULLS LAST");
+        } else {
+            sb.append("CASE WHEN ").append(expression).append(" IS NULL THEN 1 ELSE 0 END, ");
+            sb.append(expression).append(' ').append(direction);
+        }
+    }
+
+    private static Comparison basic(String operator) {
+        if (operator == null) throw new IllegalArgumentException("basic filter operator must not be null");
+        return Comparison.of(BasicFilter.Operator.from(operator));
+    }
+
+    private static Comparison dateTime(String operator) {
+        if (operator == null) throw new IllegalArgumentException("date-time filter operator must not be null");
+        return Comparison.of(DateTimeFilter.Operator.from(operator));
+    }
+
+    private static void temporal(Slot s, SqlSchema.Column column) {
+        if (!column.type().isTemporal()) throw new IllegalArgumentException("Field is not temporal: " + s.qualifiedField());
+    }
+
+    private static String symbol(Comparison op) {
+        return switch (op) {
+            case EQ -> "=";
+            case NE -> "<>";
+            case GT -> ">";
+            case GE -> ">=";
+            case LT -> "<";
+            case LE -> "<=";
+        };
+    }
+
+    private enum Kind {
+        SELECT,
+        COUNT
+    }
+
+    /** Memo key: shape plus everything else that changes the text. */
+    private static final class TemplateKey {
+
+        final Kind kind;
+        final QueryShape shape;
+        final int[] buckets;
+        final boolean paged;
+        private final int hash;
+
+        TemplateKey(Kind kind, QueryShape shape, int[] buckets, boolean paged) {
+            this.kind = kind;
+            this.shape = shape;
+            this.buckets = buckets;
+            this.paged = paged;
+            this.hash = ((shape.hashCode() * 31 + Arrays.hashCode(buckets)) * 31 + kind.ordinal()) * 2 + (paged ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TemplateKey k
+                    && hash == k.hash
+                    && kind == k.kind
+                    && paged == k.paged
+                    && Arrays.equals(buckets, k.buckets)
+                    && shape.equals(k.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** Rendered text plus the per-slot conversions needed to produce its binds. */
+    private static final class Template {
+
+        final String sql;
+        private final List<Slot> slots;
+        private final SqlType[] types;
+        private final int[] buckets;
+        private final InListMode inListMode;
+
+        Template(String sql, List<Slot> slots, SqlType[] types, int[] buckets, InListMode inListMode) {
+            this.sql = sql;
+            this.slots = slots;
+            this.types = types;
+            this.buckets = buckets;
+            this.inListMode = inListMode;
+        }
+
+        List<Object> bind(CanonicalQuery query) {
+            List<Object> binds = new ArrayList<>(types.length + 2);
+            for (int i = 0, b = 0; i < types.length; i++) {
+                String field = slots.get(i).qualifiedField();
+                SqlType type = types[i];
+                switch (slots.get(i).type()) {
+                    case BASIC -> {
+                        String v = ((BasicFilter) query.filter(i)).getValue();
+                        if (v == null) throw new IllegalArgumentException("basic filter value must not be null");
+                        binds.add(type.bind(field, v));
+                    }
+                    case DATE_TIME -> {
+                        DateTimeFilter f = (DateTimeFilter) query.filter(i);
+                        if (f.getValue() == null) {
+                            throw new IllegalArgumentException("date-time filter value must not be null");
+                        }
+                        binds.add(type.bind(field, f.getValue()));
+                    }
+                    case BETWEEN -> {
+                        BetweenFilter f = (BetweenFilter) query.filter(i);
+                        if (f.getStartDateTime() == null || f.getEndDateTime() == null) {
+                            throw new IllegalArgumentException("between_filter bounds must not be null");
+                        }
+                        binds.add(type.bind(field, f.getStartDateTime()));
+                        binds.add(type.bind(field, f.getEndDateTime()));
+                    }
+                    case CONTAINS -> {
+                        List<String> values = ((ContainsFilter) query.filter(i)).getValues();
+                        if (values == null || values.isEmpty()) {
+                            throw new IllegalArgumentException("contains filter values must not be empty");
+                        }
+                        if (inListMode == InListMode.ARRAY) {
+                            Object[] elements = new Object[values.size()];
+                            for (int k = 0; k < elements.length; k++) {
+                                elements[k] = type.bind(field, value(values.get(k)));
+                            }
+                            binds.add(new SqlArray(type.getTypeName(), elements));
+                        } else {
+                            Object last = null;
+                            for (String v : values) {
+                                last = type.bind(field, value(v));
+                                binds.add(last);
+                            }
+                            for (int k = values.size(), n = buckets[b++]; k < n; k++) {
+                                binds.add(last);
+                            }
+                        }
+                    }
+                }
+            }
+            return binds;
+        }
+
+        private static String value(String v) {
+            if (v == null) throw new IllegalArgumentException("contains filter values must not contain null");
+            return v;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.chadtalty.commons.data.query.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allow-list mapping request field names and join paths to SQL fragments.
+ *
+ * <p>Only names registered here can reach the rendered text; every other identifier in a
+ * {@link com.chadtalty.commons.data.query.Criteria} is rejected, and all literals travel as binds. Column and join
+ * fragments are trusted, developer-supplied SQL.
+ *
+ * <p>Join filter fields are looked up qualified by their join path ({@code customer.country}), matching
+ * {@link com.chadtalty.commons.data.query.eval.CriteriaCompiler#qualify}.
+ *
+ * <p>Example:
+ * <pre>
+ * SqlSchema schema = SqlSchema.builder("orders o")
+ *     .primaryKey("o.id")
+ *     .column("amount", "o.amount", SqlType.BIGINT)
+ *     .column("created_at", "o.created_at", SqlType.TIMESTAMP)
+ *     .join("customer", "JOIN customers c ON c.id = o.customer_id")
+ *     .column("customer.country", "c.country", SqlType.VARCHAR)
+ *     .build();
+ * </pre>
+ */
+public final class SqlSchema {
+
+    private final String from;
+    private final String select;
+    private final String primaryKey;
+    private final Map<String, Column> columns;
+    private final Map<String, String> joins;
+
+    private SqlSchema(Builder b) {
+        this.from = b.from;
+        this.select = b.select;
+        this.primaryKey = b.primaryKey;
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(b.columns));
+        this.joins = Collections.unmodifiableMap(new LinkedHashMap<>(b.joins));
+    }
+
+    /** Starts a schema selecting from {@code from} (a table, optionally aliased). */
+    public static Builder builder(String from) {
+        return new Builder(from);
+    }
+
+    public String from() {
+        return from;
+    }
+
+    public String select() {
+        return select;
+    }
+
+    /** Unique, non-null key expression that breaks sort ties, or {@code null} when none was registered. */
+    public String primaryKey() {
+        return primaryKey;
+    }
+
+    /** Resolves a field, failing fast on names outside the allow-list. */
+    public Column column(String field) {
+        if (field == null) throw new IllegalArgumentException("filter field must not be null");
+        Column c = columns.get(field);
+        if (c == null) throw new IllegalArgumentException("Unknown field: " + field);
+        return c;
+    }
+
+    /** Resolves a join path to its join clause. */
+    public String join(String path) {
+        String clause = path == null ? null : joins.get(path);
+        if (clause == null) throw new IllegalArgumentException("Unknown join: " + path);
+        return clause;
+    }
+
+    /** Registered field names, in registration order. */
+    public Set<String> fieldNames() {
+        return columns.keySet();
+    }
+
+    /**
+     * An allow-listed column.
+     *
+     * @param expression SQL column expression, e.g. {@code o.amount}
+     * @param type column type
+     */
+    public record Column(String expression, SqlType type) {}
+
+    /** Collects columns and joins; later registrations replace earlier ones. */
+    public static final class Builder {
+
+        private final String from;
+        private String select = "*";
+        private String primaryKey;
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+        private final Map<String, String> joins = new LinkedHashMap<>();
+
+        private Builder(String from) {
+            if (from == null || from.isBlank()) throw new IllegalArgumentException("from must not be blank");
+            this.from = from;
+        }
+
+        /** Select list; defaults to {@code *}. */
+        public Builder select(String select) {
+            if (select == null || select.isBlank()) throw new IllegalArgumentException("select must not be blank");
+            this.select = select;
+            return this;
+        }
+
+        /**
+         * Unique, non-null column expression, e.g. {@code o.id}, appended as the last {@code ORDER BY} key of sorted
+         * and paged statements so rows that tie on the sort fields keep one order across executions and pages.
+         */
+        public Builder primaryKey(String expression) {
+            if (expression == null || expression.isBlank()) {
+                throw new IllegalArgumentException("primary key must not be blank");
+            }
+            this.primaryKey = expression;
+            return this;
+        }
+
+        public Builder column(String field, String expression, SqlType type) {
+            if (field == null || field.isBlank()) throw new IllegalArgumentException("field name must not be blank");
+            if (expression == null || expression.isBlank()) {
+                throw new IllegalArgumentException("column must not be blank for field: " + field);
+            }
+            if (type == null) throw new IllegalArgumentException("type must not be null for field: " + field);
+            columns.put(field, new Column(expression, type));
+            return this;
+        }
+
+        public Builder join(String path, String clause) {
+            if (path == null || path.isBlank()) throw new IllegalArgumentException("join path must not be blank");
+            if (clause == null || clause.isBlank()) {
+                throw new IllegalArgumentException("join clause must not be blank for path: " + path);
+            }
+            joins.put(path, clause);
+            return this;
+        }
+
+        public SqlSchema build() {
+            return new SqlSchema(this);
+        }
+    }
+}
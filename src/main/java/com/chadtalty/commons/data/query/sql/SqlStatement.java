@@ -0,0 +1,32 @@
+package com.chadtalty.commons.data.query.sql;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Parameterized SQL text and its positional bind values.
+ *
+ * @param sql statement text with {@code ?} placeholders; identical for every criteria of the same shape
+ * @param binds one value per placeholder, in order
+ */
+public record SqlStatement(String sql, List<Object> binds) {
+
+    public SqlStatement {
+        binds = List.copyOf(binds);
+    }
+
+    /** Sets every bind on {@code ps}, creating JDBC arrays for {@link SqlArray} values. */
+    public void bind(PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < binds.size(); i++) {
+            Object v = binds.get(i);
+            if (v instanceof SqlArray a) {
+                Array array = ps.getConnection().createArrayOf(a.typeName(), a.elements());
+                ps.setArray(i + 1, array);
+            } else {
+                ps.setObject(i + 1, v);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.chadtalty.commons.data.query.sql;
+
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler.Operands;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Column type of an allow-listed field; decides how filter literals become bind values.
+ *
+ * <p>String operands are parsed exactly as {@link com.chadtalty.commons.data.query.eval.CriteriaCompiler} parses
+ * them for the corresponding accessor kind, so in-memory and SQL evaluation reject the same inputs.
+ */
+public enum SqlType {
+    BIGINT("BIGINT"),
+    DOUBLE("DOUBLE PRECISION"),
+    VARCHAR("VARCHAR"),
+    BOOLEAN("BOOLEAN"),
+    /**
+     * Temporal column without a zone, holding UTC wall-clock values; bound as a {@link LocalDateTime} in UTC, so the
+     * JVM's default time zone never shifts the bind.
+     */
+    TIMESTAMP("TIMESTAMP"),
+    /** Temporal column with a zone; bound as an {@link OffsetDateTime} at UTC. */
+    TIMESTAMPTZ("TIMESTAMP WITH TIME ZONE"),
+    /** Temporal column stored as epoch milliseconds in a {@code BIGINT}. */
+    EPOCH_MILLIS("BIGINT");
+
+    private final String typeName;
+
+    SqlType(String typeName) {
+        this.typeName = typeName;
+    }
+
+    /** SQL type name, as passed to {@link java.sql.Connection#createArrayOf}. */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public boolean isTemporal() {
+        return this == TIMESTAMP || this == TIMESTAMPTZ || this == EPOCH_MILLIS;
+    }
+
+    /** Converts a basic or contains operand. */
+    public Object bind(String field, String value) {
+        return switch (this) {
+            case BIGINT -> Operands.parseLong(field, value);
+            case DOUBLE -> Operands.parseDouble(field, value);
+            case VARCHAR -> value;
+            case BOOLEAN -> Operands.parseBoolean(field, value);
+            case TIMESTAMP, TIMESTAMPTZ, EPOCH_MILLIS -> bind(field, Operands.parseInstant(field, value));
+        };
+    }
+
+    /** Converts a date-time or between operand. */
+    public Object bind(String field, Instant value) {
+        return switch (this) {
+            case TIMESTAMP -> LocalDateTime.ofInstant(value, ZoneOffset.UTC);
+            case TIMESTAMPTZ -> OffsetDateTime.ofInstant(value, ZoneOffset.UTC);
+            case EPOCH_MILLIS -> Operands.epochMilli(field, value);
+            default -> throw new IllegalArgumentException("Field is not temporal: " + field);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.chadtalty.commons.data.query.validation;
+
+import jakarta.validation.ValidationException;
+
+/**
+ * Thrown by {@link CriteriaValidator#validate} for the first constraint a criteria graph violates.
+ */
+public class CriteriaValidationException extends ValidationException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Violation violation;
+
+    public CriteriaValidationException(Violation violation) {
+        super(violation.toString());
+        this.violation = violation;
+    }
+
+    public Violation getViolation() {
+        return violation;
+    }
+}
@@ -0,0 +1,251 @@
+package com.chadtalty.commons.data.query.validation;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.util.List;
+
+/**
+ * Hand-specialized validator for the {@link Criteria} graph, equivalent to the Jakarta constraints declared on the
+ * model but without reflection, regex matching or violation sets.
+ *
+ * <p>Checks run in declaration order ({@code page}, {@code size}, {@code cursorPageConsistent}, then
+ * {@code joins}, {@code filters} and {@code sort}) and stop at the first failure, which is reported with the
+ * property path and message Hibernate Validator produces for the same constraint. A valid graph allocates
+ * nothing.
+ *
+ * <p>Filter types outside this library are only checked against the constraint {@link Filter} itself declares
+ * ({@code field} not blank).
+ */
+public final class CriteriaValidator {
+
+    /** Mirrors {@code @Pattern(regexp = "[A-Za-z0-9_\\.]+")} on field names. */
+    static final String FIELD_PATTERN_MESSAGE = "field must be alphanumeric with dots/underscores";
+
+    /** Bits 0-63 and 64-127 of the ASCII characters allowed in field names. */
+    private static final long FIELD_CHARS_LO;
+
+    private static final long FIELD_CHARS_HI;
+
+    static {
+        long lo = 0, hi = 0;
+        for (char c = 0; c < 128; c++) {
+            boolean allowed = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '_' || c == '.';
+            if (!allowed) continue;
+            if (c < 64) lo |= 1L << c;
+            else hi |= 1L << (c - 64);
+        }
+        FIELD_CHARS_LO = lo;
+        FIELD_CHARS_HI = hi;
+    }
+
+    private static final Violation PAGE_NULL = new Violation("page", "must not be null");
+    private static final Violation PAGE_MIN = new Violation("page", "must be greater than or equal to 0");
+    private static final Violation SIZE_NULL = new Violation("size", "must not be null");
+    private static final Violation SIZE_MIN = new Violation("size", "must be greater than or equal to 1");
+    private static final Violation SIZE_MAX = new Violation("size", "must be less than or equal to 500");
+    private static final Violation CURSOR_PAGE =
+            new Violation("cursorPageConsistent", "page must be 0 when a cursor is given");
+
+    private static final Violation JOIN_BLANK = new Violation("join", "JoinSpec join must not be blank");
+    private static final Violation FIELD_PATTERN = new Violation("field", FIELD_PATTERN_MESSAGE);
+    private static final Violation FIELD_BLANK = new Violation("field", "must not be blank");
+
+    private static final Violation BASIC_FIELD = new Violation("field", "basic filter field must not be blank");
+    private static final Violation BASIC_OPERATOR = new Violation("operator", "basic filter operator must not be null");
+    private static final Violation BASIC_VALUE = new Violation("value", "basic filter value must not be blank");
+
+    private static final Violation BETWEEN_OPERATOR =
+            new Violation("operator", "between_filter operator must not be null");
+    private static final Violation BETWEEN_FIELD = new Violation("field", "between_filter field must not be blank");
+    private static final Violation BETWEEN_START =
+            new Violation("startDateTime", "between_filter start_date_time must not be null");
+    private static final Violation BETWEEN_END =
+            new Violation("endDateTime", "between_filter end_date_time must not be null");
+    private static final Violation BETWEEN_RANGE =
+            new Violation("validRange", "start_date_time must be before or equal to end_date_time");
+
+    private static final Violation CONTAINS_OPERATOR =
+            new Violation("operator", "contains filter operator must not be null");
+    private static final Violation CONTAINS_FIELD = new Violation("field", "contains filter field must not be blank");
+    private static final Violation CONTAINS_VALUES =
+            new Violation("values", "contains filter values must not be empty");
+
+    private static final Violation DATE_TIME_FIELD = new Violation("field", "date-time filter field must not be blank");
+    private static final Violation DATE_TIME_OPERATOR =
+            new Violation("operator", "date-time filter operator must not be null");
+    private static final Violation DATE_TIME_VALUE = new Violation("value", "date-time filter value must not be null");
+
+    private static final Violation SORT_DISJOINT =
+            new Violation("sort.disjoint", "ascending and descending sets must be disjoint");
+
+    private CriteriaValidator() {}
+
+    /**
+     * Throws {@link CriteriaValidationException} for the first violated constraint.
+     *
+     * @throws IllegalArgumentException if {@code criteria} is {@code null}
+     */
+    public static void validate(Criteria criteria) {
+        Violation v = firstViolation(criteria);
+        if (v != null) throw new CriteriaValidationException(v);
+    }
+
+    /**
+     * Returns the first violated constraint, or {@code null} when the graph is valid.
+     * {@link PageableCriteria} is recognized and its paging constraints are checked first.
+     *
+     * @throws IllegalArgumentException if {@code criteria} is {@code null}
+     */
+    public static Violation firstViolation(Criteria criteria) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        Instrumentation.Span span = Instrumentation.begin(Stage.VALIDATE);
+        try {
+            return check(criteria);
+        } finally {
+            if (span != null) span.end(criteria);
+        }
+    }
+
+    private static Violation check(Criteria criteria) {
+        if (criteria instanceof PageableCriteria p) {
+            Violation v = paging(p);
+            if (v != null) return v;
+        }
+        Violation v = joins(criteria.getJoins());
+        if (v != null) return v;
+        v = filters(criteria.getFilters());
+        if (v != null) return v;
+        return sort(criteria.getSort());
+    }
+
+    /** Returns the first violated constraint of a single filter, with paths relative to the filter. */
+    public static Violation firstViolation(Filter filter) {
+        if (filter == null) throw new IllegalArgumentException("filter must not be null");
+        return filter(filter);
+    }
+
+    /** Equivalent of {@code @Pattern(regexp = "[A-Za-z0-9_\\.]+")}: non-empty, ASCII letters, digits, '_' and '.'. */
+    public static boolean isFieldName(CharSequence s) {
+        int n = s.length();
+        if (n == 0) return false;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 128) return false;
+            long mask = c < 64 ? FIELD_CHARS_LO : FIELD_CHARS_HI;
+            if ((mask & (1L << c)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** {@code @NotBlank}: not null and not empty after {@link String#trim()}. */
+    static boolean isBlank(CharSequence s) {
+        if (s == null) return true;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            if (s.charAt(i) > ' ') return false;
+        }
+        return true;
+    }
+
+    private static Violation paging(PageableCriteria p) {
+        Integer page = p.getPage();
+        if (page == null) return PAGE_NULL;
+        if (page < 0) return PAGE_MIN;
+        Integer size = p.getSize();
+        if (size == null) return SIZE_NULL;
+        if (size < 1) return SIZE_MIN;
+        if (size > 500) return SIZE_MAX;
+        if (!p.isCursorPageConsistent()) return CURSOR_PAGE;
+        return null;
+    }
+
+    private static Violation joins(List<JoinSpec> joins) {
+        if (joins == null) return null;
+        for (int i = 0, n = joins.size(); i < n; i++) {
+            JoinSpec j = joins.get(i);
+            if (j == null) continue;
+            if (isBlank(j.getJoin())) return JOIN_BLANK.under("joins[" + i + "]");
+            Filter f = j.getFilter();
+            if (f == null) continue;
+            Violation v = filter(f);
+            if (v != null) return v.under("joins[" + i + "].filter");
+        }
+        return null;
+    }
+
+    private static Violation filters(List<Filter> filters) {
+        if (filters == null) return null;
+        for (int i = 0, n = filters.size(); i < n; i++) {
+            Filter f = filters.get(i);
+            if (f == null) continue;
+            Violation v = filter(f);
+            if (v != null) return v.under("filters[" + i + "]");
+        }
+        return null;
+    }
+
+    private static Violation filter(Filter f) {
+        if (f instanceof BasicFilter b) {
+            Violation v = field(b.getField(), BASIC_FIELD);
+            if (v != null) return v;
+            if (b.getOperator() == null) return BASIC_OPERATOR;
+            return isBlank(b.getValue()) ? BASIC_VALUE : null;
+        }
+        if (f instanceof DateTimeFilter d) {
+            Violation v = field(d.getField(), DATE_TIME_FIELD);
+            if (v != null) return v;
+            if (d.getOperator() == null) return DATE_TIME_OPERATOR;
+            return d.getValue() == null ? DATE_TIME_VALUE : null;
+        }
+        if (f instanceof BetweenFilter b) {
+            if (b.getOperator() == null) return BETWEEN_OPERATOR;
+            Violation v = field(b.getField(), BETWEEN_FIELD);
+            if (v != null) return v;
+            if (b.getStartDateTime() == null) return BETWEEN_START;
+            if (b.getEndDateTime() == null) return BETWEEN_END;
+            return b.isValidRange() ? null : BETWEEN_RANGE;
+        }
+        if (f instanceof ContainsFilter c) {
+            if (c.getOperator() == null) return CONTAINS_OPERATOR;
+            Violation v = field(c.getField(), CONTAINS_FIELD);
+            if (v != null) return v;
+            return c.getValues() == null || c.getValues().isEmpty() ? CONTAINS_VALUES : null;
+        }
+        return isBlank(f.getField()) ? FIELD_BLANK : null;
+    }
+
+    /** {@code @NotBlank(message = ...)} followed by the field-name pattern ({@code null} passes the pattern). */
+    private static Violation field(String field, Violation blank) {
+        if (isBlank(field)) return blank;
+        return isFieldName(field) ? null : FIELD_PATTERN;
+    }
+
+    private static Violation sort(SortSpec sort) {
+        if (sort == null) return null;
+        Violation v = sortFields(sort.getAscending(), "sort.ascending");
+        if (v != null) return v;
+        v = sortFields(sort.getDescending(), "sort.descending");
+        if (v != null) return v;
+        return SortSpec.disjoint(sort.getAscending(), sort.getDescending()) ? null : SORT_DISJOINT;
+    }
+
+    private static Violation sortFields(List<String> fields, String path) {
+        if (fields == null) return null;
+        for (int i = 0, n = fields.size(); i < n; i++) {
+            String f = fields.get(i);
+            if (f != null && !isFieldName(f)) {
+                return new Violation(path + "[" + i + "].<list element>", FIELD_PATTERN_MESSAGE);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.chadtalty.commons.data.query.validation;
+
+/**
+ * A single constraint failure, reported with the same property path and message Bean Validation would use.
+ *
+ * @param path property path, e.g. {@code filters[0].field} or {@code sort.ascending[1].<list element>}
+ * @param message constraint message
+ */
+public record Violation(String path, String message) {
+
+    /** This violation nested under {@code prefix}. */
+    Violation under(String prefix) {
+        return new Violation(prefix + "." + path, message);
+    }
+
+    @Override
+    public String toString() {
+        return path + ": " + message;
+    }
+}
@@ -0,0 +1,538 @@
+package com.chadtalty.commons.data.query.wire;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of {@link Criteria} and {@link PageableCriteria} for service-to-service calls.
+ *
+ * <p>A message is a version byte, a kind byte ({@code 0} criteria, {@code 1} pageable criteria), the paging
+ * values, then joins, filters and sort in model order. Counts and lengths are unsigned varints, with {@code 0}
+ * meaning {@code null} and {@code n + 1} meaning {@code n}, so null and empty stay distinct. Filter types and
+ * operators are single bytes: {@code 0} for {@code null}, otherwise the constant's declaration order plus one.
+ * Instants are a tag byte and a zigzag varint of epoch milliseconds, or epoch seconds plus nanos when they are
+ * not millisecond-aligned. Field names, join paths and sort fields go through a per-message dictionary: the first
+ * occurrence is written inline and later ones as a back-reference. Values are length-prefixed UTF-8.
+ *
+ * <p>Decoding yields a model equal to the encoded one, so a payload read from JSON re-serializes to the same JSON.
+ * Messages are read and written in place on a {@link ByteBuffer}, one after another; a message that does not fit
+ * or does not parse leaves the buffer position unchanged.
+ *
+ * <p>Example:
+ * <pre>
+ * byte[] bytes = CriteriaCodec.encode(criteria);
+ * Criteria copy = CriteriaCodec.decode(bytes);
+ * </pre>
+ */
+public final class CriteriaCodec {
+
+    /** Format version written as the first byte of every message. */
+    public static final byte VERSION = 1;
+
+    private static final byte KIND_CRITERIA = 0;
+    private static final byte KIND_PAGEABLE = 1;
+
+    private static final byte INSTANT_NULL = 0;
+    private static final byte INSTANT_MILLIS = 1;
+    private static final byte INSTANT_NANOS = 2;
+
+    private static final BasicFilter.Operator[] BASIC_OPERATORS = BasicFilter.Operator.values();
+    private static final DateTimeFilter.Operator[] DATE_TIME_OPERATORS = DateTimeFilter.Operator.values();
+
+    private CriteriaCodec() {}
+
+    /** Encodes {@code criteria} into a new array of exactly the message length. */
+    public static byte[] encode(Criteria criteria) {
+        ByteBuffer buf = ByteBuffer.allocate(256);
+        while (true) {
+            try {
+                encode(criteria, buf);
+                return Arrays.copyOf(buf.array(), buf.position());
+            } catch (BufferOverflowException e) {
+                buf = ByteBuffer.allocate(buf.capacity() << 1);
+            }
+        }
+    }
+
+    /**
+     * Writes one message at {@code out}'s position and advances it.
+     *
+     * @throws BufferOverflowException if the message does not fit; the position is left unchanged
+     */
+    public static void encode(Criteria criteria, ByteBuffer out) {
+        if (criteria == null) throw new IllegalArgumentException("criteria must not be null");
+        if (criteria.getClass() != Criteria.class
+                && criteria.getClass() != PageableCriteria.class
+                && !criteria.isFrozen()) {
+            throw new IllegalArgumentException("Unsupported criteria type: " + criteria.getClass().getName());
+        }
+        int start = out.position();
+        try {
+            new Writer(out).criteria(criteria);
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            throw e;
+        }
+    }
+
+    /** Decodes a message that spans all of {@code bytes}. */
+    public static Criteria decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        Criteria criteria = decode(in);
+        if (in.hasRemaining()) throw malformed("trailing bytes");
+        return criteria;
+    }
+
+    /**
+     * Reads one message at {@code in}'s position and advances past it.
+     *
+     * @throws IllegalArgumentException if the message is truncated, malformed or of another version; the position
+     *     is left unchanged
+     */
+    public static Criteria decode(ByteBuffer in) {
+        int start = in.position();
+        try {
+            return new Reader(in).criteria();
+        } catch (BufferUnderflowException e) {
+            in.position(start);
+            throw malformed("truncated");
+        } catch (IllegalArgumentException e) {
+            in.position(start);
+            throw e;
+        }
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed criteria message: " + reason);
+    }
+
+    private static final class Writer {
+
+        private final ByteBuffer out;
+        private String[] names = new String[8];
+        private int nameCount;
+        /** Name index once the dictionary outgrows a linear scan. */
+        private Map<String, Integer> nameIndex;
+
+        Writer(ByteBuffer out) {
+            this.out = out;
+        }
+
+        void criteria(Criteria c) {
+            out.put(VERSION);
+            if (c instanceof PageableCriteria p) {
+                out.put(KIND_PAGEABLE);
+                nullableInt(p.getPage());
+                nullableInt(p.getSize());
+                string(p.getCursor());
+            } else {
+                out.put(KIND_CRITERIA);
+            }
+            List<JoinSpec> joins = c.getJoins();
+            count(joins);
+            if (joins != null) {
+                for (JoinSpec j : joins) {
+                    out.put((byte) (j == null ? 0 : 1));
+                    if (j != null) {
+                        name(j.getJoin());
+                        filter(j.getFilter());
+                    }
+                }
+            }
+            List<Filter> filters = c.getFilters();
+            count(filters);
+            if (filters != null) {
+                for (Filter f : filters) {
+                    filter(f);
+                }
+            }
+            SortSpec sort = c.getSort();
+            out.put((byte) (sort == null ? 0 : 1));
+            if (sort != null) {
+                names(sort.getAscending());
+                names(sort.getDescending());
+            }
+        }
+
+        private void filter(Filter f) {
+            if (f == null) {
+                out.put((byte) 0);
+                return;
+            }
+            if (f instanceof BasicFilter b) {
+                out.put((byte) 1);
+                name(b.getField());
+                operator(b.getOperator());
+                string(b.getValue());
+            } else if (f instanceof DateTimeFilter d) {
+                out.put((byte) 2);
+                name(d.getField());
+                operator(d.getOperator());
+                instant(d.getValue());
+            } else if (f instanceof BetweenFilter b) {
+                out.put((byte) 3);
+                name(b.getField());
+                instant(b.getStartDateTime());
+                instant(b.getEndDateTime());
+            } else if (f instanceof ContainsFilter c) {
+                out.put((byte) 4);
+                name(c.getField());
+                List<String> values = c.getValues();
+                count(values);
+                if (values != null) {
+                    for (String v : values) {
+                        string(v);
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Unsupported filter type: " + f.getClass().getName());
+            }
+        }
+
+        private void operator(Enum<?> op) {
+            out.put((byte) (op == null ? 0 : op.ordinal() + 1));
+        }
+
+        private void instant(Instant v) {
+            if (v == null) {
+                out.put(INSTANT_NULL);
+            } else if (v.getNano() % 1_000_000 == 0 && Math.abs(v.getEpochSecond()) < Long.MAX_VALUE / 1000) {
+                out.put(INSTANT_MILLIS);
+                varLong(zigzag(v.toEpochMilli()));
+            } else {
+                out.put(INSTANT_NANOS);
+                varLong(zigzag(v.getEpochSecond()));
+                varLong(v.getNano());
+            }
+        }
+
+        private void names(List<String> list) {
+            count(list);
+            if (list != null) {
+                for (String s : list) {
+                    name(s);
+                }
+            }
+        }
+
+        /** {@code 0} null, {@code 1} new entry followed by its text, {@code i + 2} dictionary entry {@code i}. */
+        private void name(String s) {
+            if (s == null) {
+                out.put((byte) 0);
+                return;
+            }
+            int i = indexOf(s);
+            if (i >= 0) {
+                varLong(i + 2L);
+                return;
+            }
+            out.put((byte) 1);
+            text(s, 0);
+            if (nameCount == names.length) names = Arrays.copyOf(names, nameCount << 1);
+            if (nameIndex != null) nameIndex.put(s, nameCount);
+            names[nameCount++] = s;
+        }
+
+        private int indexOf(String s) {
+            if (nameIndex != null) return nameIndex.getOrDefault(s, -1);
+            for (int i = 0; i < nameCount; i++) {
+                if (names[i].equals(s)) return i;
+            }
+            if (nameCount >= 16) {
+                nameIndex = new HashMap<>();
+                for (int i = 0; i < nameCount; i++) {
+                    nameIndex.putIfAbsent(names[i], i);
+                }
+            }
+            return -1;
+        }
+
+        private void count(List<?> list) {
+            varLong(list == null ? 0 : list.size() + 1L);
+        }
+
+        private void nullableInt(Integer v) {
+            varLong(v == null ? 0 : zigzag(v) + 1);
+        }
+
+        private void string(String s) {
+            if (s == null) {
+                out.put((byte) 0);
+            } else {
+                text(s, 1);
+            }
+        }
+
+        /**
+         * Writes {@code s} as UTF-8 prefixed by its byte length plus {@code bias}. Strings are assumed ASCII and
+         * copied char by char (straight into the backing array when there is one); the first non-ASCII char rewinds
+         * and re-encodes the string with {@link String#getBytes}.
+         */
+        private void text(String s, int bias) {
+            int n = s.length();
+            int start = out.position();
+            varLong((long) n + bias);
+            if (out.remaining() < n) throw new BufferOverflowException();
+            int p = out.position();
+            if (out.hasArray()) {
+                byte[] a = out.array();
+                int off = out.arrayOffset() + p;
+                for (int i = 0; i < n; i++) {
+                    char ch = s.charAt(i);
+                    if (ch >= 0x80) {
+                        nonAscii(s, bias, start);
+                        return;
+                    }
+                    a[off + i] = (byte) ch;
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    char ch = s.charAt(i);
+                    if (ch >= 0x80) {
+                        nonAscii(s, bias, start);
+                        return;
+                    }
+                    out.put(p + i, (byte) ch);
+                }
+            }
+            out.position(p + n);
+        }
+
+        private void nonAscii(String s, int bias, int start) {
+            out.position(start);
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            varLong((long) b.length + bias);
+            out.put(b);
+        }
+
+        private void varLong(long v) {
+            while ((v & ~0x7FL) != 0) {
+                out.put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.put((byte) v);
+        }
+
+        private static long zigzag(long v) {
+            return (v << 1) ^ (v >> 63);
+        }
+    }
+
+    private static final class Reader {
+
+        private final ByteBuffer in;
+        private String[] names = new String[8];
+        private int nameCount;
+
+        Reader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        Criteria criteria() {
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported criteria message version: " + version);
+            }
+            Criteria c;
+            byte kind = in.get();
+            if (kind == KIND_PAGEABLE) {
+                Integer page = nullableInt();
+                Integer size = nullableInt();
+                c = new PageableCriteria(page, size, string());
+            } else if (kind == KIND_CRITERIA) {
+                c = new Criteria();
+            } else {
+                throw malformed("unknown kind " + kind);
+            }
+            int joins = count();
+            if (joins >= 0) {
+                List<JoinSpec> list = new ArrayList<>(joins);
+                for (int i = 0; i < joins; i++) {
+                    if (in.get() == 0) {
+                        list.add(null);
+                    } else {
+                        String join = name();
+                        list.add(new JoinSpec(join, filter()));
+                    }
+                }
+                c.setJoins(list);
+            }
+            int filters = count();
+            if (filters >= 0) {
+                List<Filter> list = new ArrayList<>(filters);
+                for (int i = 0; i < filters; i++) {
+                    list.add(filter());
+                }
+                c.setFilters(list);
+            }
+            if (in.get() != 0) {
+                List<String> ascending = names();
+                c.setSort(new SortSpec(ascending, names()));
+            }
+            return c;
+        }
+
+        private Filter filter() {
+            byte type = in.get();
+            switch (type) {
+                case 0:
+                    return null;
+                case 1: {
+                    BasicFilter f = new BasicFilter();
+                    f.setField(name());
+                    f.setOperator(operator(BASIC_OPERATORS));
+                    f.setValue(string());
+                    return f;
+                }
+                case 2: {
+                    DateTimeFilter f = new DateTimeFilter();
+                    f.setField(name());
+                    f.setOperator(operator(DATE_TIME_OPERATORS));
+                    f.setValue(instant());
+                    return f;
+                }
+                case 3: {
+                    BetweenFilter f = new BetweenFilter();
+                    f.setField(name());
+                    f.setStartDateTime(instant());
+                    f.setEndDateTime(instant());
+                    return f;
+                }
+                case 4: {
+                    ContainsFilter f = new ContainsFilter();
+                    f.setField(name());
+                    int n = count();
+                    if (n >= 0) {
+                        List<String> values = new ArrayList<>(n);
+                        for (int i = 0; i < n; i++) {
+                            values.add(string());
+                        }
+                        f.setValues(values);
+                    }
+                    return f;
+                }
+                default:
+                    throw malformed("unknown filter type " + type);
+            }
+        }
+
+        private <E extends Enum<E>> E operator(E[] constants) {
+            int code = in.get() & 0xFF;
+            if (code == 0) return null;
+            if (code > constants.length) throw malformed("unknown operator " + code);
+            return constants[code - 1];
+        }
+
+        private Instant instant() {
+            byte tag = in.get();
+            return switch (tag) {
+                case INSTANT_NULL -> null;
+                case INSTANT_MILLIS -> Instant.ofEpochMilli(unzigzag(varLong()));
+                case INSTANT_NANOS -> {
+                    long seconds = unzigzag(varLong());
+                    long nanos = varLong();
+                    if (nanos < 0 || nanos >= 1_000_000_000L) throw malformed("nanos out of range");
+                    try {
+                        yield Instant.ofEpochSecond(seconds, nanos);
+                    } catch (DateTimeException e) {
+                        throw malformed("instant out of range");
+                    }
+                }
+                default -> throw malformed("unknown instant tag " + tag);
+            };
+        }
+
+        private List<String> names() {
+            int n = count();
+            if (n < 0) return null;
+            List<String> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                list.add(name());
+            }
+            return list;
+        }
+
+        private String name() {
+            long code = varLong();
+            if (code == 0) return null;
+            if (code == 1) {
+                String s = text(length(varLong()));
+                if (nameCount == names.length) names = Arrays.copyOf(names, nameCount << 1);
+                names[nameCount++] = s;
+                return s;
+            }
+            if (code < 0 || code - 2 >= nameCount) throw malformed("unknown name reference " + (code - 2));
+            return names[(int) (code - 2)];
+        }
+
+        /** Element count, or {@code -1} for a {@code null} list. */
+        private int count() {
+            long v = varLong();
+            return v == 0 ? -1 : length(v - 1);
+        }
+
+        private Integer nullableInt() {
+            long v = varLong();
+            if (v == 0) return null;
+            long n = unzigzag(v - 1);
+            if (n != (int) n) throw malformed("integer out of range");
+            return (int) n;
+        }
+
+        private String string() {
+            long v = varLong();
+            return v == 0 ? null : text(length(v - 1));
+        }
+
+        /** A length or count, which can never exceed the bytes left. */
+        private int length(long v) {
+            if (v < 0 || v > in.remaining()) throw new BufferUnderflowException();
+            return (int) v;
+        }
+
+        private String text(int len) {
+            String s;
+            if (in.hasArray()) {
+                s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+                in.position(in.position() + len);
+            } else {
+                byte[] b = new byte[len];
+                in.get(b);
+                s = new String(b, StandardCharsets.UTF_8);
+            }
+            return s;
+        }
+
+        private long varLong() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.get();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw malformed("varint too long");
+        }
+
+        private static long unzigzag(long v) {
+            return (v >>> 1) ^ -(v & 1);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.chadtalty.commons.data.query.kernel;
+
+import com.chadtalty.commons.data.query.eval.Comparison;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernels over the platform's preferred species (4 longs with AVX2, 8 with AVX-512). Each compare yields
+ * a lane mask whose {@link VectorMask#toLong()} bits are shifted into place; lane counts are powers of two no
+ * larger than 64, so a vector never straddles two mask words. The tail runs as one masked vector.
+ *
+ * <p>Loaded only through {@link Kernels}; the constructor fails on platforms without multi-lane vectors, where
+ * the scalar kernels are faster.
+ */
+final class VectorKernels implements FilterKernels {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorKernels() {
+        if (LONGS.length() < 2 || DOUBLES.length() < 2) {
+            throw new IllegalStateException("no multi-lane vector species on this platform");
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + LONGS.vectorBitSize();
+    }
+
+    @Override
+    public void compare(long[] values, int from, int length, Comparison op, long x, long[] mask) {
+        Kernels.prepare(values.length, from, length, mask);
+        int bound = LONGS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            mask[i >>> 6] |= test(LongVector.fromArray(LONGS, values, from + i), op, x).toLong() << i;
+        }
+        if (i < length) {
+            VectorMask<Long> live = LONGS.indexInRange(i, length);
+            mask[i >>> 6] |= test(LongVector.fromArray(LONGS, values, from + i, live), op, x).and(live).toLong() << i;
+        }
+    }
+
+    @Override
+    public void compare(double[] values, int from, int length, Comparison op, double x, long[] mask) {
+        Kernels.prepare(values.length, from, length, mask);
+        int bound = DOUBLES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            mask[i >>> 6] |= test(DoubleVector.fromArray(DOUBLES, values, from + i), op, x).toLong() << i;
+        }
+        if (i < length) {
+            VectorMask<Double> live = DOUBLES.indexInRange(i, length);
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, values, from + i, live);
+            mask[i >>> 6] |= test(v, op, x).and(live).toLong() << i;
+        }
+    }
+
+    @Override
+    public void between(long[] values, int from, int length, long lo, long hi, long[] mask) {
+        Kernels.prepare(values.length, from, length, mask);
+        int bound = LONGS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector v = LongVector.fromArray(LONGS, values, from + i);
+            long bits = v.compare(VectorOperators.GE, lo).and(v.compare(VectorOperators.LE, hi)).toLong();
+            mask[i >>> 6] |= bits << i;
+        }
+        if (i < length) {
+            VectorMask<Long> live = LONGS.indexInRange(i, length);
+            LongVector v = LongVector.fromArray(LONGS, values, from + i, live);
+            long bits = v.compare(VectorOperators.GE, lo, live).and(v.compare(VectorOperators.LE, hi)).toLong();
+            mask[i >>> 6] |= bits << i;
+        }
+    }
+
+    /*
+     * The operator must reach each compare as a constant for C2 to intrinsify it; a VectorOperators.Comparison
+     * passed in from outside falls back to the (much slower) Java implementation. The switch is loop-invariant.
+     */
+
+    private static VectorMask<Long> test(LongVector v, Comparison op, long x) {
+        return switch (op) {
+            case EQ -> v.compare(VectorOperators.EQ, x);
+            case NE -> v.compare(VectorOperators.NE, x);
+            case GT -> v.compare(VectorOperators.GT, x);
+            case GE -> v.compare(VectorOperators.GE, x);
+            case LT -> v.compare(VectorOperators.LT, x);
+            case LE -> v.compare(VectorOperators.LE, x);
+        };
+    }
+
+    private static VectorMask<Double> test(DoubleVector v, Comparison op, double x) {
+        return switch (op) {
+            case EQ -> v.compare(VectorOperators.EQ, x);
+            case NE -> v.compare(VectorOperators.NE, x);
+            case GT -> v.compare(VectorOperators.GT, x);
+            case GE -> v.compare(VectorOperators.GE, x);
+            case LT -> v.compare(VectorOperators.LT, x);
+            case LE -> v.compare(VectorOperators.LE, x);
+        };
+    }
+}
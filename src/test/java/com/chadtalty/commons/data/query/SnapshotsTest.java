@@ -0,0 +1,62 @@
+package com.chadtalty.commons.data.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** The frozen-filter pool shares recurring filters, stays bounded, and is not flushed by one-off filters. */
+class SnapshotsTest {
+
+    @Test
+    void heavyFiltersAreNotPooled() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < Snapshots.MAX_POOLED_WEIGHT; i++) {
+            values.add("heavy-" + i);
+        }
+        ContainsFilter first = new ContainsFilter("status", values).freeze();
+        ContainsFilter second = new ContainsFilter("status", values).freeze();
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void oneOffFiltersDoNotEvictRecurringOnes() {
+        // the pool is shared with the other tests, so only rely on what this test freezes itself
+        BasicFilter pooled = new BasicFilter("pooled", BasicFilter.Operator.EQUAL, "0").freeze();
+        assertSame(pooled, new BasicFilter("pooled", BasicFilter.Operator.EQUAL, "0").freeze());
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 10 * Snapshots.POOL_SIZE; i++) {
+            new DateTimeFilter("at", DateTimeFilter.Operator.AFTER, now.plusMillis(i)).freeze();
+            assertTrue(Snapshots.pooled() <= Snapshots.POOL_SIZE);
+        }
+
+        assertSame(pooled, new BasicFilter("pooled", BasicFilter.Operator.EQUAL, "0").freeze());
+        ContainsFilter late = new ContainsFilter("late", List.of("a", "b", "c"));
+        assertSame(late.freeze(), late.freeze());
+    }
+
+    @Test
+    void snapshotsCompareByValue() {
+        SortSpec sort = new SortSpec(List.of("a"), List.of("b"));
+        SortSpec frozen = sort.freeze();
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(new BasicFilter("x", BasicFilter.Operator.EQUAL, "1")));
+        criteria.setSort(sort);
+
+        assertEquals(sort, frozen);
+        assertEquals(frozen, sort);
+        assertEquals(frozen, new SortSpec(List.of("a"), List.of("b")).freeze());
+        assertNotEquals(frozen, new SortSpec(List.of("b"), List.of("a")).freeze());
+        assertEquals(criteria.freeze(), criteria.freeze());
+        assertEquals(criteria.freeze().hashCode(), criteria.hashCode());
+        assertNotEquals(criteria.freeze(), new Criteria().freeze());
+    }
+}
@@ -0,0 +1,39 @@
+package com.chadtalty.commons.data.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/** Epoch-millisecond accessors of the temporal filters fail with {@link IllegalArgumentException}. */
+class TemporalFilterTest {
+
+    @Test
+    void floorsSubMillisecondDigits() {
+        Instant at = Instant.ofEpochSecond(-1, 999_999);
+        assertEquals(-1000, new DateTimeFilter("at", DateTimeFilter.Operator.AFTER, at).getValueEpochMilli());
+        BetweenFilter between = new BetweenFilter("at", at, Instant.ofEpochMilli(5));
+        assertEquals(-1000, between.getStartEpochMilli());
+        assertEquals(5, between.getEndEpochMilli());
+    }
+
+    @Test
+    void rejectsMissingValues() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new DateTimeFilter("at", DateTimeFilter.Operator.AFTER, null).getValueEpochMilli());
+        assertEquals("date-time filter value must not be null", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new BetweenFilter("at", null, null).getStartEpochMilli());
+        assertThrows(IllegalArgumentException.class, () -> new BetweenFilter("at", null, null).getEndEpochMilli());
+    }
+
+    @Test
+    void rejectsInstantsOutsideTheMillisecondRange() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new DateTimeFilter("at", DateTimeFilter.Operator.AFTER, Instant.MAX).getValueEpochMilli());
+        assertEquals("Value for field at is outside the epoch-millisecond range: " + Instant.MAX, e.getMessage());
+        BetweenFilter between = new BetweenFilter("at", Instant.MIN, Instant.MAX).freeze();
+        assertThrows(IllegalArgumentException.class, between::getStartEpochMilli);
+        assertThrows(IllegalArgumentException.class, between::getEndEpochMilli);
+    }
+}
@@ -0,0 +1,224 @@
+package com.chadtalty.commons.data.query.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.admission.AdmissionController.Permit;
+import com.chadtalty.commons.data.query.admission.AdmissionException.Reason;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/** Grant order, tenant quotas and every failure reason, with waiters parked on their own threads. */
+class AdmissionControllerTest {
+
+    private static final long WAIT = 5;
+
+    @Test
+    void headOfLineBlocksCheaperQueriesBehindIt() throws Exception {
+        AdmissionController admission =
+                AdmissionController.builder().capacity(10).maxWait(Duration.ofSeconds(WAIT)).build();
+        Permit running = admission.acquire("a", cost(6), QueryContext.unbounded());
+
+        CompletableFuture<Permit> expensive = queue(admission, "b", 6, QueryContext.unbounded(), 1);
+        CompletableFuture<Permit> cheap = queue(admission, "c", 1, QueryContext.unbounded(), 2);
+        assertEquals(4, admission.available());
+        assertFalse(cheap.isDone(), "a cheap query must not overtake the queued head");
+
+        running.close();
+        Permit first = expensive.get(WAIT, TimeUnit.SECONDS);
+        Permit second = cheap.get(WAIT, TimeUnit.SECONDS);
+        assertEquals(3, admission.available());
+        assertEquals(0, admission.queued());
+
+        first.close();
+        second.close();
+        second.close();
+        assertEquals(10, admission.available());
+    }
+
+    @Test
+    void waitersHeldBackByTheirTenantQuotaAreSkipped() throws Exception {
+        AdmissionController admission = AdmissionController.builder()
+                .capacity(10)
+                .tenantQuota("noisy", 5)
+                .maxWait(Duration.ofSeconds(WAIT))
+                .build();
+        Permit noisy = admission.acquire("noisy", cost(5), QueryContext.unbounded());
+        CompletableFuture<Permit> blocked = queue(admission, "noisy", 2, QueryContext.unbounded(), 1);
+
+        Permit quiet = admission.acquire("quiet", cost(3), QueryContext.unbounded());
+        assertEquals(3, admission.held("quiet"));
+        assertFalse(blocked.isDone());
+
+        noisy.close();
+        blocked.get(WAIT, TimeUnit.SECONDS).close();
+        quiet.close();
+        assertEquals(0, admission.held("noisy"));
+        assertEquals(10, admission.available());
+    }
+
+    @Test
+    void tooExpensiveFailsBeforeQueueing() {
+        AdmissionController admission =
+                AdmissionController.builder().capacity(10).maxQueryPermits(4).tenantQuota("small", 2).build();
+
+        assertReason(Reason.TOO_EXPENSIVE, () -> admission.acquire("a", cost(5), QueryContext.unbounded()));
+        assertReason(Reason.TOO_EXPENSIVE, () -> admission.acquire("small", cost(3), QueryContext.unbounded()));
+        assertEquals(10, admission.available());
+    }
+
+    @Test
+    void queueFullWhenNoWaiterFits() throws Exception {
+        AdmissionController admission = AdmissionController.builder()
+                .capacity(2)
+                .maxQueued(1)
+                .maxWait(Duration.ofSeconds(WAIT))
+                .build();
+        Permit running = admission.acquire("a", cost(2), QueryContext.unbounded());
+        CompletableFuture<Permit> waiting = queue(admission, "a", 1, QueryContext.unbounded(), 1);
+
+        assertReason(Reason.QUEUE_FULL, () -> admission.acquire("b", cost(1), QueryContext.unbounded()));
+        assertEquals(1, admission.queued());
+
+        running.close();
+        waiting.get(WAIT, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    void timesOutAfterMaxWaitOrTheDeadline() {
+        AdmissionController admission =
+                AdmissionController.builder().capacity(1).maxWait(Duration.ofMillis(20)).build();
+        Permit running = admission.acquire("a", cost(1), QueryContext.unbounded());
+
+        assertReason(Reason.TIMED_OUT, () -> admission.acquire("b", cost(1), QueryContext.unbounded()));
+        AdmissionController patient =
+                AdmissionController.builder().capacity(1).maxWait(Duration.ofSeconds(WAIT)).build();
+        Permit held = patient.acquire("a", cost(1), QueryContext.unbounded());
+        assertReason(
+                Reason.TIMED_OUT,
+                () -> patient.acquire("b", cost(1), QueryContext.withTimeout(Duration.ofMillis(20))));
+
+        assertEquals(0, admission.queued());
+        assertEquals(0, patient.queued());
+        running.close();
+        held.close();
+    }
+
+    @Test
+    void cancellingAQueuedQueryWakesItAndLetsOthersIn() throws Exception {
+        AdmissionController admission =
+                AdmissionController.builder().capacity(4).maxWait(Duration.ofSeconds(WAIT)).build();
+        Permit running = admission.acquire("a", cost(2), QueryContext.unbounded());
+        QueryContext context = QueryContext.unbounded();
+        CompletableFuture<Permit> head = queue(admission, "b", 4, context, 1);
+        CompletableFuture<Permit> behind = queue(admission, "c", 2, QueryContext.unbounded(), 2);
+
+        context.cancel();
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> head.get(WAIT, TimeUnit.SECONDS));
+        assertEquals(Reason.CANCELLED, assertInstanceOf(AdmissionException.class, failed.getCause()).getReason());
+        // the cancelled head no longer blocks the query behind it
+        behind.get(WAIT, TimeUnit.SECONDS).close();
+
+        assertReason(Reason.CANCELLED, () -> admission.acquire("d", cost(1), context));
+        running.close();
+        assertEquals(4, admission.available());
+    }
+
+    @Test
+    void interruptedWaiterIsCancelled() throws Exception {
+        AdmissionController admission =
+                AdmissionController.builder().capacity(1).maxWait(Duration.ofSeconds(WAIT)).build();
+        Permit running = admission.acquire("a", cost(1), QueryContext.unbounded());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                admission.acquire("b", cost(1), QueryContext.unbounded()).close();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+            done.countDown();
+        });
+        waiter.start();
+        awaitQueued(admission, 1);
+
+        waiter.interrupt();
+        assertTrue(done.await(WAIT, TimeUnit.SECONDS));
+        assertEquals(Reason.CANCELLED, assertInstanceOf(AdmissionException.class, failure.get()).getReason());
+        running.close();
+    }
+
+    @Test
+    void executeReleasesPermitsWhenTheQueryThrows() {
+        AdmissionController admission = AdmissionController.builder()
+                .capacity(10)
+                .costModel(CostModel.builder().base(3).fullScan(0).perPageRow(0).build())
+                .build();
+        QueryContext context = QueryContext.unbounded();
+        IllegalStateException boom = new IllegalStateException("boom");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> admission.execute("a", new Criteria(), context, c -> {
+                    assertSame(context, c);
+                    assertEquals(3, admission.held("a"));
+                    throw boom;
+                }));
+        assertSame(boom, thrown);
+        assertEquals(0, admission.held("a"));
+        assertEquals(10, admission.available());
+
+        assertThrows(QueryCancelledException.class, () -> admission.execute("a", new Criteria(), context, c -> {
+            c.cancel();
+            c.check();
+            return null;
+        }));
+        assertEquals(10, admission.available());
+    }
+
+    /** Starts {@code acquire} on another thread and returns once it is the {@code position}th waiter. */
+    private static CompletableFuture<Permit> queue(
+            AdmissionController admission, String tenant, int permits, QueryContext context, int position)
+            throws InterruptedException, TimeoutException {
+        CompletableFuture<Permit> permit = new CompletableFuture<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread.ofPlatform().daemon().start(() -> {
+            started.countDown();
+            try {
+                permit.complete(admission.acquire(tenant, cost(permits), context));
+            } catch (Throwable t) {
+                permit.completeExceptionally(t);
+            }
+        });
+        assertTrue(started.await(WAIT, TimeUnit.SECONDS));
+        awaitQueued(admission, position);
+        return permit;
+    }
+
+    private static void awaitQueued(AdmissionController admission, int waiters)
+            throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT);
+        while (admission.queued() < waiters) {
+            if (System.nanoTime() > deadline) throw new TimeoutException("waiters: " + admission.queued());
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertReason(Reason reason, Runnable acquire) {
+        assertEquals(reason, assertThrows(AdmissionException.class, acquire::run).getReason());
+    }
+
+    private static QueryCost cost(int permits) {
+        return new QueryCost(permits, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,196 @@
+package com.chadtalty.commons.data.query.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.columnar.ColumnarQueryEngine;
+import com.chadtalty.commons.data.query.columnar.ColumnarTable;
+import com.chadtalty.commons.data.query.columnar.ColumnarWriter;
+import com.chadtalty.commons.data.query.eval.BatchQueryExecutor;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import com.chadtalty.commons.data.query.eval.ParallelQueryExecutor;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import com.chadtalty.commons.data.query.index.IndexedTable;
+import com.chadtalty.commons.data.query.join.InMemoryJoinLoader;
+import com.chadtalty.commons.data.query.join.JoinEngine;
+import com.chadtalty.commons.data.query.metrics.InMemoryQueryMetrics;
+import com.chadtalty.commons.data.query.metrics.Instrumentation;
+import com.chadtalty.commons.data.query.metrics.QueryMetrics;
+import com.chadtalty.commons.data.query.metrics.Stage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Every executor overload that takes a {@link QueryContext} stops within a check interval of a cancellation that
+ * happens mid-scan, and fails at once on a context that is already cancelled or expired.
+ */
+class QueryContextTest {
+
+    private static final int ROWS = 50_000;
+    private static final int CANCEL_AT = 5_000;
+
+    private final AtomicLong reads = new AtomicLong();
+    private volatile QueryContext context;
+
+    /** Reading {@code amount} counts, and cancels {@link #context} at the {@value #CANCEL_AT}th read. */
+    private final CriteriaCompiler<Row> compiler = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("id", FieldAccessor.ofLong(Row::id))
+            .field("amount", FieldAccessor.ofLong(r -> {
+                if (reads.incrementAndGet() == CANCEL_AT) context.cancel();
+                return r.amount();
+            }))
+            .build());
+
+    @TempDir
+    Path dir;
+
+    record Row(long id, long amount) {}
+
+    record Customer(long id, long tier) {}
+
+    @Test
+    void guardChecksOncePerInterval() {
+        QueryContext context = QueryContext.unbounded();
+        Predicate<Object> guarded = context.guard(row -> true);
+        for (int i = 1; i < QueryContext.CHECK_INTERVAL; i++) {
+            guarded.test(i);
+        }
+        context.cancel();
+        assertTrue(context.isCancelled());
+        QueryCancelledException e = assertThrows(QueryCancelledException.class, () -> guarded.test(0));
+        assertFalse(e.isDeadlineExceeded());
+        assertTrue(QueryContext.withTimeout(Duration.ZERO).isExpired());
+        assertEquals(Long.MAX_VALUE, QueryContext.unbounded().remainingNanos());
+    }
+
+    @Test
+    void executorsStopSoonAfterCancellation() {
+        List<Row> rows = rows();
+        PageableCriteria criteria = criteria();
+        IndexedTable<Row> table = IndexedTable.builder(compiler).sortedIndex("id").build();
+        table.insertAll(rows);
+        JoinEngine<Row> joins = JoinEngine.builder(compiler)
+                .path("customer", Row::id, new InMemoryJoinLoader<>(List.<Customer>of(), Customer::id),
+                        Customer::id, new CriteriaCompiler<>(FieldRegistry.<Customer>builder()
+                                .field("tier", FieldAccessor.ofLong(Customer::tier))
+                                .build()))
+                .build();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ParallelQueryExecutor<Row> parallel = new ParallelQueryExecutor<>(compiler, pool, 0);
+
+        // each worker of the parallel scan may read up to one interval past the cancellation
+        long parallelSlack = (long) pool.getParallelism() * QueryContext.CHECK_INTERVAL;
+        assertStops(QueryContext.CHECK_INTERVAL, c -> new QueryExecutor<>(compiler).page(rows, criteria, c));
+        assertStops(QueryContext.CHECK_INTERVAL, c -> new QueryExecutor<>(compiler).list(rows, criteria, c));
+        assertStops(parallelSlack, c -> parallel.page(rows, criteria, c));
+        assertStops(parallelSlack, c -> parallel.list(rows, criteria, c));
+        assertStops(QueryContext.CHECK_INTERVAL,
+                c -> new BatchQueryExecutor<>(compiler).pages(rows, List.of(criteria, criteria), c));
+        assertStops(QueryContext.CHECK_INTERVAL, c -> table.page(criteria, c));
+        assertStops(QueryContext.CHECK_INTERVAL, c -> table.list(criteria, c));
+        assertStops(QueryContext.CHECK_INTERVAL, c -> joins.execute(rows, criteria, c));
+        pool.shutdown();
+    }
+
+    @Test
+    void columnarEngineChecksEveryBlock() throws IOException {
+        Path file = dir.resolve("rows.cq");
+        ColumnarWriter.<Row>builder()
+                .longColumn("id", Row::id)
+                .longColumn("amount", Row::amount)
+                .build()
+                .write(file, rows());
+        PageableCriteria criteria = criteria();
+        try (ColumnarTable table = ColumnarTable.open(file)) {
+            ColumnarQueryEngine<Row> engine =
+                    new ColumnarQueryEngine<>(table, r -> new Row(r.getLong("id"), r.getLong("amount")));
+            assertEquals(ROWS / 2, engine.count(criteria, QueryContext.unbounded()));
+
+            for (QueryContext stopped : List.of(cancelled(), QueryContext.withTimeout(Duration.ZERO))) {
+                QueryCancelledException page =
+                        assertThrows(QueryCancelledException.class, () -> engine.page(criteria, stopped));
+                assertEquals(stopped.isExpired(), page.isDeadlineExceeded());
+                assertThrows(QueryCancelledException.class, () -> engine.count(criteria, stopped));
+            }
+        }
+    }
+
+    @Test
+    void cancelledQueriesStillEndTheirSpan() {
+        InMemoryQueryMetrics metrics = new InMemoryQueryMetrics();
+        Instrumentation.install(metrics);
+        try {
+            context = QueryContext.unbounded();
+            assertThrows(QueryCancelledException.class,
+                    () -> new QueryExecutor<>(compiler).page(rows(), criteria(), context));
+            assertThrows(QueryCancelledException.class,
+                    () -> new QueryExecutor<>(compiler).list(rows(), criteria(), cancelled()));
+            assertEquals(2, metrics.stageLatency(Stage.EXECUTE).count());
+        } finally {
+            Instrumentation.install(QueryMetrics.NOOP);
+        }
+    }
+
+    /** Runs {@code query} three ways: cancelled mid-scan, already cancelled, and already past its deadline. */
+    private void assertStops(long slack, Query query) {
+        reads.set(0);
+        context = QueryContext.unbounded();
+        assertThrows(QueryCancelledException.class, () -> query.run(context));
+        assertTrue(reads.get() <= CANCEL_AT + slack, "rows read after cancellation: " + (reads.get() - CANCEL_AT));
+
+        reads.set(0);
+        QueryCancelledException cancelled = assertThrows(QueryCancelledException.class, run(query, cancelled()));
+        assertFalse(cancelled.isDeadlineExceeded());
+        QueryCancelledException expired =
+                assertThrows(QueryCancelledException.class, run(query, QueryContext.withTimeout(Duration.ZERO)));
+        assertTrue(expired.isDeadlineExceeded());
+        assertEquals(0, reads.get());
+    }
+
+    private static Executable run(Query query, QueryContext context) {
+        return () -> query.run(context);
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        void run(QueryContext context) throws Exception;
+    }
+
+    private static QueryContext cancelled() {
+        QueryContext context = QueryContext.unbounded();
+        context.cancel();
+        return context;
+    }
+
+    /** Half the rows match; a join on {@code customer} is listed but carries no filter. */
+    private static PageableCriteria criteria() {
+        PageableCriteria criteria = new PageableCriteria(0, ROWS, null);
+        criteria.setFilters(List.of(new BasicFilter("amount", BasicFilter.Operator.LESS_THAN, "1")));
+        criteria.setJoins(List.of(new JoinSpec("customer", null)));
+        return criteria;
+    }
+
+    private static List<Row> rows() {
+        List<Row> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Row(i, i % 2));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,235 @@
+package com.chadtalty.commons.data.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Keys, snapping, tag invalidation, the overlapping-write check and expiry, on caches small enough to be a
+ * single segment and driven by a manual clock.
+ */
+class ResultCacheTest {
+
+    private static final Instant NOON = Instant.parse("2024-05-01T12:00:00Z");
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void filterOrderSharesAnEntryButPagesDoNot() {
+        ResultCache<Integer> cache = cache().build();
+        BasicFilter open = new BasicFilter("status", BasicFilter.Operator.EQUAL, "open");
+        BasicFilter large = new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "100");
+
+        assertEquals(1, cache.get(page(0, open, large), this::load));
+        assertEquals(1, cache.get(page(0, large, open), this::load));
+        assertEquals(2, cache.get(page(1, open, large), this::load));
+        assertEquals(3, cache.getUnpaged(unpaged(open, large), this::load));
+
+        assertEquals(new CacheStats(1, 3, 0, 3), cache.stats());
+    }
+
+    @Test
+    void snapsTemporalBoundsDownToTheirBucket() {
+        ResultCache<Integer> cache = cache()
+                .snap("created_at", Duration.ofMinutes(1))
+                .snap("customer.since", Duration.ofHours(1))
+                .build();
+        List<Criteria> seen = new ArrayList<>();
+
+        for (int second : new int[] {5, 40, 59}) {
+            Filter after = new DateTimeFilter("created_at", DateTimeFilter.Operator.AFTER, NOON.plusSeconds(second));
+            assertEquals(1, cache.get(page(0, after), c -> {
+                seen.add(c);
+                return load(c);
+            }));
+        }
+        assertEquals(1, seen.size());
+        assertEquals(NOON, ((DateTimeFilter) seen.get(0).getFilters().get(0)).getValue());
+        assertTrue(seen.get(0).isFrozen());
+
+        // equality is never snapped, and the next minute is another bucket
+        Filter equal = new DateTimeFilter("created_at", DateTimeFilter.Operator.EQUAL, NOON.plusSeconds(5));
+        assertEquals(2, cache.get(page(0, equal), this::load));
+        Filter later = new DateTimeFilter("created_at", DateTimeFilter.Operator.AFTER, NOON.plusSeconds(61));
+        assertEquals(3, cache.get(page(0, later), this::load));
+
+        Criteria between = unpaged();
+        between.setJoins(List.of(new JoinSpec(
+                "customer", new BetweenFilter("since", NOON.plusSeconds(90), NOON.plusSeconds(3_700)))));
+        BetweenFilter snapped = (BetweenFilter) cache.snap(between).getJoins().get(0).getFilter();
+        assertEquals(NOON, snapped.getStartDateTime());
+        assertEquals(NOON.plusSeconds(3_600), snapped.getEndDateTime());
+        assertSame(between.getFilters(), cache.snap(between).getFilters());
+    }
+
+    @Test
+    void snapAllCoversFieldsWithoutTheirOwnBucket() {
+        ResultCache<Integer> cache = cache()
+                .snapAll(Duration.ofSeconds(10))
+                .snap("created_at", Duration.ofMinutes(1))
+                .build();
+        Criteria criteria = unpaged(
+                new DateTimeFilter("updated_at", DateTimeFilter.Operator.BEFORE, NOON.plusSeconds(15)),
+                new DateTimeFilter("created_at", DateTimeFilter.Operator.BEFORE, NOON.plusSeconds(15)));
+
+        List<Filter> snapped = cache.snap(criteria).getFilters();
+        assertEquals(NOON.plusSeconds(10), ((DateTimeFilter) snapped.get(0)).getValue());
+        assertEquals(NOON, ((DateTimeFilter) snapped.get(1)).getValue());
+        assertSame(criteria, cache().build().snap(criteria));
+    }
+
+    @Test
+    void invalidatesOnlyEntriesReadingTheWrittenFields() {
+        ResultCache<Integer> cache = cache().build();
+        PageableCriteria byStatus = page(0, new BasicFilter("status", BasicFilter.Operator.EQUAL, "open"));
+        PageableCriteria byDate =
+                page(0, new DateTimeFilter("created_at", DateTimeFilter.Operator.AFTER, NOON));
+        PageableCriteria byTier = page(0);
+        byTier.setJoins(List.of(new JoinSpec("customer", new BasicFilter("tier", BasicFilter.Operator.EQUAL, "1"))));
+        PageableCriteria sortedByStatus = page(0);
+        sortedByStatus.setSort(new SortSpec(null, List.of("status")));
+        for (PageableCriteria c : List.of(byStatus, byDate, byTier, sortedByStatus)) {
+            cache.get(c, this::load);
+        }
+
+        cache.invalidate(List.of("status"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.get(byDate, this::load));
+        assertEquals(5, cache.get(byStatus, this::load));
+
+        cache.invalidate(Arrays.asList("customer", null));
+        assertEquals(6, cache.get(byTier, this::load));
+        assertEquals(2, cache.get(byDate, this::load));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(7, cache.get(byDate, this::load));
+    }
+
+    @Test
+    void loadsOverlappingAWriteAreServedButNotStored() {
+        ResultCache<Integer> cache = cache().build();
+        PageableCriteria criteria = page(0, new BasicFilter("status", BasicFilter.Operator.EQUAL, "open"));
+
+        int racing = cache.get(criteria, c -> {
+            cache.invalidate(List.of("unrelated"));
+            return load(c);
+        });
+        assertEquals(1, racing);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.get(criteria, this::load));
+        assertEquals(2, cache.get(criteria, this::load));
+    }
+
+    @Test
+    void expiresAFixedTimeAfterTheLoad() {
+        ResultCache<Integer> cache = cache().expireAfterWrite(Duration.ofSeconds(10)).build();
+        PageableCriteria criteria = page(0, new BasicFilter("status", BasicFilter.Operator.EQUAL, "open"));
+
+        assertEquals(1, cache.get(criteria, this::load));
+        clock.addAndGet(Duration.ofSeconds(10).toNanos() - 1);
+        assertEquals(1, cache.get(criteria, this::load));
+        clock.incrementAndGet();
+        assertEquals(2, cache.get(criteria, this::load));
+        assertEquals(1, cache.size());
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertEquals(2, cache.get(criteria, this::load));
+    }
+
+    @Test
+    void keysAreNotChangedByLaterEditsToTheRequest() {
+        ResultCache<Integer> cache = cache().build();
+        List<String> values = new ArrayList<>(List.of("open"));
+        PageableCriteria criteria = page(0, new ContainsFilter("status", values));
+        List<Criteria> seen = new ArrayList<>();
+
+        assertEquals(1, cache.get(criteria, c -> {
+            seen.add(c);
+            return load(c);
+        }));
+        values.add("held");
+        assertEquals(2, cache.get(criteria, this::load));
+        assertEquals(1, cache.get(page(0, new ContainsFilter("status", List.of("open"))), this::load));
+
+        ContainsFilter loaded = (ContainsFilter) seen.get(0).getFilters().get(0);
+        assertEquals(List.of("open"), loaded.getValues());
+        assertNotSame(values, loaded.getValues());
+    }
+
+    @Test
+    void boundsEntriesByCountAndWeight() {
+        ResultCache<Integer> bySize = cache().maximumSize(3).build();
+        for (int i = 0; i < 5; i++) {
+            bySize.get(page(i), this::load);
+        }
+        assertEquals(3, bySize.size());
+        assertEquals(2, bySize.stats().evictions());
+
+        ResultCache<Integer> byWeight = cache().maximumWeight(10, v -> v).build();
+        assertEquals(11, byWeight.get(page(0), c -> 11));
+        assertEquals(0, byWeight.size());
+        byWeight.get(page(1), c -> 6);
+        byWeight.get(page(2), c -> 3);
+        byWeight.get(page(3), c -> 4);
+        assertEquals(7, byWeight.weight());
+        assertEquals(2, byWeight.size());
+    }
+
+    @Test
+    void rejectsBadInput() {
+        ResultCache<Integer> cache = cache().build();
+        PageableCriteria nullJoin = page(0);
+        nullJoin.setJoins(Arrays.asList((JoinSpec) null));
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null, this::load));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(nullJoin, this::load));
+        assertThrows(IllegalStateException.class, () -> cache.get(page(0), c -> null));
+        assertThrows(IllegalArgumentException.class, () -> cache.invalidate(null));
+        assertThrows(IllegalArgumentException.class, () -> cache().snap("at", Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> cache().expireAfterWrite(Duration.ZERO));
+        assertEquals(0, loads.get());
+    }
+
+    /** A single-segment cache on the manual clock. */
+    private ResultCache.Builder<Integer> cache() {
+        return ResultCache.<Integer>builder().maximumSize(16).ticker(clock::get);
+    }
+
+    /** Each load returns the next number, so equal results mean the entry was shared. */
+    private Integer load(Criteria criteria) {
+        return loads.incrementAndGet();
+    }
+
+    private static PageableCriteria page(int page, Filter... filters) {
+        PageableCriteria criteria = new PageableCriteria(page, 20, null);
+        criteria.setFilters(List.of(filters));
+        return criteria;
+    }
+
+    private static Criteria unpaged(Filter... filters) {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(filters));
+        return criteria;
+    }
+}
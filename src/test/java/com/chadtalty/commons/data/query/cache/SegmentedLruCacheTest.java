@@ -0,0 +1,82 @@
+package com.chadtalty.commons.data.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Hit and miss accounting, the size bound, and scan resistance of the protected area. */
+class SegmentedLruCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1.0, cache.stats().hitRate());
+        assertEquals(3, cache.get("a", k -> loads.incrementAndGet() + 2));
+        assertEquals(3, cache.get("a", k -> loads.incrementAndGet() + 2));
+        assertNull(cache.getIfPresent("b"));
+
+        assertEquals(1, loads.get());
+        assertEquals(new CacheStats(1, 2, 0, 1), cache.stats());
+        assertEquals(1.0 / 3, cache.stats().hitRate());
+    }
+
+    @Test
+    void staysWithinCapacity() {
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(64);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(64, cache.size());
+        assertEquals(1_000 - 64, cache.stats().evictions());
+    }
+
+    @Test
+    void oneOffKeysDoNotFlushTheHotSet() {
+        // below 32 entries the cache is one segment, so the protected area is exactly 8 of 10
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(10);
+        for (int hot = 0; hot < 8; hot++) {
+            cache.put(hot, hot);
+            cache.getIfPresent(hot);
+        }
+        for (int cold = 100; cold < 200; cold++) {
+            cache.get(cold, k -> k);
+        }
+
+        for (int hot = 0; hot < 8; hot++) {
+            assertNotNull(cache.getIfPresent(hot), "evicted hot key " + hot);
+        }
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    void putReplacesAndInvalidateRemoves() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(4);
+        cache.put("a", "1");
+        cache.getIfPresent("a");
+        cache.put("a", "2");
+        cache.put("b", "3");
+
+        assertEquals("2", cache.getIfPresent("a"));
+        cache.invalidate("a");
+        assertNull(cache.getIfPresent("a"));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.stats().evictions());
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedLruCache<String, String>(0));
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(4);
+        assertThrows(IllegalArgumentException.class, () -> cache.put("a", null));
+        assertThrows(IllegalStateException.class, () -> cache.get("a", k -> null));
+        assertEquals(0, cache.size());
+    }
+}
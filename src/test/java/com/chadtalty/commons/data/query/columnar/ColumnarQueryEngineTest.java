@@ -0,0 +1,298 @@
+package com.chadtalty.commons.data.query.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import com.chadtalty.commons.data.query.kernel.FilterKernels;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Differential test of the columnar engine against {@link QueryExecutor} over the same rows on the heap. */
+class ColumnarQueryEngineTest {
+
+    private static final String[] STATUSES = {"closed", "held", "open", "pending", "über", null};
+    private static final String[] OPERANDS = {"closed", "held", "open", "pending", "über", "a", "zzz", "hel"};
+    private static final String[] REGIONS = {"ap", "eu", "sa", "us"};
+    private static final String[] SORTABLE =
+            {"status", "id", "amount", "flag", "created_at", "region", "customer.tier"};
+    private static final long T0 = 1_735_689_600_000L;
+
+    private static final ColumnarWriter<Row> WRITER = ColumnarWriter.<Row>builder()
+            .longColumn("id", Row::id)
+            .stringColumn("status", Row::status)
+            .doubleColumn("amount", Row::amount)
+            .booleanColumn("flag", Row::flag)
+            .instantColumn("created_at", Row::createdAt)
+            .longColumn("customer.tier", Row::tier)
+            .stringColumn("region", Row::region)
+            .build();
+
+    private static final CriteriaCompiler<Row> COMPILER = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("id", FieldAccessor.ofLong(Row::id))
+            .field("status", FieldAccessor.ofString(Row::status))
+            .field("amount", FieldAccessor.ofDouble(Row::amount))
+            .field("flag", FieldAccessor.ofBoolean(Row::flag))
+            .field("created_at", FieldAccessor.ofEpochMillis(r -> r.createdAt().toEpochMilli()))
+            .field("customer.tier", FieldAccessor.ofLong(Row::tier))
+            .field("region", FieldAccessor.ofString(Row::region))
+            .build());
+
+    private static final QueryExecutor<Row> REFERENCE = new QueryExecutor<>(COMPILER);
+
+    @TempDir
+    Path dir;
+
+    private final Random random = new Random(11);
+    private final AtomicInteger materialized = new AtomicInteger();
+
+    record Row(long id, String status, double amount, boolean flag, Instant createdAt, long tier, String region) {}
+
+    @Test
+    void pagesMatchQueryExecutor() throws IOException {
+        List<Row> rows = rows(3_000);
+        Path file = dir.resolve("orders.cq");
+        assertEquals(rows.size(), WRITER.write(file, rows));
+
+        try (ColumnarTable table = ColumnarTable.open(file)) {
+            for (FilterKernels kernels : List.of(FilterKernels.scalar(), FilterKernels.best())) {
+                ColumnarQueryEngine<Row> engine = new ColumnarQueryEngine<>(table, this::materialize, kernels);
+                for (int i = 0; i < 2_000; i++) {
+                    PageableCriteria criteria = criteria();
+                    String expected = outcome(() -> REFERENCE.page(rows, criteria));
+
+                    materialized.set(0);
+                    assertEquals(expected, outcome(() -> engine.page(criteria)), criteria::toString);
+                    assertTrue(materialized.get() <= criteria.getSize(), "materialized: " + materialized);
+                    if (!expected.startsWith("IAE")) {
+                        long matching = rows.stream().filter(COMPILER.compile(criteria)).count();
+                        assertEquals(matching, engine.count(criteria));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsBadCriteriaLikeQueryExecutor() throws IOException {
+        List<Row> rows = rows(10);
+        Path file = dir.resolve("orders.cq");
+        WRITER.write(file, rows);
+        PageableCriteria nullJoin = new PageableCriteria(0, 5, null);
+        nullJoin.setJoins(Arrays.asList((JoinSpec) null));
+
+        try (ColumnarTable table = ColumnarTable.open(file)) {
+            ColumnarQueryEngine<Row> engine = new ColumnarQueryEngine<>(table, this::materialize);
+            Stream.of(
+                            new BasicFilter("nope", BasicFilter.Operator.EQUAL, "x"),
+                            new BasicFilter("id", BasicFilter.Operator.EQUAL, "x"),
+                            new DateTimeFilter("id", DateTimeFilter.Operator.AFTER, Instant.EPOCH),
+                            new BasicFilter("flag", BasicFilter.Operator.GREATER_THAN, "true"),
+                            new BasicFilter("created_at", BasicFilter.Operator.LESS_THAN, Instant.MAX.toString()),
+                            new DateTimeFilter("created_at", DateTimeFilter.Operator.AFTER, Instant.MAX),
+                            new BetweenFilter("created_at", Instant.MIN, Instant.EPOCH),
+                            new ContainsFilter("created_at", List.of(Instant.MIN.toString())))
+                    .map(filter -> {
+                        PageableCriteria criteria = new PageableCriteria(0, 5, null);
+                        criteria.setFilters(List.of(filter));
+                        return criteria;
+                    })
+                    .forEach(criteria -> {
+                        String expected = outcome(() -> REFERENCE.page(rows, criteria));
+                        assertTrue(expected.startsWith("IAE"), expected);
+                        assertEquals(expected, outcome(() -> engine.page(criteria)));
+                    });
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> engine.page(nullJoin));
+            assertEquals("join must not be null", e.getMessage());
+        }
+    }
+
+    @Test
+    void failedWriteKeepsThePreviousFile() throws IOException {
+        Path file = dir.resolve("orders.cq");
+        List<Row> before = rows(100);
+        WRITER.write(file, before);
+        byte[] written = Files.readAllBytes(file);
+        List<Row> broken = new ArrayList<>(rows(100));
+        broken.set(50, new Row(50, "open", 1, true, null, 0, "eu"));
+
+        assertThrows(IllegalArgumentException.class, () -> WRITER.write(file, broken));
+
+        assertEquals(List.of(file), listDir());
+        assertTrue(Arrays.equals(written, Files.readAllBytes(file)));
+        try (ColumnarTable table = ColumnarTable.open(file)) {
+            assertEquals(before.get(99), materialize(table.row(99)));
+        }
+    }
+
+    @Test
+    void rewriteLeavesOpenTablesReadable() throws IOException {
+        Path file = dir.resolve("orders.cq");
+        List<Row> before = rows(100);
+        WRITER.write(file, before);
+        try (ColumnarTable table = ColumnarTable.open(file)) {
+            List<Row> after = rows(10);
+            WRITER.write(file, after);
+
+            assertEquals(before.get(99), materialize(table.row(99)));
+            try (ColumnarTable reopened = ColumnarTable.open(file)) {
+                assertEquals(after.size(), reopened.rowCount());
+                assertEquals(after.get(9), materialize(reopened.row(9)));
+            }
+        }
+        assertEquals(List.of(file), listDir());
+    }
+
+    @Test
+    void malformedFilesAreRejected() throws IOException {
+        Path file = dir.resolve("bad.cq");
+        Files.write(file, new byte[16]);
+        assertEquals("Malformed columnar file: bad magic", openFailure(file));
+
+        // one column whose name runs past the end of the file
+        ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(ColumnarTable.MAGIC).putInt(ColumnarTable.VERSION).putInt(0).putInt(1);
+        header.put((byte) 0).putInt(40);
+        Files.write(file, header.array());
+        assertEquals("Malformed columnar file: bad column name length", openFailure(file));
+
+        Files.write(file, new byte[] {1, 2});
+        assertThrows(IOException.class, () -> ColumnarTable.open(file));
+    }
+
+    private String openFailure(Path file) {
+        return assertThrows(IllegalArgumentException.class, () -> ColumnarTable.open(file)).getMessage();
+    }
+
+    private List<Path> listDir() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+
+    private Row materialize(ColumnarRow row) {
+        materialized.incrementAndGet();
+        return new Row(
+                row.getLong("id"),
+                row.getString("status"),
+                row.getDouble("amount"),
+                row.getBoolean("flag"),
+                row.getInstant("created_at"),
+                row.getLong("customer.tier"),
+                row.getString("region"));
+    }
+
+    private static String outcome(Supplier<Page<Row>> query) {
+        try {
+            return query.get().toString();
+        } catch (IllegalArgumentException e) {
+            return "IAE " + e.getMessage();
+        }
+    }
+
+    private List<Row> rows(int n) {
+        List<Row> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new Row(
+                    i,
+                    pick(STATUSES),
+                    random.nextInt(100) + (random.nextBoolean() ? 0.5 : 0),
+                    random.nextBoolean(),
+                    Instant.ofEpochMilli(T0 + random.nextInt(1000) * 1000L),
+                    random.nextInt(3),
+                    pick(REGIONS)));
+        }
+        return rows;
+    }
+
+    private PageableCriteria criteria() {
+        List<Filter> filters = new ArrayList<>();
+        for (int k = random.nextInt(4); k > 0; k--) {
+            filters.add(filter());
+        }
+        List<JoinSpec> joins = random.nextInt(4) == 0
+                ? List.of(new JoinSpec("customer", new BasicFilter("tier", operator(), "" + random.nextInt(3))))
+                : null;
+        SortSpec sort = null;
+        if (random.nextInt(4) != 0) {
+            List<String> asc = new ArrayList<>();
+            List<String> desc = new ArrayList<>();
+            for (String field : SORTABLE) {
+                int q = random.nextInt(6);
+                if (q == 0) asc.add(field);
+                else if (q == 1) desc.add(field);
+            }
+            Collections.shuffle(asc, random);
+            Collections.shuffle(desc, random);
+            sort = new SortSpec(asc, desc);
+        }
+        PageableCriteria criteria =
+                new PageableCriteria(random.nextInt(4), 1 + random.nextInt(random.nextBoolean() ? 20 : 1_500), null);
+        criteria.setFilters(filters);
+        criteria.setJoins(joins);
+        criteria.setSort(sort);
+        return criteria;
+    }
+
+    private Filter filter() {
+        return switch (random.nextInt(12)) {
+            case 0 -> new BasicFilter("status", operator(), pick(OPERANDS));
+            case 1 -> new BasicFilter("id", operator(), "" + random.nextInt(3000));
+            case 2 -> new BasicFilter("amount", operator(), random.nextInt(100) + ".5");
+            case 3 -> new BasicFilter("flag", pick(BasicFilter.Operator.EQUAL, BasicFilter.Operator.NOT_EQUAL),
+                    "" + random.nextBoolean());
+            case 4 -> new DateTimeFilter("created_at", pick(DateTimeFilter.Operator.values()), instant());
+            case 5 -> {
+                Instant start = instant();
+                yield new BetweenFilter("created_at", start, start.plusMillis(random.nextInt(300_000)));
+            }
+            case 6 -> new ContainsFilter("status", List.of(pick(OPERANDS), pick(OPERANDS), pick(OPERANDS)));
+            case 7 -> new ContainsFilter("id",
+                    List.of("" + random.nextInt(3000), "" + random.nextInt(3000), "0" + random.nextInt(30)));
+            case 8 -> new ContainsFilter("region", List.of(pick(REGIONS)));
+            case 9 -> new BasicFilter("created_at", operator(), instant().toString());
+            case 10 -> new ContainsFilter("flag", List.of("" + random.nextBoolean()));
+            default -> new BasicFilter("region", operator(), pick(REGIONS));
+        };
+    }
+
+    private BasicFilter.Operator operator() {
+        return pick(BasicFilter.Operator.values());
+    }
+
+    private Instant instant() {
+        return Instant.ofEpochMilli(T0 + random.nextInt(1000) * 1000L);
+    }
+
+    @SafeVarargs
+    private <E> E pick(E... values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,217 @@
+package com.chadtalty.commons.data.query.continuous;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the maintained result against a recomputation from a plain map after every event, and checks that a slow
+ * or failing subscriber cannot wedge the query.
+ */
+class ContinuousQueryTest {
+
+    /** Negative amounts make the accessor throw. */
+    private static final CriteriaCompiler<Row> COMPILER = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("amount", FieldAccessor.ofLong(r -> {
+                if (r.amount() < 0) throw new IllegalStateException("negative amount");
+                return r.amount();
+            }))
+            .field("status", FieldAccessor.ofString(Row::status))
+            .build());
+
+    record Row(long id, String status, long amount) {}
+
+    @Test
+    void matchesRecomputation() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 60; trial++) {
+            List<String> amount = List.of("amount");
+            SortSpec sort = trial % 3 == 0
+                    ? null
+                    : new SortSpec(trial % 2 == 0 ? amount : null, trial % 2 == 0 ? null : amount);
+            Criteria criteria = new Criteria(
+                    null, List.of(new BasicFilter("status", BasicFilter.Operator.NOT_EQUAL, "X")), sort);
+            int limit = trial % 4 == 0 ? Integer.MAX_VALUE : 1 + random.nextInt(8);
+            ContinuousQuery<Long, Row> query = new ContinuousQuery<>(COMPILER, criteria, limit, Runnable::run, 1024);
+            Map<Long, Row> mirror = new HashMap<>();
+            query.subscribe(new Unbounded() {
+                @Override
+                public void onNext(ResultChange<Long, Row> change) {
+                    switch (change.kind()) {
+                        case ADDED -> assertNull(mirror.put(change.key(), change.row()), "added twice");
+                        case UPDATED -> assertNotNull(mirror.put(change.key(), change.row()), "updated while absent");
+                        case REMOVED -> assertNotNull(mirror.remove(change.key()), "removed while absent");
+                    }
+                }
+            });
+
+            Predicate<Row> filter = COMPILER.compile(criteria);
+            Comparator<Row> order = COMPILER.comparator(sort);
+            Map<Long, Row> table = new HashMap<>();
+            Map<Long, Long> firstMatched = new HashMap<>();
+            long sequence = 0;
+            for (int i = 0; i < 3_000; i++) {
+                long key = random.nextInt(40);
+                int op = random.nextInt(3);
+                Row row = new Row(key, random.nextInt(4) == 0 ? "X" : "A", random.nextInt(10));
+                query.apply(op == 0
+                        ? RowEvent.insert(key, row)
+                        : op == 1 ? RowEvent.update(key, row) : RowEvent.delete(key));
+
+                boolean matched = table.containsKey(key) && filter.test(table.get(key));
+                if (op == 2) table.remove(key);
+                else table.put(key, row);
+                boolean matches = table.containsKey(key) && filter.test(table.get(key));
+                if (!matches) firstMatched.remove(key);
+                else if (!matched) firstMatched.put(key, sequence++);
+
+                List<Long> keys = new ArrayList<>(firstMatched.keySet());
+                keys.sort((x, y) -> {
+                    int c = order == null ? 0 : order.compare(table.get(x), table.get(y));
+                    return c != 0 ? c : Long.compare(firstMatched.get(x), firstMatched.get(y));
+                });
+                List<Row> expected = keys.stream().limit(limit).map(table::get).toList();
+                ContinuousQuery.Snapshot<Row> snapshot = query.snapshot();
+                assertEquals(expected, snapshot.rows());
+                assertEquals(i + 1, snapshot.version());
+                assertEquals(firstMatched.size(), query.matchCount());
+                assertEquals(new HashSet<>(expected), new HashSet<>(mirror.values()));
+            }
+        }
+    }
+
+    @Test
+    void slowSubscriberBlocksApplyButNotSnapshotOrClose() throws Exception {
+        ExecutorService delivery = Executors.newSingleThreadExecutor();
+        ContinuousQuery<Long, Row> query =
+                new ContinuousQuery<>(COMPILER, new Criteria(), Integer.MAX_VALUE, delivery, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        query.subscribe(new Unbounded() {
+            @Override
+            public void onNext(ResultChange<Long, Row> change) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+        Thread producer = new Thread(() -> {
+            try {
+                for (long i = 0; i < 10; i++) {
+                    query.apply(RowEvent.insert(i, new Row(i, "A", i)));
+                }
+            } catch (IllegalStateException closed) {
+                // events after close are rejected
+            }
+        });
+        producer.start();
+        while (producer.getState() != Thread.State.WAITING && producer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertTrue(query.snapshot().version() >= 1);
+            assertTrue(query.matchCount() >= 1);
+            query.close();
+        });
+        assertTrue(producer.isAlive(), "apply should still wait for the subscriber");
+        assertEquals(1, completed.getCount());
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(producer.isAlive());
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        delivery.shutdownNow();
+    }
+
+    @Test
+    void failingEventCancelsUpstreamAndFailsSubscribers() throws Exception {
+        Criteria positive =
+                new Criteria(null, List.of(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "0")), null);
+        ContinuousQuery<Long, Row> query = new ContinuousQuery<>(COMPILER, positive, 10, Runnable::run, 8);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        query.subscribe(new Unbounded() {
+            @Override
+            public void onError(Throwable throwable) {
+                failure.set(throwable);
+                failed.countDown();
+            }
+        });
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<Long> requested = new ArrayList<>();
+        query.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.add(n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+
+        query.onNext(RowEvent.insert(1L, new Row(1, "A", 5)));
+        query.onNext(RowEvent.insert(2L, new Row(2, "A", -1)));
+
+        assertTrue(cancelled.get());
+        assertEquals(List.of(1L, 1L), requested);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertEquals("negative amount", failure.get().getMessage());
+    }
+
+    /** Requests everything and ignores completion. */
+    private abstract static class Unbounded implements Flow.Subscriber<ResultChange<Long, Row>> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ResultChange<Long, Row> change) {}
+
+        @Override
+        public void onError(Throwable throwable) {}
+
+        @Override
+        public void onComplete() {}
+    }
+}
@@ -0,0 +1,173 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/** Differential test of the shared scan against {@link QueryExecutor} run once per criteria. */
+class BatchQueryExecutorTest {
+
+    private static final String[] STATUSES = {"open", "closed", "held"};
+    private static final String[] REGIONS = {"eu", "us", "ap", "sa"};
+
+    private final Random random = new Random(5);
+    private final AtomicLong scoreReads = new AtomicLong();
+
+    /** {@code score} is only defined for open orders, so it must be guarded by a status filter. */
+    private final CriteriaCompiler<Order> compiler = new CriteriaCompiler<>(FieldRegistry.<Order>builder()
+            .field("status", FieldAccessor.ofString(Order::status))
+            .field("amount", FieldAccessor.ofLong(Order::amount))
+            .field("region", FieldAccessor.ofString(Order::region))
+            .field("customer.tier", FieldAccessor.ofLong(Order::tier))
+            .field("score", FieldAccessor.ofLong(o -> {
+                scoreReads.incrementAndGet();
+                if (!o.status().equals("open")) throw new IllegalStateException("no score for " + o.status());
+                return o.amount() % 7;
+            }))
+            .build());
+
+    record Order(long id, String status, long amount, String region, long tier) {}
+
+    @Test
+    void pagesMatchQueryExecutor() {
+        QueryExecutor<Order> single = new QueryExecutor<>(compiler);
+        BatchQueryExecutor<Order> batch = new BatchQueryExecutor<>(compiler);
+        int compared = 0;
+        for (int t = 0; t < 300; t++) {
+            List<Order> rows = rows(random.nextInt(5_000));
+            List<Filter> shared = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                shared.add(filter());
+            }
+            List<PageableCriteria> queries = new ArrayList<>();
+            for (int q = 1 + random.nextInt(40); q > 0; q--) {
+                queries.add(criteria(shared));
+            }
+
+            List<Page<Order>> pages = batch.pages(rows, queries);
+
+            for (int i = 0; i < queries.size(); i++) {
+                assertEquals(single.page(rows, queries.get(i)), pages.get(i), queries.get(i)::toString);
+                compared++;
+            }
+        }
+        assertTrue(compared > 5_000, "compared: " + compared);
+    }
+
+    @Test
+    void filtersOnlyRunWhereEarlierFiltersPassed() {
+        List<Order> rows = rows(3_000);
+        long open = rows.stream().filter(o -> o.status().equals("open")).count();
+        BasicFilter isOpen = new BasicFilter("status", BasicFilter.Operator.EQUAL, "open");
+        List<PageableCriteria> queries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            PageableCriteria criteria = new PageableCriteria(0, 5_000, null);
+            criteria.setFilters(List.of(isOpen, new BasicFilter("score", BasicFilter.Operator.EQUAL, "" + i % 7)));
+            criteria.setSort(new SortSpec(List.of("amount"), null));
+            queries.add(criteria);
+        }
+
+        List<Page<Order>> pages = new BatchQueryExecutor<>(compiler).pages(rows, queries);
+
+        QueryExecutor<Order> single = new QueryExecutor<>(compiler);
+        for (int i = 0; i < queries.size(); i++) {
+            assertEquals(single.page(rows, queries.get(i)), pages.get(i));
+        }
+        scoreReads.set(0);
+        new BatchQueryExecutor<>(compiler).pages(rows, queries);
+        // seven distinct score filters, each read once per open row
+        assertEquals(7 * open, scoreReads.get());
+
+        PageableCriteria unguarded = new PageableCriteria(0, 10, null);
+        unguarded.setFilters(List.of(new BasicFilter("score", BasicFilter.Operator.EQUAL, "1")));
+        assertThrows(IllegalStateException.class, () -> single.page(rows, unguarded));
+        assertThrows(
+                IllegalStateException.class, () -> new BatchQueryExecutor<>(compiler).pages(rows, List.of(unguarded)));
+    }
+
+    @Test
+    void rejectsNullsLikeQueryExecutor() {
+        BatchQueryExecutor<Order> batch = new BatchQueryExecutor<>(compiler);
+        QueryExecutor<Order> single = new QueryExecutor<>(compiler);
+        PageableCriteria nullJoin = new PageableCriteria(0, 10, null);
+        nullJoin.setJoins(Arrays.asList((JoinSpec) null));
+        PageableCriteria nullFilter = new PageableCriteria(0, 10, null);
+        nullFilter.setFilters(Arrays.asList((Filter) null));
+
+        for (PageableCriteria criteria : List.of(nullJoin, nullFilter)) {
+            IllegalArgumentException expected =
+                    assertThrows(IllegalArgumentException.class, () -> single.page(List.of(), criteria));
+            IllegalArgumentException actual =
+                    assertThrows(IllegalArgumentException.class, () -> batch.pages(List.of(), List.of(criteria)));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
+        IllegalArgumentException nullCriteria = assertThrows(IllegalArgumentException.class,
+                () -> batch.pages(List.of(), Arrays.asList((PageableCriteria) null)));
+        assertEquals("batch must not contain null", nullCriteria.getMessage());
+    }
+
+    private List<Order> rows(int n) {
+        List<Order> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new Order(i, pick(STATUSES), random.nextInt(1000), pick(REGIONS), random.nextInt(3)));
+        }
+        return rows;
+    }
+
+    private PageableCriteria criteria(List<Filter> shared) {
+        List<Filter> filters = new ArrayList<>();
+        for (int k = random.nextInt(4); k > 0; k--) {
+            filters.add(shared.get(random.nextInt(shared.size())));
+        }
+        if (random.nextInt(5) == 0) {
+            // guarded score filter; the guard must run first
+            filters.add(0, new BasicFilter("status", BasicFilter.Operator.EQUAL, "open"));
+            filters.add(new BasicFilter("score", BasicFilter.Operator.LESS_THAN, "" + random.nextInt(7)));
+        }
+        List<JoinSpec> joins = random.nextInt(4) == 0
+                ? List.of(new JoinSpec("customer",
+                        new BasicFilter("tier", BasicFilter.Operator.EQUAL, "" + random.nextInt(3))))
+                : null;
+        SortSpec sort = switch (random.nextInt(4)) {
+            case 0 -> null;
+            case 1 -> new SortSpec(List.of("amount"), null);
+            case 2 -> new SortSpec(null, List.of("status"));
+            default -> new SortSpec(List.of("region"), List.of("amount"));
+        };
+        PageableCriteria criteria =
+                new PageableCriteria(random.nextInt(5), 1 + random.nextInt(random.nextBoolean() ? 10 : 2_000), null);
+        criteria.setFilters(filters);
+        criteria.setJoins(joins);
+        criteria.setSort(sort);
+        return criteria;
+    }
+
+    private Filter filter() {
+        BasicFilter.Operator cmp =
+                random.nextBoolean() ? BasicFilter.Operator.GREATER_THAN : BasicFilter.Operator.LESS_THAN;
+        return switch (random.nextInt(4)) {
+            case 0 -> new BasicFilter("status", BasicFilter.Operator.EQUAL, pick(STATUSES));
+            case 1 -> new BasicFilter("amount", cmp, "" + random.nextInt(10) * 100);
+            case 2 -> new ContainsFilter("region", List.of(pick(REGIONS), pick(REGIONS)));
+            default -> new BasicFilter("region", BasicFilter.Operator.NOT_EQUAL, pick(REGIONS));
+        };
+    }
+
+    @SafeVarargs
+    private <E> E pick(E... values) {
+        return values[random.nextInt(values.length)];
+    }
+}
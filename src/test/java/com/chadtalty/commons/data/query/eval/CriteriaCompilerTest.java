@@ -0,0 +1,280 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/** Every operator on every field kind against Java's own comparisons, plus the documented failure modes. */
+class CriteriaCompilerTest {
+
+    enum Tier {
+        BRONZE,
+        SILVER,
+        GOLD
+    }
+
+    record Row(long n, double d, long millis, Instant at, String s, boolean flag, Tier tier, long customerTier) {}
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final double[] DOUBLES = {-1.5, 0, 0.5, 2, Double.NaN};
+    private static final String[] STRINGS = {"a", "b", "bb", "c"};
+
+    private final Random random = new Random(31);
+
+    private final CriteriaCompiler<Row> compiler = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("n", FieldAccessor.ofLong(Row::n))
+            .field("d", FieldAccessor.ofDouble(Row::d))
+            .field("millis", FieldAccessor.ofEpochMillis(Row::millis))
+            .field("at", FieldAccessor.ofInstant(Row::at))
+            .field("s", FieldAccessor.ofString(Row::s))
+            .field("flag", FieldAccessor.ofBoolean(Row::flag))
+            .field("tier", FieldAccessor.ofEnum(Tier.class, Row::tier))
+            .field("customer.tier", FieldAccessor.ofLong(Row::customerTier))
+            .build());
+
+    @Test
+    void basicOperatorsMatchJavaOnEveryKind() {
+        List<Row> rows = rows(400);
+        for (BasicFilter.Operator op : BasicFilter.Operator.values()) {
+            for (int x = -1; x <= 3; x++) {
+                long n = x;
+                assertMatches(rows, basic("n", op, " " + x + " "), r -> holds(op, Long.compare(r.n(), n)));
+                Instant at = EPOCH.plusSeconds(x);
+                assertMatches(rows, basic("millis", op, at.toString()),
+                        r -> holds(op, Long.compare(r.millis(), at.toEpochMilli())));
+                assertMatches(rows, basic("at", op, at.toString()),
+                        r -> r.at() != null && holds(op, r.at().compareTo(at)));
+            }
+            for (double x : DOUBLES) {
+                assertMatches(rows, basic("d", op, Double.toString(x)), r -> doubleHolds(op, r.d(), x));
+            }
+            for (String x : STRINGS) {
+                assertMatches(rows, basic("s", op, x), r -> r.s() != null && holds(op, r.s().compareTo(x)));
+            }
+            for (Tier x : Tier.values()) {
+                // operands resolve case-insensitively; ordering follows declaration order
+                assertMatches(rows, basic("tier", op, x.name().toLowerCase()),
+                        r -> r.tier() != null && holds(op, Integer.compare(r.tier().ordinal(), x.ordinal())));
+            }
+        }
+        for (boolean x : new boolean[] {true, false}) {
+            assertMatches(rows, basic("flag", BasicFilter.Operator.EQUAL, "" + x), r -> r.flag() == x);
+            assertMatches(rows, basic("flag", BasicFilter.Operator.NOT_EQUAL, " " + x + " "),
+                    r -> r.flag() != x);
+        }
+    }
+
+    @Test
+    void temporalFiltersMatchOnBothTemporalKinds() {
+        List<Row> rows = rows(400);
+        for (DateTimeFilter.Operator op : DateTimeFilter.Operator.values()) {
+            BasicFilter.Operator same = BasicFilter.Operator.from(switch (op) {
+                case AFTER -> "greater_than";
+                case AFTER_OR_EQUAL -> "greater_than_or_equal";
+                case BEFORE -> "less_than";
+                case BEFORE_OR_EQUAL -> "less_than_or_equal";
+                default -> op.getValue();
+            });
+            Instant x = EPOCH.plusSeconds(1);
+            assertMatches(rows, new DateTimeFilter("millis", op, x),
+                    r -> holds(same, Long.compare(r.millis(), x.toEpochMilli())));
+            assertMatches(rows, new DateTimeFilter("at", op, x),
+                    r -> r.at() != null && holds(same, r.at().compareTo(x)));
+        }
+        Instant lo = EPOCH;
+        Instant hi = EPOCH.plusSeconds(2);
+        assertMatches(rows, new BetweenFilter("millis", lo, hi),
+                r -> r.millis() >= lo.toEpochMilli() && r.millis() <= hi.toEpochMilli());
+        assertMatches(rows, new BetweenFilter("at", lo, hi),
+                r -> r.at() != null && !r.at().isBefore(lo) && !r.at().isAfter(hi));
+    }
+
+    @Test
+    void containsMatchesOnEveryKind() {
+        List<Row> rows = rows(400);
+        assertMatches(rows, contains("n", "1", "007", "+2"), r -> r.n() == 1 || r.n() == 7 || r.n() == 2);
+        assertMatches(rows, contains("n", "0", "3"), r -> r.n() == 0 || r.n() == 3);
+        assertMatches(rows, contains("d", "0.5", "2"), r -> r.d() == 0.5 || r.d() == 2);
+        String one = EPOCH.plusSeconds(1).toString();
+        assertMatches(rows, contains("millis", one), r -> r.millis() == EPOCH.plusSeconds(1).toEpochMilli());
+        assertMatches(rows, contains("at", one), r -> EPOCH.plusSeconds(1).equals(r.at()));
+        assertMatches(rows, contains("s", "a", "c"), r -> "a".equals(r.s()) || "c".equals(r.s()));
+        assertMatches(rows, contains("flag", "false"), r -> !r.flag());
+        assertMatches(rows, contains("flag", "true", "false"), r -> true);
+        assertMatches(rows, contains("tier", "gold", "BRONZE"), r -> r.tier() == Tier.GOLD || r.tier() == Tier.BRONZE);
+
+        // instants with sub-millisecond digits never equal a millisecond operand
+        Row fine = new Row(0, 0, 0, EPOCH.plusNanos(1), null, false, null, 0);
+        assertFalse(compile(contains("at", EPOCH.toString())).test(fine));
+    }
+
+    @Test
+    void nullValuesMatchNoFilter() {
+        Row empty = new Row(0, 0, 0, null, null, false, null, 0);
+        for (BasicFilter.Operator op : BasicFilter.Operator.values()) {
+            assertFalse(compile(basic("s", op, "a")).test(empty), op::toString);
+            assertFalse(compile(basic("tier", op, "gold")).test(empty), op::toString);
+            assertFalse(compile(basic("at", op, EPOCH.toString())).test(empty), op::toString);
+        }
+        assertFalse(compile(contains("s", "a")).test(empty));
+        assertFalse(compile(contains("tier", "gold")).test(empty));
+        assertFalse(compile(new BetweenFilter("at", Instant.MIN, Instant.MAX)).test(empty));
+    }
+
+    @Test
+    void joinFiltersReadTheQualifiedField() {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(basic("n", BasicFilter.Operator.GREATER_THAN, "0")));
+        criteria.setJoins(List.of(
+                new JoinSpec("customer", basic("tier", BasicFilter.Operator.EQUAL, "2")),
+                new JoinSpec("customer", null)));
+        Predicate<Row> p = compiler.compile(criteria);
+
+        assertTrue(p.test(new Row(1, 0, 0, null, null, false, Tier.BRONZE, 2)));
+        assertFalse(p.test(new Row(1, 0, 0, null, null, false, Tier.GOLD, 1)));
+        assertFalse(p.test(new Row(0, 0, 0, null, null, false, Tier.GOLD, 2)));
+        assertSame(Predicates.alwaysTrue(), compiler.compile((Criteria) null));
+        assertEquals("customer.tier", CriteriaCompiler.qualify("customer", "tier"));
+        assertEquals("tier", CriteriaCompiler.qualify("", "tier"));
+    }
+
+    @Test
+    void rejectsAbsentFieldsAndMalformedOperands() {
+        assertFails("Unknown field: missing", () -> compile(basic("missing", BasicFilter.Operator.EQUAL, "1")));
+        assertFails("Unknown field: customer.missing", () -> compiler.compile(joined("customer", "missing")));
+        assertFails("Value for field n is not an integer: 1.5",
+                () -> compile(basic("n", BasicFilter.Operator.EQUAL, "1.5")));
+        assertFails("Value for field d is not a number: x",
+                () -> compile(basic("d", BasicFilter.Operator.LESS_THAN, "x")));
+        assertFails("Value for field at is not an ISO-8601 instant: today",
+                () -> compile(basic("at", BasicFilter.Operator.EQUAL, "today")));
+        assertFails("Value for field millis is not an ISO-8601 instant: 5", () -> compile(contains("millis", "5")));
+        assertFails("Value for field flag is not a boolean: yes",
+                () -> compile(basic("flag", BasicFilter.Operator.EQUAL, "yes")));
+        assertFails("Ordering operator not supported on field: flag",
+                () -> compile(basic("flag", BasicFilter.Operator.GREATER_THAN, "true")));
+        assertFails("Unknown Tier constant: PLATINUM",
+                () -> compile(basic("tier", BasicFilter.Operator.EQUAL, "PLATINUM")));
+        assertFails("Field is not temporal: s",
+                () -> compile(new DateTimeFilter("s", DateTimeFilter.Operator.AFTER, EPOCH)));
+        assertFails("Field is not temporal: n", () -> compile(new BetweenFilter("n", EPOCH, EPOCH)));
+
+        assertFails("basic filter operator must not be null", () -> compile(basic("n", null, "1")));
+        assertFails("basic filter value must not be null", () -> compile(basic("n", BasicFilter.Operator.EQUAL, null)));
+        assertFails("date-time filter operator must not be null", () -> compile(new DateTimeFilter("at", null, EPOCH)));
+        assertFails("date-time filter value must not be null",
+                () -> compile(new DateTimeFilter("at", DateTimeFilter.Operator.AFTER, null)));
+        assertFails("between_filter bounds must not be null", () -> compile(new BetweenFilter("at", EPOCH, null)));
+        assertFails("contains filter values must not be empty", () -> compile(new ContainsFilter("s", List.of())));
+        assertFails("filter must not be null", () -> compiler.compile((Filter) null));
+        Criteria nullJoin = new Criteria();
+        nullJoin.setJoins(Arrays.asList((JoinSpec) null));
+        assertFails("join must not be null", () -> compiler.compile(nullJoin));
+    }
+
+    @Test
+    void instantsOutsideTheMillisecondRangeAreRejectedOnEpochFields() {
+        String max = Instant.MAX.toString();
+        String tooLate = "Value for field millis is outside the epoch-millisecond range: " + max;
+        String tooEarly = "Value for field millis is outside the epoch-millisecond range: " + Instant.MIN;
+        assertFails(tooLate, () -> compile(basic("millis", BasicFilter.Operator.LESS_THAN, max)));
+        assertFails(tooLate, () -> compile(new DateTimeFilter("millis", DateTimeFilter.Operator.BEFORE, Instant.MAX)));
+        assertFails(tooEarly, () -> compile(new BetweenFilter("millis", Instant.MIN, EPOCH)));
+        assertFails(tooLate, () -> compile(contains("millis", EPOCH.toString(), max)));
+        assertFails(tooLate.replace("field millis", "field at"), () -> compile(contains("at", max)));
+
+        // instant fields compare without conversion, and extreme row values simply do not match
+        Row first = new Row(0, 0, 0, Instant.MIN, null, false, null, 0);
+        assertTrue(compile(new BetweenFilter("at", Instant.MIN, EPOCH)).test(first));
+        assertTrue(compile(basic("at", BasicFilter.Operator.LESS_THAN, max)).test(first));
+        assertFalse(compile(contains("at", EPOCH.toString())).test(first));
+    }
+
+    private void assertMatches(List<Row> rows, Filter filter, Predicate<Row> expected) {
+        Predicate<Row> compiled = compile(filter);
+        for (Row r : rows) {
+            assertEquals(expected.test(r), compiled.test(r), () -> filter + " on " + r);
+        }
+    }
+
+    private static void assertFails(String message, Executable compile) {
+        assertEquals(message, assertThrows(IllegalArgumentException.class, compile).getMessage());
+    }
+
+    private Predicate<Row> compile(Filter filter) {
+        return compiler.compile(filter);
+    }
+
+    /** Independent of {@link Comparison}: the operator's meaning applied to a comparison result. */
+    private static boolean holds(BasicFilter.Operator op, int cmp) {
+        return switch (op) {
+            case EQUAL -> cmp == 0;
+            case NOT_EQUAL -> cmp != 0;
+            case GREATER_THAN -> cmp > 0;
+            case GREATER_THAN_OR_EQUAL -> cmp >= 0;
+            case LESS_THAN -> cmp < 0;
+            case LESS_THAN_OR_EQUAL -> cmp <= 0;
+        };
+    }
+
+    /** Java's primitive operators, so NaN matches only {@code not_equal}. */
+    private static boolean doubleHolds(BasicFilter.Operator op, double v, double x) {
+        return switch (op) {
+            case EQUAL -> v == x;
+            case NOT_EQUAL -> v != x;
+            case GREATER_THAN -> v > x;
+            case GREATER_THAN_OR_EQUAL -> v >= x;
+            case LESS_THAN -> v < x;
+            case LESS_THAN_OR_EQUAL -> v <= x;
+        };
+    }
+
+    private static BasicFilter basic(String field, BasicFilter.Operator op, String value) {
+        return new BasicFilter(field, op, value);
+    }
+
+    private static ContainsFilter contains(String field, String... values) {
+        return new ContainsFilter(field, List.of(values));
+    }
+
+    private static Criteria joined(String join, String field) {
+        Criteria criteria = new Criteria();
+        criteria.setJoins(List.of(new JoinSpec(join, basic(field, BasicFilter.Operator.EQUAL, "1"))));
+        return criteria;
+    }
+
+    /** Small domains, so every operand hits equal, smaller and larger values; nullable kinds are null one in five. */
+    private List<Row> rows(int n) {
+        List<Row> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new Row(
+                    random.nextInt(5) - 1,
+                    DOUBLES[random.nextInt(DOUBLES.length)],
+                    EPOCH.plusSeconds(random.nextInt(5) - 1).toEpochMilli() + (random.nextInt(4) == 0 ? 1 : 0),
+                    random.nextInt(5) == 0 ? null : EPOCH.plusSeconds(random.nextInt(5) - 1),
+                    random.nextInt(5) == 0 ? null : STRINGS[random.nextInt(STRINGS.length)],
+                    random.nextBoolean(),
+                    random.nextInt(5) == 0 ? null : Tier.values()[random.nextInt(3)],
+                    random.nextInt(3)));
+        }
+        return rows;
+    }
+}
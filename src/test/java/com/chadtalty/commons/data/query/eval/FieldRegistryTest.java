@@ -0,0 +1,183 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/** Getter binding for records and beans, and lookups by name and by join. */
+class FieldRegistryTest {
+
+    enum Status {
+        DRAFT,
+        LIVE
+    }
+
+    record Author(String name, Address address) {}
+
+    record Address(String postalCode, int floor) {}
+
+    record Doc(
+            String issuer,
+            String isbn,
+            boolean isDraft,
+            int pages,
+            float price,
+            Instant published,
+            long createdAt,
+            Status status,
+            Author author) {}
+
+    /** A bean mixing {@code get} and {@code is} getters, one of them not boolean. */
+    public static final class Bean {
+
+        public String getIssuer() {
+            return "acme";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public int isCount() {
+            return 3;
+        }
+
+        public String getIsland() {
+            return "skye";
+        }
+    }
+
+    private static final Doc DOC = new Doc(
+            "acme",
+            "978-0",
+            true,
+            320,
+            9.5f,
+            Instant.ofEpochMilli(1_000),
+            2_000,
+            Status.LIVE,
+            new Author("ada", new Address("N1", 4)));
+
+    @Test
+    void bindsRecordAccessorsByLeafType() {
+        FieldRegistry<Doc> fields = FieldRegistry.builder(Doc.class, MethodHandles.lookup())
+                .bind("issuer")
+                .bind("isbn")
+                .bind("is_draft")
+                .bind("pages")
+                .bind("price")
+                .bind("published")
+                .bindEpochMillis("created_at")
+                .bind("status")
+                .bind("author.address.postal_code")
+                .bind("author.address.floor")
+                .build();
+
+        assertEquals("acme", string(fields, "issuer").getter().apply(DOC));
+        assertEquals("978-0", string(fields, "isbn").getter().apply(DOC));
+        assertTrue(assertInstanceOf(FieldAccessor.BooleanField.class, fields.resolve("is_draft")).getter().test(DOC));
+        assertEquals(320, assertInstanceOf(FieldAccessor.LongField.class, fields.resolve("pages"))
+                .getter()
+                .applyAsLong(DOC));
+        assertEquals(9.5, assertInstanceOf(FieldAccessor.DoubleField.class, fields.resolve("price"))
+                .getter()
+                .applyAsDouble(DOC));
+        assertEquals(DOC.published(), assertInstanceOf(FieldAccessor.InstantField.class, fields.resolve("published"))
+                .getter()
+                .apply(DOC));
+        assertEquals(2_000, assertInstanceOf(FieldAccessor.EpochMillisField.class, fields.resolve("created_at"))
+                .getter()
+                .applyAsLong(DOC));
+        assertEquals(Status.class, assertInstanceOf(FieldAccessor.EnumField.class, fields.resolve("status")).type());
+        assertEquals("N1", string(fields, "author.address.postal_code").getter().apply(DOC));
+    }
+
+    @Test
+    void nullIntermediatesYieldNullOnlyForObjectLeaves() {
+        FieldRegistry<Doc> fields = FieldRegistry.builder(Doc.class, MethodHandles.lookup())
+                .bind("author.address.postal_code")
+                .bind("author.address.floor")
+                .build();
+        Doc orphan = new Doc("a", "b", false, 1, 1, null, 0, null, new Author("x", null));
+
+        assertNull(string(fields, "author.address.postal_code").getter().apply(orphan));
+        FieldAccessor.LongField<?> floor = assertInstanceOf(FieldAccessor.LongField.class,
+                fields.resolve("author.address.floor"));
+        assertEquals(4, applyLong(floor, DOC));
+        assertThrows(NullPointerException.class, () -> applyLong(floor, orphan));
+    }
+
+    @Test
+    void bindsBeanGettersAndBooleanIsGettersOnly() {
+        FieldRegistry<Bean> fields = FieldRegistry.builder(Bean.class, MethodHandles.lookup())
+                .bind("issuer")
+                .bind("active")
+                .bind("island")
+                .build();
+        Bean bean = new Bean();
+
+        assertEquals("acme", assertInstanceOf(FieldAccessor.StringField.class, fields.resolve("issuer"))
+                .getter()
+                .apply(bean));
+        assertTrue(assertInstanceOf(FieldAccessor.BooleanField.class, fields.resolve("active"))
+                .getter()
+                .test(bean));
+        assertEquals("skye", assertInstanceOf(FieldAccessor.StringField.class, fields.resolve("island"))
+                .getter()
+                .apply(bean));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FieldRegistry.builder(Bean.class, MethodHandles.lookup()).bind("count"));
+        assertTrue(e.getMessage().startsWith("No getter for count"), e.getMessage());
+    }
+
+    @Test
+    void rejectsBadPaths() {
+        FieldRegistry.Builder<Doc> builder = FieldRegistry.builder(Doc.class, MethodHandles.lookup());
+        assertThrows(IllegalArgumentException.class, () -> builder.bind("missing"));
+        assertThrows(IllegalArgumentException.class, () -> builder.bind("author..name"));
+        assertThrows(IllegalArgumentException.class, () -> builder.bind(" "));
+        assertThrows(IllegalArgumentException.class, () -> builder.bind("pages.value"));
+        assertThrows(IllegalArgumentException.class, () -> builder.bind("author"));
+        assertThrows(IllegalArgumentException.class, () -> builder.bindEpochMillis("published"));
+        assertThrows(IllegalStateException.class, () -> FieldRegistry.<Doc>builder().bind("issuer"));
+    }
+
+    @Test
+    void findsByNameAndByJoinWithoutConcatenating() {
+        FieldRegistry<Doc> fields = FieldRegistry.builder(Doc.class, MethodHandles.lookup())
+                .bind("issuer")
+                .bind("author.name")
+                .field("issuer", FieldAccessor.ofString(Doc::isbn))
+                .build();
+
+        assertEquals(2, fields.size());
+        assertEquals(0, fields.ref("issuer").ordinal());
+        assertEquals("978-0", string(fields, "issuer").getter().apply(DOC));
+        assertSame(fields.ref("author.name"), fields.find("author", "name"));
+        assertSame(fields.ref("issuer"), fields.find(null, "issuer"));
+        assertNull(fields.find("author", "issuer"));
+        assertNull(fields.find("auth", "or.name"));
+        assertNull(fields.find(null));
+        assertSame(fields.ref(1), fields.refs().get(1));
+        assertFalse(fields.refs().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> fields.ref("nope"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldAccessor.StringField<Doc> string(FieldRegistry<Doc> fields, String name) {
+        return assertInstanceOf(FieldAccessor.StringField.class, fields.resolve(name));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long applyLong(FieldAccessor.LongField<?> field, Doc doc) {
+        return ((FieldAccessor.LongField<Doc>) field).getter().applyAsLong(doc);
+    }
+}
@@ -0,0 +1,158 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Differential test of the fork-join scan against {@link QueryExecutor}, with every input split into leaves. */
+class ParallelQueryExecutorTest {
+
+    /** Larger than one leaf, so every scan below is split. */
+    private static final int ROWS = 4 * ParallelQueryExecutor.MIN_LEAF + 123;
+
+    /** Reading {@code checked} fails on this row, which lies in the last leaf. */
+    private static final long POISON = ROWS - 7;
+
+    record Row(long id, long group, String name) {}
+
+    private final Random random = new Random(29);
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private final CriteriaCompiler<Row> compiler = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("id", FieldAccessor.ofLong(Row::id))
+            .field("group", FieldAccessor.ofLong(Row::group))
+            .field("name", FieldAccessor.ofString(Row::name))
+            .field("checked", FieldAccessor.ofLong(r -> {
+                if (r.id() == POISON) throw new IllegalStateException("bad row " + r.id());
+                return r.group();
+            }))
+            .build());
+
+    private final QueryExecutor<Row> sequential = new QueryExecutor<>(compiler);
+    private final ParallelQueryExecutor<Row> parallel = new ParallelQueryExecutor<>(compiler, pool, 0);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void sortedPagesAndListsMatchTheSequentialExecutor() {
+        List<Row> rows = rows(ROWS);
+        for (int t = 0; t < 60; t++) {
+            PageableCriteria criteria = criteria(random.nextInt(40), 1 + random.nextInt(200));
+            criteria.setSort(random.nextBoolean()
+                    ? new SortSpec(List.of("group", "name"), null)
+                    : new SortSpec(List.of("name"), List.of("group")));
+
+            // groups repeat thousands of times, so merged leaves must keep the global tie order
+            assertEquals(sequential.page(rows, criteria), parallel.page(rows, criteria), criteria::toString);
+            assertEquals(sequential.list(rows, criteria), parallel.list(rows, criteria));
+        }
+    }
+
+    @Test
+    void topKMergesAcrossSplits() {
+        List<Row> rows = rows(ROWS);
+        // the best rows sit in the last leaf, so every earlier leaf's selection must lose the merge
+        for (int i = rows.size() - 10; i < rows.size(); i++) {
+            rows.set(i, new Row(i, -1, "a"));
+        }
+        PageableCriteria criteria = criteria(0, 15);
+        criteria.setFilters(null);
+        criteria.setSort(new SortSpec(List.of("group"), null));
+
+        Page<Row> page = parallel.page(rows, criteria);
+        assertEquals(sequential.page(rows, criteria), page);
+        assertEquals(rows.subList(rows.size() - 10, rows.size()), page.content().subList(0, 10));
+    }
+
+    @Test
+    void unsortedPagesKeepEncounterOrderAndCount() {
+        List<Row> rows = rows(ROWS);
+        for (int t = 0; t < 30; t++) {
+            PageableCriteria criteria = criteria(random.nextInt(50), 1 + random.nextInt(300));
+            Page<Row> expected = sequential.page(rows, criteria);
+            Page<Row> actual = parallel.page(rows, criteria);
+
+            assertEquals(expected.content(), actual.content());
+            long matches = sequential.list(rows, criteria).size();
+            assertEquals(matches, actual.totalElements());
+            assertTrue(!expected.isCounted() || expected.totalElements() == matches);
+        }
+    }
+
+    @Test
+    void emptyAndTinyInputs() {
+        for (int n : new int[] {0, 1, 2, 17}) {
+            List<Row> rows = rows(n);
+            PageableCriteria sorted = criteria(0, 5);
+            sorted.setSort(new SortSpec(null, List.of("id")));
+            PageableCriteria unsorted = criteria(1, 1);
+
+            assertEquals(sequential.page(rows, sorted), parallel.page(rows, sorted));
+            assertEquals(sequential.page(rows, unsorted).content(), parallel.page(rows, unsorted).content());
+            assertEquals(sequential.list(rows, sorted), parallel.list(rows, sorted));
+        }
+        ForkJoinPool one = new ForkJoinPool(1);
+        ParallelQueryExecutor<Row> single = new ParallelQueryExecutor<>(compiler, one, 0);
+        List<Row> rows = rows(ROWS);
+        assertEquals(sequential.list(rows, criteria(0, 1)), single.list(rows, criteria(0, 1)));
+        one.shutdown();
+    }
+
+    @Test
+    void workerExceptionsReachTheCaller() {
+        List<Row> rows = rows(ROWS);
+        PageableCriteria criteria = criteria(0, 10);
+        criteria.setFilters(List.of(new BasicFilter("checked", BasicFilter.Operator.GREATER_THAN, "-1")));
+        criteria.setSort(new SortSpec(List.of("id"), null));
+
+        IllegalStateException page = assertThrows(IllegalStateException.class, () -> parallel.page(rows, criteria));
+        assertTrue(rootMessage(page).contains("bad row " + POISON), rootMessage(page));
+        assertThrows(IllegalStateException.class, () -> parallel.list(rows, criteria));
+
+        // the pool survives the failure
+        criteria.setFilters(null);
+        assertEquals(sequential.page(rows, criteria), parallel.page(rows, criteria));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelQueryExecutor<>(null));
+        assertThrows(IllegalArgumentException.class, () -> parallel.page(rows(3), null));
+        assertThrows(IllegalArgumentException.class, () -> parallel.page(rows(3), criteria(-1, 5)));
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+
+    /** About a fifth of the rows match: groups below two. */
+    private static PageableCriteria criteria(int page, int size) {
+        PageableCriteria criteria = new PageableCriteria(page, size, null);
+        criteria.setFilters(List.of(new BasicFilter("group", BasicFilter.Operator.LESS_THAN, "2")));
+        return criteria;
+    }
+
+    private List<Row> rows(int n) {
+        List<Row> rows = new ArrayList<>(n);
+        for (long id = 0; id < n; id++) {
+            rows.add(new Row(id, random.nextInt(10), random.nextInt(8) == 0 ? null : "n" + random.nextInt(5)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,54 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/** Conjunctions of every arity evaluate left to right and stop at the first failing part. */
+class PredicatesTest {
+
+    @Test
+    void andShortCircuitsAtEveryArity() {
+        for (int arity = 0; arity <= 6; arity++) {
+            for (int failing = -1; failing < arity; failing++) {
+                List<Integer> calls = new ArrayList<>();
+                List<Predicate<Object>> parts = new ArrayList<>();
+                for (int i = 0; i < arity; i++) {
+                    int index = i;
+                    boolean result = i != failing;
+                    parts.add(r -> {
+                        calls.add(index);
+                        return result;
+                    });
+                }
+
+                assertEquals(failing < 0, Predicates.and(parts).test("row"));
+                int evaluated = failing < 0 ? arity : failing + 1;
+                assertEquals(evaluated, calls.size());
+                for (int i = 0; i < evaluated; i++) {
+                    assertEquals(i, calls.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void acceptsPredicatesOfSupertypes() {
+        Predicate<Object> notNull = r -> r != null;
+        Predicate<CharSequence> nonEmpty = r -> r.length() > 0;
+        Predicate<String> and = Predicates.<String>and(List.of(notNull, nonEmpty));
+
+        assertTrue(and.test("x"));
+        assertFalse(and.test(""));
+        assertSame(notNull, Predicates.<String>and(List.of(notNull)));
+        assertTrue(Predicates.alwaysTrue().test(null));
+        assertFalse(Predicates.alwaysFalse().test(null));
+        assertSame(Predicates.alwaysTrue(), Predicates.and(List.of()));
+    }
+}
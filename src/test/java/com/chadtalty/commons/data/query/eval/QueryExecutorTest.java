@@ -0,0 +1,162 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/** Pages against a stable full sort followed by skip and limit. */
+class QueryExecutorTest {
+
+    record Row(long id, long group, String name, double score) {}
+
+    private static final List<String> FIELDS = List.of("group", "name", "score");
+
+    private final Random random = new Random(23);
+
+    private final CriteriaCompiler<Row> compiler = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("id", FieldAccessor.ofLong(Row::id))
+            .field("group", FieldAccessor.ofLong(Row::group))
+            .field("name", FieldAccessor.ofString(Row::name))
+            .field("score", FieldAccessor.ofDouble(Row::score))
+            .build());
+
+    private final QueryExecutor<Row> executor = new QueryExecutor<>(compiler);
+
+    @Test
+    void sortedPagesMatchAFullSort() {
+        for (int t = 0; t < 1_000; t++) {
+            List<Row> rows = rows(random.nextInt(150));
+            PageableCriteria criteria = new PageableCriteria(random.nextInt(6), 1 + random.nextInt(30), null);
+            criteria.setSort(sort());
+            long below = random.nextInt(6);
+            criteria.setFilters(List.of(new BasicFilter("group", BasicFilter.Operator.LESS_THAN, "" + below)));
+            List<Row> matches = rows.stream().filter(r -> r.group() < below).toList();
+
+            Page<Row> page = executor.page(rows, criteria);
+
+            List<Row> sorted = new ArrayList<>(matches);
+            sorted.sort(reference(criteria.getSort()));
+            assertEquals(slice(sorted, criteria.getPage(), criteria.getSize()), page.content(), criteria::toString);
+            assertEquals(matches.size(), page.totalElements());
+            assertEquals(sorted, executor.list(rows, criteria));
+        }
+    }
+
+    @Test
+    void unsortedPagesKeepEncounterOrderAndStopEarly() {
+        List<Row> rows = rows(100);
+        Page<Row> first = executor.page(rows, new PageableCriteria(0, 10, null));
+        assertEquals(rows.subList(0, 10), first.content());
+        assertFalse(first.isCounted());
+
+        Page<Row> last = executor.page(rows, new PageableCriteria(9, 11, null));
+        assertEquals(rows.subList(99, 100), last.content());
+        assertEquals(100, last.totalElements());
+        assertEquals(rows, executor.list(rows, null));
+    }
+
+    @Test
+    void pagesPastTheEndAreEmpty() {
+        List<Row> rows = rows(7);
+        PageableCriteria criteria = new PageableCriteria(3, 5, null);
+        criteria.setSort(new SortSpec(List.of("name"), null));
+
+        Page<Row> page = executor.page(rows, criteria);
+        assertTrue(page.content().isEmpty());
+        assertEquals(7, page.totalElements());
+        assertTrue(executor.page(List.of(), criteria).content().isEmpty());
+
+        // a page far beyond any array still selects over every row
+        Page<Row> deep = QueryExecutor.page(rows, r -> true, Comparator.comparingLong(Row::id), 1 << 29, 500);
+        assertTrue(deep.content().isEmpty());
+        assertEquals(7, deep.totalElements());
+    }
+
+    @Test
+    void filterIsAppliedBeforePaging() {
+        List<Row> rows = rows(50);
+        Predicate<Row> even = r -> r.id() % 2 == 0;
+        Page<Row> page = QueryExecutor.page(rows, even, null, 1, 5);
+        assertEquals(rows.stream().filter(even).skip(5).limit(5).toList(), page.content());
+    }
+
+    @Test
+    void rejectsBadPages() {
+        List<Row> rows = rows(3);
+        assertThrows(IllegalArgumentException.class, () -> executor.page(rows, null));
+        assertThrows(IllegalArgumentException.class, () -> executor.page(rows, new PageableCriteria(0, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> executor.page(rows, new PageableCriteria(0, 5, "abc")));
+        assertThrows(IllegalArgumentException.class, () -> executor.page(rows, new PageableCriteria(-1, 5, null)));
+        assertThrows(IllegalArgumentException.class, () -> executor.page(rows, new PageableCriteria(0, 0, null)));
+    }
+
+    /** A random sort over disjoint ascending and descending fields, sometimes none. */
+    private SortSpec sort() {
+        List<String> ascending = new ArrayList<>();
+        List<String> descending = new ArrayList<>();
+        List<String> fields = new ArrayList<>(FIELDS);
+        Collections.shuffle(fields, random);
+        for (String f : fields) {
+            int pick = random.nextInt(3);
+            if (pick == 1) ascending.add(f);
+            if (pick == 2) descending.add(f);
+        }
+        if (ascending.isEmpty() && descending.isEmpty()) ascending.add("id");
+        return new SortSpec(ascending, descending);
+    }
+
+    /** The documented order, built independently: ascending fields, then descending ones, nulls last in both. */
+    private static Comparator<Row> reference(SortSpec sort) {
+        Comparator<Row> order = (a, b) -> 0;
+        for (String f : sort.getAscending()) {
+            order = order.thenComparing(key(f, false));
+        }
+        for (String f : sort.getDescending()) {
+            order = order.thenComparing(key(f, true));
+        }
+        return order;
+    }
+
+    private static Comparator<Row> key(String field, boolean descending) {
+        Function<Row, Comparable<Object>> g = r -> comparable(switch (field) {
+            case "id" -> r.id();
+            case "group" -> r.group();
+            case "name" -> r.name();
+            default -> r.score();
+        });
+        Comparator<Comparable<Object>> values = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        return Comparator.comparing(g, Comparator.nullsLast(values));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+
+    private static List<Row> slice(List<Row> sorted, int page, int size) {
+        int from = Math.min(sorted.size(), page * size);
+        return sorted.subList(from, Math.min(sorted.size(), from + size));
+    }
+
+    private List<Row> rows(int n) {
+        List<Row> rows = new ArrayList<>(n);
+        for (long id = 0; id < n; id++) {
+            String name = random.nextInt(5) == 0 ? null : "n" + random.nextInt(4);
+            rows.add(new Row(id, random.nextInt(5), name, random.nextInt(4) / 2.0));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chadtalty.commons.data.query.eval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Selections against the prefix of a stable full sort. */
+class TopKTest {
+
+    /** {@code key} repeats often, so most comparisons tie; {@code id} is the arrival order. */
+    record Item(Integer key, int id) {}
+
+    private static final Comparator<Item> BY_KEY =
+            Comparator.comparing(Item::key, Comparator.nullsLast(Integer::compare));
+
+    private final Random random = new Random(17);
+
+    @Test
+    void matchesAStableSortForAnyK() {
+        for (int t = 0; t < 2_000; t++) {
+            List<Item> items = items(random.nextInt(200));
+            int k = random.nextInt(items.size() + 10);
+            TopK<Item> top = new TopK<>(BY_KEY, k);
+            for (Item item : items) {
+                top.offer(item);
+            }
+
+            assertEquals(Math.min(k, items.size()), top.size());
+            assertEquals(prefix(items, BY_KEY, k), top.drainSorted());
+            assertEquals(0, top.size());
+        }
+    }
+
+    @Test
+    void multiKeyOrderMatchesAFullSort() {
+        Comparator<Item> order = Comparator.comparing((Item i) -> i.id() % 3)
+                .thenComparing(BY_KEY.reversed())
+                .thenComparing(Item::id);
+        for (int t = 0; t < 500; t++) {
+            List<Item> items = items(random.nextInt(300));
+            int k = 1 + random.nextInt(40);
+            TopK<Item> top = new TopK<>(order, k);
+            items.forEach(top::offer);
+
+            assertEquals(prefix(items, order, k), top.drainSorted());
+        }
+    }
+
+    @Test
+    void mergedSelectionsEqualOneSelection() {
+        for (int t = 0; t < 500; t++) {
+            List<Item> items = items(random.nextInt(300));
+            int k = random.nextInt(50);
+            int split = items.isEmpty() ? 0 : random.nextInt(items.size());
+            TopK<Item> left = new TopK<>(BY_KEY, k);
+            TopK<Item> right = new TopK<>(BY_KEY, k);
+            for (int i = 0; i < items.size(); i++) {
+                (i < split ? left : right).offer(items.get(i), i);
+            }
+            left.addAll(right);
+
+            assertEquals(prefix(items, BY_KEY, k), left.drainSorted());
+        }
+    }
+
+    @Test
+    void zeroKeepsNothingAndRangesClamp() {
+        TopK<Item> none = new TopK<>(BY_KEY, 0);
+        assertFalse(none.offer(new Item(1, 0)));
+        assertTrue(none.isFull());
+        assertNull(none.peekWorst());
+        assertEquals(List.of(), none.drainSorted());
+
+        List<Item> items = items(30);
+        TopK<Item> top = new TopK<>(BY_KEY, 10);
+        items.forEach(top::offer);
+        assertTrue(top.isFull());
+        List<Item> expected = prefix(items, BY_KEY, 10);
+        assertEquals(expected.get(9), top.peekWorst());
+        assertEquals(expected.subList(5, 10), top.drainRange(5, 50));
+        assertEquals(List.of(), top.drainRange(0, 10));
+
+        items.forEach(top::offer);
+        assertEquals(List.of(), top.drainRange(12, 20));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<>(BY_KEY, -1));
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Item>(null, 1));
+    }
+
+    private static List<Item> prefix(List<Item> items, Comparator<Item> order, int k) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(order);
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    private List<Item> items(int n) {
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            items.add(new Item(random.nextInt(6) == 0 ? null : random.nextInt(8), i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,211 @@
+package com.chadtalty.commons.data.query.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import com.chadtalty.commons.data.query.eval.Page;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test of index-assisted evaluation against {@link QueryExecutor} scanning the same table, under
+ * random inserts, updates and deletes.
+ */
+class IndexedTableTest {
+
+    private static final String[] STATUSES = {"open", "closed", "held", null};
+
+    /** Negative amounts make the accessor throw, to exercise writes that fail half-way through the indexes. */
+    private static final CriteriaCompiler<Row> COMPILER = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("amount", FieldAccessor.ofLong(r -> {
+                if (r.amount() < 0) throw new IllegalStateException("negative amount");
+                return r.amount();
+            }))
+            .field("status", FieldAccessor.ofString(Row::status))
+            .field("kind", FieldAccessor.ofEnum(Kind.class, Row::kind))
+            .field("flag", FieldAccessor.ofBoolean(Row::flag))
+            .field("created", FieldAccessor.ofEpochMillis(Row::created))
+            .field("seen", FieldAccessor.ofInstant(Row::seen))
+            .field("n", FieldAccessor.ofLong(Row::n))
+            .build());
+
+    private final Random random = new Random(42);
+
+    enum Kind {
+        A,
+        B,
+        C
+    }
+
+    record Row(long amount, String status, Kind kind, boolean flag, long created, Instant seen, int n) {}
+
+    @Test
+    void indexedQueriesMatchScans() {
+        QueryExecutor<Row> scan = new QueryExecutor<>(COMPILER);
+        IndexedTable<Row> table = table();
+        List<Integer> ids = new ArrayList<>();
+        int answered = 0;
+        for (int step = 0; step < 1_500; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || ids.isEmpty()) {
+                for (int k = 0; k < 20; k++) {
+                    ids.add(table.insert(row()));
+                }
+            } else if (op < 6) {
+                List<Row> batch = new ArrayList<>();
+                for (int k = 0; k < 30; k++) {
+                    batch.add(row());
+                }
+                for (int id : table.insertAll(batch)) {
+                    ids.add(id);
+                }
+            } else if (op < 8) {
+                assertTrue(table.delete(ids.remove(random.nextInt(ids.size()))));
+            } else {
+                table.update(ids.get(random.nextInt(ids.size())), row());
+            }
+            assertEquals(ids.size(), table.size());
+
+            for (int q = 0; q < 3; q++) {
+                PageableCriteria criteria = new PageableCriteria(random.nextInt(3), 1 + random.nextInt(10), null);
+                List<Filter> filters = new ArrayList<>();
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    filters.add(filter());
+                }
+                criteria.setFilters(filters);
+                if (random.nextBoolean()) criteria.setSort(new SortSpec(List.of("created"), List.of("n")));
+
+                String expectedError = null;
+                String actualError = null;
+                Page<Row> expected = null;
+                Page<Row> actual = null;
+                try {
+                    expected = scan.page(table, criteria);
+                } catch (IllegalArgumentException e) {
+                    expectedError = e.getMessage();
+                }
+                try {
+                    actual = table.page(criteria);
+                } catch (IllegalArgumentException e) {
+                    actualError = e.getMessage();
+                }
+                assertEquals(expectedError, actualError, filters::toString);
+                assertEquals(expected, actual, filters::toString);
+                if (expectedError != null) continue;
+                assertEquals(scan.list(table, criteria), table.list(criteria), filters::toString);
+                answered++;
+            }
+        }
+        assertTrue(answered > 3_000, "answered: " + answered);
+    }
+
+    @Test
+    void failedWritesLeaveTableUnchanged() {
+        IndexedTable<Row> table = table();
+        int first = table.insert(new Row(1, "open", Kind.A, true, 1_000_000, null, 1));
+        int second = table.insert(new Row(2, "held", Kind.B, false, 1_001_000, null, 2));
+        table.delete(first);
+        Row poison = new Row(-1, "open", Kind.C, true, 1_002_000, null, 3);
+
+        assertThrows(IllegalStateException.class, () -> table.insert(poison));
+        assertThrows(IllegalStateException.class, () -> table.insertAll(List.of(row(), poison)));
+        assertThrows(IllegalStateException.class, () -> table.update(second, poison));
+
+        assertEquals(1, table.size());
+        assertEquals(List.of(table.get(second)), table.list(new Criteria()));
+        for (String status : new String[] {"open", "held"}) {
+            Criteria criteria = new Criteria();
+            criteria.setFilters(List.of(new BasicFilter("status", BasicFilter.Operator.EQUAL, status)));
+            assertEquals(new QueryExecutor<>(COMPILER).list(table, criteria), table.list(criteria), status);
+        }
+        // the freed id is still the next one handed out
+        assertEquals(first, table.insert(row()));
+        assertEquals(2, table.size());
+    }
+
+    private static IndexedTable<Row> table() {
+        // bitmap indexes first, so the throwing amount index fails after they were updated
+        return IndexedTable.builder(COMPILER)
+                .bitmapIndex("status")
+                .bitmapIndex("kind")
+                .bitmapIndex("flag")
+                .sortedIndex("created")
+                .sortedIndex("seen")
+                .sortedIndex("amount")
+                .build();
+    }
+
+    private Row row() {
+        Instant seen = random.nextInt(5) == 0 ? null : instant();
+        return new Row(
+                random.nextInt(20),
+                STATUSES[random.nextInt(STATUSES.length)],
+                random.nextInt(6) == 0 ? null : Kind.values()[random.nextInt(3)],
+                random.nextBoolean(),
+                1_000_000 + random.nextInt(50) * 1000L,
+                seen,
+                random.nextInt(1000));
+    }
+
+    /** Seconds with sub-millisecond parts, so instant keys are floored by the sorted index. */
+    private Instant instant() {
+        return Instant.ofEpochSecond(1000 + random.nextInt(50), random.nextInt(4) * 333_333L);
+    }
+
+    private Filter filter() {
+        String[] temporal = {"created", "seen"};
+        BasicFilter.Operator op = BasicFilter.Operator.values()[random.nextInt(6)];
+        switch (random.nextInt(7)) {
+            case 0:
+                return new DateTimeFilter(
+                        temporal[random.nextInt(2)], DateTimeFilter.Operator.values()[random.nextInt(6)], instant());
+            case 1:
+                return new BetweenFilter(temporal[random.nextInt(2)], instant(), instant());
+            case 2:
+                return new BasicFilter("amount", op, random.nextInt(10) == 0 ? "x" : "" + random.nextInt(20));
+            case 3: {
+                String field = new String[] {"status", "kind", "flag"}[random.nextInt(3)];
+                String value = switch (field) {
+                    case "status" -> String.valueOf(STATUSES[random.nextInt(3)]);
+                    case "kind" -> Kind.values()[random.nextInt(3)].name().toLowerCase();
+                    default -> Boolean.toString(random.nextBoolean());
+                };
+                return new BasicFilter(field, op, value);
+            }
+            case 4: {
+                String field = new String[] {"status", "kind", "amount", "created"}[random.nextInt(4)];
+                List<String> values = new ArrayList<>();
+                for (int n = 1 + random.nextInt(3); n > 0; n--) {
+                    values.add(switch (field) {
+                        case "status" -> Objects.requireNonNull(STATUSES[random.nextInt(3)]);
+                        case "kind" -> Kind.values()[random.nextInt(3)].name();
+                        case "amount" -> "0" + random.nextInt(20);
+                        default -> instant().toString();
+                    });
+                }
+                return new ContainsFilter(field, values);
+            }
+            case 5:
+                return new BasicFilter("n", op, "" + random.nextInt(1000));
+            default:
+                return new BasicFilter("created", op, instant().toString());
+        }
+    }
+}
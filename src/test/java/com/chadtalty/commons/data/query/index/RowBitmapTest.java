@@ -0,0 +1,67 @@
+package com.chadtalty.commons.data.query.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/** Random sparse and dense bitmaps checked against {@link TreeSet} set algebra. */
+class RowBitmapTest {
+
+    @Test
+    void matchesTreeSet() {
+        Random random = new Random(42);
+        for (int t = 0; t < 200; t++) {
+            int range = random.nextBoolean() ? 200_000 : 70_000;
+            TreeSet<Integer> s1 = new TreeSet<>();
+            TreeSet<Integer> s2 = new TreeSet<>();
+            RowBitmap b1 = new RowBitmap();
+            RowBitmap b2 = new RowBitmap();
+            int n1 = random.nextInt(t % 3 == 0 ? 20_000 : 3_000);
+            int n2 = random.nextInt(t % 4 == 0 ? 20_000 : 3_000);
+            for (int i = 0; i < n1; i++) {
+                int v = random.nextInt(range);
+                assertEquals(s1.add(v), b1.add(v));
+            }
+            for (int i = 0; i < n2; i++) {
+                int v = random.nextInt(range);
+                assertEquals(s2.add(v), b2.add(v));
+            }
+            for (int i = 0; i < n1 / 2; i++) {
+                int v = random.nextInt(range);
+                assertEquals(s1.remove(v), b1.remove(v));
+            }
+            assertSame(s1, b1);
+            assertSame(s2, b2);
+
+            TreeSet<Integer> and = new TreeSet<>(s1);
+            and.retainAll(s2);
+            assertSame(and, RowBitmap.and(b1, b2));
+            TreeSet<Integer> or = new TreeSet<>(s1);
+            or.addAll(s2);
+            assertSame(or, RowBitmap.or(b1, b2));
+            TreeSet<Integer> andNot = new TreeSet<>(s1);
+            andNot.removeAll(s2);
+            assertSame(andNot, RowBitmap.andNot(b1, b2));
+        }
+    }
+
+    private static void assertSame(TreeSet<Integer> expected, RowBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual.toArray());
+        List<Integer> iterated = new ArrayList<>();
+        for (PrimitiveIterator.OfInt it = actual.iterator(); it.hasNext(); ) {
+            iterated.add(it.nextInt());
+        }
+        assertEquals(new ArrayList<>(expected), iterated);
+        for (int v : expected) {
+            assertTrue(actual.contains(v));
+        }
+    }
+}
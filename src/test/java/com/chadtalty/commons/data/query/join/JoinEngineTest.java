@@ -0,0 +1,223 @@
+package com.chadtalty.commons.data.query.join;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test of batched joins against a nested loop over the same rows, using {@link InMemoryJoinLoader} to
+ * check that each path is loaded once with exactly the surviving parents' keys.
+ */
+class JoinEngineTest {
+
+    private static final CriteriaCompiler<Order> ORDERS = new CriteriaCompiler<>(FieldRegistry.<Order>builder()
+            .field("amount", FieldAccessor.ofLong(Order::amount))
+            .build());
+    private static final CriteriaCompiler<Customer> CUSTOMERS = new CriteriaCompiler<>(FieldRegistry.<Customer>builder()
+            .field("name", FieldAccessor.ofString(Customer::name))
+            .field("tier", FieldAccessor.ofLong(Customer::tier))
+            .build());
+    private static final CriteriaCompiler<Address> ADDRESSES = new CriteriaCompiler<>(FieldRegistry.<Address>builder()
+            .field("postal_code", FieldAccessor.ofString(Address::postalCode))
+            .build());
+
+    private final Random random = new Random(3);
+
+    record Order(long id, Long customerId, Long addressId, long amount) {}
+
+    record Customer(long id, String name, long tier) {}
+
+    record Address(long id, String postalCode) {}
+
+    @Test
+    void matchesNestedLoop() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            // ids repeat, so a parent can join several customers
+            customers.add(new Customer(random.nextInt(50), random.nextInt(8) == 0 ? null : "c" + random.nextInt(5),
+                    random.nextInt(3)));
+        }
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            addresses.add(new Address(i, "P" + random.nextInt(4)));
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            orders.add(new Order(i, random.nextInt(10) == 0 ? null : (long) random.nextInt(60),
+                    random.nextInt(10) == 0 ? null : (long) random.nextInt(35), random.nextInt(100)));
+        }
+
+        for (int t = 0; t < 2_000; t++) {
+            InMemoryJoinLoader<Long, Customer> customerLoader = new InMemoryJoinLoader<>(customers, Customer::id);
+            InMemoryJoinLoader<Long, Address> addressLoader = new InMemoryJoinLoader<>(addresses, Address::id);
+            JoinEngine<Order> engine = JoinEngine.builder(ORDERS)
+                    .path("customer", Order::customerId, customerLoader, Customer::id, CUSTOMERS)
+                    .path("address", Order::addressId, addressLoader, Address::id, ADDRESSES)
+                    .build();
+
+            List<JoinSpec> joins = new ArrayList<>();
+            for (int n = random.nextInt(4); n > 0; n--) {
+                joins.add(random.nextBoolean()
+                        ? new JoinSpec("customer", random.nextInt(4) == 0 ? null : customerFilter())
+                        : new JoinSpec("address", random.nextInt(4) == 0 ? null : addressFilter()));
+            }
+            List<Filter> filters = random.nextBoolean()
+                    ? List.of()
+                    : List.of(new BasicFilter("amount", BasicFilter.Operator.LESS_THAN, "" + random.nextInt(100)));
+            Criteria criteria = new Criteria(joins, filters, null);
+
+            JoinResult<Order> result = engine.execute(orders, criteria);
+
+            Predicate<Order> own = ORDERS.compile(new Criteria(null, filters, null));
+            Predicate<Customer> customerMatch =
+                    CUSTOMERS.compile(new Criteria(null, filtersOf(joins, "customer"), null));
+            Predicate<Address> addressMatch = ADDRESSES.compile(new Criteria(null, filtersOf(joins, "address"), null));
+            boolean customerJoined = joins.stream().anyMatch(j -> j.getJoin().equals("customer"));
+            boolean addressJoined = joins.stream().anyMatch(j -> j.getJoin().equals("address"));
+            List<Order> survivors = orders.stream().filter(own).toList();
+            List<Order> expected = new ArrayList<>();
+            for (Order order : survivors) {
+                List<Customer> c = matches(customers, Customer::id, order.customerId(), customerMatch);
+                List<Address> a = matches(addresses, Address::id, order.addressId(), addressMatch);
+                if (!filtersOf(joins, "customer").isEmpty() && c.isEmpty()) continue;
+                if (!filtersOf(joins, "address").isEmpty() && a.isEmpty()) continue;
+                expected.add(order);
+                if (customerJoined) assertEquals(c, result.joined("customer", order));
+                if (addressJoined) assertEquals(a, result.joined("address", order));
+            }
+            assertEquals(expected, result.rows(), joins::toString);
+
+            assertLoadedOnce(customerLoader, customerJoined, survivors, Order::customerId);
+            assertLoadedOnce(addressLoader, addressJoined, survivors, Order::addressId);
+        }
+    }
+
+    @Test
+    void unknownPathsAndFieldsFailBeforeLoading() {
+        InMemoryJoinLoader<Long, Customer> loader = new InMemoryJoinLoader<>(List.of(), Customer::id);
+        JoinEngine<Order> engine = JoinEngine.builder(ORDERS)
+                .path("customer", Order::customerId, loader, Customer::id, CUSTOMERS)
+                .build();
+        List<Order> orders = List.of(new Order(1, 1L, null, 5));
+
+        IllegalArgumentException unknownPath = assertThrows(IllegalArgumentException.class,
+                () -> engine.execute(orders, new Criteria(List.of(new JoinSpec("nope", null)), null, null)));
+        assertEquals("Unknown join path: nope", unknownPath.getMessage());
+        Filter zip = new BasicFilter("zip", BasicFilter.Operator.EQUAL, "x");
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.execute(orders, new Criteria(List.of(new JoinSpec("customer", zip)), null, null)));
+        assertEquals(0, loader.loadCount());
+    }
+
+    @Test
+    void pathsLoadConcurrently() {
+        CountDownLatch bothLoading = new CountDownLatch(2);
+        JoinLoader<Long, Customer> customers = keys -> {
+            await(bothLoading);
+            return List.of(new Customer(1, "c1", 0));
+        };
+        JoinLoader<Long, Address> addresses = keys -> {
+            await(bothLoading);
+            return List.of(new Address(2, "P1"));
+        };
+        JoinEngine<Order> engine = JoinEngine.builder(ORDERS)
+                .path("customer", Order::customerId, customers, Customer::id, CUSTOMERS)
+                .path("address", Order::addressId, addresses, Address::id, ADDRESSES)
+                .build();
+        Order order = new Order(1, 1L, 2L, 5);
+
+        JoinResult<Order> result = engine.execute(List.of(order),
+                new Criteria(List.of(new JoinSpec("customer", null), new JoinSpec("address", null)), null, null));
+
+        assertEquals(List.of(order), result.rows());
+        assertEquals(List.of(new Address(2, "P1")), result.joined("address", order));
+    }
+
+    @Test
+    void loaderFailuresPropagate() {
+        JoinLoader<Long, Customer> down = keys -> {
+            throw new IllegalStateException("db down");
+        };
+        JoinEngine<Order> engine = JoinEngine.builder(ORDERS)
+                .path("customer", Order::customerId, down, Customer::id, CUSTOMERS)
+                .path("address", Order::addressId, new InMemoryJoinLoader<>(List.<Address>of(), Address::id),
+                        Address::id, ADDRESSES)
+                .build();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> engine.execute(
+                List.of(new Order(1, 1L, 2L, 5)),
+                new Criteria(List.of(new JoinSpec("customer", null), new JoinSpec("address", null)), null, null)));
+        assertEquals("db down", e.getMessage());
+    }
+
+    private Filter customerFilter() {
+        if (random.nextBoolean()) {
+            return new ContainsFilter("name", List.of("c" + random.nextInt(5), "c" + random.nextInt(5)));
+        }
+        BasicFilter.Operator op = random.nextBoolean() ? BasicFilter.Operator.EQUAL : BasicFilter.Operator.NOT_EQUAL;
+        return random.nextBoolean()
+                ? new BasicFilter("name", op, "c" + random.nextInt(5))
+                : new BasicFilter("tier", op, "" + random.nextInt(3));
+    }
+
+    private Filter addressFilter() {
+        BasicFilter.Operator op = random.nextBoolean() ? BasicFilter.Operator.EQUAL : BasicFilter.Operator.NOT_EQUAL;
+        return new BasicFilter("postal_code", op, "P" + random.nextInt(4));
+    }
+
+    private static List<Filter> filtersOf(List<JoinSpec> joins, String path) {
+        return joins.stream()
+                .filter(j -> j.getJoin().equals(path) && j.getFilter() != null)
+                .map(JoinSpec::getFilter)
+                .toList();
+    }
+
+    private static <C> List<C> matches(
+            List<C> rows, Function<C, Long> key, Long parentKey, Predicate<C> filter) {
+        if (parentKey == null) return List.of();
+        return rows.stream().filter(r -> parentKey.equals(key.apply(r)) && filter.test(r)).toList();
+    }
+
+    private static void assertLoadedOnce(
+            InMemoryJoinLoader<Long, ?> loader,
+            boolean joined,
+            List<Order> survivors,
+            Function<Order, Long> key) {
+        Set<Long> keys = new LinkedHashSet<>();
+        survivors.stream().map(key).filter(Objects::nonNull).forEach(keys::add);
+        if (!joined || keys.isEmpty()) {
+            assertEquals(0, loader.loadCount());
+        } else {
+            assertEquals(List.of(keys), loader.requests());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "paths were loaded one after the other");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.chadtalty.commons.data.query.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/** Interning is limited to valid field names, and a flood of one-off names cannot pin the table. */
+class FieldNameInternerTest {
+
+    private final FieldNameInterner interner = new FieldNameInterner(16);
+
+    @Test
+    void repeatedNamesShareOneString() {
+        String first = intern("customer.postal_code");
+        assertEquals("customer.postal_code", first);
+        assertSame(first, intern("customer.postal_code"));
+    }
+
+    @Test
+    void namesTheValidatorRejectsAreNotInterned() {
+        assertNotSame(intern("amount total"), intern("amount total"));
+        assertNotSame(intern("région"), intern("région"));
+        String tooLong = "x".repeat(129);
+        assertNotSame(intern(tooLong), intern(tooLong));
+    }
+
+    @Test
+    void workingSetRecoversAfterAFlood() {
+        for (int i = 0; i < 100_000; i++) {
+            intern("junk_" + i);
+        }
+        String amount = intern("amount");
+        assertSame(amount, intern("amount"));
+        assertEquals("amount", amount);
+    }
+
+    private String intern(String name) {
+        char[] buf = ("{\"field\":\"" + name + "\"}").toCharArray();
+        return interner.intern(buf, 10, name.length());
+    }
+}
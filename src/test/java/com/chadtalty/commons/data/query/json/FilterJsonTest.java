@@ -0,0 +1,144 @@
+package com.chadtalty.commons.data.query.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Pins the filter wire format: exact payloads per type, type inference, and the exception each bad input raises. */
+class FilterJsonTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-02-01T12:30:45.123Z");
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void everyTypeRoundTripsThroughItsExactPayload() throws Exception {
+        assertWire(new BasicFilter("status", BasicFilter.Operator.EQUAL, "ACTIVE"),
+                "{\"type\":\"basic\",\"field\":\"status\",\"operator\":\"equal\",\"value\":\"ACTIVE\"}");
+        assertWire(new DateTimeFilter("created_at", DateTimeFilter.Operator.AFTER_OR_EQUAL, END),
+                "{\"type\":\"datetime\",\"field\":\"created_at\",\"operator\":\"after_or_equal\","
+                        + "\"value\":\"2025-02-01T12:30:45.123Z\"}");
+        assertWire(new BetweenFilter("created_at", START, END),
+                "{\"type\":\"between\",\"field\":\"created_at\",\"operator\":\"between\","
+                        + "\"start_date_time\":\"2025-01-01T00:00:00.000Z\","
+                        + "\"end_date_time\":\"2025-02-01T12:30:45.123Z\"}");
+        assertWire(new ContainsFilter("customer.tier", List.of("gold", "silver")),
+                "{\"type\":\"contains\",\"field\":\"customer.tier\",\"operator\":\"in\","
+                        + "\"values\":[\"gold\",\"silver\"]}");
+        // empty values are omitted, as the annotated beans would
+        assertWire(new BasicFilter("status", BasicFilter.Operator.NOT_EQUAL, ""),
+                "{\"type\":\"basic\",\"field\":\"status\",\"operator\":\"not_equal\"}", new BasicFilter(
+                        "status", BasicFilter.Operator.NOT_EQUAL, null));
+    }
+
+    @Test
+    void instantsAreWrittenInUtcMillisAndReadInEveryAcceptedShape() throws Exception {
+        DateTimeFilter fine = new DateTimeFilter("at", DateTimeFilter.Operator.BEFORE, END.plusNanos(999_999));
+        assertEquals("{\"type\":\"datetime\",\"field\":\"at\",\"operator\":\"before\","
+                + "\"value\":\"2025-02-01T12:30:45.123Z\"}", mapper.writeValueAsString(fine));
+
+        assertEquals(END, readValue(mapper, "\"2025-02-01T14:30:45.123+02\""));
+        assertEquals(END, readValue(mapper, "1738413045.123"));
+        // integers follow jackson-datatype-jsr310: epoch seconds by default, milliseconds when nanoseconds are off
+        assertEquals(END.minusMillis(123), readValue(mapper, "1738413045"));
+        ObjectMapper millis = JsonMapper.builder()
+                .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+        assertEquals(END, readValue(millis, "1738413045123"));
+        assertThrows(InvalidFormatException.class,
+                () -> read("{\"type\":\"datetime\",\"field\":\"at\",\"operator\":\"before\",\"value\":\"today\"}"));
+    }
+
+    @Test
+    void missingTypeIsInferredFromTheSignature() throws Exception {
+        assertInstanceOf(ContainsFilter.class, read("{\"field\":\"f\",\"values\":[\"a\"]}"));
+        assertInstanceOf(ContainsFilter.class, read("{\"field\":\"f\",\"operator\":\"in\"}"));
+        assertInstanceOf(BetweenFilter.class, read("{\"field\":\"f\",\"end_date_time\":\"2025-01-01T00:00:00.000Z\"}"));
+        assertInstanceOf(BetweenFilter.class, read("{\"field\":\"f\",\"operator\":\" Between \"}"));
+        assertInstanceOf(DateTimeFilter.class, read("{\"field\":\"f\",\"operator\":\"after\"}"));
+        // equal and not_equal are shared, and resolve to the basic type
+        assertInstanceOf(BasicFilter.class, read("{\"field\":\"f\",\"operator\":\"equal\",\"value\":\"x\"}"));
+        assertInstanceOf(BasicFilter.class, read("{\"field\":\"f\",\"operator\":\"LESS_THAN\",\"value\":\"1\"}"));
+
+        // a type anywhere in the object wins over the signature
+        Filter late = read("{\"field\":\"f\",\"operator\":\"equal\",\"value\":\"2025-01-01T00:00:00.000Z\","
+                + "\"type\":\"datetime\"}");
+        assertEquals(new DateTimeFilter("f", DateTimeFilter.Operator.EQUAL, START), late);
+        // a type is optional when the target is a concrete subtype
+        assertEquals(new BasicFilter("f", BasicFilter.Operator.EQUAL, "1"),
+                mapper.readValue("{\"field\":\"f\",\"operator\":\"equal\",\"value\":\"1\"}", BasicFilter.class));
+    }
+
+    @Test
+    void unknownOrUnresolvableTypesAreInvalidTypeIds() {
+        assertThrows(InvalidTypeIdException.class, () -> read("{\"type\":\"fuzzy\",\"field\":\"f\"}"));
+        assertThrows(InvalidTypeIdException.class, () -> read("{\"field\":\"f\",\"value\":\"x\"}"));
+        assertThrows(InvalidTypeIdException.class, () -> read("{\"field\":\"f\",\"operator\":\"like\"}"));
+        assertThrows(InvalidTypeIdException.class,
+                () -> mapper.readValue("{\"type\":\"contains\",\"field\":\"f\"}", BasicFilter.class));
+    }
+
+    @Test
+    void malformedPropertiesAreMismatchedInput() throws Exception {
+        assertThrows(MismatchedInputException.class,
+                () -> read("{\"type\":\"contains\",\"field\":\"f\",\"values\":\"a\"}"));
+        assertThrows(MismatchedInputException.class,
+                () -> read("{\"type\":\"contains\",\"field\":\"f\",\"values\":[\"a\",[\"b\"]]}"));
+        assertThrows(MismatchedInputException.class,
+                () -> read("{\"type\":\"contains\",\"field\":\"f\",\"values\":{\"a\":1}}"));
+        assertThrows(MismatchedInputException.class, () -> read("{\"type\":\"basic\",\"field\":{\"f\":1}}"));
+        assertThrows(MismatchedInputException.class, () -> read("[\"basic\"]"));
+
+        UnrecognizedPropertyException stray = assertThrows(UnrecognizedPropertyException.class,
+                () -> read("{\"type\":\"basic\",\"field\":\"f\",\"values\":[\"a\"]}"));
+        assertEquals("values", stray.getPropertyName());
+        assertThrows(InvalidFormatException.class,
+                () -> read("{\"type\":\"basic\",\"field\":\"f\",\"operator\":\"like\"}"));
+
+        ObjectMapper lenient = JsonMapper.builder()
+                .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        String scalar = "{\"type\":\"contains\",\"field\":\"f\",\"values\":\"a\",\"extra\":[1]}";
+        assertEquals(new ContainsFilter("f", List.of("a")), lenient.readValue(scalar, Filter.class));
+    }
+
+    private void assertWire(Filter filter, String json) throws Exception {
+        assertWire(filter, json, filter);
+    }
+
+    /** {@code filter} writes exactly {@code json}, which reads back equal to {@code read} and re-writes unchanged. */
+    private void assertWire(Filter filter, String json, Filter read) throws Exception {
+        assertEquals(json, mapper.writeValueAsString(filter));
+        Filter back = read(json);
+        assertEquals(read, back);
+        assertEquals(read.getClass(), back.getClass());
+        assertEquals(json, mapper.writeValueAsString(back));
+    }
+
+    private static Instant readValue(ObjectMapper mapper, String value) throws Exception {
+        String json = "{\"type\":\"datetime\",\"field\":\"at\",\"operator\":\"before\",\"value\":" + value + "}";
+        return ((DateTimeFilter) mapper.readValue(json, Filter.class)).getValue();
+    }
+
+    private Filter read(String json) throws Exception {
+        return mapper.readValue(json, Filter.class);
+    }
+}
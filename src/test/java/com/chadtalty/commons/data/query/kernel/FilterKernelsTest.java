@@ -0,0 +1,108 @@
+package com.chadtalty.commons.data.query.kernel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.chadtalty.commons.data.query.eval.Comparison;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Kernels against Java's scalar operators on random chunks. The vector kernels are covered when the tests run
+ * under the {@code vector} profile, which builds them and resolves their module.
+ */
+class FilterKernelsTest {
+
+    private static final double[] SPECIAL = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.MAX_VALUE};
+
+    private final Random random = new Random(3);
+
+    @Test
+    void masksMatchJavaOperators() {
+        for (FilterKernels kernels : kernels()) {
+            for (int t = 0; t < 2_000; t++) {
+                int size = random.nextInt(300);
+                int from = size == 0 ? 0 : random.nextInt(size);
+                int length = random.nextInt(size - from + 1);
+                long[] longs = new long[size];
+                double[] doubles = new double[size];
+                for (int i = 0; i < size; i++) {
+                    longs[i] = random.nextInt(8) - 4;
+                    doubles[i] = random.nextInt(8) == 0 ? pick(SPECIAL) : random.nextInt(8) - 4;
+                }
+                Comparison op = pick(Comparison.values());
+                long x = random.nextInt(8) - 4;
+                double y = random.nextInt(4) == 0 ? pick(SPECIAL) : random.nextInt(8) - 4;
+                long lo = random.nextInt(8) - 4;
+                long hi = lo + random.nextInt(4);
+
+                long[] mask = garbage();
+                kernels.compare(longs, from, length, op, x, mask);
+                // small longs convert to double exactly
+                assertMask(length, mask, i -> test(op, longs[from + i], x), kernels);
+                mask = garbage();
+                kernels.compare(doubles, from, length, op, y, mask);
+                assertMask(length, mask, i -> test(op, doubles[from + i], y), kernels);
+                mask = garbage();
+                kernels.between(longs, from, length, lo, hi, mask);
+                assertMask(length, mask, i -> lo <= longs[from + i] && longs[from + i] <= hi, kernels);
+            }
+        }
+    }
+
+    @Test
+    void bestIsVectorOnlyWhenBuiltAndResolved() {
+        FilterKernels expected = FilterKernels.vector() == null ? FilterKernels.scalar() : FilterKernels.vector();
+        assertEquals(expected.name(), FilterKernels.best().name());
+    }
+
+    private static List<FilterKernels> kernels() {
+        List<FilterKernels> kernels = new ArrayList<>(List.of(FilterKernels.scalar()));
+        if (FilterKernels.vector() != null) kernels.add(FilterKernels.vector());
+        return kernels;
+    }
+
+    private static void assertMask(int length, long[] mask, IntPredicate expected, FilterKernels kernels) {
+        long[] want = new long[mask.length];
+        for (int i = 0; i < length; i++) {
+            if (expected.test(i)) want[i >>> 6] |= 1L << i;
+        }
+        int words = (length + 63) >>> 6;
+        for (int w = words; w < mask.length; w++) {
+            want[w] = mask[w];
+        }
+        assertArrayEquals(want, mask, kernels::name);
+    }
+
+    private static boolean test(Comparison op, double v, double x) {
+        return switch (op) {
+            case EQ -> v == x;
+            case NE -> v != x;
+            case GT -> v > x;
+            case GE -> v >= x;
+            case LT -> v < x;
+            case LE -> v <= x;
+        };
+    }
+
+    /** A mask wide enough for any chunk, pre-filled with noise the kernel must overwrite. */
+    private long[] garbage() {
+        long[] mask = new long[6];
+        for (int i = 0; i < mask.length; i++) {
+            mask[i] = random.nextLong();
+        }
+        return mask;
+    }
+
+    @SafeVarargs
+    private <E> E pick(E... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private double pick(double[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
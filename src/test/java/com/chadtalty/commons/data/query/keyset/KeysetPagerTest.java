@@ -0,0 +1,181 @@
+package com.chadtalty.commons.data.query.keyset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Walking every page with cursors yields exactly the fully sorted result, whatever the keys hold. */
+class KeysetPagerTest {
+
+    enum Tier {
+        GOLD,
+        SILVER
+    }
+
+    record Row(long id, long group, String name, Instant at, Tier tier, double score) {}
+
+    private final Random random = new Random(11);
+
+    private final CriteriaCompiler<Row> compiler = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("id", FieldAccessor.ofLong(Row::id))
+            .field("group", FieldAccessor.ofLong(Row::group))
+            .field("name", FieldAccessor.ofString(Row::name))
+            .field("at", FieldAccessor.ofInstant(Row::at))
+            .field("tier", FieldAccessor.ofEnum(Tier.class, Row::tier))
+            .field("score", FieldAccessor.ofDouble(Row::score))
+            .build());
+
+    private final KeysetPager<Row> pager = new KeysetPager<>(compiler, "id");
+
+    @Test
+    void pagingToExhaustionMatchesAFullSort() {
+        String[] fields = {"group", "name", "at", "tier", "score"};
+        for (int t = 0; t < 200; t++) {
+            List<Row> rows = rows(random.nextInt(120), 3);
+            List<String> ascending = new ArrayList<>();
+            List<String> descending = new ArrayList<>();
+            for (String f : fields) {
+                int pick = random.nextInt(3);
+                if (pick == 1) ascending.add(f);
+                if (pick == 2) descending.add(f);
+            }
+            if (random.nextInt(4) == 0) descending.add("id");
+            SortSpec sort = new SortSpec(ascending, descending);
+
+            assertEquals(sorted(rows, sort), walk(rows, sort, 1 + random.nextInt(7), null), sort::toString);
+        }
+    }
+
+    @Test
+    void tiesOnTheSortKeyAreBrokenByTheTiebreaker() {
+        // every row shares one group, so only the tiebreaker orders them
+        List<Row> rows = new ArrayList<>();
+        for (long id = 20; id > 0; id--) {
+            rows.add(new Row(id, 7, "same", null, null, 0));
+        }
+        SortSpec sort = new SortSpec(List.of("group"), null);
+        List<Row> all = walk(rows, sort, 3, null);
+
+        assertEquals(20, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).id());
+        }
+    }
+
+    @Test
+    void nullKeysSortLastInBothDirections() {
+        List<Row> rows = rows(60, 1);
+        for (SortSpec sort : List.of(
+                new SortSpec(List.of("name", "at"), null),
+                new SortSpec(null, List.of("name", "tier")))) {
+            List<Row> all = walk(rows, sort, 4, null);
+            assertEquals(sorted(rows, sort), all);
+            assertNotNull(all.get(0).name());
+            assertNull(all.get(all.size() - 1).name());
+        }
+    }
+
+    @Test
+    void longStringKeysStillPage() {
+        String prefix = "x".repeat(20_000);
+        List<Row> rows = new ArrayList<>();
+        for (long id = 0; id < 10; id++) {
+            rows.add(new Row(id, 0, prefix + (9 - id), null, null, 0));
+        }
+        SortSpec sort = new SortSpec(List.of("name"), null);
+
+        List<Row> all = walk(rows, sort, 2, null);
+        assertEquals(sorted(rows, sort), all);
+        assertEquals(9, all.get(0).id());
+    }
+
+    @Test
+    void filtersApplyOnEveryPage() {
+        List<Row> rows = rows(100, 2);
+        SortSpec sort = new SortSpec(null, List.of("group"));
+        BasicFilter even = new BasicFilter("group", BasicFilter.Operator.LESS_THAN, "2");
+        List<Row> expected = sorted(rows.stream().filter(r -> r.group() < 2).toList(), sort);
+
+        assertEquals(expected, walk(rows, sort, 6, even));
+    }
+
+    @Test
+    void rejectsMalformedForeignAndOversizedCursors() {
+        List<Row> rows = rows(10, 1);
+        SortSpec byGroup = new SortSpec(List.of("group"), null);
+        String cursor = pager.cursorFor(byGroup, rows.get(0));
+
+        assertEquals(rows.get(0).group(), pager.decode(byGroup, cursor)[0]);
+        assertThrows(IllegalArgumentException.class, () -> pager.decode(new SortSpec(List.of("name"), null), cursor));
+        assertThrows(IllegalArgumentException.class, () -> pager.decode(byGroup, "%%%"));
+        assertThrows(IllegalArgumentException.class, () -> pager.decode(byGroup, cursor.substring(0, 3)));
+        assertThrows(IllegalArgumentException.class, () -> pager.decode(byGroup, cursor + "AAAA"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> pager.decode(byGroup, "A".repeat(CursorCodec.MAX_LENGTH + 1)));
+        assertEquals("Invalid cursor: too long", e.getMessage());
+
+        PageableCriteria offset = new PageableCriteria(1, 5, cursor);
+        offset.setSort(byGroup);
+        assertThrows(IllegalArgumentException.class, () -> pager.page(rows, offset));
+    }
+
+    /** Follows next cursors from the first page until the last, collecting every row. */
+    private List<Row> walk(List<Row> rows, SortSpec sort, int size, BasicFilter filter) {
+        List<Row> all = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages <= rows.size() + 1; pages++) {
+            PageableCriteria criteria = new PageableCriteria(0, size, cursor);
+            criteria.setSort(sort);
+            if (filter != null) criteria.setFilters(List.of(filter));
+            KeysetPage<Row> page = pager.page(rows, criteria);
+            assertTrue(page.content().size() <= size);
+            all.addAll(page.content());
+            if (!page.hasNext()) {
+                // the pager looks one row ahead, so the last page is never empty unless nothing matched
+                assertFalse(page.content().isEmpty() && !all.isEmpty(), "empty trailing page");
+                return all;
+            }
+            assertEquals(size, page.content().size());
+            cursor = page.nextCursor();
+        }
+        throw new AssertionError("paging did not terminate");
+    }
+
+    private List<Row> sorted(List<Row> rows, SortSpec sort) {
+        Comparator<Row> order = pager.order(pager.keys(sort));
+        List<Row> out = new ArrayList<>(rows);
+        out.sort(order);
+        return out;
+    }
+
+    /** Rows with few distinct key values, so ties are common, and about one null in four for nullable keys. */
+    private List<Row> rows(int n, int distinct) {
+        List<Row> rows = new ArrayList<>(n);
+        for (long id = 0; id < n; id++) {
+            rows.add(new Row(
+                    id,
+                    random.nextInt(distinct + 2),
+                    random.nextInt(4) == 0 ? null : "n" + random.nextInt(distinct + 1),
+                    random.nextInt(4) == 0 ? null : Instant.ofEpochSecond(random.nextInt(distinct + 1), 500),
+                    random.nextInt(4) == 0 ? null : Tier.values()[random.nextInt(2)],
+                    random.nextInt(distinct + 1) / 2.0));
+        }
+        return rows;
+    }
+}
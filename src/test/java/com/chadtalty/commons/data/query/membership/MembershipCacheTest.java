@@ -0,0 +1,61 @@
+package com.chadtalty.commons.data.query.membership;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/** The cached membership follows the contents of the value list, not its identity. */
+class MembershipCacheTest {
+
+    @Test
+    void rebuildsWhenTheListIsEditedInPlace() {
+        MembershipCache cache = new MembershipCache();
+        List<String> values = new ArrayList<>(List.of("a", "b"));
+        Membership first = cache.get(values);
+        assertSame(first, cache.get(values));
+        assertSame(first, cache.get(new ArrayList<>(values)));
+
+        values.add("c");
+        assertTrue(cache.get(values).contains("c"));
+        values.set(0, "z");
+        assertTrue(cache.get(values).contains("z"));
+        assertFalse(cache.get(values).contains("a"));
+    }
+
+    @Test
+    void recompilingAfterAnEditSeesTheNewValues() {
+        CriteriaCompiler<String> compiler = new CriteriaCompiler<>(FieldRegistry.<String>builder()
+                .field("status", FieldAccessor.ofString(s -> s))
+                .field("id", FieldAccessor.ofLong(Long::parseLong))
+                .build());
+        ContainsFilter status = new ContainsFilter("status", new ArrayList<>(List.of("open")));
+        ContainsFilter id = new ContainsFilter("id", new ArrayList<>(List.of("1")));
+        assertFalse(compile(compiler, status).test("zzz"));
+        assertFalse(compile(compiler, id).test("2"));
+
+        status.getValues().add("zzz");
+        id.getValues().add("2");
+        assertTrue(compile(compiler, status).test("zzz"));
+        assertTrue(compile(compiler, id).test("2"));
+
+        ContainsFilter frozen = status.freeze();
+        assertSame(frozen.membership(), frozen.membership());
+        assertTrue(compile(compiler, frozen).test("zzz"));
+    }
+
+    private static Predicate<String> compile(CriteriaCompiler<String> compiler, ContainsFilter filter) {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(filter));
+        return compiler.compile(criteria);
+    }
+}
@@ -0,0 +1,85 @@
+package com.chadtalty.commons.data.query.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.FilterType;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import com.chadtalty.commons.data.query.plan.PlanCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Stages are reported when they fail, and cached plans report filters once metrics are installed. */
+class InstrumentationTest {
+
+    private static final CriteriaCompiler<Row> COMPILER = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("amount", FieldAccessor.ofLong(r -> {
+                if (r.amount() < 0) throw new IllegalStateException("negative amount");
+                return r.amount();
+            }))
+            .build());
+
+    private InMemoryQueryMetrics metrics;
+
+    record Row(long amount) {}
+
+    @BeforeEach
+    void install() {
+        metrics = new InMemoryQueryMetrics();
+        Instrumentation.install(metrics);
+    }
+
+    @AfterEach
+    void uninstall() {
+        Instrumentation.install(QueryMetrics.NOOP);
+    }
+
+    @Test
+    void failedStagesAreReported() {
+        QueryExecutor<Row> executor = new QueryExecutor<>(COMPILER);
+        PageableCriteria unknown = new PageableCriteria(0, 10, null);
+        unknown.setFilters(List.of(new BasicFilter("missing", BasicFilter.Operator.EQUAL, "1")));
+        Criteria positive = new Criteria();
+        positive.setFilters(List.of(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "0")));
+
+        assertThrows(IllegalArgumentException.class, () -> executor.page(List.of(new Row(1)), unknown));
+        assertThrows(IllegalStateException.class, () -> executor.list(List.of(new Row(-1)), positive));
+        assertThrows(JsonProcessingException.class,
+                () -> new ObjectMapper().readValue("{\"type\":\"basic\",\"field\":", Filter.class));
+
+        assertEquals(2, metrics.stageLatency(Stage.PLAN).count());
+        assertEquals(2, metrics.stageLatency(Stage.EXECUTE).count());
+        assertEquals(1, metrics.stageLatency(Stage.DESERIALIZE).count());
+    }
+
+    @Test
+    void plansCachedBeforeInstallReport() {
+        Instrumentation.install(QueryMetrics.NOOP);
+        PlanCache<Row> plans = new PlanCache<>(COMPILER, 16);
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "5")));
+        plans.compile(criteria).test(new Row(1));
+
+        Instrumentation.install(metrics);
+        Predicate<Row> compiled = plans.compile(criteria);
+        for (long amount = 0; amount < 10; amount++) {
+            compiled.test(new Row(amount));
+        }
+
+        assertEquals(1, plans.stats().misses());
+        assertEquals(10, metrics.evaluations(FilterType.BASIC));
+        assertEquals(new InMemoryQueryMetrics.Selectivity(10, 4), metrics.selectivity("amount", "greater_than"));
+    }
+}
@@ -0,0 +1,226 @@
+package com.chadtalty.commons.data.query.optimize;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test: a criteria and its optimized rewrite must select the same rows, and fail with the same message
+ * when compilation fails, over random filter groups on every accessor kind.
+ */
+class CriteriaOptimizerTest {
+
+    private static final String[] FIELDS = {"n", "d", "ms", "at", "s", "b", "c"};
+    private static final String[] DOUBLES = {"0.0", "-0.0", "1.5", "2", "NaN", "3.25", "-1"};
+    private static final String[] STRINGS = {"a", "b", "bb", "c", "A"};
+    private static final String[] COLORS = {"RED", "green", "BLUE", "BLACK"};
+
+    private static final CriteriaCompiler<Row> COMPILER = new CriteriaCompiler<>(FieldRegistry.<Row>builder()
+            .field("n", FieldAccessor.ofLong(Row::n))
+            .field("d", FieldAccessor.ofDouble(Row::d))
+            .field("ms", FieldAccessor.ofEpochMillis(Row::ms))
+            .field("at", FieldAccessor.ofInstant(Row::at))
+            .field("s", FieldAccessor.ofString(Row::s))
+            .field("b", FieldAccessor.ofBoolean(Row::b))
+            .field("c", FieldAccessor.ofEnum(Color.class, Row::c))
+            .build());
+
+    private final Random random = new Random(11);
+    private final CriteriaOptimizer<Row> optimizer = new CriteriaOptimizer<>(COMPILER);
+
+    enum Color {
+        RED,
+        GREEN,
+        BLUE,
+        BLACK
+    }
+
+    record Row(long n, double d, long ms, Instant at, String s, boolean b, Color c) {}
+
+    @Test
+    void rewriteSelectsTheSameRows() {
+        List<Row> rows = rows();
+        int compiled = 0;
+        int unsatisfiable = 0;
+        int reduced = 0;
+        for (int i = 0; i < 20_000; i++) {
+            List<Filter> filters = new ArrayList<>();
+            String field = pick(FIELDS);
+            for (int m = 1 + random.nextInt(4); m > 0; m--) {
+                filters.add(filter(random.nextInt(4) == 0 ? pick(FIELDS) : field));
+            }
+            Criteria criteria = new Criteria();
+            criteria.setFilters(filters);
+
+            Predicate<Row> original = null;
+            String originalError = null;
+            try {
+                original = COMPILER.compile(criteria);
+            } catch (IllegalArgumentException e) {
+                originalError = e.getMessage();
+            }
+            OptimizedCriteria optimized = null;
+            Predicate<Row> rewritten = null;
+            String rewrittenError = null;
+            try {
+                optimized = optimizer.optimize(criteria);
+                rewritten = optimized.isUnsatisfiable() ? r -> false : COMPILER.compile(optimized.criteria());
+            } catch (IllegalArgumentException e) {
+                rewrittenError = e.getMessage();
+            }
+
+            if (originalError != null || rewrittenError != null) {
+                // a proven contradiction may drop the filter compilation would have rejected
+                boolean provedEmpty = optimized != null && optimized.isUnsatisfiable() && rewrittenError == null;
+                if (!provedEmpty) assertEquals(originalError, rewrittenError, filters::toString);
+                continue;
+            }
+            compiled++;
+            if (optimized.isUnsatisfiable()) unsatisfiable++;
+            else if (optimized.criteria().getFilters().size() < filters.size()) reduced++;
+            for (Row row : rows) {
+                if (original.test(row) != rewritten.test(row)) {
+                    OptimizedCriteria o = optimized;
+                    assertEquals(original.test(row), rewritten.test(row), () -> filters + " -> "
+                            + (o.isUnsatisfiable() ? "unsatisfiable: " + o.contradiction() : o.criteria().getFilters())
+                            + " on " + row);
+                }
+            }
+        }
+        assertTrue(compiled > 10_000, "compiled: " + compiled);
+        assertTrue(unsatisfiable > 500, "unsatisfiable: " + unsatisfiable);
+        assertTrue(reduced > 500, "reduced: " + reduced);
+    }
+
+    @Test
+    void mergesRangesAndIntersectsSets() {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(
+                new BetweenFilter("ms", Instant.ofEpochMilli(0), Instant.ofEpochMilli(9000)),
+                new DateTimeFilter("ms", DateTimeFilter.Operator.AFTER, Instant.ofEpochMilli(1000)),
+                new ContainsFilter("s", List.of("a", "b", "c")),
+                new ContainsFilter("s", List.of("b", "c", "d"))));
+
+        OptimizedCriteria o = optimizer.optimize(criteria);
+
+        assertFalse(o.isUnsatisfiable());
+        assertEquals(2, o.criteria().getFilters().size());
+        assertEquals(4, criteria.getFilters().size());
+    }
+
+    @Test
+    void provesContradictions() {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(
+                new BasicFilter("n", BasicFilter.Operator.EQUAL, "3"),
+                new BasicFilter("n", BasicFilter.Operator.NOT_EQUAL, "3")));
+
+        OptimizedCriteria o = optimizer.optimize(criteria);
+
+        assertTrue(o.isUnsatisfiable());
+        assertTrue(Objects.requireNonNull(o.contradiction()).contains("n"), o.contradiction());
+    }
+
+    @Test
+    void instantsOutsideTheMillisecondRangeFailLikeTheCompiler() {
+        for (String field : List.of("ms", "at")) {
+            for (Filter filter : List.of(
+                    new BasicFilter(field, BasicFilter.Operator.LESS_THAN, Instant.MAX.toString()),
+                    new DateTimeFilter(field, DateTimeFilter.Operator.AFTER, Instant.MAX),
+                    new BetweenFilter(field, Instant.MIN, Instant.EPOCH),
+                    new ContainsFilter(field, List.of(Instant.MIN.toString())))) {
+                Criteria criteria = new Criteria();
+                criteria.setFilters(List.of(filter));
+                String expected = error(() -> COMPILER.compile(criteria));
+                String actual = error(() -> COMPILER.compile(optimizer.optimize(criteria).criteria()));
+                assertEquals(expected, actual, filter::toString);
+            }
+        }
+    }
+
+    private static String error(Runnable compile) {
+        try {
+            compile.run();
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private List<Row> rows() {
+        Color[] colors = Color.values();
+        String[] strings = {"a", "b", "bb", "c", "A", "z", null};
+        double[] doubles = {0.0, -0.0, 1.5, 2, 3.25, -1, Double.NaN, 7};
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Instant at = random.nextInt(10) == 0
+                    ? null
+                    : Instant.ofEpochMilli(1000L * random.nextInt(9) - 1 + random.nextInt(3))
+                            .plusNanos(random.nextInt(5) == 0 ? 500 : 0);
+            rows.add(new Row(
+                    random.nextInt(14) - 2,
+                    doubles[random.nextInt(doubles.length)],
+                    1000L * random.nextInt(9) - 1 + random.nextInt(3),
+                    at,
+                    strings[random.nextInt(strings.length)],
+                    random.nextBoolean(),
+                    random.nextInt(6) == 0 ? null : colors[random.nextInt(colors.length)]));
+        }
+        return rows;
+    }
+
+    private Filter filter(String field) {
+        int k = random.nextInt(10);
+        boolean temporal = field.equals("ms") || field.equals("at");
+        Supplier<String> value = switch (field) {
+            case "n" -> () -> Integer.toString(random.nextInt(12) - 1);
+            case "d" -> () -> pick(DOUBLES);
+            case "s" -> () -> pick(STRINGS);
+            case "c" -> () -> pick(COLORS);
+            case "b" -> () -> Boolean.toString(random.nextBoolean());
+            default -> () -> instant().toString();
+        };
+        if (temporal && k < 3) return new DateTimeFilter(field, pick(DateTimeFilter.Operator.values()), instant());
+        if (temporal && k < 5) return new BetweenFilter(field, instant(), instant());
+        if (k < 7) {
+            List<String> values = new ArrayList<>();
+            for (int m = 1 + random.nextInt(4); m > 0; m--) {
+                values.add(value.get());
+            }
+            return new ContainsFilter(field, values);
+        }
+        // ordering operators on booleans are compile errors; keep them rare
+        BasicFilter.Operator[] ops = BasicFilter.Operator.values();
+        BasicFilter.Operator op = ops[random.nextInt(field.equals("b") && random.nextInt(4) != 0 ? 2 : ops.length)];
+        return new BasicFilter(field, op, value.get());
+    }
+
+    /** Whole seconds, sometimes off by a millisecond or carrying sub-millisecond nanos. */
+    private Instant instant() {
+        return Instant.ofEpochMilli(1000L * random.nextInt(8) + (random.nextInt(4) == 0 ? random.nextInt(3) : 0))
+                .plusNanos(random.nextInt(6) == 0 ? 500 : 0);
+    }
+
+    @SafeVarargs
+    private <E> E pick(E... values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,139 @@
+package com.chadtalty.commons.data.query.plan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/** Queries differing only in literals or filter order share one plan, and bound plans match the compiler. */
+class PlanCacheTest {
+
+    private final CriteriaCompiler<Order> compiler = new CriteriaCompiler<>(FieldRegistry.<Order>builder()
+            .field("status", FieldAccessor.ofString(Order::status))
+            .field("amount", FieldAccessor.ofLong(Order::amount))
+            .field("customer.tier", FieldAccessor.ofLong(Order::tier))
+            .build());
+
+    record Order(String status, long amount, long tier) {}
+
+    @Test
+    void filterOrderAndLiteralsShareAPlan() {
+        PlanCache<Order> plans = new PlanCache<>(compiler, 16);
+        Criteria first = criteria(
+                new BasicFilter("status", BasicFilter.Operator.EQUAL, "open"),
+                new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "5"));
+        Criteria second = criteria(
+                new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "50"),
+                new BasicFilter("status", BasicFilter.Operator.EQUAL, "held"));
+
+        CanonicalQuery a = CanonicalQuery.of(first);
+        CanonicalQuery b = CanonicalQuery.of(second);
+        assertEquals(a.shape(), b.shape());
+        assertEquals(a.shape().key(), b.shape().key());
+        assertArrayEquals(new Object[] {"5", "open"}, a.parameters());
+        assertArrayEquals(new Object[] {"50", "held"}, b.parameters());
+
+        assertSame(plans.plan(a.shape()), plans.plan(b.shape()));
+        assertEquals(1, plans.stats().misses());
+        assertEquals(1, plans.stats().hits());
+
+        assertSameMatches(first, plans.compile(first));
+        assertSameMatches(second, plans.compile(second));
+        assertEquals(1, plans.stats().size());
+        assertEquals(3, plans.stats().hits());
+    }
+
+    @Test
+    void operatorsJoinsAndSortsChangeTheShape() {
+        Criteria base = criteria(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "5"));
+        Criteria operator = criteria(new BasicFilter("amount", BasicFilter.Operator.LESS_THAN, "5"));
+        Criteria joined = criteria(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "5"));
+        joined.setJoins(List.of(new JoinSpec("customer", new BasicFilter("tier", BasicFilter.Operator.EQUAL, "1"))));
+        Criteria sorted = criteria(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "5"));
+        sorted.setSort(new SortSpec(List.of("amount"), null));
+
+        QueryShape shape = CanonicalQuery.of(base).shape();
+        assertNotEquals(shape, CanonicalQuery.of(operator).shape());
+        assertNotEquals(shape, CanonicalQuery.of(joined).shape());
+        assertNotEquals(shape, CanonicalQuery.of(sorted).shape());
+
+        PlanCache<Order> plans = new PlanCache<>(compiler, 16);
+        assertSameMatches(joined, plans.compile(joined));
+        assertNotNull(plans.plan(CanonicalQuery.of(sorted).shape()).comparator());
+        assertNull(plans.plan(CanonicalQuery.of(base).shape()).comparator());
+    }
+
+    @Test
+    void evictsBeyondCapacity() {
+        PlanCache<Order> plans = new PlanCache<>(compiler, 2);
+        for (BasicFilter.Operator op : BasicFilter.Operator.values()) {
+            plans.compile(criteria(new BasicFilter("amount", op, "1")));
+        }
+
+        assertEquals(2, plans.stats().size());
+        assertEquals(BasicFilter.Operator.values().length - 2, plans.stats().evictions());
+        plans.invalidateAll();
+        assertEquals(0, plans.stats().size());
+    }
+
+    @Test
+    void rejectsNullFiltersAndJoinsLikeTheCompiler() {
+        PlanCache<Order> plans = new PlanCache<>(compiler, 4);
+        Criteria nullFilter = criteria((Filter) null);
+        Criteria nullJoin = criteria();
+        nullJoin.setJoins(Arrays.asList((JoinSpec) null));
+
+        assertThrows(IllegalArgumentException.class, () -> compiler.compile(nullFilter));
+        assertThrows(IllegalArgumentException.class, () -> plans.compile(nullFilter));
+        IllegalArgumentException compiled =
+                assertThrows(IllegalArgumentException.class, () -> compiler.compile(nullJoin));
+        IllegalArgumentException planned = assertThrows(IllegalArgumentException.class, () -> plans.compile(nullJoin));
+        assertEquals(compiled.getMessage(), planned.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> plans.compile(criteria(new BasicFilter("nope", null, "1"))));
+    }
+
+    @Test
+    void containsValuesAreParameters() {
+        ContainsFilter in = new ContainsFilter("status", List.of("open", "held"));
+        CanonicalQuery query = CanonicalQuery.of(criteria(in));
+
+        assertEquals(List.of(in), query.filters());
+        assertArrayEquals(new Object[] {List.of("open", "held")}, query.parameters());
+    }
+
+    private void assertSameMatches(Criteria criteria, Predicate<Order> planned) {
+        Predicate<Order> compiled = compiler.compile(criteria);
+        for (String status : List.of("open", "held", "closed")) {
+            for (long amount = 0; amount < 60; amount += 3) {
+                for (long tier = 0; tier < 3; tier++) {
+                    Order o = new Order(status, amount, tier);
+                    assertEquals(compiled.test(o), planned.test(o), o::toString);
+                }
+            }
+        }
+    }
+
+    private static Criteria criteria(Filter... filters) {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(new ArrayList<>(Arrays.asList(filters)));
+        return criteria;
+    }
+}
@@ -0,0 +1,364 @@
+package com.chadtalty.commons.data.query.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.chadtalty.commons.data.query.eval.CriteriaCompiler;
+import com.chadtalty.commons.data.query.eval.FieldAccessor;
+import com.chadtalty.commons.data.query.eval.FieldRegistry;
+import com.chadtalty.commons.data.query.eval.QueryExecutor;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs rendered statements against H2 and compares their rows, order and counts with in-memory evaluation of the
+ * same criteria by {@link QueryExecutor}.
+ */
+class SqlRendererTest {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String[] STATUSES = {"a", "b", "c", "d"};
+    private static final String[] COUNTRIES = {"DE", "FR", "US"};
+    private static final String[] SORTABLE = {"amount", "price", "status", "flag", "created", "updated"};
+
+    private static final SqlSchema SCHEMA = SqlSchema.builder("orders o")
+            .select("o.id")
+            .primaryKey("o.id")
+            .column("id", "o.id", SqlType.BIGINT)
+            .column("amount", "o.amount", SqlType.BIGINT)
+            .column("price", "o.price", SqlType.DOUBLE)
+            .column("status", "o.status", SqlType.VARCHAR)
+            .column("flag", "o.flag", SqlType.BOOLEAN)
+            .column("created", "o.created", SqlType.TIMESTAMP)
+            .column("updated", "o.updated", SqlType.EPOCH_MILLIS)
+            .join("customer", "JOIN customers c ON c.id = o.customer_id")
+            .column("customer.country", "c.country", SqlType.VARCHAR)
+            .build();
+
+    private static final QueryExecutor<Order> MEMORY = new QueryExecutor<>(new CriteriaCompiler<>(
+            FieldRegistry.<Order>builder()
+                    .field("id", FieldAccessor.ofLong(Order::id))
+                    .field("amount", FieldAccessor.ofLong(Order::amount))
+                    .field("price", FieldAccessor.ofDouble(Order::price))
+                    .field("status", FieldAccessor.ofString(Order::status))
+                    .field("flag", FieldAccessor.ofBoolean(Order::flag))
+                    .field("created", FieldAccessor.ofInstant(Order::created))
+                    .field("updated", FieldAccessor.ofEpochMillis(Order::updated))
+                    .field("customer.country", FieldAccessor.ofString(Order::country))
+                    .build()));
+
+    private static Connection connection;
+    private static List<Order> rows;
+
+    private final Random random = new Random(11);
+
+    record Order(
+            long id, long amount, double price, String status, boolean flag, Instant created, long updated,
+            String country) {}
+
+    @BeforeAll
+    static void load() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:sql_renderer_test");
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY, country VARCHAR(8))");
+            st.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, amount BIGINT NOT NULL,"
+                    + " price DOUBLE PRECISION NOT NULL, status VARCHAR(8), flag BOOLEAN NOT NULL, created TIMESTAMP,"
+                    + " updated BIGINT NOT NULL, customer_id BIGINT NOT NULL REFERENCES customers (id))");
+        }
+        Random random = new Random(3);
+        rows = new ArrayList<>();
+        String insertOrder = "INSERT INTO orders VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement customers = connection.prepareStatement("INSERT INTO customers VALUES (?, ?)");
+                PreparedStatement orders = connection.prepareStatement(insertOrder)) {
+            for (int i = 0; i < 400; i++) {
+                String country = random.nextInt(5) == 0 ? null : COUNTRIES[random.nextInt(COUNTRIES.length)];
+                customers.setLong(1, i);
+                customers.setString(2, country);
+                customers.executeUpdate();
+
+                Order o = new Order(
+                        i,
+                        random.nextInt(20) - 5,
+                        (random.nextInt(16) - 4) / 2.0,
+                        random.nextInt(6) == 0 ? null : STATUSES[random.nextInt(STATUSES.length)],
+                        random.nextBoolean(),
+                        random.nextInt(6) == 0 ? null : hour(random.nextInt(48)),
+                        hour(random.nextInt(48)).toEpochMilli(),
+                        country);
+                rows.add(o);
+                orders.setLong(1, o.id());
+                orders.setLong(2, o.amount());
+                orders.setDouble(3, o.price());
+                orders.setString(4, o.status());
+                orders.setBoolean(5, o.flag());
+                if (o.created() == null) orders.setNull(6, Types.TIMESTAMP);
+                else orders.setObject(6, LocalDateTime.ofInstant(o.created(), ZoneOffset.UTC));
+                orders.setLong(7, o.updated());
+                orders.setLong(8, i);
+                orders.executeUpdate();
+            }
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void standardBucketedMatchesInMemoryEvaluation() throws SQLException {
+        differential(new SqlRenderer(SCHEMA, SqlDialect.STANDARD, InListMode.BUCKETED, 256));
+    }
+
+    @Test
+    void standardArrayMatchesInMemoryEvaluation() throws SQLException {
+        differential(new SqlRenderer(SCHEMA, SqlDialect.STANDARD, InListMode.ARRAY, 256));
+    }
+
+    @Test
+    void mysqlOrderingMatchesInMemoryEvaluation() throws SQLException {
+        differential(new SqlRenderer(SCHEMA, SqlDialect.MYSQL, InListMode.BUCKETED, 256));
+    }
+
+    @Test
+    void dialectDecidesNullOrdering() {
+        Criteria criteria = new Criteria();
+        criteria.setSort(new SortSpec(List.of("status"), List.of("amount")));
+
+        assertEquals(
+                "SELECT o.id FROM orders o ORDER BY o.status ASC NULLS LAST, o.amount DESC NULLS LAST, o.id ASC",
+                new SqlRenderer(SCHEMA, InListMode.BUCKETED, 16).render(criteria).sql());
+        assertEquals(
+                "SELECT o.id FROM orders o ORDER BY CASE WHEN o.status IS NULL THEN 1 ELSE 0 END, o.status ASC,"
+                        + " CASE WHEN o.amount IS NULL THEN 1 ELSE 0 END, o.amount DESC, o.id ASC",
+                new SqlRenderer(SCHEMA, SqlDialect.MYSQL, InListMode.BUCKETED, 16).render(criteria).sql());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new SqlRenderer(SCHEMA, SqlDialect.MYSQL, InListMode.ARRAY, 16));
+    }
+
+    @Test
+    void primaryKeyBreaksTiesOfSortedAndPagedStatements() {
+        SqlRenderer renderer = new SqlRenderer(SCHEMA, InListMode.BUCKETED, 16);
+        Criteria byId = new Criteria();
+        byId.setSort(new SortSpec(List.of("status"), List.of("id")));
+        PageableCriteria unsorted = new PageableCriteria(1, 10, null);
+
+        assertEquals("SELECT o.id FROM orders o ORDER BY o.status ASC NULLS LAST, o.id DESC NULLS LAST",
+                renderer.render(byId).sql());
+        assertEquals("SELECT o.id FROM orders o ORDER BY o.id ASC LIMIT ? OFFSET ?", renderer.render(unsorted).sql());
+        assertEquals("SELECT o.id FROM orders o", renderer.render(new Criteria()).sql());
+
+        // without a registered key the caller's sort is rendered as given
+        SqlSchema keyless = SqlSchema.builder("orders o").column("status", "o.status", SqlType.VARCHAR).build();
+        Criteria byStatus = new Criteria();
+        byStatus.setSort(new SortSpec(List.of("status"), null));
+        assertEquals("SELECT * FROM orders o ORDER BY o.status ASC NULLS LAST",
+                new SqlRenderer(keyless, InListMode.BUCKETED, 16).render(byStatus).sql());
+    }
+
+    @Test
+    void timestampsBindAsUtcValuesWithoutTheDefaultZone() throws SQLException {
+        // a wall clock in UTC for zoneless columns, so the driver never applies the JVM's zone
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), SqlType.TIMESTAMP.bind("created", EPOCH));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 5, 0), SqlType.TIMESTAMP.bind("created", "2024-01-01T05:00:00Z"));
+        assertEquals(OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC), SqlType.TIMESTAMPTZ.bind("at", EPOCH));
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE events (id BIGINT PRIMARY KEY, at TIMESTAMP WITH TIME ZONE NOT NULL)");
+        }
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO events VALUES (?, ?)")) {
+            for (int i = 0; i < 48; i++) {
+                ps.setLong(1, i);
+                // each row at a different offset; the column compares instants
+                ps.setObject(2, hour(i).atOffset(ZoneOffset.ofHours(i % 12)));
+                ps.executeUpdate();
+            }
+        }
+        SqlSchema events = SqlSchema.builder("events e")
+                .select("e.id")
+                .column("at", "e.at", SqlType.TIMESTAMPTZ)
+                .build();
+        for (int i = 0; i < 47; i += 7) {
+            Criteria at = new Criteria();
+            at.setFilters(List.of(new BetweenFilter("at", hour(i), hour(i + 1))));
+            for (InListMode mode : InListMode.values()) {
+                SqlStatement between = new SqlRenderer(events, mode, 16).render(at);
+                assertEquals(List.of((long) i, i + 1L), query(between));
+            }
+            Criteria created = new Criteria();
+            created.setFilters(List.of(new ContainsFilter("created", List.of(hour(i).toString()))));
+            assertEquals(ids(MEMORY.list(rows, created)),
+                    query(new SqlRenderer(SCHEMA, InListMode.ARRAY, 16).render(created)));
+        }
+    }
+
+    @Test
+    void booleanOrderingIsRejectedLikeCriteriaCompiler() {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(new BasicFilter("flag", BasicFilter.Operator.GREATER_THAN, "false")));
+        SqlRenderer renderer = new SqlRenderer(SCHEMA, InListMode.BUCKETED, 16);
+
+        IllegalArgumentException sql = assertThrows(IllegalArgumentException.class, () -> renderer.render(criteria));
+        IllegalArgumentException memory =
+                assertThrows(IllegalArgumentException.class, () -> MEMORY.list(rows, criteria));
+        assertEquals(memory.getMessage(), sql.getMessage());
+    }
+
+    private void differential(SqlRenderer renderer) throws SQLException {
+        int nonEmpty = 0;
+        for (int i = 0; i < 1_000; i++) {
+            Criteria criteria = criteria();
+            List<Long> expected = ids(MEMORY.list(rows, criteria));
+            assertEquals(expected, query(renderer.render(criteria)), () -> "rows of " + criteria);
+            assertEquals(expected.size(), count(renderer.count(criteria)), () -> "count of " + criteria);
+
+            PageableCriteria paged = new PageableCriteria(random.nextInt(3), 1 + random.nextInt(25), null);
+            paged.setFilters(criteria.getFilters());
+            paged.setJoins(criteria.getJoins());
+            paged.setSort(criteria.getSort());
+            List<Long> page = ids(MEMORY.page(rows, paged).content());
+            assertEquals(page, query(renderer.render(paged)), () -> "page of " + paged);
+            if (!expected.isEmpty()) nonEmpty++;
+        }
+        assertTrue(nonEmpty > 200, "criteria matching rows: " + nonEmpty);
+        assertFalse(renderer.stats().size() == 0);
+    }
+
+    /**
+     * Random filters over every column type. The sort only sometimes names the unique id: otherwise ties fall back
+     * to the schema's primary key, matching the stable in-memory sort over rows inserted in id order.
+     */
+    private Criteria criteria() {
+        Criteria criteria = new Criteria();
+        List<Filter> filters = new ArrayList<>();
+        for (int n = random.nextInt(3); n > 0; n--) {
+            filters.add(filter());
+        }
+        criteria.setFilters(filters);
+        if (random.nextInt(3) == 0) {
+            Filter country = random.nextBoolean()
+                    ? new BasicFilter("country", basicOperator(), pick(COUNTRIES))
+                    : new ContainsFilter("country", values(() -> pick(COUNTRIES)));
+            criteria.setJoins(List.of(new JoinSpec("customer", country)));
+        }
+        List<String> ascending = new ArrayList<>();
+        List<String> descending = new ArrayList<>();
+        for (int n = random.nextInt(3); n > 0; n--) {
+            String field = pick(SORTABLE);
+            if (ascending.contains(field) || descending.contains(field)) continue;
+            (random.nextBoolean() ? ascending : descending).add(field);
+        }
+        if (random.nextBoolean()) (random.nextBoolean() ? ascending : descending).add("id");
+        criteria.setSort(new SortSpec(ascending, descending));
+        return criteria;
+    }
+
+    private Filter filter() {
+        return switch (random.nextInt(10)) {
+            case 0 -> new BasicFilter("amount", basicOperator(), Integer.toString(random.nextInt(20) - 5));
+            case 1 -> new ContainsFilter("amount", values(() -> Integer.toString(random.nextInt(20) - 5)));
+            case 2 -> new BasicFilter("price", basicOperator(), Double.toString((random.nextInt(16) - 4) / 2.0));
+            case 3 -> new BasicFilter("status", basicOperator(), pick(STATUSES));
+            case 4 -> new ContainsFilter("status", values(() -> pick(STATUSES)));
+            case 5 -> new BasicFilter(
+                    "flag", random.nextBoolean() ? BasicFilter.Operator.EQUAL : BasicFilter.Operator.NOT_EQUAL,
+                    Boolean.toString(random.nextBoolean()));
+            case 6 -> new DateTimeFilter(random.nextBoolean() ? "created" : "updated", dateTimeOperator(), hour());
+            case 7 -> {
+                Instant start = hour();
+                yield new BetweenFilter(random.nextBoolean() ? "created" : "updated", start, start.plusSeconds(
+                        3600L * random.nextInt(12)));
+            }
+            case 8 -> new ContainsFilter(random.nextBoolean() ? "created" : "updated", values(() -> hour().toString()));
+            default -> new BasicFilter("updated", basicOperator(), hour().toString());
+        };
+    }
+
+    private List<String> values(Supplier<String> value) {
+        List<String> values = new ArrayList<>();
+        for (int n = 1 + random.nextInt(6); n > 0; n--) {
+            values.add(value.get());
+        }
+        return values;
+    }
+
+    private BasicFilter.Operator basicOperator() {
+        return pick(BasicFilter.Operator.values());
+    }
+
+    private DateTimeFilter.Operator dateTimeOperator() {
+        return pick(DateTimeFilter.Operator.values());
+    }
+
+    private Instant hour() {
+        return hour(random.nextInt(48));
+    }
+
+    private static Instant hour(int hours) {
+        return EPOCH.plusSeconds(3600L * hours);
+    }
+
+    @SafeVarargs
+    private <E> E pick(E... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        List<Long> ids = new ArrayList<>(orders.size());
+        for (Order o : orders) {
+            ids.add(o.id());
+        }
+        return ids;
+    }
+
+    private static List<Long> query(SqlStatement statement) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(statement.sql())) {
+            statement.bind(ps);
+            List<Long> ids = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static long count(SqlStatement statement) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(statement.sql())) {
+            statement.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.chadtalty.commons.data.query.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Differential test of {@link CriteriaValidator} against Hibernate Validator on random criteria graphs. */
+class CriteriaValidatorTest {
+
+    private static final String[] NAMES = {null, "", " ", "a", "a.b_c", "A9", "a-b", "é", "x y", "ok\t"};
+
+    private static ValidatorFactory factory;
+    private static Validator hibernate;
+
+    private final Random random = new Random(7);
+
+    @BeforeAll
+    static void startHibernate() {
+        factory = Validation.buildDefaultValidatorFactory();
+        hibernate = factory.getValidator();
+    }
+
+    @AfterAll
+    static void stopHibernate() {
+        factory.close();
+    }
+
+    @Test
+    void agreesWithHibernateValidatorOnRandomGraphs() {
+        int valid = 0;
+        for (int i = 0; i < 20_000; i++) {
+            Criteria criteria = criteria();
+            Set<String> expected = new HashSet<>();
+            for (ConstraintViolation<Criteria> v : hibernate.validate(criteria)) {
+                expected.add(v.getPropertyPath() + ": " + v.getMessage());
+            }
+            Violation actual = CriteriaValidator.firstViolation(criteria);
+            if (actual == null) {
+                assertTrue(expected.isEmpty(), () -> criteria + " valid, Hibernate Validator reports " + expected);
+                valid++;
+            } else {
+                assertTrue(
+                        expected.contains(actual.toString()), () -> criteria + ": " + actual + " not in " + expected);
+            }
+        }
+        // the generator must exercise both outcomes
+        assertTrue(valid > 1_000, "valid graphs: " + valid);
+        assertTrue(valid < 19_000, "valid graphs: " + valid);
+    }
+
+    @Test
+    void validateThrowsFirstViolation() {
+        Criteria criteria = new Criteria();
+        criteria.setFilters(List.of(new BasicFilter("a-b", BasicFilter.Operator.EQUAL, "x")));
+
+        CriteriaValidationException e =
+                assertThrows(CriteriaValidationException.class, () -> CriteriaValidator.validate(criteria));
+        assertEquals("filters[0].field", e.getViolation().path());
+        assertEquals(CriteriaValidator.FIELD_PATTERN_MESSAGE, e.getViolation().message());
+    }
+
+    @Test
+    void validGraphHasNoViolation() {
+        PageableCriteria criteria = new PageableCriteria(0, 50, null);
+        criteria.setFilters(List.of(new ContainsFilter("status", List.of("OPEN", "HELD"))));
+        criteria.setSort(new SortSpec(List.of("created"), List.of("id")));
+
+        assertNull(CriteriaValidator.firstViolation(criteria));
+    }
+
+    @Test
+    void disjointHashesLargeSortLists() {
+        List<String> ascending = new ArrayList<>();
+        List<String> descending = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ascending.add("a" + i);
+            descending.add("d" + i);
+        }
+        assertTrue(SortSpec.disjoint(ascending, descending));
+
+        descending.set(19, "a3");
+        assertFalse(SortSpec.disjoint(ascending, descending));
+        assertFalse(SortSpec.disjoint(List.of("x"), List.of("x")));
+        assertTrue(SortSpec.disjoint(null, List.of("x")));
+    }
+
+    private Criteria criteria() {
+        Criteria c;
+        if (random.nextBoolean()) {
+            c = new Criteria();
+        } else {
+            Integer page = random.nextInt(5) == 0 ? null : random.nextInt(3) - 1;
+            Integer size = random.nextInt(5) == 0 ? null : new int[] {0, 1, 50, 500, 501}[random.nextInt(5)];
+            c = new PageableCriteria(page, size, random.nextInt(3) == 0 ? "c" : null);
+        }
+        if (random.nextBoolean()) {
+            List<Filter> filters = new ArrayList<>();
+            for (int i = random.nextInt(3); i > 0; i--) {
+                filters.add(random.nextInt(3) == 0 ? filter() : new BasicFilter("a", BasicFilter.Operator.EQUAL, "v"));
+            }
+            c.setFilters(filters);
+        }
+        if (random.nextInt(3) == 0) {
+            List<JoinSpec> joins = new ArrayList<>();
+            for (int i = random.nextInt(3); i > 0; i--) {
+                joins.add(random.nextInt(6) == 0
+                        ? null
+                        : new JoinSpec(random.nextInt(3) == 0 ? name() : "j", random.nextBoolean() ? filter() : null));
+            }
+            c.setJoins(joins);
+        }
+        if (random.nextBoolean()) c.setSort(new SortSpec(sortFields(), sortFields()));
+        return c;
+    }
+
+    private Filter filter() {
+        switch (random.nextInt(5)) {
+            case 0:
+                return new BasicFilter(name(), random.nextInt(5) == 0 ? null : BasicFilter.Operator.EQUAL, name());
+            case 1:
+                DateTimeFilter.Operator op = random.nextInt(5) == 0 ? null : DateTimeFilter.Operator.AFTER;
+                return new DateTimeFilter(name(), op, instant());
+            case 2:
+                return new BetweenFilter(name(), instant(), instant());
+            case 3:
+                List<String> values = random.nextInt(4) == 0 ? null : random.nextInt(3) == 0 ? List.of() : List.of("1");
+                return new ContainsFilter(name(), values);
+            default:
+                return null;
+        }
+    }
+
+    private List<String> sortFields() {
+        if (random.nextInt(4) == 0) return null;
+        List<String> fields = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            fields.add(random.nextInt(3) == 0 ? name() : "f" + random.nextInt(4));
+        }
+        return fields;
+    }
+
+    private String name() {
+        return NAMES[random.nextInt(NAMES.length)];
+    }
+
+    private Instant instant() {
+        return random.nextInt(6) == 0 ? null : Instant.ofEpochSecond(random.nextInt(4));
+    }
+}
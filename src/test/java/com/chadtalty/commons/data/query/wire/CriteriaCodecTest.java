@@ -0,0 +1,201 @@
+package com.chadtalty.commons.data.query.wire;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chadtalty.commons.data.query.BasicFilter;
+import com.chadtalty.commons.data.query.BetweenFilter;
+import com.chadtalty.commons.data.query.ContainsFilter;
+import com.chadtalty.commons.data.query.Criteria;
+import com.chadtalty.commons.data.query.DateTimeFilter;
+import com.chadtalty.commons.data.query.Filter;
+import com.chadtalty.commons.data.query.JoinSpec;
+import com.chadtalty.commons.data.query.PageableCriteria;
+import com.chadtalty.commons.data.query.SortSpec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round-trip tests: random models, including nulls, empties and sub-millisecond instants, decode equal to the
+ * original, and models read from JSON re-serialize to byte-identical JSON.
+ */
+class CriteriaCodecTest {
+
+    private static final String[] FIELDS = {"amount", "status", "created_at", "customer.name", "région", "x"};
+
+    private final Random random = new Random(7);
+    private final ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Test
+    void modelRoundTrips() {
+        for (int i = 0; i < 20_000; i++) {
+            Criteria criteria = criteria(true);
+            Criteria decoded = CriteriaCodec.decode(CriteriaCodec.encode(criteria));
+            assertEquals(criteria, decoded);
+            assertSame(criteria.getClass(), decoded.getClass());
+        }
+    }
+
+    @Test
+    void jsonRoundTripsByteForByte() throws Exception {
+        for (int i = 0; i < 20_000; i++) {
+            Criteria generated = criteria(false);
+            String json = mapper.writeValueAsString(generated);
+            Criteria read = mapper.readValue(json, generated.getClass());
+            Criteria decoded = CriteriaCodec.decode(CriteriaCodec.encode(read));
+            assertEquals(read, decoded);
+            assertEquals(json, mapper.writeValueAsString(decoded));
+        }
+    }
+
+    @Test
+    void messagesStreamThroughOneBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 22);
+        List<Criteria> written = new ArrayList<>();
+        while (buffer.remaining() > 100_000) {
+            Criteria criteria = criteria(true);
+            CriteriaCodec.encode(criteria, buffer);
+            written.add(criteria);
+        }
+        buffer.flip();
+        for (Criteria criteria : written) {
+            assertEquals(criteria, CriteriaCodec.decode(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void overflowLeavesPositionUnchanged() {
+        PageableCriteria criteria = new PageableCriteria(0, 50, null);
+        criteria.setFilters(List.of(new BasicFilter("amount", BasicFilter.Operator.GREATER_THAN, "250.00")));
+        ByteBuffer small = ByteBuffer.allocate(8);
+        small.put((byte) 9);
+
+        assertThrows(BufferOverflowException.class, () -> CriteriaCodec.encode(criteria, small));
+        assertEquals(1, small.position());
+    }
+
+    @Test
+    void truncatedOrCorruptMessagesFailWithIllegalArgument() {
+        for (int t = 0; t < 200; t++) {
+            byte[] bytes = CriteriaCodec.encode(criteria(true));
+            for (int i = 0; i < bytes.length; i++) {
+                byte[] truncated = Arrays.copyOf(bytes, i);
+                assertThrows(IllegalArgumentException.class, () -> CriteriaCodec.decode(truncated));
+            }
+        }
+        int rejected = 0;
+        for (int t = 0; t < 20_000; t++) {
+            byte[] bytes = CriteriaCodec.encode(criteria(true));
+            bytes[random.nextInt(bytes.length)] ^= (byte) (1 << random.nextInt(8));
+            try {
+                CriteriaCodec.decode(bytes);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 1_000, "rejected: " + rejected);
+    }
+
+    /** {@code full} adds what JSON cannot carry: nulls, empties, negative pages and sub-millisecond instants. */
+    private Criteria criteria(boolean full) {
+        Criteria criteria;
+        if (random.nextBoolean()) {
+            criteria = new PageableCriteria(
+                    full && random.nextInt(10) == 0 ? null : random.nextInt(100) - (full ? 50 : 0),
+                    full && random.nextInt(10) == 0 ? null : random.nextInt(500) + 1,
+                    random.nextInt(4) == 0 ? "cur" + random.nextInt() : null);
+        } else {
+            criteria = new Criteria();
+        }
+        criteria.setFilters(list(full, () -> filter(full), 5));
+        if (random.nextBoolean()) {
+            criteria.setJoins(list(
+                    full, () -> full && random.nextInt(10) == 0 ? null : new JoinSpec(name(full), filter(full)), 3));
+        }
+        if (random.nextBoolean()) {
+            criteria.setSort(new SortSpec(list(full, () -> name(full), 3), list(full, () -> name(full), 3)));
+        }
+        return criteria;
+    }
+
+    private Filter filter(boolean full) {
+        if (full && random.nextInt(20) == 0) return null;
+        switch (random.nextInt(4)) {
+            case 0: {
+                BasicFilter filter = new BasicFilter();
+                filter.setField(name(full));
+                filter.setOperator(full && random.nextInt(10) == 0 ? null : pick(BasicFilter.Operator.values()));
+                filter.setValue(string(full));
+                return filter;
+            }
+            case 1: {
+                DateTimeFilter filter = new DateTimeFilter();
+                filter.setField(name(full));
+                filter.setOperator(full && random.nextInt(10) == 0 ? null : pick(DateTimeFilter.Operator.values()));
+                filter.setValue(instant(full));
+                return filter;
+            }
+            case 2: {
+                BetweenFilter filter = new BetweenFilter();
+                filter.setField(name(full));
+                filter.setStartDateTime(instant(full));
+                filter.setEndDateTime(instant(full));
+                return filter;
+            }
+            default: {
+                ContainsFilter filter = new ContainsFilter();
+                filter.setField(name(full));
+                filter.setValues(list(full, () -> string(full), 6));
+                return filter;
+            }
+        }
+    }
+
+    private String name(boolean full) {
+        return full && random.nextInt(15) == 0 ? null : pick(FIELDS);
+    }
+
+    private String string(boolean full) {
+        if (full && random.nextInt(8) == 0) return random.nextBoolean() ? null : "";
+        return random.nextInt(6) == 0 ? "ü€𝄞" + random.nextInt() : "v" + random.nextInt(1000);
+    }
+
+    private Instant instant(boolean full) {
+        if (full && random.nextInt(10) == 0) return null;
+        if (full && random.nextInt(5) == 0) {
+            if (random.nextBoolean()) return random.nextBoolean() ? Instant.MAX : Instant.MIN;
+            return Instant.ofEpochSecond(random.nextLong() >> 30, random.nextInt(1_000_000_000));
+        }
+        return Instant.ofEpochMilli(random.nextLong() >> 22);
+    }
+
+    private <T> List<T> list(boolean full, Supplier<T> element, int max) {
+        if (full && random.nextInt(10) == 0) return null;
+        int n = random.nextInt(max + 1);
+        if (!full && n == 0) n = 1;
+        List<T> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(element.get());
+        }
+        return list;
+    }
+
+    @SafeVarargs
+    private <E> E pick(E... values) {
+        return values[random.nextInt(values.length)];
+    }
+}